@@ -19,10 +19,29 @@ repositories {
     }
 }
 
+// JMH benchmarks for plugin-side code live in src/jmh/java; core benchmarks are in core/src/jmh/java
+val jmh: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+
+configurations {
+    // Benchmarks need the server API on the runtime classpath (no server is started)
+    named("jmhImplementation") {
+        extendsFrom(configurations.compileOnly.get(), configurations.implementation.get())
+    }
+}
+
 dependencies {
+    // Bundled into the plugin jar by shadowJar
+    implementation(project(":core"))
+
     compileOnly("io.papermc.paper:paper-api:${property("paper_api")}")
     compileOnly("com.github.CodingAir:WarpSystem-API:5.1.6")
     compileOnly("com.github.CodingAir:CodingAPI:1.97")
+
+    "jmhImplementation"("org.openjdk.jmh:jmh-core:${property("jmh_version")}")
+    "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:${property("jmh_version")}")
 }
 
 val targetJavaVersion = 21
@@ -65,4 +84,21 @@ tasks {
     build {
         dependsOn(shadowJar)
     }
+
+    // ./gradlew jmh [-Pjmh.args="SearchBenchmark -p warpCount=50000"]
+    register<JavaExec>("jmh") {
+        group = "benchmark"
+        description = "Runs the plugin JMH benchmarks with the GC (allocation rate) profiler"
+        classpath = jmh.runtimeClasspath
+        mainClass = "org.openjdk.jmh.Main"
+        val resultFile = layout.buildDirectory.file("reports/jmh/results.json")
+        val extraArgs = providers.gradleProperty("jmh.args")
+        argumentProviders.add(CommandLineArgumentProvider {
+            extraArgs.map { it.trim().split(Regex("\\s+")) }.getOrElse(emptyList()) +
+                listOf("-prof", "gc", "-rf", "json", "-rff", resultFile.get().asFile.absolutePath)
+        })
+        doFirst {
+            resultFile.get().asFile.parentFile.mkdirs()
+        }
+    }
 }
@@ -0,0 +1,95 @@
+plugins {
+    `java-library`
+    `java-test-fixtures`
+}
+
+group = "archive.searchwarps"
+version = project.property("plugin_version")!!.toString()
+
+repositories {
+    mavenCentral()
+}
+
+// SIMD text scan kernel on the incubating Vector API. Compiled on its own because --release
+// can't see incubator modules; shipped in the core jar and only loaded when the JVM runs with
+// --add-modules jdk.incubator.vector (otherwise the scalar kernel is used)
+val vector: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+}
+
+// JMH benchmarks live in src/jmh/java and run against the core classes only (no server API)
+val jmh: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output + vector.output
+}
+
+configurations {
+    // SnakeYAML is provided by the server at runtime; benchmarks need it on their own classpath
+    named("jmhImplementation") {
+        extendsFrom(configurations.compileOnly.get())
+    }
+}
+
+dependencies {
+    compileOnly("org.yaml:snakeyaml:${property("snakeyaml_version")}")
+
+    // Synthetic warp data shared by the benchmarks and the load simulator
+    "jmhImplementation"(testFixtures(project))
+    "jmhImplementation"("org.openjdk.jmh:jmh-core:${property("jmh_version")}")
+    "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:${property("jmh_version")}")
+
+    testImplementation(platform("org.junit:junit-bom:${property("junit_version")}"))
+    testImplementation("org.junit.jupiter:junit-jupiter")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+}
+
+val targetJavaVersion = 21
+java {
+    val javaVersion = JavaVersion.toVersion(targetJavaVersion)
+    sourceCompatibility = javaVersion
+    targetCompatibility = javaVersion
+    if (JavaVersion.current() < javaVersion) {
+        toolchain.languageVersion = JavaLanguageVersion.of(targetJavaVersion)
+    }
+}
+
+tasks {
+    withType(JavaCompile::class).configureEach {
+        options.encoding = "UTF-8"
+        options.release.set(targetJavaVersion)
+        options.compilerArgs.add("-Xlint:deprecation")
+    }
+
+    named<JavaCompile>("compileVectorJava") {
+        // -source/-target 21 from the java block instead of --release
+        options.release.set(null as Int?)
+        options.compilerArgs.addAll(listOf("--add-modules", "jdk.incubator.vector"))
+    }
+
+    jar {
+        from(vector.output)
+    }
+
+    test {
+        useJUnitPlatform()
+    }
+
+    // ./gradlew :core:jmh [-Pjmh.args="SearchBenchmark -p warpCount=50000"]
+    register<JavaExec>("jmh") {
+        group = "benchmark"
+        description = "Runs the core JMH benchmarks with the GC (allocation rate) profiler"
+        classpath = jmh.runtimeClasspath
+        mainClass = "org.openjdk.jmh.Main"
+        // Forked benchmark JVMs inherit these; enables the vector scan kernel
+        jvmArgs("--add-modules", "jdk.incubator.vector")
+        val resultFile = layout.buildDirectory.file("reports/jmh/results.json")
+        val extraArgs = providers.gradleProperty("jmh.args")
+        argumentProviders.add(CommandLineArgumentProvider {
+            extraArgs.map { it.trim().split(Regex("\\s+")) }.getOrElse(emptyList()) +
+                listOf("-prof", "gc", "-rf", "json", "-rff", resultFile.get().asFile.absolutePath)
+        })
+        doFirst {
+            resultFile.get().asFile.parentFile.mkdirs()
+        }
+    }
+}
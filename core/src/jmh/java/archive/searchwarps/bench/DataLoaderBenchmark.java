@@ -0,0 +1,89 @@
+package archive.searchwarps.bench;
+
+import archive.searchwarps.data.IconTypeRegistry;
+import archive.searchwarps.data.SnakeYamlSource;
+import archive.searchwarps.data.WarpDataLoader;
+import archive.searchwarps.data.WarpSnapshot;
+import archive.searchwarps.search.SearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Measures parsing ActionIcons.yml with {@link WarpDataLoader} and building the per-load search index.
+ * YAML is read with {@link SnakeYamlSource} and item types are accepted by
+ * {@link IconTypeRegistry#PERMISSIVE}, so no server is involved.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DataLoaderBenchmark {
+
+    @Param({"1000", "10000"})
+    public int warpCount;
+
+    @Param({"3"})
+    public int maxLoreLines;
+
+    @Param({"0.3"})
+    public double skullRatio;
+
+    @Param({"0.1"})
+    public double bannerRatio;
+
+    private Path directory;
+    private WarpDataLoader loader;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        String yaml = new SyntheticWarps(warpCount, 0, maxLoreLines, skullRatio, bannerRatio, 3).actionIconsYaml();
+        directory = Files.createTempDirectory("searchwarps-bench");
+        Files.writeString(directory.resolve("ActionIcons.yml"), yaml, StandardCharsets.UTF_8);
+
+        Logger logger = Logger.getLogger("ArchiveSearchWarps-bench");
+        logger.setLevel(java.util.logging.Level.OFF);
+        loader = new WarpDataLoader(logger, new SnakeYamlSource(), IconTypeRegistry.PERMISSIVE,
+            directory.toString(), "ActionIcons.yml");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public WarpSnapshot parse() {
+        loader.load();
+        return loader.getSnapshot();
+    }
+
+    @Benchmark
+    public SearchIndex parseAndIndex() {
+        loader.load();
+        return SearchIndex.build(loader.getSnapshot());
+    }
+}
@@ -0,0 +1,92 @@
+package archive.searchwarps.bench;
+
+import archive.searchwarps.data.WarpIcon;
+import archive.searchwarps.data.WarpSnapshot;
+import archive.searchwarps.metrics.MetricsRegistry;
+import archive.searchwarps.search.ResultView;
+import archive.searchwarps.sorting.DistanceOrderCache;
+import archive.searchwarps.sorting.DistanceSorter;
+import archive.searchwarps.sorting.WarpPosition;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures distance sorting across list sizes. A HashMap of synthetic positions stands in
+ * for WarpSystem's TeleportService; about 5% of warps have no location.
+ * The shared variant sorts for a player a few blocks from the one who filled the cell's cache entry.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DistanceSortBenchmark {
+
+    @Param({"45", "1000", "10000", "50000"})
+    public int size;
+
+    private List<WarpIcon> icons;
+    private ResultView alphabetical;
+    private ResultView byDistance;
+    private Map<String, WarpPosition> locations;
+    private WarpPosition playerLocation;
+    private WarpPosition nearbyLocation;
+    private DistanceOrderCache distanceOrders;
+
+    @Setup
+    public void setup() {
+        icons = new SyntheticWarps(size, 0, 2, 0.3, 0.1, 7).icons();
+        alphabetical = ResultView.all(new WarpSnapshot(icons, 1));
+
+        Random random = new Random(7);
+        locations = new HashMap<>();
+        for (WarpIcon icon : icons) {
+            if (random.nextDouble() >= 0.05) {
+                locations.put(icon.destinationId(),
+                    new WarpPosition("world", random.nextGaussian() * 20_000, random.nextGaussian() * 20_000));
+            }
+        }
+        playerLocation = new WarpPosition("world", 120, -340);
+        byDistance = DistanceSorter.sortByDistance(alphabetical, playerLocation, locations::get);
+
+        nearbyLocation = new WarpPosition("world", 125, -337);
+        distanceOrders = new DistanceOrderCache(true, 16, 16, 3600, new MetricsRegistry());
+        distanceOrders.sortByDistance(alphabetical, playerLocation, locations::get);
+    }
+
+    @Benchmark
+    public List<DistanceSorter.WarpWithDistance> sortWithDistanceList() {
+        return DistanceSorter.sortWithDistance(icons, playerLocation, locations::get);
+    }
+
+    @Benchmark
+    public ResultView sortByDistanceView() {
+        return DistanceSorter.sortByDistance(alphabetical, playerLocation, locations::get);
+    }
+
+    @Benchmark
+    public ResultView sortByDistanceShared() {
+        return distanceOrders.sortByDistance(alphabetical, nearbyLocation, locations::get);
+    }
+
+    @Benchmark
+    public ResultView sortBackToAlphabetical() {
+        return byDistance.sortedAlphabetically();
+    }
+}
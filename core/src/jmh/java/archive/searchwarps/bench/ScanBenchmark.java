@@ -0,0 +1,77 @@
+package archive.searchwarps.bench;
+
+import archive.searchwarps.data.WarpSnapshot;
+import archive.searchwarps.search.ScanKernel;
+import archive.searchwarps.search.SearchIndex;
+import archive.searchwarps.search.SearchQuery;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Brute-force scanning of the packed text arena with the scalar and the vector kernel,
+ * against the trigram-indexed search, to see how far a linear scan scales before the index pays off.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+@State(Scope.Benchmark)
+public class ScanBenchmark {
+
+    @Param({"1000", "10000", "50000"})
+    public int warpCount;
+
+    @Param({"RARE_WORD", "COMMON_WORD", "TWO_WORDS", "SHORT_PREFIX", "NO_MATCH"})
+    public String queryShape;
+
+    private SearchIndex index;
+    private SearchQuery query;
+    private ScanKernel vector;
+
+    @Setup
+    public void setup() {
+        SyntheticWarps data = new SyntheticWarps(warpCount, 1, 6, 0.3, 0.1, 42);
+        index = SearchIndex.build(new WarpSnapshot(data.icons(), 1));
+
+        query = SearchQuery.parse(switch (queryShape) {
+            case "RARE_WORD" -> data.word(2000);
+            case "COMMON_WORD" -> data.word(3);
+            case "TWO_WORDS" -> data.word(5) + " " + data.word(40);
+            case "SHORT_PREFIX" -> data.word(3).substring(0, 2);
+            case "NO_MATCH" -> "zzqxj";
+            default -> throw new IllegalArgumentException("Unknown query shape: " + queryShape);
+        });
+
+        vector = ScanKernel.vector();
+        if (vector == null) {
+            throw new IllegalStateException("Vector kernel unavailable; run with --add-modules jdk.incubator.vector");
+        }
+    }
+
+    @Benchmark
+    public int[] scalarScan() {
+        return index.scan(query, null, ScanKernel.scalar());
+    }
+
+    @Benchmark
+    public int[] vectorScan() {
+        return index.scan(query, null, vector);
+    }
+
+    @Benchmark
+    public int[] indexedSearch() {
+        return index.search(query, null);
+    }
+}
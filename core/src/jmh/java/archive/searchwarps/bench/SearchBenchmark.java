@@ -0,0 +1,84 @@
+package archive.searchwarps.bench;
+
+import archive.searchwarps.data.WarpIcon;
+import archive.searchwarps.data.WarpSnapshot;
+import archive.searchwarps.search.ResultView;
+import archive.searchwarps.search.WarpSearchEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link WarpSearchEngine} across warp counts and query shapes:
+ * the original linear scan over the icon list, the indexed snapshot search,
+ * and tab-completion lookups. The last two query shapes use the query language
+ * (fields, OR, exclusion, phrase) to show they cost no more than plain words.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SearchBenchmark {
+
+    @Param({"1000", "10000", "50000"})
+    public int warpCount;
+
+    @Param({"COMMON_WORD", "RARE_WORD", "TWO_WORDS", "SHORT_PREFIX", "NO_MATCH", "FIELDS_OR_NOT", "PHRASE"})
+    public String queryShape;
+
+    private List<WarpIcon> icons;
+    private WarpSnapshot snapshot;
+    private WarpSearchEngine engine;
+    private String query;
+    private String completionPrefix;
+
+    @Setup
+    public void setup() {
+        SyntheticWarps data = new SyntheticWarps(warpCount, 1, 6, 0.3, 0.1, 42);
+        icons = data.icons();
+        snapshot = new WarpSnapshot(icons, 1);
+        engine = new WarpSearchEngine();
+        engine.prepare(snapshot);
+
+        query = switch (queryShape) {
+            case "COMMON_WORD" -> data.word(3);
+            case "RARE_WORD" -> data.word(2000);
+            case "TWO_WORDS" -> data.word(5) + " " + data.word(40);
+            case "SHORT_PREFIX" -> data.word(3).substring(0, 2);
+            case "NO_MATCH" -> "zzqxj";
+            case "FIELDS_OR_NOT" -> "name:" + data.word(5) + "|" + data.word(6) + " lore:" + data.word(40)
+                + " -" + data.word(3) + " page:page_1";
+            case "PHRASE" -> '"' + data.word(5) + " " + data.word(40) + '"';
+            default -> throw new IllegalArgumentException("Unknown query shape: " + queryShape);
+        };
+        completionPrefix = query.substring(0, Math.min(3, query.length()));
+    }
+
+    @Benchmark
+    public List<WarpIcon> linearScan() {
+        return engine.search(icons, query);
+    }
+
+    @Benchmark
+    public ResultView indexedSearch() {
+        return engine.search(snapshot, query);
+    }
+
+    @Benchmark
+    public List<String> completion() {
+        return engine.complete(snapshot, completionPrefix, 10);
+    }
+}
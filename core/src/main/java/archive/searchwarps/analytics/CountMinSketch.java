@@ -0,0 +1,86 @@
+package archive.searchwarps.analytics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free count-min sketch: approximate frequencies of strings in fixed memory.
+ * Estimates never undercount; they overcount by at most about {@code 2 * total / width}
+ * with probability {@code 1 - 2^-depth}. Safe to update from any thread.
+ *
+ * Rows are indexed by double hashing of one 64-bit hash of the key's characters, so keys only
+ * share a counter in every row when their 64-bit hashes are equal (not merely their
+ * {@link String#hashCode()}, which collides for keys as short as "Aa" and "BB").
+ */
+final class CountMinSketch {
+
+    private final AtomicLongArray counts;
+    private final int depth;
+    private final int widthMask;
+
+    /**
+     * @param width Counters per row, rounded up to a power of two
+     * @param depth Number of rows (hash functions)
+     */
+    CountMinSketch(int width, int depth) {
+        int size = Integer.highestOneBit(Math.max(2, width - 1)) << 1;
+        this.depth = Math.max(1, depth);
+        this.widthMask = size - 1;
+        this.counts = new AtomicLongArray(size * this.depth);
+    }
+
+    /**
+     * Counts one occurrence and returns the new estimate.
+     */
+    long add(String key) {
+        long hash = hash(key);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counts.incrementAndGet(index(hash, row)));
+        }
+        return estimate;
+    }
+
+    /**
+     * Returns the estimated count of a key.
+     */
+    long estimate(String key) {
+        long hash = hash(key);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counts.get(index(hash, row)));
+        }
+        return estimate;
+    }
+
+    /**
+     * Sets every counter to zero.
+     */
+    void clear() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+    }
+
+    private int index(long hash, int row) {
+        // Double hashing: row i uses h1 + i * h2; an odd h2 gives a distinct slot per row
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        return row * (widthMask + 1) + ((h1 + row * h2) & widthMask);
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-16 chars, spread with the murmur3 finalizer.
+     */
+    private static long hash(String key) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h = (h ^ key.charAt(i)) * 0x100000001B3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
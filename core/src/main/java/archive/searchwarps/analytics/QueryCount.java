@@ -0,0 +1,9 @@
+package archive.searchwarps.analytics;
+
+/**
+ * A normalized query and its (estimated) number of occurrences.
+ *
+ * @param query The normalized query
+ * @param count Estimated count (never lower than the true count)
+ */
+public record QueryCount(String query, long count) {}
@@ -0,0 +1,254 @@
+package archive.searchwarps.analytics;
+
+import archive.searchwarps.search.TextNormalizer;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Aggregated search analytics: the most frequent queries, the most frequent queries that found
+ * nothing, and at which result rank players click. Queries are normalized like the search normalizes
+ * them (case, accents, compatibility forms; see {@link TextNormalizer}) and surrounding and repeated
+ * whitespace is dropped, so variants that find the same warps count as one. Frequencies are tracked in fixed memory
+ * with count-min sketches, so recording is cheap enough to run on every search.
+ * All methods are thread-safe.
+ */
+public class SearchAnalytics {
+    /** Clicks at this rank or deeper are counted together in the last bucket. */
+    public static final int MAX_TRACKED_RANK = 45;
+
+    private static final int SKETCH_WIDTH = 2048;
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final TopQueries queries;
+    private final TopQueries zeroResultQueries;
+    private final AtomicLongArray clickRanks = new AtomicLongArray(MAX_TRACKED_RANK + 1);
+    private final LongAdder searches = new LongAdder();
+    private final LongAdder zeroResultSearches = new LongAdder();
+    private final LongAdder clicks = new LongAdder();
+    private volatile boolean enabled = true;
+
+    /**
+     * @param topK Number of distinct queries tracked exactly, per list
+     */
+    public SearchAnalytics(int topK) {
+        this.queries = new TopQueries(topK, SKETCH_WIDTH);
+        this.zeroResultQueries = new TopQueries(topK, SKETCH_WIDTH);
+    }
+
+    /**
+     * Enables or disables recording. Aggregates collected so far are kept.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Returns whether recording is enabled.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Records one executed search.
+     *
+     * @param query The raw query as typed
+     * @param resultCount Number of matches
+     */
+    public void recordSearch(String query, int resultCount) {
+        if (!enabled) {
+            return;
+        }
+        String normalized = normalize(query);
+        if (normalized.isEmpty()) {
+            return;
+        }
+
+        searches.increment();
+        queries.add(normalized);
+        if (resultCount == 0) {
+            zeroResultSearches.increment();
+            zeroResultQueries.add(normalized);
+        }
+    }
+
+    /**
+     * Records a click on a search result.
+     *
+     * @param rank 0-based position of the clicked result in the result list
+     */
+    public void recordClick(int rank) {
+        if (!enabled || rank < 0) {
+            return;
+        }
+        clicks.increment();
+        clickRanks.incrementAndGet(Math.min(rank, MAX_TRACKED_RANK));
+    }
+
+    /**
+     * Normalizes a query for counting: {@link TextNormalizer#normalize(String)}, trimmed, inner
+     * whitespace collapsed.
+     */
+    public static String normalize(String query) {
+        if (query == null) {
+            return "";
+        }
+        return WHITESPACE.matcher(TextNormalizer.normalize(query).strip()).replaceAll(" ");
+    }
+
+    /**
+     * Returns the most frequent queries, highest first.
+     */
+    public List<QueryCount> topQueries(int limit) {
+        return queries.top(limit);
+    }
+
+    /**
+     * Returns the most frequent queries that found nothing, highest first.
+     */
+    public List<QueryCount> topZeroResultQueries(int limit) {
+        return zeroResultQueries.top(limit);
+    }
+
+    /**
+     * Returns a point-in-time copy of the totals and the click rank distribution.
+     */
+    public Summary summary() {
+        long[] ranks = new long[clickRanks.length()];
+        for (int i = 0; i < ranks.length; i++) {
+            ranks[i] = clickRanks.get(i);
+        }
+        return new Summary(searches.sum(), zeroResultSearches.sum(), clicks.sum(), ranks);
+    }
+
+    /**
+     * Forgets everything recorded so far.
+     */
+    public void reset() {
+        queries.clear();
+        zeroResultQueries.clear();
+        for (int i = 0; i < clickRanks.length(); i++) {
+            clickRanks.set(i, 0);
+        }
+        searches.reset();
+        zeroResultSearches.reset();
+        clicks.reset();
+    }
+
+    /**
+     * Writes the aggregates to a compact tab-separated file. The file is written next to the
+     * target first and then moved into place, so readers never see a half-written file.
+     *
+     * @param file Target file
+     * @param limit Maximum number of queries per list
+     * @throws IOException If the file cannot be written
+     */
+    public void writeTo(Path file, int limit) throws IOException {
+        Summary summary = summary();
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            writer.write("# generated\t" + System.currentTimeMillis() + "\n");
+            writer.write("totals\t" + summary.searches() + "\t" + summary.zeroResultSearches()
+                + "\t" + summary.clicks() + "\n");
+            for (QueryCount entry : topQueries(limit)) {
+                writer.write("query\t" + entry.count() + "\t" + escape(entry.query()) + "\n");
+            }
+            for (QueryCount entry : topZeroResultQueries(limit)) {
+                writer.write("zero\t" + entry.count() + "\t" + escape(entry.query()) + "\n");
+            }
+            long[] ranks = summary.clickRanks();
+            for (int rank = 0; rank < ranks.length; rank++) {
+                if (ranks[rank] > 0) {
+                    writer.write("rank\t" + rank + "\t" + ranks[rank] + "\n");
+                }
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Keeps one entry per line; normalized queries have no newlines, but tabs are collapsed too.
+     */
+    private static String escape(String query) {
+        return query.replace('\t', ' ');
+    }
+
+    /**
+     * Totals and click rank distribution at one point in time.
+     *
+     * @param searches Searches recorded
+     * @param zeroResultSearches Searches that found nothing
+     * @param clicks Result clicks recorded
+     * @param clickRanks Clicks per 0-based rank; the last bucket holds all deeper ranks
+     */
+    public record Summary(long searches, long zeroResultSearches, long clicks, long[] clickRanks) {
+
+        /**
+         * Returns the share of searches that found nothing, between 0 and 1.
+         */
+        public double zeroResultRate() {
+            return searches == 0 ? 0 : (double) zeroResultSearches / searches;
+        }
+
+        /**
+         * Returns the share of clicks that landed in the first {@code n} results, between 0 and 1.
+         */
+        public double clickShareWithin(int n) {
+            if (clicks == 0) {
+                return 0;
+            }
+            long within = 0;
+            for (int rank = 0; rank < Math.min(n, clickRanks.length); rank++) {
+                within += clickRanks[rank];
+            }
+            return (double) within / clicks;
+        }
+
+        /**
+         * Returns the mean clicked rank (1-based), counting the last bucket at its lower bound.
+         */
+        public double meanClickRank() {
+            if (clicks == 0) {
+                return 0;
+            }
+            long weighted = 0;
+            long total = 0;
+            for (int rank = 0; rank < clickRanks.length; rank++) {
+                weighted += clickRanks[rank] * (rank + 1L);
+                total += clickRanks[rank];
+            }
+            return total == 0 ? 0 : (double) weighted / total;
+        }
+
+        /**
+         * Formats the totals as report lines.
+         */
+        public List<String> format() {
+            List<String> lines = new ArrayList<>();
+            lines.add(String.format(Locale.ROOT, "searches=%d zero_results=%d (%.1f%%) clicks=%d",
+                searches, zeroResultSearches, zeroResultRate() * 100, clicks));
+            if (clicks > 0) {
+                lines.add(String.format(Locale.ROOT, "clicks: top1=%.1f%% top5=%.1f%% first_page=%.1f%% mean_rank=%.1f",
+                    clickShareWithin(1) * 100, clickShareWithin(5) * 100,
+                    clickShareWithin(MAX_TRACKED_RANK) * 100, meanClickRank()));
+            }
+            return lines;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package archive.searchwarps.analytics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streaming heavy hitters: a count-min sketch for frequencies plus the K most frequent keys.
+ * Counting is lock-free; the top-K table is only locked when a key's estimate is high enough
+ * to enter it, which after warm-up is rare for the long tail of one-off queries.
+ */
+final class TopQueries {
+    private final CountMinSketch sketch;
+    private final int capacity;
+    private final Map<String, Long> top = new HashMap<>();
+    private volatile long admissionThreshold;  // smallest count in a full table, 0 while not full
+
+    /**
+     * @param capacity Number of keys tracked exactly (K)
+     * @param sketchWidth Counters per sketch row
+     */
+    TopQueries(int capacity, int sketchWidth) {
+        this.capacity = capacity;
+        this.sketch = new CountMinSketch(sketchWidth, 4);
+    }
+
+    /**
+     * Counts one occurrence of a key.
+     */
+    void add(String key) {
+        long estimate = sketch.add(key);
+        if (estimate <= admissionThreshold) {
+            return;
+        }
+
+        synchronized (top) {
+            top.merge(key, estimate, Math::max);  // a racing thread may hold an older estimate
+            if (top.size() > capacity) {
+                String smallest = null;
+                long smallestCount = Long.MAX_VALUE;
+                for (Map.Entry<String, Long> entry : top.entrySet()) {
+                    if (entry.getValue() < smallestCount) {
+                        smallest = entry.getKey();
+                        smallestCount = entry.getValue();
+                    }
+                }
+                top.remove(smallest);
+                admissionThreshold = smallestCount;
+            }
+        }
+    }
+
+    /**
+     * Returns the most frequent keys, highest estimate first.
+     *
+     * @param limit Maximum number of entries
+     */
+    List<QueryCount> top(int limit) {
+        List<QueryCount> entries;
+        synchronized (top) {
+            entries = new ArrayList<>(top.size());
+            top.forEach((key, count) -> entries.add(new QueryCount(key, count)));
+        }
+        entries.sort((a, b) -> Long.compare(b.count(), a.count()));
+        return entries.subList(0, Math.min(limit, entries.size()));
+    }
+
+    /**
+     * Forgets all counts.
+     */
+    void clear() {
+        synchronized (top) {
+            top.clear();
+            sketch.clear();
+            admissionThreshold = 0;
+        }
+    }
+}
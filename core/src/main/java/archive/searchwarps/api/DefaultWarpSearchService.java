@@ -0,0 +1,193 @@
+package archive.searchwarps.api;
+
+import archive.searchwarps.browse.BrowseService;
+import archive.searchwarps.data.WarpSnapshot;
+import archive.searchwarps.facet.Bitmaps;
+import archive.searchwarps.facet.FacetFilter;
+import archive.searchwarps.facet.FacetIndex;
+import archive.searchwarps.facet.FacetType;
+import archive.searchwarps.search.ResultView;
+import archive.searchwarps.sorting.WarpLocator;
+import archive.searchwarps.sorting.WarpPosition;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * {@link WarpSearchService} on top of {@link BrowseService}, so API searches share the GUI's index,
+ * search coalescing and metrics. Handles are read through the snapshot's
+ * per-field accessors, so only the warps on a page are touched (and no icon is decoded).
+ */
+public class DefaultWarpSearchService implements WarpSearchService {
+    private final BrowseService browse;
+    private final Supplier<WarpLocator> locators;
+    private final Executor executor;
+
+    /**
+     * @param browse Search and the current snapshot
+     * @param locators Supplies the current warp locator for {@link #nearest} (null result = unavailable)
+     * @param executor The worker pool every call completes on
+     */
+    public DefaultWarpSearchService(BrowseService browse, Supplier<WarpLocator> locators, Executor executor) {
+        this.browse = browse;
+        this.locators = locators;
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletableFuture<WarpPage> search(String query, int pageSize) {
+        if (!validPageSize(pageSize)) {
+            return invalidPageSize(pageSize);
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            ResultView results = browse.search(query == null ? "" : query);
+            return page(results, 0, results.size(), pageSize);
+        }, executor);
+    }
+
+    @Override
+    public CompletableFuture<WarpPage> nearest(String world, double x, double z, int count) {
+        if (!validPageSize(count)) {
+            return invalidPageSize(count);
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            FacetIndex facets = browse.facets();
+            WarpSnapshot snapshot = facets.snapshot();
+            WarpLocator locator = locators.get();
+            if (locator == null || world == null) {
+                return page(ResultView.ofDistances(snapshot, new int[0], new double[0]), 0, 0, count);
+            }
+
+            // Only warps of the requested world are located, when the world facet knows them
+            int[] ranks = facets.hasValues(FacetType.WORLD)
+                ? Bitmaps.toArray(facets.mask(FacetFilter.NONE.toggle(FacetType.WORLD, world)))
+                : null;
+            int candidates = ranks != null ? ranks.length : snapshot.size();
+
+            // Bounded max-heap of packed (distance, alphabetical rank): the farthest kept warp is on top
+            long[] heap = new long[count];
+            int size = 0;
+            for (int i = 0; i < candidates; i++) {
+                int rank = ranks != null ? ranks[i] : i;
+                double distance = distance(locator, snapshot, snapshot.ordinalAtRank(rank), world, x, z);
+                if (Double.isNaN(distance)) {
+                    continue;
+                }
+                long key = ((long) Float.floatToIntBits((float) distance) << 32) | rank;
+                if (size < count) {
+                    heap[size] = key;
+                    siftUp(heap, size++);
+                } else if (key < heap[0]) {
+                    heap[0] = key;
+                    siftDown(heap, size);
+                }
+            }
+            Arrays.sort(heap, 0, size);
+
+            int[] ordinals = new int[size];
+            double[] distances = new double[size];
+            for (int i = 0; i < size; i++) {
+                ordinals[i] = snapshot.ordinalAtRank((int) heap[i]);
+                distances[i] = distance(locator, snapshot, ordinals[i], world, x, z);
+            }
+            return page(ResultView.ofDistances(snapshot, ordinals, distances), 0, size, count);
+        }, executor);
+    }
+
+    @Override
+    public CompletableFuture<Optional<WarpHandle>> byDestinationId(String destinationId) {
+        return CompletableFuture.supplyAsync(() -> {
+            WarpSnapshot snapshot = browse.snapshot();
+            int ordinal = destinationId == null ? -1 : snapshot.ordinalOf(destinationId);
+            return ordinal < 0 ? Optional.empty() : Optional.of(handle(snapshot, ordinal, Double.NaN));
+        }, executor);
+    }
+
+    @Override
+    public CompletableFuture<WarpPage> next(WarpCursor cursor) {
+        return CompletableFuture.supplyAsync(() -> page(cursor.results, cursor.offset, cursor.end, cursor.pageSize),
+            executor);
+    }
+
+    private static boolean validPageSize(int pageSize) {
+        return pageSize >= 1 && pageSize <= MAX_PAGE_SIZE;
+    }
+
+    private static <T> CompletableFuture<T> invalidPageSize(int pageSize) {
+        return CompletableFuture.failedFuture(new IllegalArgumentException(
+            "pageSize must be between 1 and " + MAX_PAGE_SIZE + ": " + pageSize));
+    }
+
+    /**
+     * Returns a warp's horizontal distance, or NaN if it is in another world or cannot be located.
+     */
+    private static double distance(WarpLocator locator, WarpSnapshot snapshot, int ordinal, String world,
+                                   double x, double z) {
+        WarpPosition position = locator.locate(snapshot.destinationId(ordinal));
+        if (position == null || !world.equals(position.world())) {
+            return Double.NaN;
+        }
+        double dx = position.x() - x;
+        double dz = position.z() - z;
+        return Math.sqrt(dx * dx + dz * dz);
+    }
+
+    private static void siftUp(long[] heap, int index) {
+        long key = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent] >= key) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = key;
+    }
+
+    private static void siftDown(long[] heap, int size) {
+        long key = heap[0];
+        int index = 0;
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && heap[child + 1] > heap[child]) {
+                child++;
+            }
+            if (heap[child] <= key) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = key;
+    }
+
+    /**
+     * Builds the handles for positions [offset, offset + pageSize) of a result that ends at {@code end}.
+     */
+    private static WarpPage page(ResultView results, int offset, int end, int pageSize) {
+        int to = Math.min(end, offset + pageSize);
+        WarpSnapshot snapshot = results.snapshot();
+        List<WarpHandle> warps = new ArrayList<>(Math.max(0, to - offset));
+        for (int position = offset; position < to; position++) {
+            double distance = results.hasDistances() ? results.distanceAt(position) : Double.NaN;
+            warps.add(handle(snapshot, results.ordinalAt(position), distance));
+        }
+        WarpCursor next = to < end ? new WarpCursor(results, to, end, pageSize) : null;
+        return new WarpPage(Collections.unmodifiableList(warps), end, next);
+    }
+
+    private static WarpHandle handle(WarpSnapshot snapshot, int ordinal, double distance) {
+        return new WarpHandle(snapshot.destinationId(ordinal), snapshot.name(ordinal), snapshot.page(ordinal),
+            snapshot.itemType(ordinal), snapshot.performed(ordinal), distance);
+    }
+}
@@ -0,0 +1,23 @@
+package archive.searchwarps.api;
+
+import archive.searchwarps.search.ResultView;
+
+/**
+ * Position in a {@link WarpSearchService} result. Opaque and immutable; pass it to
+ * {@link WarpSearchService#next} to read the page it points to.
+ *
+ * Holds the result itself (warp ordinals of one data snapshot), not a copy of the warps.
+ */
+public final class WarpCursor {
+    final ResultView results;
+    final int offset;
+    final int end;
+    final int pageSize;
+
+    WarpCursor(ResultView results, int offset, int end, int pageSize) {
+        this.results = results;
+        this.offset = offset;
+        this.end = end;
+        this.pageSize = pageSize;
+    }
+}
@@ -0,0 +1,14 @@
+package archive.searchwarps.api;
+
+/**
+ * One warp in a {@link WarpSearchService} result: the fields needed to show it or teleport to it.
+ *
+ * @param destinationId WarpSystem destination ID (pass to WarpSystem to teleport)
+ * @param name Warp name
+ * @param page ActionIcons page the warp is listed on (null if none)
+ * @param itemType Icon material name
+ * @param teleports Teleport count recorded by WarpSystem
+ * @param distance Distance in blocks for {@link WarpSearchService#nearest} results, NaN otherwise
+ */
+public record WarpHandle(String destinationId, String name, String page, String itemType, int teleports,
+                         double distance) {}
@@ -0,0 +1,19 @@
+package archive.searchwarps.api;
+
+import java.util.List;
+
+/**
+ * One page of a {@link WarpSearchService} result.
+ *
+ * @param warps The warps on this page (immutable)
+ * @param total Number of warps in the whole result
+ * @param next Cursor to the following page, or null on the last page
+ */
+public record WarpPage(List<WarpHandle> warps, int total, WarpCursor next) {
+    /**
+     * Returns true if there are more pages.
+     */
+    public boolean hasNext() {
+        return next != null;
+    }
+}
@@ -0,0 +1,63 @@
+package archive.searchwarps.api;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Warp lookup for other plugins, registered with Bukkit's ServicesManager:
+ *
+ * <pre>{@code
+ * WarpSearchService warps = Bukkit.getServicesManager().load(WarpSearchService.class);
+ * warps.search("spawn", 10).thenAccept(page -> ...);
+ * }</pre>
+ *
+ * Every call returns immediately and completes on the plugin's worker threads, never on the
+ * caller's. Results are pages of immutable {@link WarpHandle}s; {@link #next} continues a result
+ * with its cursor, so large results are never copied as a whole. A cursor keeps reading the warp
+ * data it started on, even after a reload. Invalid arguments fail the returned future with an
+ * {@link IllegalArgumentException}; no method throws.
+ */
+public interface WarpSearchService {
+    /**
+     * Largest page size accepted.
+     */
+    int MAX_PAGE_SIZE = 1000;
+
+    /**
+     * Searches warps with the same query syntax as {@code /sw} (an empty query lists every warp).
+     *
+     * @param query The search query
+     * @param pageSize Warps per page (1 to {@link #MAX_PAGE_SIZE})
+     * @return The first page of matches, sorted alphabetically
+     */
+    CompletableFuture<WarpPage> search(String query, int pageSize);
+
+    /**
+     * Lists the warps of a world closest to a position (horizontal distance).
+     * Warps in other worlds or without a known location are left out.
+     *
+     * @param world World name
+     * @param x Block X coordinate
+     * @param z Block Z coordinate
+     * @param count Number of warps wanted (1 to {@link #MAX_PAGE_SIZE})
+     * @return One page with up to {@code count} warps (no cursor), closest first, with
+     *         {@link WarpHandle#distance()} set
+     */
+    CompletableFuture<WarpPage> nearest(String world, double x, double z, int count);
+
+    /**
+     * Looks up a warp by its WarpSystem destination ID.
+     *
+     * @param destinationId The destination ID
+     * @return The warp, or empty if no loaded warp has that ID
+     */
+    CompletableFuture<Optional<WarpHandle>> byDestinationId(String destinationId);
+
+    /**
+     * Returns the page a cursor points to.
+     *
+     * @param cursor From {@link WarpPage#next()}
+     * @return The next page of the same result
+     */
+    CompletableFuture<WarpPage> next(WarpCursor cursor);
+}
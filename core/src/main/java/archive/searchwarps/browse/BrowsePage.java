@@ -0,0 +1,78 @@
+package archive.searchwarps.browse;
+
+import archive.searchwarps.data.WarpIcon;
+import archive.searchwarps.search.ResultView;
+
+/**
+ * One page of a result view, as shown in the 45 warp slots of the browser.
+ * Only describes the window; the view itself is shared and never copied.
+ *
+ * @param results The result view being paged through
+ * @param page The page number (0-based)
+ */
+public record BrowsePage(ResultView results, int page) {
+    /**
+     * Number of warps shown per page (the top five rows of a double chest).
+     */
+    public static final int PAGE_SIZE = 45;
+
+    /**
+     * Returns the view position of the first warp on this page.
+     */
+    public int start() {
+        return page * PAGE_SIZE;
+    }
+
+    /**
+     * Returns the view position after the last warp on this page.
+     */
+    public int end() {
+        return Math.min(start() + PAGE_SIZE, results.size());
+    }
+
+    /**
+     * Calculates the total number of pages.
+     */
+    public int totalPages() {
+        return (results.size() + PAGE_SIZE - 1) / PAGE_SIZE;
+    }
+
+    /**
+     * Checks if there's a next page available.
+     */
+    public boolean hasNext() {
+        return page < totalPages() - 1;
+    }
+
+    /**
+     * Checks if there's a previous page available.
+     */
+    public boolean hasPrev() {
+        return page > 0;
+    }
+
+    /**
+     * Gets the warp in a page slot.
+     *
+     * @param slot Slot on the page (0-44)
+     * @return The warp icon, or null if the slot is outside the page or past the end of the view
+     */
+    public WarpIcon warpAt(int slot) {
+        int ordinal = ordinalAt(slot);
+        return ordinal < 0 ? null : results.snapshot().icon(ordinal);
+    }
+
+    /**
+     * Gets the ordinal of the warp in a page slot.
+     *
+     * @param slot Slot on the page (0-44)
+     * @return The warp ordinal, or -1 if the slot is outside the page or past the end of the view
+     */
+    public int ordinalAt(int slot) {
+        if (slot < 0 || slot >= PAGE_SIZE) {
+            return -1;
+        }
+        int position = start() + slot;
+        return position < results.size() ? results.ordinalAt(position) : -1;
+    }
+}
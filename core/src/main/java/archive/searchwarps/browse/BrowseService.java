@@ -0,0 +1,167 @@
+package archive.searchwarps.browse;
+
+import archive.searchwarps.data.WarpSnapshot;
+import archive.searchwarps.facet.FacetFilter;
+import archive.searchwarps.facet.FacetIndex;
+import archive.searchwarps.facet.Facets;
+import archive.searchwarps.metrics.MetricsRegistry;
+import archive.searchwarps.popularity.PopularityTracker;
+import archive.searchwarps.search.ResultView;
+import archive.searchwarps.search.SingleFlight;
+import archive.searchwarps.search.TextNormalizer;
+import archive.searchwarps.search.WarpSearchEngine;
+import archive.searchwarps.sorting.DistanceOrderCache;
+import archive.searchwarps.sorting.PopularitySorter;
+import archive.searchwarps.sorting.WarpLocator;
+import archive.searchwarps.sorting.WarpPosition;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Server-independent browsing operations behind the warp browser GUI.
+ * GuiManager calls these on the player's thread and only adds inventory handling;
+ * the load simulator calls them directly.
+ */
+public class BrowseService {
+    private final Supplier<WarpSnapshot> snapshots;
+    private final WarpSearchEngine searchEngine;
+    private final MetricsRegistry metrics;
+    private final PopularityTracker popularity;
+    private final Facets facets;
+    private final DistanceOrderCache distanceOrders;
+
+    // Identical searches running at the same time (a crowd typing the announced event name) share one result
+    private final SingleFlight<SearchKey, ResultView> searches = new SingleFlight<>();
+
+    /**
+     * @param snapshots Supplies the current warp snapshot (e.g. {@code dataLoader::getSnapshot})
+     * @param searchEngine The search engine
+     * @param metrics Receives search and sort latencies
+     * @param popularity Live teleport counters for the popular sort mode
+     * @param facets Facet indexes for filtered browsing
+     * @param distanceOrders Distance orderings shared by nearby players
+     */
+    public BrowseService(Supplier<WarpSnapshot> snapshots, WarpSearchEngine searchEngine, MetricsRegistry metrics,
+                         PopularityTracker popularity, Facets facets, DistanceOrderCache distanceOrders) {
+        this.snapshots = snapshots;
+        this.searchEngine = searchEngine;
+        this.metrics = metrics;
+        this.popularity = popularity;
+        this.facets = facets;
+        this.distanceOrders = distanceOrders;
+    }
+
+    /**
+     * Returns the current warp snapshot.
+     */
+    public WarpSnapshot snapshot() {
+        return snapshots.get();
+    }
+
+    /**
+     * Returns every warp, sorted alphabetically.
+     * Backed by the snapshot's precomputed alphabetical order (no copy, no sort).
+     */
+    public ResultView browseAll() {
+        return ResultView.all(snapshots.get());
+    }
+
+    /**
+     * Searches all warps.
+     *
+     * @param query The search query
+     * @return Matching warps, sorted alphabetically
+     */
+    public ResultView search(String query) {
+        return search(query, FacetFilter.NONE);
+    }
+
+    /**
+     * Searches the warps matching a facet filter. An empty query lists every matching warp.
+     * Concurrent calls with the same normalized query, filter and snapshot run one search and
+     * return the same view; this waits for such a search, so callers on a server thread use
+     * {@link #searchAsync} instead.
+     *
+     * @param query The search query (may be empty)
+     * @param filter The facet selection
+     * @return Matching warps, sorted alphabetically
+     */
+    public ResultView search(String query, FacetFilter filter) {
+        long start = System.nanoTime();
+        WarpSnapshot snapshot = snapshots.get();
+        ResultView results = searches.execute(searchKey(snapshot, query, filter),
+            () -> runSearch(snapshot, query, filter), () -> metrics.increment(MetricsRegistry.SEARCH_COALESCED));
+        metrics.recordSince(MetricsRegistry.SEARCH, start);
+        return results;
+    }
+
+    /**
+     * Like {@link #search(String, FacetFilter)}, but never waits: if the same search is already
+     * running on another thread, the returned future completes on that thread when it finishes.
+     * Otherwise the search runs on the calling thread and the future is already complete.
+     *
+     * @param query The search query (may be empty)
+     * @param filter The facet selection
+     * @return Matching warps, sorted alphabetically
+     */
+    public CompletableFuture<ResultView> searchAsync(String query, FacetFilter filter) {
+        long start = System.nanoTime();
+        WarpSnapshot snapshot = snapshots.get();
+        CompletableFuture<ResultView> results = searches.submit(searchKey(snapshot, query, filter),
+            () -> runSearch(snapshot, query, filter), () -> metrics.increment(MetricsRegistry.SEARCH_COALESCED));
+        // A shared search is timed until it finishes, like a blocking one
+        results.whenComplete((view, ex) -> metrics.recordSince(MetricsRegistry.SEARCH, start));
+        return results;
+    }
+
+    private static SearchKey searchKey(WarpSnapshot snapshot, String query, FacetFilter filter) {
+        return new SearchKey(snapshot.generation(), TextNormalizer.normalize(query).strip(), filter);
+    }
+
+    private ResultView runSearch(WarpSnapshot snapshot, String query, FacetFilter filter) {
+        long[] mask = filter.isEmpty() ? null : facets.indexFor(snapshot).mask(filter);
+        return searchEngine.search(snapshot, query, mask);
+    }
+
+    /**
+     * Returns the facet index of the current snapshot (values, counts and bitmaps).
+     */
+    public FacetIndex facets() {
+        return facets.indexFor(snapshots.get());
+    }
+
+    /**
+     * Switches a view to the next sort mode: alphabetical, distance, popular, and back.
+     * Sorts into a new view; the given one stays untouched for anyone else sharing it.
+     *
+     * @param current The view currently displayed
+     * @param playerPosition The player's position for distance calculations (may be null)
+     * @param locator Resolves warp positions (null if unavailable)
+     * @return The re-sorted view
+     */
+    public ResultView toggleSort(ResultView current, WarpPosition playerPosition, WarpLocator locator) {
+        long start = System.nanoTime();
+        ResultView sorted = switch (current.sortMode().next()) {
+            case DISTANCE -> distanceOrders.sortByDistance(current, playerPosition, locator);
+            // Popularity ties fall back to alphabetical order, not to the distance order shown before
+            case POPULAR -> PopularitySorter.sortByPopularity(current.sortedAlphabetically(), popularity);
+            case ALPHABETICAL -> current.sortedAlphabetically();
+        };
+        metrics.recordSince(MetricsRegistry.SORT, start);
+        return sorted;
+    }
+
+    /**
+     * Returns one page of a view.
+     *
+     * @param results The view to page through
+     * @param page The page number (0-based)
+     * @return The page window
+     */
+    public BrowsePage page(ResultView results, int page) {
+        return new BrowsePage(results, page);
+    }
+
+    private record SearchKey(long generation, String query, FacetFilter filter) {}
+}
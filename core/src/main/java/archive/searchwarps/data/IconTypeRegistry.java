@@ -0,0 +1,55 @@
+package archive.searchwarps.data;
+
+import java.util.Locale;
+
+/**
+ * Validates the item-related identifiers found in ActionIcons.yml.
+ * The plugin implements this against the server's material and banner pattern registries;
+ * headless tools can use {@link #PERMISSIVE}.
+ */
+public interface IconTypeRegistry {
+
+    /**
+     * Accepts every identifier, only normalizing case. Used when no server is available.
+     */
+    IconTypeRegistry PERMISSIVE = new IconTypeRegistry() {
+        @Override
+        public String resolveMaterial(String type) {
+            return type.toUpperCase(Locale.ROOT);
+        }
+
+        @Override
+        public String resolveDyeColor(String color) {
+            return color.toUpperCase(Locale.ROOT);
+        }
+
+        @Override
+        public String resolveBannerPattern(String key) {
+            return "minecraft:" + key;
+        }
+    };
+
+    /**
+     * Resolves an item type as written in the file.
+     *
+     * @param type Raw type string (e.g. "ender_pearl" or "minecraft:ender_pearl")
+     * @return Canonical material key, or null if unknown
+     */
+    String resolveMaterial(String type);
+
+    /**
+     * Resolves a dye color name.
+     *
+     * @param color Raw color string (e.g. "red")
+     * @return Canonical dye color name, or null if unknown
+     */
+    String resolveDyeColor(String color);
+
+    /**
+     * Resolves a modern banner pattern key.
+     *
+     * @param key Pattern key without namespace (e.g. "stripe_bottom")
+     * @return Canonical namespaced pattern key, or null if unknown
+     */
+    String resolveBannerPattern(String key);
+}
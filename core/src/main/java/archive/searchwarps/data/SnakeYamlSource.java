@@ -0,0 +1,31 @@
+package archive.searchwarps.data;
+
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+
+/**
+ * {@link YamlSource} backed directly by SnakeYAML, for running the loader without a server
+ * (benchmarks, load simulation). SnakeYAML must be on the runtime classpath.
+ */
+public class SnakeYamlSource implements YamlSource {
+
+    @Override
+    public Object read(File file, String key) throws IOException {
+        LoaderOptions options = new LoaderOptions();
+        options.setCodePointLimit(Integer.MAX_VALUE);
+
+        try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            Object root = new Yaml(options).load(reader);
+            return (root instanceof Map<?, ?> map) ? map.get(key) : null;
+        } catch (RuntimeException e) {
+            throw new IOException("Failed to parse " + file + ": " + e.getMessage(), e);
+        }
+    }
+}
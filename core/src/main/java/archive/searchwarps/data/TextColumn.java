@@ -0,0 +1,88 @@
+package archive.searchwarps.data;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * An off-heap column of strings: UTF-8 bytes of all values back to back in one direct buffer,
+ * plus a direct int buffer of offsets (value {@code i} spans {@code [offsets[i], offsets[i + 1])}).
+ * Null values are kept as empty entries flagged in a small on-heap bitmap.
+ *
+ * Reads use absolute buffer access only, so a built column is safe to share between threads.
+ */
+final class TextColumn {
+    private final ByteBuffer bytes;
+    private final IntBuffer offsets;
+    private final long[] nulls;
+
+    private TextColumn(ByteBuffer bytes, IntBuffer offsets, long[] nulls) {
+        this.bytes = bytes;
+        this.offsets = offsets;
+        this.nulls = nulls;
+    }
+
+    int size() {
+        return offsets.capacity() - 1;
+    }
+
+    /**
+     * Decodes value {@code index} into a new String (or null).
+     */
+    String get(int index) {
+        if ((nulls[index >>> 6] & (1L << index)) != 0) {
+            return null;
+        }
+        int start = offsets.get(index);
+        byte[] value = new byte[offsets.get(index + 1) - start];
+        bytes.get(start, value);
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the off-heap bytes held by this column.
+     */
+    long offHeapBytes() {
+        return bytes.capacity() + 4L * offsets.capacity();
+    }
+
+    /**
+     * Collects values in order, then copies them off-heap in {@link #build()}.
+     */
+    static final class Builder {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private int[] offsets = new int[16];
+        private long[] nulls = new long[1];
+        private int size;
+
+        void add(String value) {
+            if (size + 1 == offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            }
+            if ((size >>> 6) == nulls.length) {
+                nulls = Arrays.copyOf(nulls, nulls.length * 2);
+            }
+            if (value == null) {
+                nulls[size >>> 6] |= 1L << size;
+            } else {
+                bytes.writeBytes(value.getBytes(StandardCharsets.UTF_8));
+            }
+            offsets[++size] = bytes.size();
+        }
+
+        int size() {
+            return size;
+        }
+
+        TextColumn build() {
+            ByteBuffer data = ByteBuffer.allocateDirect(bytes.size());
+            data.put(bytes.toByteArray()).flip();
+            IntBuffer ends = ByteBuffer.allocateDirect(4 * (size + 1)).order(ByteOrder.nativeOrder()).asIntBuffer();
+            ends.put(offsets, 0, size + 1).flip();
+            return new TextColumn(data, ends, Arrays.copyOf(nulls, (size + 64) >>> 6));
+        }
+    }
+}
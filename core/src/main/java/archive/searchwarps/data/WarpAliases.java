@@ -0,0 +1,117 @@
+package archive.searchwarps.data;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Admin-maintained extra search terms, loaded from the aliases file alongside the warps.
+ *
+ * Aliases are additional names for one warp ("nether hub" for "NH Portal"), keyed by the warp's
+ * name or destination ID. Synonym groups are words or phrases that should find each other
+ * ("mall", "shopping"): a warp mentioning one member is also found by the others.
+ * Both are compiled into the search index when it is built, so queries never expand anything.
+ */
+public final class WarpAliases {
+    /**
+     * No aliases and no synonyms.
+     */
+    public static final WarpAliases EMPTY = new WarpAliases(Map.of(), List.of());
+
+    // Lowercase warp name or destination ID -> extra terms
+    private final Map<String, List<String>> aliases;
+    private final List<List<String>> synonyms;
+
+    private WarpAliases(Map<String, List<String>> aliases, List<List<String>> synonyms) {
+        this.aliases = aliases;
+        this.synonyms = synonyms;
+    }
+
+    /**
+     * Returns the aliases of a warp: those listed under its name plus those under its destination ID.
+     */
+    public List<String> aliasesOf(String name, String destinationId) {
+        List<String> byName = name == null ? null : aliases.get(name.toLowerCase(Locale.ROOT));
+        List<String> byId = destinationId == null ? null : aliases.get(destinationId.toLowerCase(Locale.ROOT));
+        if (byName == null || byId == null || byName == byId) {
+            return byName != null ? byName : byId != null ? byId : List.of();
+        }
+        List<String> both = new ArrayList<>(byName);
+        both.addAll(byId);
+        return both;
+    }
+
+    /**
+     * Returns the synonym groups (each with at least two members).
+     */
+    public List<List<String>> synonyms() {
+        return synonyms;
+    }
+
+    /**
+     * Returns true if there is nothing to expand.
+     */
+    public boolean isEmpty() {
+        return aliases.isEmpty() && synonyms.isEmpty();
+    }
+
+    /**
+     * Returns the number of warps with aliases and the number of synonym groups, for logging.
+     */
+    public String summary() {
+        return aliases.size() + " alias entries, " + synonyms.size() + " synonym groups";
+    }
+
+    /**
+     * Collects entries read from the aliases file.
+     */
+    public static final class Builder {
+        private final Map<String, List<String>> aliases = new HashMap<>();
+        private final List<List<String>> synonyms = new ArrayList<>();
+
+        /**
+         * Adds aliases for the warp with the given name or destination ID (case-insensitive).
+         */
+        public Builder alias(String warp, List<String> terms) {
+            List<String> cleaned = clean(terms);
+            if (warp != null && !warp.isBlank() && !cleaned.isEmpty()) {
+                aliases.computeIfAbsent(warp.strip().toLowerCase(Locale.ROOT), k -> new ArrayList<>()).addAll(cleaned);
+            }
+            return this;
+        }
+
+        /**
+         * Adds a group of interchangeable words or phrases; groups with fewer than two members are ignored.
+         */
+        public Builder synonyms(List<String> group) {
+            List<String> cleaned = clean(group);
+            if (cleaned.size() >= 2) {
+                synonyms.add(cleaned);
+            }
+            return this;
+        }
+
+        private static List<String> clean(List<String> terms) {
+            List<String> cleaned = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                if (term != null && !term.isBlank()) {
+                    cleaned.add(term.strip());
+                }
+            }
+            return cleaned;
+        }
+
+        public WarpAliases build() {
+            if (aliases.isEmpty() && synonyms.isEmpty()) {
+                return EMPTY;
+            }
+            Map<String, List<String>> frozen = new HashMap<>(aliases.size() * 2);
+            aliases.forEach((warp, terms) -> frozen.put(warp, List.copyOf(terms)));
+            List<List<String>> groups = new ArrayList<>(synonyms.size());
+            synonyms.forEach(group -> groups.add(List.copyOf(group)));
+            return new WarpAliases(Map.copyOf(frozen), List.copyOf(groups));
+        }
+    }
+}
@@ -0,0 +1,395 @@
+package archive.searchwarps.data;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Loads and parses ActionIcons.yml from WarpSystem plugin.
+ * Provides thread-safe access to warp icon data.
+ *
+ * Has no server dependency: YAML reading and item type validation are supplied through
+ * {@link YamlSource} and {@link IconTypeRegistry}.
+ */
+public class WarpDataLoader {
+    private static final String DEFAULT_ITEM_TYPE = "ENDER_PEARL";
+
+    private final Logger logger;
+    private final YamlSource yamlSource;
+    private final IconTypeRegistry iconTypes;
+    private final String warpsystemDataFolder;
+    private final String actionIconsFile;
+
+    // Replaced atomically on every (re)load; readers never need a lock or a copy
+    private volatile WarpSnapshot snapshot = WarpSnapshot.EMPTY;
+    private final AtomicLong generation = new AtomicLong();
+
+    // Keep loaded icons in off-heap columns instead of heap objects (takes effect on the next load)
+    private volatile boolean offHeap;
+
+    // Admin-maintained aliases and synonyms, re-read on every load (null = none)
+    private volatile File aliasesFile;
+
+    // Mapping from legacy pattern identifiers to modern NamespacedKey values
+    private static final Map<String, String> PATTERN_ID_MAP = createPatternIdMap();
+
+    private static Map<String, String> createPatternIdMap() {
+        Map<String, String> map = new HashMap<>();
+        // Legacy identifier -> Modern namespaced key
+        map.put("b", "base");
+        map.put("bs", "stripe_bottom");
+        map.put("ts", "stripe_top");
+        map.put("ls", "stripe_left");
+        map.put("rs", "stripe_right");
+        map.put("cs", "stripe_center");
+        map.put("ms", "stripe_middle");
+        map.put("drs", "stripe_downright");
+        map.put("dls", "stripe_downleft");
+        map.put("ss", "small_stripes");
+        map.put("cr", "cross");
+        map.put("sc", "square_bottom_left");
+        map.put("ld", "diagonal_left");
+        map.put("rud", "diagonal_up_right");
+        map.put("lud", "diagonal_up_left");
+        map.put("rd", "diagonal_right");
+        map.put("vh", "half_vertical");
+        map.put("vhr", "half_vertical_right");
+        map.put("hh", "half_horizontal");
+        map.put("hhb", "half_horizontal_bottom");
+        map.put("bl", "square_bottom_left");
+        map.put("br", "square_bottom_right");
+        map.put("tl", "square_top_left");
+        map.put("tr", "square_top_right");
+        map.put("bt", "triangle_bottom");
+        map.put("tt", "triangle_top");
+        map.put("bts", "triangles_bottom");
+        map.put("tts", "triangles_top");
+        map.put("mc", "circle");
+        map.put("mr", "rhombus");
+        map.put("bo", "border");
+        map.put("cbo", "curly_border");
+        map.put("bri", "bricks");
+        map.put("gra", "gradient");
+        map.put("gru", "gradient_up");
+        map.put("cre", "creeper");
+        map.put("sku", "skull");
+        map.put("flo", "flower");
+        map.put("moj", "mojang");
+        map.put("glb", "globe");
+        map.put("pig", "piglin");
+        return map;
+    }
+
+    public WarpDataLoader(Logger logger, YamlSource yamlSource, IconTypeRegistry iconTypes,
+                          String warpsystemDataFolder, String actionIconsFile) {
+        this.logger = logger;
+        this.yamlSource = yamlSource;
+        this.iconTypes = iconTypes;
+        this.warpsystemDataFolder = warpsystemDataFolder;
+        this.actionIconsFile = actionIconsFile;
+    }
+
+    /**
+     * Loads warp data from ActionIcons.yml.
+     * Should be called asynchronously to avoid blocking main thread.
+     */
+    public void load() {
+        logger.info("Loading warp data from ActionIcons.yml...");
+
+        File actionIconsPath = new File(warpsystemDataFolder, actionIconsFile);
+
+        if (!actionIconsPath.exists()) {
+            logger.severe("ActionIcons.yml not found at: " + actionIconsPath.getAbsolutePath());
+            logger.severe("Plugin will not function. Check config.yml settings.");
+            return;
+        }
+
+        // Get Icons list from YAML
+        Object iconsObj;
+        try {
+            iconsObj = yamlSource.read(actionIconsPath, "Icons");
+        } catch (IOException e) {
+            logger.severe("Failed to read ActionIcons.yml: " + e.getMessage());
+            return;
+        }
+
+        if (!(iconsObj instanceof List<?> iconsList) || iconsList.isEmpty()) {
+            logger.severe("No 'Icons' list found in ActionIcons.yml!");
+            return;
+        }
+
+        List<WarpIcon> loadedIcons = new ArrayList<>();
+        int skippedCount = 0;
+
+        // Parse each icon entry
+        for (int index = 0; index < iconsList.size(); index++) {
+            Object iconObj = iconsList.get(index);
+
+            // Each icon should be a Map (configuration section)
+            if (!(iconObj instanceof Map<?, ?> iconMap)) {
+                logger.warning("Icon at index " + index + " is not a map, skipping");
+                skippedCount++;
+                continue;
+            }
+
+            try {
+                WarpIcon warpIcon = parseIcon(iconMap);
+                if (warpIcon != null) {
+                    loadedIcons.add(warpIcon);
+                } else {
+                    skippedCount++;
+                }
+            } catch (Exception e) {
+                logger.warning("Failed to parse warp icon at index " + index + ": " + e.getMessage());
+                skippedCount++;
+            }
+        }
+
+        WarpAliases aliases = loadAliases();
+
+        // Thread-safe update (single volatile write publishes the new snapshot)
+        WarpSnapshot loaded = offHeap
+            ? WarpSnapshot.offHeap(loadedIcons, generation.incrementAndGet(), aliases)
+            : new WarpSnapshot(loadedIcons, generation.incrementAndGet(), aliases);
+        this.snapshot = loaded;
+
+        logger.info("Loaded " + loadedIcons.size() + " warps from ActionIcons.yml" +
+                    (skippedCount > 0 ? " (skipped " + skippedCount + " invalid entries)" : "") +
+                    (loaded.isOffHeap() ? " (" + loaded.offHeapBytes() / 1024 + " KiB off-heap)" : ""));
+    }
+
+    /**
+     * Reads the aliases file: an {@code aliases} list of {@code warp}/{@code terms} entries and a
+     * {@code synonyms} list of word lists. A missing file or a bad entry never fails the load.
+     */
+    private WarpAliases loadAliases() {
+        File file = aliasesFile;
+        if (file == null || !file.exists()) {
+            return WarpAliases.EMPTY;
+        }
+
+        WarpAliases.Builder builder = new WarpAliases.Builder();
+        try {
+            if (yamlSource.read(file, "aliases") instanceof List<?> entries) {
+                for (Object entry : entries) {
+                    if (entry instanceof Map<?, ?> map && map.get("terms") instanceof List<?> terms) {
+                        builder.alias(string(map.get("warp")), strings(terms));
+                    } else {
+                        logger.warning("Ignoring invalid alias entry in " + file.getName() + ": " + entry);
+                    }
+                }
+            }
+            if (yamlSource.read(file, "synonyms") instanceof List<?> groups) {
+                for (Object group : groups) {
+                    if (group instanceof List<?> words) {
+                        builder.synonyms(strings(words));
+                    } else {
+                        logger.warning("Ignoring invalid synonym group in " + file.getName() + ": " + group);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            logger.warning("Failed to read " + file.getName() + ", searching without aliases: " + e.getMessage());
+            return WarpAliases.EMPTY;
+        }
+
+        WarpAliases aliases = builder.build();
+        if (!aliases.isEmpty()) {
+            logger.info("Loaded " + aliases.summary() + " from " + file.getName());
+        }
+        return aliases;
+    }
+
+    private static List<String> strings(List<?> values) {
+        List<String> strings = new ArrayList<>(values.size());
+        for (Object value : values) {
+            if (value != null) {
+                strings.add(value.toString());
+            }
+        }
+        return strings;
+    }
+
+    /**
+     * Parses a single icon map from YAML.
+     * Returns null if the icon is invalid or missing required fields.
+     */
+    private WarpIcon parseIcon(Map<?, ?> iconMap) {
+        // Extract name (required)
+        String name = string(iconMap.get("name"));
+        if (name == null || name.isEmpty()) {
+            return null;
+        }
+
+        // Extract item section (contains Type, Name, Lore, SkullOwner, Banner, etc.)
+        Map<?, ?> itemSection = iconMap.get("item") instanceof Map<?, ?> map ? map : null;
+
+        // Parse material type from Type field, default to ENDER_PEARL if missing/invalid
+        String itemType = DEFAULT_ITEM_TYPE;
+        if (itemSection != null) {
+            String typeString = string(itemSection.get("Type"));
+            if (typeString != null && !typeString.isEmpty()) {
+                String parsedMaterial = iconTypes.resolveMaterial(typeString);
+                if (parsedMaterial != null) {
+                    itemType = parsedMaterial;
+                } else {
+                    logger.warning("Warp '" + name + "' has invalid material type: " + typeString + ", defaulting to ENDER_PEARL");
+                }
+            }
+        }
+
+        // Extract display name (use icon name if not specified)
+        String displayName = name;
+        List<String> lore = new ArrayList<>();
+
+        if (itemSection != null) {
+            String itemName = string(itemSection.get("Name"));
+            if (itemName != null) {
+                displayName = itemName;
+            }
+
+            // Extract lore (optional - needed for search)
+            if (itemSection.get("Lore") instanceof List<?> loreList) {
+                for (Object line : loreList) {
+                    if (line != null) {
+                        lore.add(line.toString());
+                    }
+                }
+            }
+        }
+
+        // Extract skull owner texture hash (for PLAYER_HEAD items)
+        String skullOwner = null;
+        if (itemSection != null) {
+            skullOwner = string(itemSection.get("SkullOwner"));
+        }
+
+        // Extract banner patterns (for banner items)
+        List<WarpIcon.BannerPatternData> bannerPatterns = null;
+        if (itemSection != null && itemSection.get("Banner") instanceof List<?> bannerList && !bannerList.isEmpty()) {
+            bannerPatterns = new ArrayList<>();
+            for (Object patternObj : bannerList) {
+                if (patternObj instanceof Map<?, ?> patternMap) {
+                    String colorStr = string(patternMap.get("color"));
+                    String patternStr = string(patternMap.get("pattern"));
+
+                    if (colorStr != null && patternStr != null) {
+                        String color = iconTypes.resolveDyeColor(colorStr);
+                        if (color == null) {
+                            logger.warning("Warp '" + name + "' has invalid banner color: " + colorStr);
+                            continue;
+                        }
+
+                        // Convert legacy identifier to modern namespaced key
+                        String modernKey = PATTERN_ID_MAP.get(patternStr.toLowerCase(Locale.ROOT));
+                        String pattern = modernKey != null ? iconTypes.resolveBannerPattern(modernKey) : null;
+
+                        if (pattern != null) {
+                            bannerPatterns.add(new WarpIcon.BannerPatternData(color, pattern));
+                        } else {
+                            logger.warning("Warp '" + name + "' has invalid banner pattern: " + patternStr);
+                        }
+                    }
+                }
+            }
+
+            // If no valid patterns were parsed, set to null
+            if (bannerPatterns.isEmpty()) {
+                bannerPatterns = null;
+            }
+        }
+
+        // Extract destination ID from actions list
+        // Navigate: actions[0] -> value -> destination -> id
+        String destinationId = null;
+        if (iconMap.get("actions") instanceof List<?> actionsList && !actionsList.isEmpty()
+            && actionsList.get(0) instanceof Map<?, ?> actionMap
+            && actionMap.get("value") instanceof Map<?, ?> valueMap
+            && valueMap.get("destination") instanceof Map<?, ?> destMap
+            && destMap.get("id") instanceof String id) {
+            destinationId = id;
+        }
+
+        // All ActionIcons should have destination IDs - if missing, it's a parsing error
+        if (destinationId == null || destinationId.isEmpty()) {
+            logger.warning("Warp '" + name + "' has no destination ID - parsing failed, skipping");
+            return null;
+        }
+
+        // Extract performed count (default 0)
+        int performed = iconMap.get("performed") instanceof Number number ? number.intValue() : 0;
+
+        // Extract page/category (optional)
+        String page = string(iconMap.get("page"));
+        if (page == null) {
+            page = "";
+        }
+
+        return new WarpIcon(name, itemType, displayName, lore, destinationId, performed, page, skullOwner, bannerPatterns);
+    }
+
+    /**
+     * Returns a scalar YAML value as a string, or null if absent or not a scalar.
+     */
+    private static String string(Object value) {
+        if (value instanceof String || value instanceof Number || value instanceof Boolean) {
+            return value.toString();
+        }
+        return null;
+    }
+
+    /**
+     * Sets whether loads keep warp icons off-heap (see {@link WarpSnapshot#offHeap}).
+     * Applies from the next load.
+     */
+    public void setOffHeap(boolean offHeap) {
+        this.offHeap = offHeap;
+    }
+
+    /**
+     * Sets the aliases file read on every load (see {@link WarpAliases}), or null for none.
+     * Applies from the next load.
+     */
+    public void setAliasesFile(File aliasesFile) {
+        this.aliasesFile = aliasesFile;
+    }
+
+    /**
+     * Returns an unmodifiable list of all loaded warp icons.
+     * Thread-safe. The list is shared with the current snapshot and is not copied
+     * (in off-heap mode it is a view that materializes icons on access).
+     */
+    public List<WarpIcon> getWarpIcons() {
+        return snapshot.icons();
+    }
+
+    /**
+     * Returns the current immutable warp snapshot.
+     * Thread-safe.
+     */
+    public WarpSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Reloads warp data from disk.
+     * Should be called asynchronously.
+     */
+    public void reload() {
+        load();
+    }
+
+    /**
+     * Returns the number of loaded warps.
+     * Thread-safe.
+     */
+    public int getWarpCount() {
+        return snapshot.size();
+    }
+}
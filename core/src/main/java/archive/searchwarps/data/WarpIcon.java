@@ -1,19 +1,18 @@
 package archive.searchwarps.data;
 
-import org.bukkit.DyeColor;
-import org.bukkit.Material;
-import org.bukkit.block.banner.PatternType;
-
 import java.util.List;
 
 /**
  * Represents a single warp icon from ActionIcons.yml.
  * Contains all data needed for display and teleportation.
  * Immutable record loaded once at startup and read many times during runtime.
+ *
+ * Server-independent: the item type, banner colors and banner patterns are kept as their
+ * validated string keys (see {@link IconTypeRegistry}) and resolved by the plugin when rendering.
  */
 public record WarpIcon(
     String name,
-    Material itemType,
+    String itemType,
     String displayName,
     List<String> lore,
     String destinationId,
@@ -36,8 +35,11 @@ public record WarpIcon(
 
     /**
      * Represents a single banner pattern layer (color + pattern type).
+     *
+     * @param color Dye color name (e.g. "RED")
+     * @param pattern Namespaced pattern key (e.g. "minecraft:stripe_bottom")
      */
-    public record BannerPatternData(DyeColor color, PatternType pattern) {}
+    public record BannerPatternData(String color, String pattern) {}
 
     @Override
     public String toString() {
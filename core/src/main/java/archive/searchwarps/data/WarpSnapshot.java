@@ -0,0 +1,265 @@
+package archive.searchwarps.data;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Immutable snapshot of all warp icons produced by a single data load.
+ * Icons are addressed by ordinal (their index in the snapshot), which lets result
+ * views and indexes refer to warps with plain int arrays instead of object lists.
+ * A new snapshot (with a new generation number) replaces the old one on every reload.
+ *
+ * A snapshot keeps its icons either on the heap or in an {@link OffHeapWarpStore} (see
+ * {@link #offHeap}). Hot paths read single fields through the flyweight accessors
+ * ({@link #name}, {@link #destinationId}, ...), which work the same in both modes;
+ * {@link #icon} materializes a full icon and is meant for the warps being rendered.
+ */
+public final class WarpSnapshot {
+    /**
+     * Snapshot used before the first load completes.
+     */
+    public static final WarpSnapshot EMPTY = new WarpSnapshot(List.of(), 0);
+
+    // Exactly one of these is set
+    private final List<WarpIcon> icons;
+    private final OffHeapWarpStore store;
+
+    private final int size;
+    private final long generation;
+    private final WarpAliases aliases;
+
+    // Ordinals sorted alphabetically by name, and the inverse (alphabetical rank of each ordinal)
+    private final int[] alphabeticalOrder;
+    private final int[] alphabeticalRank;
+
+    // Destination ID -> ordinal of the first icon with that destination (stable key across reloads).
+    // Open addressing over ordinals (-1 = empty slot), so no destination strings stay on the heap.
+    private final int[] destinationTable;
+    private final int[] destinationHashes;
+
+    /**
+     * Creates a heap snapshot and precomputes its alphabetical ordering.
+     *
+     * @param icons The loaded warp icons, in file order
+     * @param generation Monotonic load counter, used to key caches derived from this snapshot
+     */
+    public WarpSnapshot(List<WarpIcon> icons, long generation) {
+        this(icons, generation, WarpAliases.EMPTY);
+    }
+
+    /**
+     * Creates a heap snapshot with extra search terms loaded alongside the icons.
+     *
+     * @param icons The loaded warp icons, in file order
+     * @param generation Monotonic load counter, used to key caches derived from this snapshot
+     * @param aliases Aliases and synonyms to compile into the search index
+     */
+    public WarpSnapshot(List<WarpIcon> icons, long generation, WarpAliases aliases) {
+        this(List.copyOf(icons), null, generation, aliases);
+    }
+
+    /**
+     * Creates a snapshot that keeps its icons off-heap.
+     * Costs one extra copy at load time; saves most of the heap the icons would use afterwards.
+     *
+     * @param icons The loaded warp icons, in file order (not retained)
+     * @param generation Monotonic load counter, used to key caches derived from this snapshot
+     */
+    public static WarpSnapshot offHeap(List<WarpIcon> icons, long generation) {
+        return offHeap(icons, generation, WarpAliases.EMPTY);
+    }
+
+    /**
+     * Creates an off-heap snapshot with extra search terms loaded alongside the icons.
+     */
+    public static WarpSnapshot offHeap(List<WarpIcon> icons, long generation, WarpAliases aliases) {
+        return new WarpSnapshot(null, new OffHeapWarpStore(icons), generation, aliases);
+    }
+
+    private WarpSnapshot(List<WarpIcon> icons, OffHeapWarpStore store, long generation, WarpAliases aliases) {
+        this.icons = icons;
+        this.store = store;
+        this.size = icons != null ? icons.size() : store.size();
+        this.generation = generation;
+        this.aliases = aliases;
+
+        // Sort ordinals once per load (case-insensitive by name, file order breaks ties)
+        String[] names = new String[size];
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            names[i] = name(i);
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> String.CASE_INSENSITIVE_ORDER.compare(names[a], names[b]));
+
+        this.alphabeticalOrder = new int[size];
+        this.alphabeticalRank = new int[size];
+        for (int rank = 0; rank < size; rank++) {
+            alphabeticalOrder[rank] = order[rank];
+            alphabeticalRank[order[rank]] = rank;
+        }
+
+        int capacity = Integer.highestOneBit(Math.max(1, size) * 2 - 1) * 2;
+        this.destinationTable = new int[capacity];
+        this.destinationHashes = new int[capacity];
+        Arrays.fill(destinationTable, -1);
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            String destinationId = destinationId(ordinal);
+            int hash = hash(destinationId);
+            int slot = probe(destinationId, hash);
+            if (destinationTable[slot] < 0) {
+                destinationTable[slot] = ordinal;
+                destinationHashes[slot] = hash;
+            }
+        }
+    }
+
+    private static int hash(String destinationId) {
+        int hash = destinationId == null ? 0 : destinationId.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Returns the slot holding the destination, or the empty slot where it would go.
+     */
+    private int probe(String destinationId, int hash) {
+        int mask = destinationTable.length - 1;
+        int slot = hash & mask;
+        while (destinationTable[slot] >= 0) {
+            if (destinationHashes[slot] == hash
+                && Objects.equals(destinationId(destinationTable[slot]), destinationId)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Returns the icon with the given ordinal (materialized from the off-heap store if needed).
+     */
+    public WarpIcon icon(int ordinal) {
+        return icons != null ? icons.get(ordinal) : store.icon(ordinal);
+    }
+
+    /**
+     * Returns the name of the icon with the given ordinal.
+     */
+    public String name(int ordinal) {
+        return icons != null ? icons.get(ordinal).name() : store.name(ordinal);
+    }
+
+    /**
+     * Returns the destination ID of the icon with the given ordinal.
+     */
+    public String destinationId(int ordinal) {
+        return icons != null ? icons.get(ordinal).destinationId() : store.destinationId(ordinal);
+    }
+
+    /**
+     * Returns the teleport count of the icon with the given ordinal.
+     */
+    public int performed(int ordinal) {
+        return icons != null ? icons.get(ordinal).performed() : store.performed(ordinal);
+    }
+
+    /**
+     * Returns the page of the icon with the given ordinal, or null.
+     */
+    public String page(int ordinal) {
+        return icons != null ? icons.get(ordinal).page() : store.page(ordinal);
+    }
+
+    /**
+     * Returns the item type of the icon with the given ordinal.
+     */
+    public String itemType(int ordinal) {
+        return icons != null ? icons.get(ordinal).itemType() : store.itemType(ordinal);
+    }
+
+    /**
+     * Returns the ordinal of the (first) icon with the given destination ID.
+     * Destination IDs survive reloads, so they are used to carry per-warp state across snapshots.
+     *
+     * @return The ordinal, or -1 if no icon has that destination
+     */
+    public int ordinalOf(String destinationId) {
+        return destinationTable[probe(destinationId, hash(destinationId))];
+    }
+
+    /**
+     * Returns all icons in file order (unmodifiable, shared - do not copy per call).
+     * For an off-heap snapshot this is a view that materializes each icon on access;
+     * prefer the flyweight accessors when only a field or two is needed.
+     */
+    public List<WarpIcon> icons() {
+        if (icons != null) {
+            return icons;
+        }
+        return new OffHeapIcons();
+    }
+
+    /**
+     * Returns the number of icons in this snapshot.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns whether the icons are kept off-heap.
+     */
+    public boolean isOffHeap() {
+        return store != null;
+    }
+
+    /**
+     * Returns the bytes held in direct buffers (0 for a heap snapshot).
+     */
+    public long offHeapBytes() {
+        return store == null ? 0 : store.offHeapBytes();
+    }
+
+    /**
+     * Returns the load generation of this snapshot.
+     */
+    public long generation() {
+        return generation;
+    }
+
+    /**
+     * Returns the aliases and synonyms loaded with this snapshot.
+     */
+    public WarpAliases aliases() {
+        return aliases;
+    }
+
+    /**
+     * Returns the alphabetical rank (0-based position in A-Z order) of an ordinal.
+     */
+    public int alphabeticalRank(int ordinal) {
+        return alphabeticalRank[ordinal];
+    }
+
+    /**
+     * Returns the ordinal at the given alphabetical rank.
+     */
+    public int ordinalAtRank(int rank) {
+        return alphabeticalOrder[rank];
+    }
+
+    private final class OffHeapIcons extends AbstractList<WarpIcon> implements RandomAccess {
+        @Override
+        public WarpIcon get(int index) {
+            return store.icon(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package archive.searchwarps.data;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Minimal YAML reading abstraction used by {@link WarpDataLoader}.
+ * Keeps the loader independent of any particular YAML library or server API.
+ */
+public interface YamlSource {
+
+    /**
+     * Reads a YAML file and returns the value of one top-level key as plain Java objects:
+     * {@code Map<String, Object>} for sections, {@code List<?>} for lists, and
+     * String/Number/Boolean scalars.
+     *
+     * @param file The YAML file to read
+     * @param key The top-level key
+     * @return The value, or null if the key is absent
+     * @throws IOException If the file cannot be read or parsed
+     */
+    Object read(File file, String key) throws IOException;
+}
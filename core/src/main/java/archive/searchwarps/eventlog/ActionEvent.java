@@ -0,0 +1,91 @@
+package archive.searchwarps.eventlog;
+
+import java.util.UUID;
+
+/**
+ * One structured player action. Created on the hot path, formatted later by the writer.
+ *
+ * @param timeMillis Wall-clock time of the action (epoch milliseconds)
+ * @param type What the player did
+ * @param playerId The player's UUID
+ * @param playerName The player's name
+ * @param subject The query (search), warp name (teleport) or null
+ * @param outcome Sort mode (sort), WarpSystem result code (teleport) or null
+ * @param count Number of results shown, or -1 if not applicable
+ * @param latencyNanos How long the action took, or -1 if not measured
+ */
+public record ActionEvent(
+    long timeMillis,
+    EventType type,
+    UUID playerId,
+    String playerName,
+    String subject,
+    String outcome,
+    int count,
+    long latencyNanos
+) {
+    /**
+     * Formats the event as one JSON object (without a trailing newline).
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder(160);
+        json.append("{\"ts\":").append(timeMillis)
+            .append(",\"type\":\"").append(type.key()).append('"')
+            .append(",\"uuid\":\"").append(playerId).append('"');
+        appendString(json, "player", playerName);
+        appendString(json, "subject", subject);
+        appendString(json, "outcome", outcome);
+        if (count >= 0) {
+            json.append(",\"count\":").append(count);
+        }
+        if (latencyNanos >= 0) {
+            json.append(",\"latency_us\":").append(latencyNanos / 1000);
+        }
+        return json.append('}').toString();
+    }
+
+    /**
+     * Formats the event as a human-readable log line.
+     */
+    public String toLogLine() {
+        StringBuilder line = new StringBuilder(96).append(playerName).append(' ').append(type.key());
+        if (subject != null) {
+            line.append(" \"").append(subject).append('"');
+        }
+        if (outcome != null) {
+            line.append(" -> ").append(outcome);
+        }
+        if (count >= 0) {
+            line.append(" (").append(count).append(" results)");
+        }
+        if (latencyNanos >= 0) {
+            line.append(String.format(" in %.2fms", latencyNanos / 1_000_000.0));
+        }
+        return line.toString();
+    }
+
+    private static void appendString(StringBuilder json, String key, String value) {
+        if (value == null) {
+            return;
+        }
+        json.append(",\"").append(key).append("\":\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        json.append('"');
+    }
+}
@@ -0,0 +1,153 @@
+package archive.searchwarps.eventlog;
+
+import archive.searchwarps.metrics.MetricsRegistry;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.logging.Logger;
+
+/**
+ * Asynchronous structured log of player actions.
+ * {@link #log} is called on the server threads and only samples, allocates one record and
+ * offers it to a lock-free ring buffer; formatting and I/O happen in {@link #drain}, which a
+ * background task calls periodically to write everything buffered in batches.
+ * When the buffer is full, events are dropped and counted rather than blocking the caller.
+ */
+public class EventLog {
+    public static final String DROPPED = "event_log.dropped";
+    public static final String WRITTEN = "event_log.written";
+
+    private static final int BATCH_SIZE = 256;
+
+    private final EventRingBuffer<ActionEvent> buffer;
+    private final MetricsRegistry metrics;
+    private final Logger logger;
+    private final List<ActionEvent> batch = new ArrayList<>(BATCH_SIZE);
+
+    private volatile boolean enabled = true;
+    private volatile double[] sampleRates = filledRates(1.0);
+    private List<EventSink> sinks = List.of();
+
+    /**
+     * @param capacity Number of events that can be buffered between drains
+     * @param metrics Receives dropped/written counters
+     * @param logger Where sink failures are reported
+     */
+    public EventLog(int capacity, MetricsRegistry metrics, Logger logger) {
+        this.buffer = new EventRingBuffer<>(capacity);
+        this.metrics = metrics;
+        this.logger = logger;
+    }
+
+    /**
+     * Applies configuration values. Safe to call on reload.
+     *
+     * @param enabled Whether events are recorded at all
+     * @param rates Fraction of events recorded per type (0 to 1); missing types are recorded fully
+     */
+    public void configure(boolean enabled, Map<EventType, Double> rates) {
+        double[] sampled = filledRates(1.0);
+        rates.forEach((type, rate) -> sampled[type.ordinal()] = Math.max(0, Math.min(1, rate)));
+        this.sampleRates = sampled;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Records an action if it is sampled. Never blocks.
+     *
+     * @param type What the player did
+     * @param playerId The player's UUID
+     * @param playerName The player's name
+     * @param subject The query or warp name, or null
+     * @param outcome Sort mode or result code, or null
+     * @param count Number of results, or -1
+     * @param latencyNanos How long the action took, or -1
+     */
+    public void log(EventType type, UUID playerId, String playerName, String subject, String outcome,
+                    int count, long latencyNanos) {
+        if (!enabled) {
+            return;
+        }
+        double rate = sampleRates[type.ordinal()];
+        if (rate < 1.0 && ThreadLocalRandom.current().nextDouble() >= rate) {
+            return;
+        }
+
+        ActionEvent event = new ActionEvent(System.currentTimeMillis(), type, playerId, playerName,
+            subject, outcome, count, latencyNanos);
+        if (!buffer.offer(event)) {
+            metrics.increment(DROPPED);
+        }
+    }
+
+    /**
+     * Replaces the sinks. Events already buffered are written to the old sinks first.
+     *
+     * @param newSinks The sinks to write to from now on
+     */
+    public synchronized void setSinks(List<EventSink> newSinks) {
+        drain();
+        closeSinks();
+        this.sinks = List.copyOf(newSinks);
+    }
+
+    /**
+     * Writes every buffered event to the sinks in batches. Called by the background writer.
+     *
+     * @return Number of events written
+     */
+    public synchronized int drain() {
+        int total = 0;
+        int drained;
+        do {
+            batch.clear();
+            drained = buffer.drainTo(batch, BATCH_SIZE);
+            if (drained > 0) {
+                for (EventSink sink : sinks) {
+                    try {
+                        sink.write(batch);
+                    } catch (IOException e) {
+                        logger.warning("Failed to write " + drained + " action events: " + e.getMessage());
+                    }
+                }
+                total += drained;
+            }
+        } while (drained == BATCH_SIZE);
+
+        batch.clear();
+        if (total > 0) {
+            metrics.counter(WRITTEN).add(total);
+        }
+        return total;
+    }
+
+    /**
+     * Writes remaining events and closes the sinks.
+     */
+    public synchronized void close() {
+        drain();
+        closeSinks();
+        sinks = List.of();
+    }
+
+    private void closeSinks() {
+        for (EventSink sink : sinks) {
+            try {
+                sink.close();
+            } catch (IOException e) {
+                logger.warning("Failed to close action event sink: " + e.getMessage());
+            }
+        }
+    }
+
+    private static double[] filledRates(double rate) {
+        double[] rates = new double[EventType.values().length];
+        Arrays.fill(rates, rate);
+        return rates;
+    }
+}
@@ -0,0 +1,77 @@
+package archive.searchwarps.eventlog;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free ring buffer with many producers and a single consumer.
+ * Producers claim a sequence number with one CAS and publish into the slot; when the buffer
+ * is full the offer fails instead of blocking, so the server thread never waits on the writer.
+ *
+ * @param <E> Element type
+ */
+final class EventRingBuffer<E> {
+    private final AtomicReferenceArray<E> slots;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();  // next sequence to claim (producers)
+    private volatile long head;                        // next sequence to read (consumer)
+
+    /**
+     * @param capacity Requested capacity, rounded up to a power of two
+     */
+    EventRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Adds an element if there is room.
+     *
+     * @return false if the buffer is full
+     */
+    boolean offer(E element) {
+        long sequence;
+        do {
+            sequence = tail.get();
+            if (sequence - head > mask) {
+                return false;
+            }
+        } while (!tail.compareAndSet(sequence, sequence + 1));
+
+        slots.lazySet((int) sequence & mask, element);
+        return true;
+    }
+
+    /**
+     * Moves up to {@code max} elements into {@code batch}, oldest first. Single consumer only.
+     * Stops early at a slot whose producer has claimed it but not yet published.
+     *
+     * @return Number of elements moved
+     */
+    int drainTo(List<? super E> batch, int max) {
+        long current = head;
+        int drained = 0;
+        while (drained < max) {
+            int index = (int) current & mask;
+            E element = slots.get(index);
+            if (element == null) {
+                break;
+            }
+            slots.lazySet(index, null);
+            batch.add(element);
+            current++;
+            drained++;
+        }
+        head = current;
+        return drained;
+    }
+
+    /**
+     * Returns the capacity.
+     */
+    int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,25 @@
+package archive.searchwarps.eventlog;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Destination for batches of action events. Only ever called by the event log's writer,
+ * never concurrently.
+ */
+public interface EventSink {
+
+    /**
+     * Writes a batch of events.
+     *
+     * @param batch Events in the order they were logged
+     * @throws IOException If writing fails (the batch is dropped)
+     */
+    void write(List<ActionEvent> batch) throws IOException;
+
+    /**
+     * Releases resources. Called once when the sink is replaced or the log is closed.
+     */
+    default void close() throws IOException {
+    }
+}
@@ -0,0 +1,24 @@
+package archive.searchwarps.eventlog;
+
+import java.util.Locale;
+
+/**
+ * Kinds of player actions recorded in the event log.
+ */
+public enum EventType {
+    /** Opened the browser over all warps */
+    BROWSE,
+    /** Searched for warps */
+    SEARCH,
+    /** Toggled the sort mode */
+    SORT,
+    /** Finished a teleport (successfully or not) */
+    TELEPORT;
+
+    /**
+     * Returns the lower-case name used in config keys and log output.
+     */
+    public String key() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
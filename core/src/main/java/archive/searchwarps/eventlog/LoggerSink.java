@@ -0,0 +1,22 @@
+package archive.searchwarps.eventlog;
+
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Echoes events to a java.util.logging logger (the server console) from the writer thread.
+ */
+public class LoggerSink implements EventSink {
+    private final Logger logger;
+
+    public LoggerSink(Logger logger) {
+        this.logger = logger;
+    }
+
+    @Override
+    public void write(List<ActionEvent> batch) {
+        for (ActionEvent event : batch) {
+            logger.info(event.toLogLine());
+        }
+    }
+}
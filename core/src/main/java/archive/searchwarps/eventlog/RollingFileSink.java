@@ -0,0 +1,91 @@
+package archive.searchwarps.eventlog;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Writes events as JSON lines to a file and rolls it over by size.
+ * When the file exceeds the size limit it is renamed to {@code name.1} (older files shift to
+ * {@code name.2}, ...), keeping at most {@code maxFiles} files in total.
+ */
+public class RollingFileSink implements EventSink {
+    private final Path file;
+    private final long maxBytes;
+    private final int maxFiles;
+
+    private BufferedWriter writer;
+    private long size;
+
+    /**
+     * @param file The active log file
+     * @param maxBytes Size after which the file is rolled over
+     * @param maxFiles Total number of files kept, including the active one
+     */
+    public RollingFileSink(Path file, long maxBytes, int maxFiles) {
+        this.file = file;
+        this.maxBytes = maxBytes;
+        this.maxFiles = Math.max(1, maxFiles);
+    }
+
+    @Override
+    public void write(List<ActionEvent> batch) throws IOException {
+        if (writer == null) {
+            open();
+        }
+        for (ActionEvent event : batch) {
+            String line = event.toJson();
+            writer.write(line);
+            writer.newLine();
+            size += line.length() + 1;
+            if (size >= maxBytes) {
+                roll();
+            }
+        }
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+
+    private void open() throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+            StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        size = Files.size(file);
+    }
+
+    private void roll() throws IOException {
+        close();
+        if (maxFiles == 1) {
+            Files.deleteIfExists(file);
+        } else {
+            Files.deleteIfExists(rolled(maxFiles - 1));
+            for (int i = maxFiles - 2; i >= 1; i--) {
+                Path source = rolled(i);
+                if (Files.exists(source)) {
+                    Files.move(source, rolled(i + 1), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            Files.move(file, rolled(1), StandardCopyOption.REPLACE_EXISTING);
+        }
+        open();
+    }
+
+    private Path rolled(int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+}
@@ -0,0 +1,117 @@
+package archive.searchwarps.facet;
+
+import java.util.Arrays;
+
+/**
+ * Operations on plain {@code long[]} bitmaps (bit {@code i} of word {@code i >>> 6}).
+ * Facet bitmaps are indexed by alphabetical rank, so walking set bits yields A-Z order.
+ * Bitmaps of one snapshot all have the same length.
+ */
+public final class Bitmaps {
+    private Bitmaps() {
+    }
+
+    /**
+     * Creates an empty bitmap for {@code size} bits.
+     */
+    public static long[] create(int size) {
+        return new long[(size + 63) >>> 6];
+    }
+
+    /**
+     * Creates a bitmap with bits {@code 0..size-1} set.
+     */
+    public static long[] full(int size) {
+        long[] bitmap = create(size);
+        Arrays.fill(bitmap, -1L);
+        if ((size & 63) != 0) {
+            bitmap[bitmap.length - 1] = (1L << size) - 1;
+        }
+        return bitmap;
+    }
+
+    public static void set(long[] bitmap, int bit) {
+        bitmap[bit >>> 6] |= 1L << bit;
+    }
+
+    public static boolean get(long[] bitmap, int bit) {
+        return (bitmap[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    /**
+     * Returns the number of set bits.
+     */
+    public static int cardinality(long[] bitmap) {
+        int count = 0;
+        for (long word : bitmap) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of bits set in both bitmaps, without allocating.
+     */
+    public static int intersectionCardinality(long[] a, long[] b) {
+        int count = 0;
+        for (int i = 0; i < a.length; i++) {
+            count += Long.bitCount(a[i] & b[i]);
+        }
+        return count;
+    }
+
+    /**
+     * ORs {@code source} into {@code target}.
+     */
+    public static void or(long[] target, long[] source) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] |= source[i];
+        }
+    }
+
+    /**
+     * ANDs {@code source} into {@code target}.
+     */
+    public static void and(long[] target, long[] source) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] &= source[i];
+        }
+    }
+
+    /**
+     * Clears the bits of {@code source} in {@code target}.
+     */
+    public static void andNot(long[] target, long[] source) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] &= ~source[i];
+        }
+    }
+
+    /**
+     * Returns true if no bit is set.
+     */
+    public static boolean isEmpty(long[] bitmap) {
+        for (long word : bitmap) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the set bits in ascending order.
+     */
+    public static int[] toArray(long[] bitmap) {
+        int[] bits = new int[cardinality(bitmap)];
+        int n = 0;
+        for (int i = 0; i < bitmap.length; i++) {
+            long word = bitmap[i];
+            while (word != 0) {
+                bits[n++] = (i << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+        return bits;
+    }
+}
@@ -0,0 +1,83 @@
+package archive.searchwarps.facet;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * An immutable facet selection. Values of one facet are alternatives (OR);
+ * different facets must all match (AND). "Nether or End worlds, made of stone".
+ */
+public final class FacetFilter {
+    /**
+     * The empty selection (matches every warp).
+     */
+    public static final FacetFilter NONE = new FacetFilter(new EnumMap<>(FacetType.class));
+
+    private final Map<FacetType, Set<String>> selected;
+
+    private FacetFilter(Map<FacetType, Set<String>> selected) {
+        this.selected = selected;
+    }
+
+    /**
+     * Returns a filter with a value selected, or deselected if it already was.
+     */
+    public FacetFilter toggle(FacetType type, String value) {
+        Map<FacetType, Set<String>> copy = new EnumMap<>(FacetType.class);
+        copy.putAll(selected);
+        Set<String> values = new TreeSet<>(selected.getOrDefault(type, Set.of()));
+        if (!values.remove(value)) {
+            values.add(value);
+        }
+        if (values.isEmpty()) {
+            copy.remove(type);
+        } else {
+            copy.put(type, Collections.unmodifiableSet(values));
+        }
+        return new FacetFilter(copy);
+    }
+
+    /**
+     * Returns the selected values of a facet (empty if the facet is not filtered).
+     */
+    public Set<String> selected(FacetType type) {
+        return selected.getOrDefault(type, Set.of());
+    }
+
+    public boolean isSelected(FacetType type, String value) {
+        return selected(type).contains(value);
+    }
+
+    /**
+     * Returns the number of selected values across all facets.
+     */
+    public int size() {
+        int size = 0;
+        for (Set<String> values : selected.values()) {
+            size += values.size();
+        }
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return selected.isEmpty();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof FacetFilter filter && selected.equals(filter.selected);
+    }
+
+    @Override
+    public int hashCode() {
+        return selected.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return selected.toString();
+    }
+}
@@ -0,0 +1,160 @@
+package archive.searchwarps.facet;
+
+import archive.searchwarps.data.WarpSnapshot;
+import archive.searchwarps.sorting.WarpLocator;
+import archive.searchwarps.sorting.WarpPosition;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Precomputed facet bitmaps for one {@link WarpSnapshot}.
+ * Every facet value (a page, a material, a world) has a bitmap of the warps carrying it,
+ * indexed by alphabetical rank. A filter is evaluated with word-wise OR/AND over those bitmaps,
+ * facet counts are popcounts, and the matches come out of the final bitmap already in A-Z order.
+ */
+public final class FacetIndex {
+    private static final Comparator<FacetValue> BY_COUNT =
+        Comparator.comparingInt(FacetValue::count).reversed()
+            .thenComparing(FacetValue::value, String.CASE_INSENSITIVE_ORDER);
+
+    private final WarpSnapshot snapshot;
+    private final Map<FacetType, Map<String, long[]>> bitmaps;
+    private final Map<FacetType, List<FacetValue>> values;
+
+    private FacetIndex(WarpSnapshot snapshot, Map<FacetType, Map<String, long[]>> bitmaps) {
+        this.snapshot = snapshot;
+        this.bitmaps = bitmaps;
+        this.values = new EnumMap<>(FacetType.class);
+        bitmaps.forEach((type, byValue) -> {
+            List<FacetValue> list = new ArrayList<>(byValue.size());
+            byValue.forEach((value, bitmap) -> list.add(new FacetValue(type, value, Bitmaps.cardinality(bitmap))));
+            list.sort(BY_COUNT);
+            values.put(type, List.copyOf(list));
+        });
+    }
+
+    /**
+     * Builds the facet bitmaps for a snapshot.
+     * Should be called off the main thread (e.g. right after a data load).
+     *
+     * @param snapshot The snapshot to index
+     * @param locator Resolves warp worlds; null leaves the world facet empty
+     * @return The built index
+     */
+    public static FacetIndex build(WarpSnapshot snapshot, WarpLocator locator) {
+        Map<FacetType, Map<String, long[]>> bitmaps = new EnumMap<>(FacetType.class);
+        for (FacetType type : FacetType.values()) {
+            bitmaps.put(type, new HashMap<>());
+        }
+
+        for (int rank = 0; rank < snapshot.size(); rank++) {
+            int ordinal = snapshot.ordinalAtRank(rank);
+            add(bitmaps.get(FacetType.PAGE), snapshot.page(ordinal), rank, snapshot.size());
+            add(bitmaps.get(FacetType.MATERIAL), snapshot.itemType(ordinal), rank, snapshot.size());
+            if (locator != null) {
+                WarpPosition position = locator.locate(snapshot.destinationId(ordinal));
+                add(bitmaps.get(FacetType.WORLD), position == null ? null : position.world(), rank, snapshot.size());
+            }
+        }
+        return new FacetIndex(snapshot, bitmaps);
+    }
+
+    private static void add(Map<String, long[]> byValue, String value, int rank, int size) {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        Bitmaps.set(byValue.computeIfAbsent(value, v -> Bitmaps.create(size)), rank);
+    }
+
+    /**
+     * Returns the values of a facet with their total counts, most common first.
+     */
+    public List<FacetValue> values(FacetType type) {
+        return values.getOrDefault(type, List.of());
+    }
+
+    /**
+     * Evaluates a filter.
+     *
+     * @param filter The selection
+     * @return Bitmap of matching alphabetical ranks, or null if the filter is empty (everything matches)
+     */
+    public long[] mask(FacetFilter filter) {
+        return maskExcept(filter, null);
+    }
+
+    /**
+     * Evaluates a filter while ignoring the selection of one facet. Used for drill-down counts:
+     * how many warps each value of that facet would show given the other facets' selections.
+     *
+     * @param filter The selection
+     * @param ignored The facet whose selection is ignored (null ignores none)
+     * @return Bitmap of matching alphabetical ranks, or null if nothing constrains the result
+     */
+    public long[] maskExcept(FacetFilter filter, FacetType ignored) {
+        long[] mask = null;
+        for (FacetType type : FacetType.values()) {
+            if (type == ignored || filter.selected(type).isEmpty()) {
+                continue;
+            }
+
+            // Values of one facet are alternatives
+            long[] union = Bitmaps.create(snapshot.size());
+            for (String value : filter.selected(type)) {
+                long[] bitmap = bitmaps.get(type).get(value);
+                if (bitmap != null) {
+                    Bitmaps.or(union, bitmap);
+                }
+            }
+
+            // Facets must all match
+            if (mask == null) {
+                mask = union;
+            } else {
+                Bitmaps.and(mask, union);
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Counts the warps with a facet value within a mask.
+     *
+     * @param mask Bitmap from {@link #mask} or {@link #maskExcept}; null counts all warps
+     */
+    public int count(FacetType type, String value, long[] mask) {
+        long[] bitmap = bitmaps.get(type).get(value);
+        if (bitmap == null) {
+            return 0;
+        }
+        return mask == null ? Bitmaps.cardinality(bitmap) : Bitmaps.intersectionCardinality(bitmap, mask);
+    }
+
+    /**
+     * Returns whether a facet has any values (the world facet is empty without WarpSystem).
+     */
+    public boolean hasValues(FacetType type) {
+        return !values(type).isEmpty();
+    }
+
+    /**
+     * Returns the snapshot this index was built from.
+     */
+    public WarpSnapshot snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * A facet value and the number of warps that carry it.
+     *
+     * @param type The facet
+     * @param value The value (page name, material key, world name)
+     * @param count Number of warps with this value
+     */
+    public record FacetValue(FacetType type, String value, int count) {}
+}
@@ -0,0 +1,30 @@
+package archive.searchwarps.facet;
+
+import java.util.Locale;
+
+/**
+ * Properties warps can be filtered by in the browser.
+ */
+public enum FacetType {
+    /**
+     * The ActionIcons page (category) the warp icon is on.
+     */
+    PAGE,
+
+    /**
+     * The icon's item type.
+     */
+    MATERIAL,
+
+    /**
+     * The world the warp leads to (only known while WarpSystem is loaded).
+     */
+    WORLD;
+
+    /**
+     * Returns the lowercase name used in translation keys.
+     */
+    public String key() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
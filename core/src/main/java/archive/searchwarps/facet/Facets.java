@@ -0,0 +1,52 @@
+package archive.searchwarps.facet;
+
+import archive.searchwarps.data.WarpSnapshot;
+import archive.searchwarps.sorting.WarpLocator;
+
+import java.util.function.Supplier;
+
+/**
+ * Holds the facet index of the current snapshot, building it on first use after a load.
+ */
+public class Facets {
+    private final Supplier<WarpLocator> locators;
+    private volatile FacetIndex index;
+    private final Object indexLock = new Object();
+
+    /**
+     * @param locators Supplies the current warp locator for the world facet (may supply null)
+     */
+    public Facets(Supplier<WarpLocator> locators) {
+        this.locators = locators;
+    }
+
+    /**
+     * Builds the facet index for a freshly loaded snapshot ahead of the first filter.
+     * Should be called asynchronously after every data load.
+     */
+    public void prepare(WarpSnapshot snapshot) {
+        indexFor(snapshot);
+    }
+
+    /**
+     * Returns the index for a snapshot, building it if the cached one belongs to another generation.
+     */
+    public FacetIndex indexFor(WarpSnapshot snapshot) {
+        FacetIndex current = index;
+        if (current != null && current.snapshot() == snapshot) {
+            return current;
+        }
+
+        synchronized (indexLock) {
+            current = index;
+            if (current == null || current.snapshot() != snapshot) {
+                current = FacetIndex.build(snapshot, locators.get());
+                // Never replace a newer index with one for an older snapshot
+                if (index == null || index.snapshot().generation() <= current.snapshot().generation()) {
+                    index = current;
+                }
+            }
+            return current;
+        }
+    }
+}
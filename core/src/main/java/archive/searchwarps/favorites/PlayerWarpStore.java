@@ -0,0 +1,249 @@
+package archive.searchwarps.favorites;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Recent and favorite warps of the players currently online.
+ * Each player's lists are stored in their own append-only journal ({@code <uuid>.log}) of
+ * {@code V|F|U <tab> destinationId} lines, so loading on join reads one small file and saving
+ * only appends the changes. A journal that has grown well past what it describes is rewritten
+ * in compact form when it is loaded.
+ *
+ * <p>{@link #load(UUID)}, {@link #flush()} and {@link #unload(UUID)} return immediately and do their
+ * file I/O on the given executor. The file work of one player runs in submission order, one task
+ * after the other: on a quick relog the join's load waits for the quit's unload (and its final
+ * append) instead of racing it. {@link #get(UUID)} and the PlayerWarps methods are cheap and safe
+ * from any thread.
+ */
+public class PlayerWarpStore {
+    private final Path directory;
+    private final Logger logger;
+    private final Executor executor;
+    private final Map<UUID, PlayerWarps> players = new ConcurrentHashMap<>();
+
+    // Last file task queued per player; the next one starts when it completes
+    private final Map<UUID, CompletableFuture<?>> pending = new ConcurrentHashMap<>();
+    private volatile int recentCapacity;
+    private volatile int favoriteCapacity;
+
+    /**
+     * @param directory Folder holding the per-player journals
+     * @param recentCapacity Number of recently used warps kept per player
+     * @param favoriteCapacity Number of favorite warps kept per player
+     * @param logger Receives I/O warnings
+     * @param executor Runs the file I/O (e.g. the async scheduler)
+     */
+    public PlayerWarpStore(Path directory, int recentCapacity, int favoriteCapacity, Logger logger, Executor executor) {
+        this.directory = directory;
+        this.logger = logger;
+        this.executor = executor;
+        configure(recentCapacity, favoriteCapacity);
+    }
+
+    /**
+     * Updates the list sizes. Applies to players loaded afterwards.
+     */
+    public void configure(int recentCapacity, int favoriteCapacity) {
+        this.recentCapacity = recentCapacity;
+        this.favoriteCapacity = favoriteCapacity;
+    }
+
+    /**
+     * Returns a player's lists if they have been loaded.
+     *
+     * @return The player's lists, or null while not (yet) loaded
+     */
+    public PlayerWarps get(UUID playerId) {
+        return players.get(playerId);
+    }
+
+    /**
+     * Loads a player's lists from their journal (no-op if already loaded), after any file work
+     * still queued for the player. A missing or unreadable journal yields empty lists.
+     *
+     * @return Completes with the player's lists
+     */
+    public CompletableFuture<PlayerWarps> load(UUID playerId) {
+        return enqueue(playerId, () -> loadNow(playerId));
+    }
+
+    private PlayerWarps loadNow(UUID playerId) {
+        PlayerWarps existing = players.get(playerId);
+        if (existing != null) {
+            return existing;
+        }
+
+        int recentCap = recentCapacity;
+        int favoriteCap = favoriteCapacity;
+        List<String> recent = new ArrayList<>();
+        List<String> favorites = new ArrayList<>();
+        Path file = journal(playerId);
+        try {
+            List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            for (String line : lines) {
+                replay(line, recent, favorites, recentCap, favoriteCap);
+            }
+            if (lines.size() > 4 * (recentCap + favoriteCap) + 16) {
+                compact(file, recent, favorites);
+            }
+        } catch (NoSuchFileException e) {
+            // First visit
+        } catch (IOException e) {
+            logger.warning("Failed to read recent warps from " + file + ": " + e.getMessage());
+        }
+
+        PlayerWarps loaded = new PlayerWarps(recentCap, favoriteCap, recent, favorites);
+        existing = players.putIfAbsent(playerId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    /**
+     * Queues an append of every player's pending changes to their journal.
+     *
+     * @return Completes when every player's changes are written
+     */
+    public CompletableFuture<Void> flush() {
+        List<CompletableFuture<?>> flushes = new ArrayList<>();
+        players.forEach((playerId, warps) -> flushes.add(enqueue(playerId, () -> {
+            flush(playerId, warps);
+            return null;
+        })));
+        return CompletableFuture.allOf(flushes.toArray(new CompletableFuture<?>[0]));
+    }
+
+    /**
+     * Queues writing a player's pending changes and forgetting their lists (the player left).
+     *
+     * @return Completes when the changes are written
+     */
+    public CompletableFuture<Void> unload(UUID playerId) {
+        return enqueue(playerId, () -> {
+            PlayerWarps warps = players.remove(playerId);
+            if (warps != null) {
+                flush(playerId, warps);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Waits (briefly) for queued file work, then writes every player's pending changes on this
+     * thread. For shutdown, when the executor may no longer accept tasks.
+     */
+    public void close() {
+        try {
+            CompletableFuture.allOf(pending.values().toArray(new CompletableFuture<?>[0])).get(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            logger.warning("Gave up waiting for queued recent warp files: " + e);
+        }
+        players.forEach(this::flush);
+    }
+
+    /**
+     * Runs file work for a player once everything queued before it for the same player has finished.
+     */
+    private <T> CompletableFuture<T> enqueue(UUID playerId, Supplier<T> work) {
+        CompletableFuture<T> task = new CompletableFuture<>();
+        CompletableFuture<?> previous = pending.put(playerId, task);
+        Runnable run = () -> {
+            try {
+                task.complete(work.get());
+            } catch (RuntimeException e) {
+                logger.warning("Recent warp file task failed for " + playerId + ": " + e);
+                task.completeExceptionally(e);
+            }
+        };
+        Runnable submit = () -> {
+            try {
+                executor.execute(run);
+            } catch (RuntimeException e) {
+                task.completeExceptionally(e); // Executor shut down; later tasks must still run
+            }
+        };
+        if (previous == null) {
+            submit.run();
+        } else {
+            previous.whenComplete((result, ex) -> submit.run());
+        }
+        task.whenComplete((result, ex) -> pending.remove(playerId, task));
+        return task;
+    }
+
+    private void flush(UUID playerId, PlayerWarps warps) {
+        // Drain and append under one lock, so concurrent flushes keep the journal in order
+        synchronized (warps.fileLock) {
+            List<String> lines = warps.drainJournal();
+            if (lines.isEmpty()) {
+                return;
+            }
+            Path file = journal(playerId);
+            try {
+                Files.createDirectories(directory);
+                Files.write(file, lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                logger.warning("Failed to save recent warps to " + file + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private Path journal(UUID playerId) {
+        return directory.resolve(playerId + ".log");
+    }
+
+    /**
+     * Applies one journal line to the lists (oldest first), with the same semantics as the rings.
+     */
+    private static void replay(String line, List<String> recent, List<String> favorites, int recentCap, int favoriteCap) {
+        int tab = line.indexOf('\t');
+        if (tab != 1) {
+            return; // Blank or damaged line (e.g. cut off by a crash)
+        }
+        String destinationId = line.substring(2);
+        switch (line.charAt(0)) {
+            case PlayerWarps.VISIT -> pushBounded(recent, destinationId, recentCap);
+            case PlayerWarps.FAVORITE -> pushBounded(favorites, destinationId, favoriteCap);
+            case PlayerWarps.UNFAVORITE -> favorites.remove(destinationId);
+            default -> { }
+        }
+    }
+
+    private static void pushBounded(List<String> list, String destinationId, int capacity) {
+        list.remove(destinationId);
+        list.add(destinationId);
+        if (list.size() > capacity) {
+            list.remove(0);
+        }
+    }
+
+    /**
+     * Rewrites a journal with just the lines needed to rebuild the current lists.
+     */
+    private void compact(Path file, List<String> recent, List<String> favorites) throws IOException {
+        List<String> lines = new ArrayList<>(recent.size() + favorites.size());
+        for (String id : recent) {
+            lines.add(PlayerWarps.VISIT + "\t" + id);
+        }
+        for (String id : favorites) {
+            lines.add(PlayerWarps.FAVORITE + "\t" + id);
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.write(temp, lines, StandardCharsets.UTF_8);
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
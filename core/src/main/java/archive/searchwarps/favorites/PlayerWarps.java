@@ -0,0 +1,155 @@
+package archive.searchwarps.favorites;
+
+import archive.searchwarps.data.WarpSnapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One player's recently used and favorite warps.
+ * Both lists are ring buffers of ordinals into the snapshot they were last bound to; when a
+ * reload publishes a new snapshot they are re-addressed by destination ID on the next access
+ * (warps that disappeared are dropped). Every change is also queued as a journal line, which
+ * PlayerWarpStore appends to the player's file off the server thread.
+ *
+ * <p>Methods are synchronized: each instance belongs to one player, so the lock is uncontended
+ * apart from the occasional background flush.
+ */
+public final class PlayerWarps {
+    static final char VISIT = 'V';
+    static final char FAVORITE = 'F';
+    static final char UNFAVORITE = 'U';
+
+    private final WarpRing recent;
+    private final WarpRing favorites;
+    private final List<String> journal = new ArrayList<>();
+    final Object fileLock = new Object();
+
+    // Destination IDs read from disk (oldest first), kept until the first non-empty snapshot is bound
+    private List<String> loadedRecent;
+    private List<String> loadedFavorites;
+    private WarpSnapshot snapshot;
+
+    PlayerWarps(int recentCapacity, int favoriteCapacity, List<String> loadedRecent, List<String> loadedFavorites) {
+        this.recent = new WarpRing(recentCapacity);
+        this.favorites = new WarpRing(favoriteCapacity);
+        this.loadedRecent = loadedRecent;
+        this.loadedFavorites = loadedFavorites;
+    }
+
+    /**
+     * Records that the player chose a warp.
+     *
+     * @param current The snapshot the ordinal refers to
+     * @param ordinal The warp ordinal
+     */
+    public synchronized void recordVisit(WarpSnapshot current, int ordinal) {
+        bind(current);
+        recent.push(ordinal);
+        journal.add(VISIT + "\t" + current.destinationId(ordinal));
+    }
+
+    /**
+     * Adds a warp to the favorites, or removes it if it already is one.
+     * A full favorites list drops its oldest entry.
+     *
+     * @param current The snapshot the ordinal refers to
+     * @param ordinal The warp ordinal
+     * @return Whether the warp is a favorite now
+     */
+    public synchronized boolean toggleFavorite(WarpSnapshot current, int ordinal) {
+        bind(current);
+        String destinationId = current.destinationId(ordinal);
+        if (favorites.remove(ordinal)) {
+            journal.add(UNFAVORITE + "\t" + destinationId);
+            return false;
+        }
+        favorites.push(ordinal);
+        journal.add(FAVORITE + "\t" + destinationId);
+        return true;
+    }
+
+    /**
+     * Returns the recently used warps, most recent first.
+     */
+    public synchronized int[] recent(WarpSnapshot current) {
+        bind(current);
+        return recent.toArray();
+    }
+
+    /**
+     * Returns the favorite warps, most recently added first.
+     */
+    public synchronized int[] favorites(WarpSnapshot current) {
+        bind(current);
+        return favorites.toArray();
+    }
+
+    /**
+     * Returns whether a warp is one of the favorites.
+     */
+    public synchronized boolean isFavorite(WarpSnapshot current, int ordinal) {
+        bind(current);
+        return favorites.contains(ordinal);
+    }
+
+    /**
+     * Returns whether there is nothing to show.
+     */
+    public synchronized boolean isEmpty(WarpSnapshot current) {
+        bind(current);
+        return recent.size() == 0 && favorites.size() == 0;
+    }
+
+    /**
+     * Takes the journal lines queued since the last call.
+     */
+    synchronized List<String> drainJournal() {
+        if (journal.isEmpty()) {
+            return List.of();
+        }
+        List<String> lines = new ArrayList<>(journal);
+        journal.clear();
+        return lines;
+    }
+
+    /**
+     * Re-addresses the rings to the given snapshot if it is not the one they refer to.
+     */
+    private void bind(WarpSnapshot current) {
+        if (current == snapshot || current.size() == 0) {
+            return;
+        }
+
+        if (snapshot == null) {
+            // First bind: replay what was loaded from disk, oldest first
+            for (String id : loadedRecent) {
+                pushResolved(recent, current, id);
+            }
+            for (String id : loadedFavorites) {
+                pushResolved(favorites, current, id);
+            }
+            loadedRecent = null;
+            loadedFavorites = null;
+        } else {
+            remap(recent, snapshot, current);
+            remap(favorites, snapshot, current);
+        }
+        snapshot = current;
+    }
+
+    private static void remap(WarpRing ring, WarpSnapshot from, WarpSnapshot to) {
+        int[] entries = ring.toArray();
+        ring.clear();
+        for (int i = entries.length - 1; i >= 0; i--) {
+            pushResolved(ring, to, from.destinationId(entries[i]));
+        }
+    }
+
+    private static void pushResolved(WarpRing ring, WarpSnapshot snapshot, String destinationId) {
+        int ordinal = snapshot.ordinalOf(destinationId);
+        if (ordinal >= 0) {
+            ring.push(ordinal);
+        }
+    }
+}
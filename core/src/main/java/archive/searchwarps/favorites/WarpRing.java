@@ -0,0 +1,93 @@
+package archive.searchwarps.favorites;
+
+/**
+ * Small bounded ring buffer of warp ordinals, most recent first.
+ * Pushing an ordinal that is already present moves it to the front; pushing into a full
+ * ring overwrites the oldest entry. Capacities are a handful of slots, so the linear scans
+ * for duplicates cost less than any hashing would. Not thread-safe (guarded by PlayerWarps).
+ */
+final class WarpRing {
+    private final int[] ordinals;
+    private int head;  // slot of the most recent entry
+    private int size;
+
+    WarpRing(int capacity) {
+        this.ordinals = new int[Math.max(1, capacity)];
+    }
+
+    /**
+     * Adds an ordinal as the most recent entry.
+     */
+    void push(int ordinal) {
+        remove(ordinal);
+        head = (head - 1 + ordinals.length) % ordinals.length;
+        ordinals[head] = ordinal;
+        if (size < ordinals.length) {
+            size++;
+        }
+    }
+
+    /**
+     * Removes an ordinal, keeping the order of the others.
+     *
+     * @return Whether the ordinal was present
+     */
+    boolean remove(int ordinal) {
+        int index = indexOf(ordinal);
+        if (index < 0) {
+            return false;
+        }
+        for (int i = index; i < size - 1; i++) {
+            ordinals[slot(i)] = ordinals[slot(i + 1)];
+        }
+        size--;
+        return true;
+    }
+
+    boolean contains(int ordinal) {
+        return indexOf(ordinal) >= 0;
+    }
+
+    /**
+     * Returns the entry at a position, 0 being the most recent.
+     */
+    int get(int index) {
+        return ordinals[slot(index)];
+    }
+
+    int size() {
+        return size;
+    }
+
+    int capacity() {
+        return ordinals.length;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    /**
+     * Returns the entries, most recent first.
+     */
+    int[] toArray() {
+        int[] copy = new int[size];
+        for (int i = 0; i < size; i++) {
+            copy[i] = get(i);
+        }
+        return copy;
+    }
+
+    private int indexOf(int ordinal) {
+        for (int i = 0; i < size; i++) {
+            if (ordinals[slot(i)] == ordinal) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int slot(int index) {
+        return (head + index) % ordinals.length;
+    }
+}
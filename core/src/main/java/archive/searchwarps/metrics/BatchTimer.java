@@ -0,0 +1,53 @@
+package archive.searchwarps.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Times a group of asynchronous operations as one: from the timer's creation until the last of
+ * them has completed (normally or not). The duration and the group's size are recorded once per
+ * group instead of once per operation.
+ *
+ * Operations are added by one thread at a time (the caller's lock); completion may happen on any thread.
+ */
+public final class BatchTimer {
+    private final MetricsRegistry metrics;
+    private final String histogram;
+    private final String counter;
+    private final long startNanos = System.nanoTime();
+    private final List<CompletableFuture<?>> operations = new ArrayList<>();
+
+    /**
+     * @param metrics Registry to record into
+     * @param histogram Histogram receiving the batch duration
+     * @param counter Counter receiving the number of operations in the batch
+     */
+    public BatchTimer(MetricsRegistry metrics, String histogram, String counter) {
+        this.metrics = metrics;
+        this.histogram = histogram;
+        this.counter = counter;
+    }
+
+    /**
+     * Adds an operation that has not necessarily started yet. Must not be called after {@link #close()}.
+     */
+    public void add(CompletableFuture<?> operation) {
+        operations.add(operation);
+    }
+
+    /**
+     * Stops accepting operations and records the batch once all of them have completed.
+     * An empty batch records nothing.
+     */
+    public void close() {
+        if (operations.isEmpty()) {
+            return;
+        }
+        int size = operations.size();
+        CompletableFuture.allOf(operations.toArray(new CompletableFuture<?>[0])).whenComplete((ignored, ex) -> {
+            metrics.recordSince(histogram, startNanos);
+            metrics.counter(counter).add(size);
+        });
+    }
+}
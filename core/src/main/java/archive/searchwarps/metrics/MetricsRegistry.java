@@ -0,0 +1,98 @@
+package archive.searchwarps.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Named latency histograms and counters for the plugin's hot paths.
+ * Metrics are created on first use; lookups and updates are lock-free and safe from any thread.
+ * Values accumulate from plugin enable until the registry is reset.
+ */
+public class MetricsRegistry {
+    // Latency histograms
+    public static final String SEARCH = "search";
+    public static final String SORT = "sort";
+    public static final String PAGE_BUILD = "page_build";
+    public static final String DATA_LOAD = "data_load";
+    public static final String DATA_RELOAD = "data_reload";
+    public static final String INDEX_BUILD = "index_build";
+    public static final String TELEPORT = "teleport";
+    public static final String TELEPORT_QUEUE_WAIT = "teleport_queue.wait";
+    public static final String TELEPORT_BATCH = "teleport_queue.batch";
+    public static final String PREVIEW_SEARCH = "preview.search";
+
+    // Counters
+    public static final String SKULL_CACHE_HIT = "skull_cache.hit";
+    public static final String SKULL_CACHE_MISS = "skull_cache.miss";
+    public static final String SEARCH_COALESCED = "search.coalesced";
+    public static final String DISTANCE_CACHE_HIT = "distance_cache.hit";
+    public static final String DISTANCE_CACHE_MISS = "distance_cache.miss";
+    public static final String PREWARM_HIT = "prewarm.hit";
+    public static final String PREWARM_MISS = "prewarm.miss";
+    public static final String TELEPORT_QUEUED = "teleport_queue.queued";
+    public static final String TELEPORT_ADMITTED = "teleport_queue.admitted";
+    public static final String TELEPORT_ABANDONED = "teleport_queue.abandoned";
+    public static final String PREVIEW_OVER_BUDGET = "preview.over_budget";
+    /** Prefix for teleport outcome counters, followed by the WarpSystem result code */
+    public static final String TELEPORT_RESULT_PREFIX = "teleport.";
+
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the histogram with the given name, creating it on first use.
+     */
+    public LatencyHistogram histogram(String name) {
+        LatencyHistogram histogram = histograms.get(name);
+        return histogram != null ? histogram : histograms.computeIfAbsent(name, key -> new LatencyHistogram());
+    }
+
+    /**
+     * Returns the counter with the given name, creating it on first use.
+     */
+    public LongAdder counter(String name) {
+        LongAdder counter = counters.get(name);
+        return counter != null ? counter : counters.computeIfAbsent(name, key -> new LongAdder());
+    }
+
+    /**
+     * Increments a counter by one.
+     */
+    public void increment(String name) {
+        counter(name).increment();
+    }
+
+    /**
+     * Records the time elapsed since a {@link System#nanoTime()} reading.
+     *
+     * @param name Histogram name
+     * @param startNanos Start time from System.nanoTime()
+     */
+    public void recordSince(String name, long startNanos) {
+        histogram(name).recordSince(startNanos);
+    }
+
+    /**
+     * Discards all recorded values.
+     */
+    public void reset() {
+        histograms.clear();
+        counters.clear();
+    }
+
+    /**
+     * Formats every metric as one line: histograms first, then counters, each sorted by name.
+     */
+    public List<String> report() {
+        List<String> lines = new ArrayList<>();
+        new TreeMap<>(histograms).forEach((name, histogram) ->
+            lines.add(name + ": " + histogram.snapshot().format()));
+        new TreeMap<>(counters).forEach((name, counter) ->
+            lines.add(name + ": " + counter.sum()));
+        return lines;
+    }
+}
@@ -0,0 +1,323 @@
+package archive.searchwarps.popularity;
+
+import archive.searchwarps.data.WarpSnapshot;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Live, time-decayed teleport counts per warp.
+ * WarpIcon.performed only changes when WarpSystem rewrites ActionIcons.yml and the plugin reloads;
+ * this tracker counts the teleports made through the browser as they happen.
+ *
+ * <p>Counters live in flat arrays indexed by warp ordinal, so recording a teleport is two
+ * lock-free array updates. Decay is exponential with a configurable half-life. Instead of
+ * decaying every counter over time, each teleport adds {@code 2^(age of table / half-life)};
+ * all scores share that growing scale, so they can be compared (and sorted) without being
+ * touched, and are only divided back to "teleports" when displayed or saved.
+ *
+ * <p>Tables are rebuilt (under a lock, off the hot path) when a new snapshot is loaded, when the
+ * half-life changes and when saved data is loaded. Counters are keyed by destination ID across
+ * rebuilds, so they survive reloads; warps missing from the snapshot are kept aside until their
+ * score decays away. A teleport recorded in the instant a rebuild copies the old table may be lost.
+ */
+public class PopularityTracker {
+    private static final String FILE_HEADER = "# ArchiveSearchWarps popularity v1";
+    private static final double FORGET_BELOW = 0.001;
+    // Rescale while raw scores (count * 2^exponent) are far below 2^127, where the float sort keys
+    // of PopularitySorter saturate; a rescale is one table rebuild every few dozen half-lives
+    private static final double MAX_EXPONENT = 64;
+
+    private final LongSupplier clock;
+    private volatile Table table;
+
+    /**
+     * @param halfLifeMillis Time after which a teleport counts half as much
+     */
+    public PopularityTracker(long halfLifeMillis) {
+        this(halfLifeMillis, System::currentTimeMillis);
+    }
+
+    /**
+     * @param halfLifeMillis Time after which a teleport counts half as much
+     * @param clock Wall clock in milliseconds
+     */
+    public PopularityTracker(long halfLifeMillis, LongSupplier clock) {
+        this.clock = clock;
+        this.table = new Table(WarpSnapshot.EMPTY, clock.getAsLong(), halfLifeMillis, Map.of());
+    }
+
+    /**
+     * Records one successful teleport to a warp. Lock-free; safe from any thread.
+     *
+     * @param destinationId The warp's destination ID
+     * @return Whether the warp is known to the current snapshot
+     */
+    public boolean recordTeleport(String destinationId) {
+        Table current = table;
+        Integer ordinal = current.ordinals.get(destinationId);
+        if (ordinal == null) {
+            return false;
+        }
+
+        long now = clock.getAsLong();
+        double exponent = (now - current.epochMillis) / current.halfLifeMillis;
+        if (exponent > MAX_EXPONENT) {
+            rescale();
+            return recordTeleport(destinationId);
+        }
+
+        current.counts.incrementAndGet(ordinal);
+        current.addScore(ordinal, Math.pow(2, exponent));
+        return true;
+    }
+
+    /**
+     * Returns a warp's sort key: larger means more popular. Keys are only comparable with other
+     * keys read from the same tracker without a rebuild in between, which holds within one sort.
+     *
+     * @param snapshot The snapshot the ordinal refers to
+     * @param ordinal The warp ordinal
+     */
+    public double rankingScore(WarpSnapshot snapshot, int ordinal) {
+        Table current = table;
+        if (current.snapshot == snapshot) {
+            return current.score(current.slots[ordinal]);
+        }
+        // View from an older snapshot (built before a reload): match by destination ID
+        Integer mapped = current.ordinals.get(snapshot.destinationId(ordinal));
+        return mapped == null ? 0 : current.score(mapped);
+    }
+
+    /**
+     * Returns a warp's decayed teleport count as of now.
+     *
+     * @param destinationId The warp's destination ID
+     */
+    public double score(String destinationId) {
+        Table current = table;
+        Integer ordinal = current.ordinals.get(destinationId);
+        return ordinal == null ? 0 : current.score(ordinal) * current.decayFactor(clock.getAsLong());
+    }
+
+    /**
+     * Returns the total (undecayed) number of teleports recorded for a warp.
+     *
+     * @param destinationId The warp's destination ID
+     */
+    public long count(String destinationId) {
+        Table current = table;
+        Integer ordinal = current.ordinals.get(destinationId);
+        return ordinal == null ? 0 : current.counts.get(ordinal);
+    }
+
+    /**
+     * Re-addresses the counters to a newly loaded snapshot.
+     *
+     * @param snapshot The snapshot that is now current
+     */
+    public synchronized void rebind(WarpSnapshot snapshot) {
+        Table current = table;
+        table = new Table(snapshot, clock.getAsLong(), current.halfLifeMillis, entries(current));
+    }
+
+    /**
+     * Changes the half-life. Scores collected so far keep their current value and decay at the new rate.
+     *
+     * @param halfLifeMillis Time after which a teleport counts half as much
+     */
+    public synchronized void setHalfLife(long halfLifeMillis) {
+        Table current = table;
+        if (current.halfLifeMillis != halfLifeMillis) {
+            table = new Table(current.snapshot, clock.getAsLong(), halfLifeMillis, entries(current));
+        }
+    }
+
+    /**
+     * Forgets all counters.
+     */
+    public synchronized void reset() {
+        Table current = table;
+        table = new Table(current.snapshot, clock.getAsLong(), current.halfLifeMillis, Map.of());
+    }
+
+    /**
+     * Writes all counters to a tab-separated file: {@code destinationId, total count, decayed score}.
+     * The file is written next to the target first and then moved into place.
+     *
+     * @param file Target file
+     * @throws IOException If the file cannot be written
+     */
+    public synchronized void save(Path file) throws IOException {
+        long now = clock.getAsLong();
+        Map<String, Entry> entries = entries(table);
+
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            writer.write(FILE_HEADER + "\n");
+            writer.write("saved\t" + now + "\n");
+            for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                writer.write(entry.getKey() + "\t" + entry.getValue().count() + "\t" + entry.getValue().score() + "\n");
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        // Saving is periodic, so it doubles as the point where the score scale is reset
+        if ((now - table.epochMillis) / table.halfLifeMillis > MAX_EXPONENT / 2) {
+            rescale();
+        }
+    }
+
+    /**
+     * Loads counters saved by {@link #save(Path)}, decayed by the time since they were saved.
+     * Counters already collected are kept; loaded values are added to them.
+     *
+     * @param file File to read
+     * @return Number of warps loaded (0 if the file does not exist)
+     * @throws IOException If the file cannot be read or is malformed
+     */
+    public synchronized int load(Path file) throws IOException {
+        Map<String, Entry> loaded = new HashMap<>();
+        long savedAt = clock.getAsLong();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split("\t");
+                try {
+                    if (fields.length == 2 && fields[0].equals("saved")) {
+                        savedAt = Long.parseLong(fields[1]);
+                    } else if (fields.length == 3) {
+                        loaded.put(fields[0], new Entry(Long.parseLong(fields[1]), Double.parseDouble(fields[2])));
+                    } else {
+                        throw new IOException("Malformed line " + lineNumber + " in " + file);
+                    }
+                } catch (NumberFormatException e) {
+                    throw new IOException("Malformed number on line " + lineNumber + " in " + file, e);
+                }
+            }
+        } catch (NoSuchFileException e) {
+            return 0;
+        }
+
+        Table current = table;
+        long now = clock.getAsLong();
+        double decay = Math.pow(2, -Math.max(0, now - savedAt) / current.halfLifeMillis);
+        Map<String, Entry> merged = entries(current);
+        loaded.forEach((id, entry) -> merged.merge(id, new Entry(entry.count(), entry.score() * decay),
+            (a, b) -> new Entry(a.count() + b.count(), a.score() + b.score())));
+        table = new Table(current.snapshot, now, current.halfLifeMillis, merged);
+        return loaded.size();
+    }
+
+    /**
+     * Restarts the score scale at the current time.
+     */
+    private synchronized void rescale() {
+        Table current = table;
+        table = new Table(current.snapshot, clock.getAsLong(), current.halfLifeMillis, entries(current));
+    }
+
+    /**
+     * Copies every counter of a table (attached and detached), with scores decayed to now.
+     */
+    private Map<String, Entry> entries(Table source) {
+        double decay = source.decayFactor(clock.getAsLong());
+        Map<String, Entry> entries = new HashMap<>();
+        source.detached.forEach((id, entry) -> entries.put(id, new Entry(entry.count(), entry.score() * decay)));
+        for (int ordinal = 0; ordinal < source.snapshot.size(); ordinal++) {
+            long count = source.counts.get(ordinal);
+            double score = source.score(ordinal) * decay;
+            if (count > 0 || score > 0) {
+                entries.merge(source.snapshot.destinationId(ordinal), new Entry(count, score),
+                    (a, b) -> new Entry(a.count() + b.count(), a.score() + b.score()));
+            }
+        }
+        entries.values().removeIf(entry -> entry.score() < FORGET_BELOW && entry.count() == 0);
+        return entries;
+    }
+
+    /**
+     * A warp's counters: total teleports and decayed score (in teleports at the time of copying).
+     */
+    private record Entry(long count, double score) {}
+
+    /**
+     * Counters addressed by the ordinals of one snapshot. Scores are stored as raw double bits
+     * and scaled by {@code 2^((now - epoch) / halfLife)}.
+     */
+    private static final class Table {
+        final WarpSnapshot snapshot;
+        final long epochMillis;
+        final double halfLifeMillis;
+        final Map<String, Integer> ordinals;
+        final int[] slots;                   // ordinal -> ordinal holding its destination's counters
+        final AtomicLongArray counts;
+        final AtomicLongArray scores;
+        final Map<String, Entry> detached;  // warps missing from the snapshot, scaled to the epoch
+
+        Table(WarpSnapshot snapshot, long epochMillis, double halfLifeMillis, Map<String, Entry> entries) {
+            this.snapshot = snapshot;
+            this.epochMillis = epochMillis;
+            this.halfLifeMillis = Math.max(1, halfLifeMillis);
+            this.ordinals = new HashMap<>(snapshot.size() * 2);
+            this.slots = new int[snapshot.size()];
+            this.counts = new AtomicLongArray(snapshot.size());
+            this.scores = new AtomicLongArray(snapshot.size());
+
+            for (int ordinal = 0; ordinal < snapshot.size(); ordinal++) {
+                // Icons sharing a destination share its counters (held by the first icon)
+                Integer first = ordinals.putIfAbsent(snapshot.destinationId(ordinal), ordinal);
+                slots[ordinal] = first == null ? ordinal : first;
+            }
+
+            Map<String, Entry> rest = new HashMap<>();
+            entries.forEach((id, entry) -> {
+                Integer ordinal = ordinals.get(id);
+                if (ordinal == null) {
+                    rest.put(id, entry);
+                } else {
+                    counts.set(ordinal, entry.count());
+                    scores.set(ordinal, Double.doubleToRawLongBits(entry.score()));
+                }
+            });
+            this.detached = Map.copyOf(rest);
+        }
+
+        double score(int ordinal) {
+            return Double.longBitsToDouble(scores.get(ordinal));
+        }
+
+        void addScore(int ordinal, double amount) {
+            long bits;
+            do {
+                bits = scores.get(ordinal);
+            } while (!scores.compareAndSet(ordinal, bits, Double.doubleToRawLongBits(Double.longBitsToDouble(bits) + amount)));
+        }
+
+        /**
+         * Factor converting stored scores to teleports as of {@code now}.
+         */
+        double decayFactor(long now) {
+            return Math.pow(2, -(now - epochMillis) / halfLifeMillis);
+        }
+    }
+}
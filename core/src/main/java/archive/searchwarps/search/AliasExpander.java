@@ -0,0 +1,158 @@
+package archive.searchwarps.search;
+
+import archive.searchwarps.data.WarpAliases;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Compiles {@link WarpAliases} into the searchable text while a {@link SearchIndex} is built.
+ *
+ * A warp's aliases, and the other members of every synonym group it mentions, are appended to the
+ * name line of its text, separated by a control character no query contains. They then get trigram
+ * postings like any other text, so a query for an alias is a normal posting lookup and
+ * {@code name:} filters see aliases as names.
+ */
+final class AliasExpander {
+    /**
+     * Separates appended terms from the name and from each other, so no match can span two of them.
+     */
+    static final char SEPARATOR = '\u001F';
+
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final WarpAliases aliases;
+
+    // Normalized synonym group members, numbered consecutively across groups
+    private final String[] members;
+    private final int[] groupOf;       // member -> group
+    private final int[] groupStart;    // group -> first member (plus one entry past the last)
+
+    // Single-word members are found by token, phrases by substring
+    private final Map<String, int[]> membersByWord;
+    private final int[] phraseMembers;
+
+    AliasExpander(WarpAliases aliases) {
+        this.aliases = aliases;
+        List<List<String>> synonyms = aliases.synonyms();
+        int count = 0;
+        for (List<String> group : synonyms) {
+            count += group.size();
+        }
+
+        this.members = new String[count];
+        this.groupOf = new int[count];
+        this.groupStart = new int[synonyms.size() + 1];
+        this.membersByWord = new HashMap<>();
+        List<Integer> phrases = new ArrayList<>();
+        int member = 0;
+        for (int group = 0; group < synonyms.size(); group++) {
+            groupStart[group] = member;
+            for (String text : synonyms.get(group)) {
+                String normalized = TextNormalizer.normalize(text);
+                members[member] = normalized;
+                groupOf[member] = group;
+                if (WORD_SEPARATOR.matcher(normalized).find()) {
+                    phrases.add(member);
+                } else {
+                    int[] previous = membersByWord.get(normalized);
+                    int[] updated = previous == null ? new int[1] : Arrays.copyOf(previous, previous.length + 1);
+                    updated[updated.length - 1] = member;
+                    membersByWord.put(normalized, updated);
+                }
+                member++;
+            }
+        }
+        groupStart[synonyms.size()] = member;
+        this.phraseMembers = phrases.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Returns true if there is nothing to expand (the text can be indexed as is).
+     */
+    boolean isEmpty() {
+        return aliases.isEmpty();
+    }
+
+    /**
+     * Expands one warp's normalized searchable text.
+     *
+     * @param text The text from {@link SearchIndex#searchableText}
+     * @param name The warp name (aliases are keyed by name or destination ID)
+     * @param destinationId The warp's destination ID
+     * @return The text with aliases and synonyms appended to the name line
+     */
+    String expand(String text, String name, String destinationId) {
+        List<String> extra = new ArrayList<>();
+        for (String alias : aliases.aliasesOf(name, destinationId)) {
+            extra.add(TextNormalizer.normalize(alias));
+        }
+        if (members.length > 0) {
+            addSynonyms(extra.isEmpty() ? text : text + SEPARATOR + String.join(String.valueOf(SEPARATOR), extra), extra);
+        }
+        if (extra.isEmpty()) {
+            return text;
+        }
+
+        int nameEnd = text.indexOf('\n');
+        StringBuilder expanded = new StringBuilder(text.length() + 16 * extra.size());
+        expanded.append(text, 0, nameEnd);
+        for (String term : extra) {
+            expanded.append(SEPARATOR).append(term);
+        }
+        return expanded.append(text, nameEnd, text.length()).toString();
+    }
+
+    /**
+     * Adds the members of every synonym group the text mentions, except those it already contains.
+     */
+    private void addSynonyms(String text, List<String> extra) {
+        BitSet present = new BitSet(members.length);
+        for (String word : WORD_SEPARATOR.split(text)) {
+            int[] matches = membersByWord.get(word);
+            if (matches != null) {
+                for (int member : matches) {
+                    present.set(member);
+                }
+            }
+        }
+        for (int member : phraseMembers) {
+            if (containsPhrase(text, members[member])) {
+                present.set(member);
+            }
+        }
+
+        int lastGroup = -1;
+        for (int found = present.nextSetBit(0); found >= 0; found = present.nextSetBit(found + 1)) {
+            int group = groupOf[found];
+            if (group == lastGroup) {
+                continue; // Members are numbered by group, so each group comes up in one run
+            }
+            lastGroup = group;
+            for (int member = groupStart[group]; member < groupStart[group + 1]; member++) {
+                if (!present.get(member)) {
+                    extra.add(members[member]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns true if the phrase occurs in the text between word boundaries.
+     */
+    private static boolean containsPhrase(String text, String phrase) {
+        for (int at = text.indexOf(phrase); at >= 0; at = text.indexOf(phrase, at + 1)) {
+            int end = at + phrase.length();
+            if ((at == 0 || !Character.isLetterOrDigit(text.charAt(at - 1)))
+                && (end == text.length() || !Character.isLetterOrDigit(text.charAt(end)))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,195 @@
+package archive.searchwarps.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact prefix trie for ranked completions.
+ *
+ * Keys are stored as one sorted array, so every trie node is simply the contiguous key range
+ * sharing its prefix (found by binary search). Nodes whose range is larger than
+ * {@link #SCAN_THRESHOLD} keep a precomputed top-N list; smaller nodes are ranked by scanning
+ * their range with a bounded insertion. Either way a lookup touches at most a few hundred
+ * entries, independent of the number of warps.
+ *
+ * Immutable once built; built once per data load alongside the {@link SearchIndex}.
+ */
+public final class PrefixCompleter {
+    /**
+     * Nodes with more keys than this get a precomputed top-N list.
+     */
+    static final int SCAN_THRESHOLD = 256;
+
+    /**
+     * Size of the precomputed top-N lists (the largest completion count that is served from cache).
+     */
+    static final int CACHED_RESULTS = 16;
+
+    private final String[] keys;        // normalized, sorted, unique
+    private final String[] completions; // text to insert for each key
+    private final int[] scores;         // ranking score for each key (higher first)
+    private final Map<String, int[]> cachedTop;
+
+    private PrefixCompleter(String[] keys, String[] completions, int[] scores) {
+        this.keys = keys;
+        this.completions = completions;
+        this.scores = scores;
+        this.cachedTop = new HashMap<>();
+        cacheLargeNodes("", 0, keys.length);
+    }
+
+    /**
+     * Collects completion entries before building the completer.
+     * When a key is added several times the highest score (and its completion text) wins.
+     */
+    public static final class Builder {
+        private final Map<String, Entry> entries = new HashMap<>();
+
+        /**
+         * Adds a completion.
+         *
+         * @param completion The text to suggest (original casing)
+         * @param score Ranking score, e.g. the warp's teleport count
+         * @return this builder
+         */
+        public Builder add(String completion, int score) {
+            if (completion == null || completion.isBlank()) {
+                return this;
+            }
+            String key = TextNormalizer.normalize(completion);
+            Entry existing = entries.get(key);
+            if (existing == null || existing.score < score) {
+                entries.put(key, new Entry(completion, score));
+            }
+            return this;
+        }
+
+        public PrefixCompleter build() {
+            String[] keys = entries.keySet().toArray(new String[0]);
+            Arrays.sort(keys);
+            String[] completions = new String[keys.length];
+            int[] scores = new int[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                Entry entry = entries.get(keys[i]);
+                completions[i] = entry.completion;
+                scores[i] = entry.score;
+            }
+            return new PrefixCompleter(keys, completions, scores);
+        }
+
+        private record Entry(String completion, int score) {}
+    }
+
+    /**
+     * Returns up to {@code limit} completions starting with the prefix, best score first.
+     *
+     * @param prefix Normalized prefix (see {@link TextNormalizer}; empty for the overall best)
+     * @param limit Maximum number of completions
+     * @return Completion texts, best first
+     */
+    public List<String> complete(String prefix, int limit) {
+        List<String> result = new ArrayList<>(Math.min(limit, CACHED_RESULTS));
+        if (limit <= 0) {
+            return result;
+        }
+
+        int from = lowerBound(prefix);
+        int to = upperBound(prefix, from);
+        if (from >= to) {
+            return result;
+        }
+
+        int[] top = (limit <= CACHED_RESULTS) ? cachedTop.get(prefix) : null;
+        if (top == null) {
+            top = topInRange(from, to, limit);
+        }
+
+        for (int i = 0; i < top.length && result.size() < limit; i++) {
+            result.add(completions[top[i]]);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of distinct keys.
+     */
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * Walks the implicit trie and precomputes top-N lists for every node too large to scan.
+     */
+    private void cacheLargeNodes(String prefix, int from, int to) {
+        if (to - from <= SCAN_THRESHOLD) {
+            return;
+        }
+        cachedTop.put(prefix, topInRange(from, to, CACHED_RESULTS));
+
+        // Child nodes: consecutive runs of keys sharing the next character
+        int depth = prefix.length();
+        int start = from;
+        while (start < to) {
+            if (keys[start].length() <= depth) {
+                start++; // The key equal to the prefix itself ends here
+                continue;
+            }
+            char next = keys[start].charAt(depth);
+            int end = start + 1;
+            while (end < to && keys[end].length() > depth && keys[end].charAt(depth) == next) {
+                end++;
+            }
+            cacheLargeNodes(keys[start].substring(0, depth + 1), start, end);
+            start = end;
+        }
+    }
+
+    /**
+     * Selects the best {@code limit} keys in a range with a bounded insertion (ties keep key order).
+     */
+    private int[] topInRange(int from, int to, int limit) {
+        int[] top = new int[Math.min(limit, to - from)];
+        int size = 0;
+        for (int i = from; i < to; i++) {
+            if (size == top.length && scores[i] <= scores[top[size - 1]]) {
+                continue;
+            }
+            int position = (size == top.length) ? size - 1 : size++;
+            while (position > 0 && scores[top[position - 1]] < scores[i]) {
+                top[position] = top[position - 1];
+                position--;
+            }
+            top[position] = i;
+        }
+        return top;
+    }
+
+    private int lowerBound(String prefix) {
+        int low = 0, high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int upperBound(String prefix, int from) {
+        int low = from, high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].startsWith(prefix)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,238 @@
+package archive.searchwarps.search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Aho-Corasick automaton over all text terms of a {@link SearchQuery}.
+ * One pass over a warp's searchable text finds every term at once and records them in a bitmask,
+ * instead of one substring scan per term. Scanning a char range allocates nothing, so checking
+ * index candidates in place in the {@link TextArena} is allocation-free.
+ *
+ * The automaton is a full DFA (failure links resolved at compile time) over the characters that
+ * occur in the terms; every other character maps to class 0 and leads back to the root.
+ * Field filters are handled by tracking which field of {@code name\ndisplay\nid\nlore...} the scan
+ * is in: each state has one output mask per field kind. Page terms are not part of the text and
+ * are checked directly.
+ */
+final class QueryMatcher {
+    private static final int KIND_NAME = 0;
+    private static final int KIND_ID = 1;
+    private static final int KIND_LORE = 2;
+    private static final int KINDS = 3;
+
+    // Sorted distinct term characters; class of alphabet[i] is i + 1
+    private final char[] alphabet;
+    private final int[] asciiClasses;
+    private final int classes;
+
+    // transitions[state * classes + class] -> next state
+    private final int[] transitions;
+
+    // outputs[state * KINDS + kind] -> terms ending at this state that may match in that field kind
+    private final long[] outputs;
+    private final long allTerms;
+
+    // Per clause: text terms (bits), page terms, negation
+    private final long[] clauseMasks;
+    private final String[][] clausePages;
+    private final boolean[] negated;
+
+    private QueryMatcher(char[] alphabet, int[] asciiClasses, int[] transitions, long[] outputs, long allTerms,
+                         long[] clauseMasks, String[][] clausePages, boolean[] negated) {
+        this.alphabet = alphabet;
+        this.asciiClasses = asciiClasses;
+        this.classes = alphabet.length + 1;
+        this.transitions = transitions;
+        this.outputs = outputs;
+        this.allTerms = allTerms;
+        this.clauseMasks = clauseMasks;
+        this.clausePages = clausePages;
+        this.negated = negated;
+    }
+
+    /**
+     * Compiles the automaton for a query.
+     *
+     * @return The matcher, or null if the query has fewer than two text terms (a single
+     *         {@link String#contains} is already as fast) or more than 64 (one bit per term)
+     */
+    static QueryMatcher compile(List<SearchQuery.Clause> clauses) {
+        List<SearchQuery.Term> terms = new ArrayList<>();
+        long[] clauseMasks = new long[clauses.size()];
+        String[][] clausePages = new String[clauses.size()][];
+        boolean[] negated = new boolean[clauses.size()];
+        for (int i = 0; i < clauses.size(); i++) {
+            SearchQuery.Clause clause = clauses.get(i);
+            List<String> pages = new ArrayList<>(0);
+            for (SearchQuery.Term term : clause.alternatives()) {
+                if (term.field() == SearchQuery.Field.PAGE) {
+                    pages.add(term.text());
+                } else {
+                    if (terms.size() == Long.SIZE) {
+                        return null;
+                    }
+                    clauseMasks[i] |= 1L << terms.size();
+                    terms.add(term);
+                }
+            }
+            clausePages[i] = pages.toArray(new String[0]);
+            negated[i] = clause.negated();
+        }
+        if (terms.size() < 2) {
+            return null;
+        }
+
+        // Character classes
+        StringBuilder chars = new StringBuilder();
+        int maxStates = 1;
+        for (SearchQuery.Term term : terms) {
+            chars.append(term.text());
+            maxStates += term.text().length();
+        }
+        char[] alphabet = chars.chars().distinct().sorted().collect(StringBuilder::new,
+            StringBuilder::appendCodePoint, StringBuilder::append).toString().toCharArray();
+        int[] asciiClasses = new int[128];
+        for (int i = 0; i < alphabet.length; i++) {
+            if (alphabet[i] < 128) {
+                asciiClasses[alphabet[i]] = i + 1;
+            }
+        }
+        int classes = alphabet.length + 1;
+
+        // Trie
+        int[] next = new int[maxStates * classes];
+        Arrays.fill(next, -1);
+        long[] outputs = new long[maxStates * KINDS];
+        int states = 1;
+        for (int bit = 0; bit < terms.size(); bit++) {
+            SearchQuery.Term term = terms.get(bit);
+            int state = 0;
+            for (int i = 0; i < term.text().length(); i++) {
+                int slot = state * classes + classOf(term.text().charAt(i), alphabet, asciiClasses);
+                if (next[slot] < 0) {
+                    next[slot] = states++;
+                }
+                state = next[slot];
+            }
+            for (int kind = 0; kind < KINDS; kind++) {
+                if (accepts(term.field(), kind)) {
+                    outputs[state * KINDS + kind] |= 1L << bit;
+                }
+            }
+        }
+
+        // Failure links, breadth first, folded into the transitions and outputs
+        int[] fail = new int[states];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int c = 0; c < classes; c++) {
+            if (next[c] < 0) {
+                next[c] = 0;
+            } else {
+                queue.add(next[c]);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (int kind = 0; kind < KINDS; kind++) {
+                outputs[state * KINDS + kind] |= outputs[fail[state] * KINDS + kind];
+            }
+            for (int c = 0; c < classes; c++) {
+                int slot = state * classes + c;
+                int fallback = next[fail[state] * classes + c];
+                if (next[slot] < 0) {
+                    next[slot] = fallback;
+                } else {
+                    fail[next[slot]] = fallback;
+                    queue.add(next[slot]);
+                }
+            }
+        }
+
+        long allTerms = terms.size() == Long.SIZE ? -1L : (1L << terms.size()) - 1;
+        return new QueryMatcher(alphabet, asciiClasses, Arrays.copyOf(next, states * classes),
+            Arrays.copyOf(outputs, states * KINDS), allTerms, clauseMasks, clausePages, negated);
+    }
+
+    private static boolean accepts(SearchQuery.Field field, int kind) {
+        return switch (field) {
+            case ANY -> true;
+            case NAME -> kind == KIND_NAME;
+            case ID -> kind == KIND_ID;
+            case LORE -> kind == KIND_LORE;
+            case PAGE -> false;
+        };
+    }
+
+    private static int classOf(char c, char[] alphabet, int[] asciiClasses) {
+        if (c < 128) {
+            return asciiClasses[c];
+        }
+        int index = Arrays.binarySearch(alphabet, c);
+        return index < 0 ? 0 : index + 1;
+    }
+
+    /**
+     * Checks a warp against every clause of the query.
+     *
+     * Copies the text into a char array first; only the linear scan, which builds the text per
+     * warp anyway, checks Strings.
+     *
+     * @param text The warp's searchable text ({@code name\ndisplay\nid\nlore...})
+     * @param page The warp's normalized page, or null
+     * @return true if every clause holds
+     */
+    boolean matches(String text, String page) {
+        return matches(text.toCharArray(), 0, text.length(), page);
+    }
+
+    /**
+     * Checks a warp whose searchable text is {@code chars[from, to)} (e.g. in a {@link TextArena}).
+     */
+    boolean matches(char[] chars, int from, int to, String page) {
+        long matched = scan(chars, from, to);
+        for (int i = 0; i < clauseMasks.length; i++) {
+            boolean hit = (matched & clauseMasks[i]) != 0;
+            if (!hit && page != null) {
+                for (String pageTerm : clausePages[i]) {
+                    if (page.contains(pageTerm)) {
+                        hit = true;
+                        break;
+                    }
+                }
+            }
+            if (hit == negated[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Runs the automaton once over {@code chars[from, to)} and returns the bits of all terms found.
+     */
+    long scan(char[] chars, int from, int to) {
+        long matched = 0;
+        int state = 0;
+        int kind = KIND_NAME;
+        int newlines = 0;
+        for (int i = from; i < to; i++) {
+            char c = chars[i];
+            if (c == '\n') {
+                // Next field; terms never contain '\n', so no match can span it
+                newlines++;
+                kind = newlines < 2 ? KIND_NAME : newlines == 2 ? KIND_ID : KIND_LORE;
+                state = 0;
+                continue;
+            }
+            state = transitions[state * classes + classOf(c, alphabet, asciiClasses)];
+            matched |= outputs[state * KINDS + kind];
+            if (matched == allTerms) {
+                break; // Every term found; the rest of the text can't change the answer
+            }
+        }
+        return matched;
+    }
+}
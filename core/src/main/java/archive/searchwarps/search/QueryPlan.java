@@ -0,0 +1,207 @@
+package archive.searchwarps.search;
+
+import archive.searchwarps.facet.Bitmaps;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A {@link SearchQuery} compiled against one {@link SearchIndex}.
+ *
+ * Every clause gets a selectivity estimate from the index postings. Required clauses are
+ * intersected rarest first to produce candidates, and every candidate is then verified
+ * clause by clause in the same order, so the clause most likely to reject a warp runs first.
+ * A query with five clauses therefore costs about as much as its rarest clause alone.
+ * Queries with several text terms verify each candidate in one pass with the query's {@link QueryMatcher}.
+ * When no clause can be narrowed down by the postings, the query is evaluated by brute force
+ * instead: one {@link ScanKernel} pass over the text arena per term.
+ */
+final class QueryPlan {
+    private static final int[] NO_MATCHES = new int[0];
+
+    // Stop intersecting once the next posting list is this many times longer than the candidates:
+    // verifying the few remaining candidates is cheaper than merging the long list
+    private static final int MERGE_RATIO = 32;
+
+    private final SearchIndex index;
+    private final QueryMatcher matcher;
+    private final Step[] steps;
+    private final boolean impossible;
+
+    // Term texts as char arrays for the scan kernels, [step][alternative]
+    private final char[][][] needles;
+
+    /**
+     * One clause with its estimated number of matching warps.
+     *
+     * @param estimate Upper bound from the postings; the warp count if the postings can't narrow it down
+     * @param exact Whether the clause's candidates are exactly its matches (no verification needed)
+     */
+    private record Step(SearchQuery.Clause clause, int estimate, boolean exact) {}
+
+    private QueryPlan(SearchIndex index, QueryMatcher matcher, Step[] steps, boolean impossible) {
+        this.index = index;
+        this.matcher = matcher;
+        this.steps = steps;
+        this.impossible = impossible;
+        this.needles = new char[steps.length][][];
+        for (int i = 0; i < steps.length; i++) {
+            List<SearchQuery.Term> alternatives = steps[i].clause().alternatives();
+            needles[i] = new char[alternatives.size()][];
+            for (int j = 0; j < alternatives.size(); j++) {
+                needles[i][j] = alternatives.get(j).text().toCharArray();
+            }
+        }
+    }
+
+    /**
+     * Estimates every clause and orders them: required clauses rarest first, then exclusions
+     * most common first (a common excluded word rejects the most candidates).
+     */
+    static QueryPlan compile(SearchIndex index, SearchQuery query) {
+        Step[] steps = new Step[query.clauses().size()];
+        boolean impossible = false;
+        for (int i = 0; i < steps.length; i++) {
+            SearchQuery.Clause clause = query.clauses().get(i);
+            long estimate = 0;
+            boolean exact = true;
+            for (SearchQuery.Term term : clause.alternatives()) {
+                estimate += index.estimate(term);
+                exact &= term.field() == SearchQuery.Field.PAGE;
+            }
+            steps[i] = new Step(clause, (int) Math.min(estimate, index.snapshot().size()), exact);
+            impossible |= !clause.negated() && estimate == 0;
+        }
+
+        Arrays.sort(steps, Comparator.comparing((Step step) -> step.clause().negated())
+            .thenComparingInt(step -> step.clause().negated() ? -step.estimate() : step.estimate()));
+        return new QueryPlan(index, query.matcher(), steps, impossible);
+    }
+
+    /**
+     * Runs the plan.
+     *
+     * @param rankMask Bitmap of allowed alphabetical ranks, or null to allow all
+     * @return Matching ordinals, sorted alphabetically
+     */
+    int[] execute(long[] rankMask) {
+        if (impossible) {
+            return NO_MATCHES;
+        }
+
+        int size = index.snapshot().size();
+        boolean[] verified = new boolean[steps.length];
+        int[] candidates = null;
+        for (int i = 0; i < steps.length; i++) {
+            Step step = steps[i];
+            if (step.clause().negated() || step.estimate() >= size) {
+                break; // Sorted: everything after this can't narrow the candidates
+            }
+            if (candidates != null && step.estimate() > (long) candidates.length * MERGE_RATIO) {
+                break;
+            }
+            int[] list = index.candidates(step.clause());
+            candidates = candidates == null ? list : SearchIndex.intersect(candidates, list);
+            verified[i] = step.exact();
+            if (candidates.length == 0) {
+                return NO_MATCHES;
+            }
+        }
+
+        if (candidates == null) {
+            if (rankMask == null) {
+                // Nothing narrowed the search: scan all texts at once rather than warp by warp
+                return scan(null, index.kernel());
+            }
+            // The facet mask is the candidate list
+            candidates = Bitmaps.toArray(rankMask);
+            rankMask = null;
+        }
+
+        int[] matches = new int[candidates.length];
+        int count = 0;
+        for (int rank : candidates) {
+            if (rankMask != null && !Bitmaps.get(rankMask, rank)) {
+                continue;
+            }
+            if (verify(rank, verified)) {
+                matches[count++] = index.snapshot().ordinalAtRank(rank);
+            }
+        }
+        return count == matches.length ? matches : Arrays.copyOf(matches, count);
+    }
+
+    /**
+     * Evaluates the plan by brute force: every term is found with one kernel pass over the
+     * whole text arena, and the clauses are combined as bitmaps (OR within, AND / AND NOT across).
+     *
+     * @param rankMask Bitmap of allowed alphabetical ranks, or null to allow all
+     * @param kernel The substring kernel to scan with
+     * @return Matching ordinals, sorted alphabetically
+     */
+    int[] scan(long[] rankMask, ScanKernel kernel) {
+        if (rankMask == null && steps.length == 1 && !steps[0].clause().negated() && needles[0].length == 1
+            && steps[0].clause().alternatives().get(0).field() != SearchQuery.Field.PAGE) {
+            // A lone term (typically one or two letters, which have no trigram): its matches are the
+            // result, so collect them directly instead of building and combining bitmaps
+            int[] ranks = index.findRanks(steps[0].clause().alternatives().get(0), needles[0][0], kernel);
+            for (int i = 0; i < ranks.length; i++) {
+                ranks[i] = index.snapshot().ordinalAtRank(ranks[i]);
+            }
+            return ranks;
+        }
+
+        int size = index.snapshot().size();
+        long[] result = rankMask == null ? Bitmaps.full(size) : rankMask.clone();
+        for (int i = 0; i < steps.length && !Bitmaps.isEmpty(result); i++) {
+            SearchQuery.Clause clause = steps[i].clause();
+            long[] clauseHits = null;
+            for (int j = 0; j < needles[i].length; j++) {
+                long[] hits = index.find(clause.alternatives().get(j), needles[i][j], kernel);
+                if (clauseHits == null) {
+                    clauseHits = hits;
+                } else {
+                    Bitmaps.or(clauseHits, hits);
+                }
+            }
+            if (clause.negated()) {
+                Bitmaps.andNot(result, clauseHits);
+            } else {
+                Bitmaps.and(result, clauseHits);
+            }
+        }
+
+        int[] ranks = Bitmaps.toArray(result);
+        for (int i = 0; i < ranks.length; i++) {
+            ranks[i] = index.snapshot().ordinalAtRank(ranks[i]);
+        }
+        return ranks;
+    }
+
+    private boolean verify(int rank, boolean[] verified) {
+        if (matcher != null) {
+            return index.matches(matcher, rank);
+        }
+        for (int i = 0; i < steps.length; i++) {
+            if (verified[i]) {
+                continue;
+            }
+            SearchQuery.Clause clause = steps[i].clause();
+            if (index.matches(clause, needles[i], rank) == clause.negated()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder(impossible ? "impossible:" : "plan:");
+        for (Step step : steps) {
+            out.append(' ').append(step.clause().negated() ? "-" : "").append(step.clause().alternatives())
+                .append("~").append(step.estimate());
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,167 @@
+package archive.searchwarps.search;
+
+import archive.searchwarps.data.WarpIcon;
+import archive.searchwarps.data.WarpSnapshot;
+import archive.searchwarps.sorting.SortMode;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable, ordered view over a subset of a {@link WarpSnapshot}.
+ * Stores warp ordinals (plus optional per-position distances) instead of copying icon lists,
+ * so a single view can be shared by every page of a browser and by every player looking
+ * at the same results. Pages read a window of the view; nothing is copied per click.
+ */
+public final class ResultView {
+    private final WarpSnapshot snapshot;
+    private final int[] ordinals;      // null = every warp in alphabetical order
+    private final SortMode sortMode;
+    private final double[] distances;  // parallel to positions, null if not distance sorted
+
+    private ResultView(WarpSnapshot snapshot, int[] ordinals, SortMode sortMode, double[] distances) {
+        this.snapshot = snapshot;
+        this.ordinals = ordinals;
+        this.sortMode = sortMode;
+        this.distances = distances;
+    }
+
+    /**
+     * Creates a view over every warp in the snapshot, sorted alphabetically.
+     * Backed directly by the snapshot's precomputed ordering - no array is allocated.
+     *
+     * @param snapshot The snapshot to view
+     * @return Alphabetical view of all warps
+     */
+    public static ResultView all(WarpSnapshot snapshot) {
+        return new ResultView(snapshot, null, SortMode.ALPHABETICAL, null);
+    }
+
+    /**
+     * Creates a view from an ordinal array. The array is owned by the view afterwards
+     * and must not be modified by the caller.
+     *
+     * @param snapshot The snapshot the ordinals refer to
+     * @param ordinals Warp ordinals in display order
+     * @param sortMode The sort mode the ordinals are arranged in
+     * @return A view over the given ordinals
+     */
+    public static ResultView of(WarpSnapshot snapshot, int[] ordinals, SortMode sortMode) {
+        return new ResultView(snapshot, ordinals, sortMode, null);
+    }
+
+    /**
+     * Creates a distance-sorted view. Both arrays are owned by the view afterwards.
+     *
+     * @param snapshot The snapshot the ordinals refer to
+     * @param ordinals Warp ordinals, closest first
+     * @param distances Distance for each position in {@code ordinals}
+     * @return A distance-sorted view
+     */
+    public static ResultView ofDistances(WarpSnapshot snapshot, int[] ordinals, double[] distances) {
+        if (ordinals.length != distances.length) {
+            throw new IllegalArgumentException("ordinals and distances must have the same length");
+        }
+        return new ResultView(snapshot, ordinals, SortMode.DISTANCE, distances);
+    }
+
+    /**
+     * Returns the number of warps in this view.
+     */
+    public int size() {
+        return ordinals == null ? snapshot.size() : ordinals.length;
+    }
+
+    /**
+     * Returns the ordinal at a display position.
+     */
+    public int ordinalAt(int position) {
+        return ordinals == null ? snapshot.ordinalAtRank(position) : ordinals[position];
+    }
+
+    /**
+     * Returns the warp at a display position.
+     */
+    public WarpIcon get(int position) {
+        return snapshot.icon(ordinalAt(position));
+    }
+
+    /**
+     * Returns whether this view carries distance information.
+     */
+    public boolean hasDistances() {
+        return distances != null;
+    }
+
+    /**
+     * Returns the distance of the warp at a display position.
+     * Only valid when {@link #hasDistances()} is true.
+     */
+    public double distanceAt(int position) {
+        return distances[position];
+    }
+
+    /**
+     * Returns a read-only window of this view without copying.
+     *
+     * @param from First position (inclusive)
+     * @param to Last position (exclusive), clamped to the view size
+     * @return List view of the warps in the window
+     */
+    public List<WarpIcon> window(int from, int to) {
+        int start = Math.max(0, from);
+        int end = Math.min(to, size());
+        int length = Math.max(0, end - start);
+        return new AbstractList<>() {
+            @Override
+            public WarpIcon get(int index) {
+                if (index < 0 || index >= length) {
+                    throw new IndexOutOfBoundsException(index);
+                }
+                return ResultView.this.get(start + index);
+            }
+
+            @Override
+            public int size() {
+                return length;
+            }
+        };
+    }
+
+    /**
+     * Returns the same warps ordered alphabetically.
+     * Sorts the precomputed alphabetical ranks (a primitive int sort) rather than comparing names.
+     *
+     * @return Alphabetical view (this view if it already is one)
+     */
+    public ResultView sortedAlphabetically() {
+        if (sortMode == SortMode.ALPHABETICAL) {
+            return this;
+        }
+
+        int[] ranks = new int[ordinals.length];
+        for (int i = 0; i < ranks.length; i++) {
+            ranks[i] = snapshot.alphabeticalRank(ordinals[i]);
+        }
+        Arrays.sort(ranks);
+        for (int i = 0; i < ranks.length; i++) {
+            ranks[i] = snapshot.ordinalAtRank(ranks[i]);
+        }
+        return new ResultView(snapshot, ranks, SortMode.ALPHABETICAL, null);
+    }
+
+    /**
+     * Returns the sort mode of this view.
+     */
+    public SortMode sortMode() {
+        return sortMode;
+    }
+
+    /**
+     * Returns the snapshot this view refers to.
+     */
+    public WarpSnapshot snapshot() {
+        return snapshot;
+    }
+}
@@ -0,0 +1,63 @@
+package archive.searchwarps.search;
+
+/**
+ * Scalar {@link ScanKernel}: checks the needle's first and last character before comparing the rest.
+ * Also looks up the vector kernel once, since that class can only be loaded when its module is present.
+ */
+final class ScalarScanKernel implements ScanKernel {
+    static final ScalarScanKernel INSTANCE = new ScalarScanKernel();
+    static final ScanKernel VECTOR = loadVectorKernel();
+
+    private ScalarScanKernel() {
+    }
+
+    @Override
+    public int indexOf(char[] haystack, int from, int to, char[] needle) {
+        return find(haystack, from, to, needle);
+    }
+
+    /**
+     * The scalar search, shared with the vector kernel for its tail and for short regions.
+     */
+    static int find(char[] haystack, int from, int to, char[] needle) {
+        int length = needle.length;
+        char first = needle[0];
+        char last = needle[length - 1];
+        for (int i = from, end = to - length; i <= end; i++) {
+            if (haystack[i] == first && haystack[i + length - 1] == last && middleMatches(haystack, i, needle)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Compares all but the first and last character of the needle at {@code start}.
+     */
+    static boolean middleMatches(char[] haystack, int start, char[] needle) {
+        for (int j = 1; j < needle.length - 1; j++) {
+            if (haystack[start + j] != needle[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+
+    private static ScanKernel loadVectorKernel() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return null;
+        }
+        try {
+            // Loaded reflectively: referencing the class directly would fail to link without the module
+            return (ScanKernel) Class.forName("archive.searchwarps.search.VectorScanKernel")
+                .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package archive.searchwarps.search;
+
+/**
+ * Substring search over a {@code char[]} region, the inner loop of brute-force text scanning.
+ *
+ * Two implementations exist: a scalar loop and a SIMD kernel on {@code jdk.incubator.vector}
+ * that compares the needle's first and last character against a whole vector of positions at
+ * once. The vector kernel is only available when the JVM runs with
+ * {@code --add-modules jdk.incubator.vector}; {@link #best()} falls back to the scalar one otherwise.
+ */
+public interface ScanKernel {
+
+    /**
+     * Finds the first occurrence of {@code needle} that lies entirely within {@code [from, to)}.
+     *
+     * @param haystack Text to search
+     * @param from First position a match may start at
+     * @param to End of the searched region (exclusive); a match must end at or before it
+     * @param needle Non-empty text to find
+     * @return Start of the first match, or -1 if there is none
+     */
+    int indexOf(char[] haystack, int from, int to, char[] needle);
+
+    /**
+     * Returns a short description for logs and benchmarks (e.g. "scalar", "vector 256-bit").
+     */
+    String name();
+
+    /**
+     * Returns the plain scalar kernel.
+     */
+    static ScanKernel scalar() {
+        return ScalarScanKernel.INSTANCE;
+    }
+
+    /**
+     * Returns the vector kernel, or null if {@code jdk.incubator.vector} is not available.
+     */
+    static ScanKernel vector() {
+        return ScalarScanKernel.VECTOR;
+    }
+
+    /**
+     * Returns the fastest kernel available in this JVM.
+     */
+    static ScanKernel best() {
+        return ScalarScanKernel.VECTOR != null ? ScalarScanKernel.VECTOR : ScalarScanKernel.INSTANCE;
+    }
+}
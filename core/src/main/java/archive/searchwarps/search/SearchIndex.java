@@ -0,0 +1,480 @@
+package archive.searchwarps.search;
+
+import archive.searchwarps.data.WarpIcon;
+import archive.searchwarps.data.WarpSnapshot;
+import archive.searchwarps.facet.Bitmaps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Precomputed search structures for one {@link WarpSnapshot}.
+ * Built once per data load so that queries never strip color codes or normalize warp text again.
+ *
+ * Holds the normalized searchable text of every warp (packed into one {@link TextArena})
+ * and a trigram inverted index over it.
+ * Postings store alphabetical ranks (not ordinals), so intersecting them yields results that
+ * are already in A-Z order. Trigram postings only narrow down candidates; every candidate is
+ * verified with a plain substring check, keeping the semantics identical to a linear scan.
+ * Queries are compiled into a {@link QueryPlan} that consults the postings rarest clause first.
+ *
+ * All text is run through {@link TextNormalizer} here, once per load, so queries (normalized the
+ * same way) match across case, accents and compatibility forms at no extra cost per query.
+ * Optionally, runs of CJK characters also get bigram postings: their words are mostly two
+ * characters long, too short for a trigram, and would otherwise always fall back to a full scan.
+ * Admin aliases and synonyms are compiled into the text here as well (see {@link AliasExpander}).
+ */
+public final class SearchIndex {
+    private static final int[] NO_POSTINGS = new int[0];
+    private static final long BIGRAM = 1L << 48; // Tags bigram keys; trigram keys use the low 48 bits
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final WarpSnapshot snapshot;
+
+    // Normalized searchable text of all warps, packed in alphabetical order
+    private final TextArena arena;
+
+    // Normalized page of each warp (indexed by alphabetical rank, null if none)
+    private final String[] pages;
+
+    // Kernel used for substring checks against the arena
+    private final ScanKernel kernel;
+
+    // Trigram (or CJK bigram) key -> sorted alphabetical ranks of warps containing it
+    private final Map<Long, int[]> postings;
+    private final boolean cjkBigrams;
+
+    // Normalized page -> sorted alphabetical ranks of the warps on that page
+    private final Map<String, int[]> pagePostings;
+
+    // Ranked completions for whole warp names and for the individual words of warp names
+    private final PrefixCompleter nameCompleter;
+    private final PrefixCompleter tokenCompleter;
+
+    private SearchIndex(WarpSnapshot snapshot, TextArena arena, String[] pages,
+                        Map<Long, int[]> postings, boolean cjkBigrams, Map<String, int[]> pagePostings,
+                        PrefixCompleter nameCompleter, PrefixCompleter tokenCompleter) {
+        this.snapshot = snapshot;
+        this.arena = arena;
+        this.pages = pages;
+        this.kernel = ScanKernel.best();
+        this.postings = postings;
+        this.cjkBigrams = cjkBigrams;
+        this.pagePostings = pagePostings;
+        this.nameCompleter = nameCompleter;
+        this.tokenCompleter = tokenCompleter;
+    }
+
+    /**
+     * Builds the index for a snapshot.
+     * Should be called off the main thread (e.g. right after a data load).
+     *
+     * @param snapshot The snapshot to index
+     * @return The built index
+     */
+    public static SearchIndex build(WarpSnapshot snapshot) {
+        return build(snapshot, false);
+    }
+
+    /**
+     * Builds the index for a snapshot, optionally with bigram postings for CJK text.
+     * Should be called off the main thread (e.g. right after a data load).
+     *
+     * @param snapshot The snapshot to index
+     * @param cjkBigrams Whether to index pairs of adjacent CJK characters
+     * @return The built index
+     */
+    public static SearchIndex build(WarpSnapshot snapshot, boolean cjkBigrams) {
+        int size = snapshot.size();
+        String[] texts = new String[size];
+        String[] pages = new String[size];
+
+        // Walk warps in alphabetical order so every posting list comes out sorted by rank
+        Map<Long, PostingBuilder> builders = new HashMap<>();
+        Map<String, PostingBuilder> pageBuilders = new HashMap<>();
+        AliasExpander aliases = new AliasExpander(snapshot.aliases());
+        for (int rank = 0; rank < size; rank++) {
+            WarpIcon icon = snapshot.icon(snapshot.ordinalAtRank(rank));
+            String text = searchableText(icon);
+            if (!aliases.isEmpty()) {
+                text = aliases.expand(text, icon.name(), icon.destinationId());
+            }
+            texts[rank] = text;
+            for (int i = 0; i + 3 <= text.length(); i++) {
+                long key = trigram(text, i);
+                builders.computeIfAbsent(key, k -> new PostingBuilder()).add(rank);
+            }
+            if (cjkBigrams) {
+                for (int i = 0; i + 2 <= text.length(); i++) {
+                    if (isCjkBigram(text, i)) {
+                        builders.computeIfAbsent(bigram(text, i), k -> new PostingBuilder()).add(rank);
+                    }
+                }
+            }
+            if (icon.page() != null && !icon.page().isEmpty()) {
+                pages[rank] = TextNormalizer.normalize(icon.page());
+                pageBuilders.computeIfAbsent(pages[rank], k -> new PostingBuilder()).add(rank);
+            }
+        }
+
+        Map<Long, int[]> postings = new HashMap<>(builders.size() * 2);
+        for (Map.Entry<Long, PostingBuilder> entry : builders.entrySet()) {
+            postings.put(entry.getKey(), entry.getValue().toArray());
+        }
+        Map<String, int[]> pagePostings = new HashMap<>(pageBuilders.size() * 2);
+        pageBuilders.forEach((page, builder) -> pagePostings.put(page, builder.toArray()));
+
+        // Completions ranked by how often each warp has been used
+        PrefixCompleter.Builder names = new PrefixCompleter.Builder();
+        PrefixCompleter.Builder tokens = new PrefixCompleter.Builder();
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            String name = snapshot.name(ordinal);
+            names.add(name, snapshot.performed(ordinal));
+            for (String token : TOKEN_SEPARATOR.split(name)) {
+                tokens.add(token, snapshot.performed(ordinal));
+            }
+        }
+
+        return new SearchIndex(snapshot, new TextArena(texts), pages, postings, cjkBigrams, pagePostings,
+            names.build(), tokens.build());
+    }
+
+    /**
+     * Evaluates a plain query (trimmed, non-empty terms) and returns matching
+     * ordinals in alphabetical order. All terms must match (AND logic).
+     *
+     * @param terms The query terms (no whitespace; normalized like the warp text)
+     * @return Matching ordinals, sorted alphabetically
+     */
+    public int[] search(String[] terms) {
+        return search(terms, null);
+    }
+
+    /**
+     * Evaluates a plain query restricted to a facet mask.
+     *
+     * @param terms The query terms (no whitespace; normalized like the warp text)
+     * @param rankMask Bitmap of allowed alphabetical ranks, or null to allow all
+     * @return Matching ordinals, sorted alphabetically
+     */
+    public int[] search(String[] terms, long[] rankMask) {
+        return search(SearchQuery.ofTerms(terms), rankMask);
+    }
+
+    /**
+     * Evaluates a parsed query (fields, phrases, OR and exclusions) restricted to a facet mask.
+     * An empty query matches every allowed warp.
+     *
+     * @param query The parsed query
+     * @param rankMask Bitmap of allowed alphabetical ranks, or null to allow all
+     * @return Matching ordinals, sorted alphabetically
+     */
+    public int[] search(SearchQuery query, long[] rankMask) {
+        return QueryPlan.compile(this, query).execute(rankMask);
+    }
+
+    /**
+     * Evaluates a parsed query by brute force, without consulting the trigram postings:
+     * one kernel pass over the text arena per term, combined as bitmaps.
+     * The search falls back to this when no clause can be narrowed down by the postings;
+     * it is public so the kernels can be benchmarked against the index.
+     *
+     * @param query The parsed query
+     * @param rankMask Bitmap of allowed alphabetical ranks, or null to allow all
+     * @param kernel The substring kernel to scan with
+     * @return Matching ordinals, sorted alphabetically
+     */
+    public int[] scan(SearchQuery query, long[] rankMask, ScanKernel kernel) {
+        return QueryPlan.compile(this, query).scan(rankMask, kernel);
+    }
+
+    /**
+     * Returns an upper bound on the number of warps a term can match, from the postings alone.
+     * Terms without a trigram get the warp count: the postings can't narrow them down.
+     */
+    int estimate(SearchQuery.Term term) {
+        if (term.field() == SearchQuery.Field.PAGE) {
+            int count = 0;
+            for (Map.Entry<String, int[]> entry : pagePostings.entrySet()) {
+                if (entry.getKey().contains(term.text())) {
+                    count += entry.getValue().length;
+                }
+            }
+            return count;
+        }
+
+        String text = term.text();
+        if (text.length() < 3) {
+            return usesBigram(text)
+                ? postings.getOrDefault(bigram(text, 0), NO_POSTINGS).length
+                : snapshot.size();
+        }
+        int estimate = snapshot.size();
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            estimate = Math.min(estimate, postings.getOrDefault(trigram(text, i), NO_POSTINGS).length);
+        }
+        return estimate;
+    }
+
+    /**
+     * Returns the candidate ranks of a clause: the union over its alternatives.
+     * Only called for clauses whose every alternative has a usable estimate.
+     */
+    int[] candidates(SearchQuery.Clause clause) {
+        int[] union = null;
+        for (SearchQuery.Term term : clause.alternatives()) {
+            int[] ranks = candidates(term);
+            union = union == null ? ranks : union(union, ranks);
+        }
+        return union;
+    }
+
+    /**
+     * Page terms: exact ranks of the matching pages. Text terms: the intersection of the term's
+     * trigram postings, rarest first (a superset of the real matches).
+     */
+    private int[] candidates(SearchQuery.Term term) {
+        if (term.field() == SearchQuery.Field.PAGE) {
+            int[] union = NO_POSTINGS;
+            for (Map.Entry<String, int[]> entry : pagePostings.entrySet()) {
+                if (entry.getKey().contains(term.text())) {
+                    union = union(union, entry.getValue());
+                }
+            }
+            return union;
+        }
+
+        String text = term.text();
+        if (usesBigram(text)) {
+            return postings.getOrDefault(bigram(text, 0), NO_POSTINGS);
+        }
+        int[][] lists = new int[text.length() - 2][];
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = postings.getOrDefault(trigram(text, i), NO_POSTINGS);
+        }
+
+        // Start from the shortest list so every intersection shrinks the working set fastest
+        Arrays.sort(lists, Comparator.comparingInt(list -> list.length));
+        int[] candidates = lists[0];
+        for (int i = 1; i < lists.length && candidates.length > 0; i++) {
+            candidates = intersect(candidates, lists[i]);
+        }
+        return candidates;
+    }
+
+    /**
+     * Returns the ranks of all warps matching a term, as a bitmap (one kernel pass over the arena).
+     */
+    long[] find(SearchQuery.Term term, char[] needle, ScanKernel kernel) {
+        if (term.field() == SearchQuery.Field.PAGE) {
+            long[] found = Bitmaps.create(snapshot.size());
+            for (Map.Entry<String, int[]> entry : pagePostings.entrySet()) {
+                if (entry.getKey().contains(term.text())) {
+                    for (int rank : entry.getValue()) {
+                        Bitmaps.set(found, rank);
+                    }
+                }
+            }
+            return found;
+        }
+        return arena.find(term.field(), needle, kernel);
+    }
+
+    /**
+     * Returns the ranks of all warps matching a text term in ascending order (one kernel pass, no bitmap).
+     *
+     * @param term Any field except {@link SearchQuery.Field#PAGE}
+     */
+    int[] findRanks(SearchQuery.Term term, char[] needle, ScanKernel kernel) {
+        return arena.findRanks(term.field(), needle, kernel);
+    }
+
+    /**
+     * Checks a warp against a whole query in one pass over its text.
+     */
+    boolean matches(QueryMatcher matcher, int rank) {
+        return matcher.matches(arena.chars(), arena.start(rank), arena.end(rank), pages[rank]);
+    }
+
+    /**
+     * Checks whether any alternative of a clause occurs in a warp (ignoring negation).
+     *
+     * @param needles The alternatives' texts as char arrays, in the same order
+     */
+    boolean matches(SearchQuery.Clause clause, char[][] needles, int rank) {
+        for (int i = 0; i < needles.length; i++) {
+            SearchQuery.Term term = clause.alternatives().get(i);
+            boolean found = term.field() == SearchQuery.Field.PAGE
+                ? pages[rank] != null && pages[rank].contains(term.text())
+                : arena.contains(rank, term.field(), needles[i], kernel);
+            if (found) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Suggests completions for partially typed query text.
+     * Whole warp names matching everything typed come first, followed by completions of the
+     * last word (keeping the words before it), each ranked by teleport count.
+     *
+     * @param typed The query text typed so far
+     * @param limit Maximum number of suggestions
+     * @return Suggested full query texts
+     */
+    public List<String> complete(String typed, int limit) {
+        int lastSpace = typed.lastIndexOf(' ');
+
+        List<String> suggestions = new ArrayList<>(nameCompleter.complete(TextNormalizer.normalize(typed), limit));
+
+        String head = typed.substring(0, lastSpace + 1);
+        for (String token : tokenCompleter.complete(TextNormalizer.normalize(typed.substring(lastSpace + 1)), limit)) {
+            if (suggestions.size() >= limit) {
+                break;
+            }
+            String suggestion = head + token;
+            if (suggestions.stream().noneMatch(suggestion::equalsIgnoreCase)) {
+                suggestions.add(suggestion);
+            }
+        }
+        return suggestions;
+    }
+
+    /**
+     * Returns the normalized searchable text for an ordinal.
+     */
+    public String text(int ordinal) {
+        return arena.text(snapshot.alphabeticalRank(ordinal));
+    }
+
+    /**
+     * Returns the substring kernel this index verifies candidates with.
+     */
+    ScanKernel kernel() {
+        return kernel;
+    }
+
+    /**
+     * Returns the snapshot this index was built from.
+     */
+    public WarpSnapshot snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Returns the load generation of the indexed snapshot.
+     */
+    public long generation() {
+        return snapshot.generation();
+    }
+
+    /**
+     * Builds the searchable text for a warp: name, display name, destination ID and lore,
+     * color codes stripped and {@link TextNormalizer normalized}, one field per line.
+     */
+    static String searchableText(WarpIcon icon) {
+        StringBuilder text = new StringBuilder();
+        text.append(icon.name()).append('\n');
+        text.append(stripColorCodes(icon.displayName())).append('\n');
+        text.append(icon.destinationId());
+        for (String loreLine : icon.lore()) {
+            text.append('\n').append(stripColorCodes(loreLine));
+        }
+        return TextNormalizer.normalize(text.toString());
+    }
+
+    private static String stripColorCodes(String text) {
+        return text.replaceAll("&[0-9a-fk-or]", "");
+    }
+
+    private static long trigram(String text, int offset) {
+        return ((long) text.charAt(offset) << 32)
+            | ((long) text.charAt(offset + 1) << 16)
+            | text.charAt(offset + 2);
+    }
+
+    /**
+     * Returns true if a short term is a CJK pair that the bigram postings can look up.
+     */
+    private boolean usesBigram(String text) {
+        return cjkBigrams && text.length() == 2 && isCjkBigram(text, 0);
+    }
+
+    private static boolean isCjkBigram(String text, int offset) {
+        return TextNormalizer.isCjk(text.charAt(offset)) && TextNormalizer.isCjk(text.charAt(offset + 1));
+    }
+
+    private static long bigram(String text, int offset) {
+        return BIGRAM | ((long) text.charAt(offset) << 16) | text.charAt(offset + 1);
+    }
+
+    static int[] intersect(int[] a, int[] b) {
+        // Galloping would help for very skewed sizes; a linear merge is plenty for trigram lists
+        int[] out = new int[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+
+    private static int[] union(int[] a, int[] b) {
+        int[] out = new int[a.length + b.length];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                out[n++] = a[i++];
+            } else if (a[i] > b[j]) {
+                out[n++] = b[j++];
+            } else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        while (i < a.length) {
+            out[n++] = a[i++];
+        }
+        while (j < b.length) {
+            out[n++] = b[j++];
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+
+    /**
+     * Growable, deduplicating int list used while building postings.
+     */
+    private static final class PostingBuilder {
+        private int[] ranks = new int[4];
+        private int size;
+
+        void add(int rank) {
+            // Ranks arrive in increasing order, so a repeated trigram within one warp is the last entry
+            if (size > 0 && ranks[size - 1] == rank) {
+                return;
+            }
+            if (size == ranks.length) {
+                ranks = Arrays.copyOf(ranks, size * 2);
+            }
+            ranks[size++] = rank;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(ranks, size);
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package archive.searchwarps.search;
+
+import archive.searchwarps.data.WarpIcon;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A parsed search query. Parsing never fails: anything that is not query syntax is searched for literally.
+ *
+ * <pre>
+ *   peter mary        both words, anywhere (AND)
+ *   name:spawn        only in the warp name or display name
+ *   lore:shop         only in the lore
+ *   id:hub            only in the destination ID
+ *   page:events       only warps on a page whose name contains "events"
+ *   -closed           warps NOT containing "closed"
+ *   "town hall"       the exact phrase, spaces included
+ *   shop|market       either word (OR); combines with fields, e.g. name:shop|lore:market
+ * </pre>
+ *
+ * Matching is case- and accent-insensitive substring matching (see {@link TextNormalizer}), like plain search.
+ * The query is independent of any snapshot; {@link SearchIndex#search(SearchQuery, long[])}
+ * compiles it into a {@link QueryPlan} against that snapshot's postings.
+ */
+public final class SearchQuery {
+    /**
+     * The part of a warp a term is matched against.
+     */
+    public enum Field {
+        ANY, NAME, LORE, ID, PAGE;
+
+        /**
+         * Returns the field for a query prefix (without the colon), or null if it is not a field name.
+         */
+        static Field forPrefix(String prefix) {
+            return switch (prefix) {
+                case "name" -> NAME;
+                case "lore" -> LORE;
+                case "id" -> ID;
+                case "page" -> PAGE;
+                default -> null;
+            };
+        }
+    }
+
+    /**
+     * A single substring to look for in one field.
+     *
+     * @param field Where to look
+     * @param text The normalized substring (may contain single spaces for phrases)
+     */
+    public record Term(Field field, String text) {}
+
+    /**
+     * One space-separated part of the query: matches if any alternative matches (or, if negated, if none does).
+     *
+     * @param negated Whether the clause excludes warps instead of requiring them
+     * @param alternatives The OR-ed terms, never empty
+     */
+    public record Clause(boolean negated, List<Term> alternatives) {
+        public Clause {
+            alternatives = List.copyOf(alternatives);
+        }
+    }
+
+    private final List<Clause> clauses;
+
+    // Single-pass matcher for all text terms; null when a per-term check is as cheap
+    private final QueryMatcher matcher;
+
+    private SearchQuery(List<Clause> clauses) {
+        this.clauses = List.copyOf(clauses);
+        this.matcher = QueryMatcher.compile(this.clauses);
+    }
+
+    /**
+     * Parses a query typed by a player.
+     *
+     * @param query The raw query (any case, surrounding whitespace ignored)
+     * @return The parsed query; empty if it contains no searchable text
+     */
+    public static SearchQuery parse(String query) {
+        return new Parser(TextNormalizer.normalize(query)).parse();
+    }
+
+    /**
+     * Creates a query that requires every term anywhere in the warp (plain AND search).
+     *
+     * @param terms Terms without whitespace (normalized here)
+     */
+    public static SearchQuery ofTerms(String[] terms) {
+        List<Clause> clauses = new ArrayList<>(terms.length);
+        for (String term : terms) {
+            if (!term.isEmpty()) {
+                clauses.add(new Clause(false, List.of(new Term(Field.ANY, TextNormalizer.normalize(term)))));
+            }
+        }
+        return new SearchQuery(clauses);
+    }
+
+    /**
+     * Returns the clauses, all of which must hold (AND).
+     */
+    public List<Clause> clauses() {
+        return clauses;
+    }
+
+    /**
+     * Returns true if the query has nothing to search for and therefore matches every warp.
+     */
+    public boolean isEmpty() {
+        return clauses.isEmpty();
+    }
+
+    /**
+     * Checks a single warp without an index (used by the linear scan).
+     * Builds and normalizes the warp's searchable text on every call, so this allocates per warp;
+     * snapshot searches instead check the text normalized once per load in the {@link TextArena}.
+     *
+     * @param icon The warp to check
+     * @return true if every clause holds for the warp
+     */
+    public boolean matches(WarpIcon icon) {
+        return matches(SearchIndex.searchableText(icon), icon.page());
+    }
+
+    /**
+     * Checks a warp's prepared searchable text (e.g. with aliases expanded by {@link AliasExpander}).
+     *
+     * @param text The normalized searchable text
+     * @param rawPage The warp's page as loaded, or null
+     * @return true if every clause holds for the warp
+     */
+    boolean matches(String text, String rawPage) {
+        String page = rawPage == null ? null : TextNormalizer.normalize(rawPage);
+        if (matcher != null) {
+            return matcher.matches(text, page);
+        }
+
+        int displayEnd = text.indexOf('\n', text.indexOf('\n') + 1);
+        int idEnd = text.indexOf('\n', displayEnd + 1);
+        if (idEnd < 0) {
+            idEnd = text.length();
+        }
+
+        for (Clause clause : clauses) {
+            if (matches(clause, text, displayEnd, idEnd, page) == clause.negated()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the compiled single-pass matcher, or null if the clauses should be checked one by one.
+     */
+    QueryMatcher matcher() {
+        return matcher;
+    }
+
+    /**
+     * Returns true if any alternative of the clause occurs in the warp (ignoring negation).
+     */
+    static boolean matches(Clause clause, String text, int displayEnd, int idEnd, String page) {
+        for (Term term : clause.alternatives()) {
+            if (matches(term, text, displayEnd, idEnd, page)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks one term against a warp's searchable text ({@code name\ndisplay\nid\nlore...}).
+     *
+     * @param displayEnd Index of the newline after the display name
+     * @param idEnd Index of the newline after the destination ID (or the text length without lore)
+     * @param page The warp's normalized page, or null
+     */
+    static boolean matches(Term term, String text, int displayEnd, int idEnd, String page) {
+        return switch (term.field()) {
+            case ANY -> text.contains(term.text());
+            case NAME -> containsWithin(text, term.text(), 0, displayEnd);
+            case ID -> containsWithin(text, term.text(), displayEnd + 1, idEnd);
+            case LORE -> idEnd < text.length() && containsWithin(text, term.text(), idEnd + 1, text.length());
+            case PAGE -> page != null && page.contains(term.text());
+        };
+    }
+
+    private static boolean containsWithin(String text, String term, int from, int to) {
+        // Terms never contain '\n', so the first occurrence after 'from' decides
+        int index = text.indexOf(term, from);
+        return index >= 0 && index + term.length() <= to;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder();
+        for (Clause clause : clauses) {
+            if (!out.isEmpty()) {
+                out.append(' ');
+            }
+            if (clause.negated()) {
+                out.append('-');
+            }
+            for (int i = 0; i < clause.alternatives().size(); i++) {
+                Term term = clause.alternatives().get(i);
+                if (i > 0) {
+                    out.append('|');
+                }
+                if (term.field() != Field.ANY) {
+                    out.append(term.field().name().toLowerCase(Locale.ROOT)).append(':');
+                }
+                out.append(term.text().indexOf(' ') >= 0 ? '"' + term.text() + '"' : term.text());
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * Hand-written recursive descent over the normalized query.
+     * Lenient by design: queries are parsed on every keystroke, so half-typed syntax
+     * ({@code name:}, an unclosed quote, a trailing {@code |} or {@code -}) simply contributes nothing.
+     * A {@code -} followed by a space and more text is searched for literally.
+     */
+    private static final class Parser {
+        private final String input;
+        private int pos;
+
+        Parser(String input) {
+            this.input = input;
+        }
+
+        SearchQuery parse() {
+            List<Clause> clauses = new ArrayList<>();
+            skipWhitespace();
+            while (pos < input.length()) {
+                Clause clause = clause();
+                if (clause != null) {
+                    clauses.add(clause);
+                }
+                skipWhitespace();
+            }
+            return new SearchQuery(clauses);
+        }
+
+        private Clause clause() {
+            boolean negated = false;
+            if (input.charAt(pos) == '-') {
+                int next = pos + 1;
+                while (next < input.length() && isBreak(input.charAt(next))) {
+                    next++;
+                }
+                if (next == input.length()) {
+                    // "spawn -" while "-nether" is being typed
+                    pos = next;
+                    return null;
+                }
+                if (next == pos + 1) {
+                    negated = true;
+                    pos++;
+                }
+            }
+
+            List<Term> alternatives = new ArrayList<>(1);
+            while (true) {
+                Term term = term();
+                if (term != null) {
+                    alternatives.add(term);
+                }
+                // "a|b" and "a | b" both continue the clause
+                int save = pos;
+                skipWhitespace();
+                if (pos < input.length() && input.charAt(pos) == '|') {
+                    pos++;
+                    skipWhitespace();
+                    if (pos < input.length()) {
+                        continue;
+                    }
+                } else {
+                    pos = save;
+                }
+                break;
+            }
+            return alternatives.isEmpty() ? null : new Clause(negated, alternatives);
+        }
+
+        private Term term() {
+            Field field = Field.ANY;
+            int colon = input.indexOf(':', pos);
+            if (colon > pos && colon < wordEnd()) {
+                Field prefixed = Field.forPrefix(input.substring(pos, colon));
+                if (prefixed != null) {
+                    field = prefixed;
+                    pos = colon + 1;
+                }
+            }
+
+            String text;
+            if (pos < input.length() && input.charAt(pos) == '"') {
+                int close = input.indexOf('"', pos + 1);
+                int end = close < 0 ? input.length() : close;
+                // Phrases match with single spaces, however they were typed
+                text = input.substring(pos + 1, end).trim().replaceAll("\\s+", " ");
+                pos = close < 0 ? end : close + 1;
+            } else {
+                int end = wordEnd();
+                text = input.substring(pos, end);
+                pos = end;
+            }
+            return text.isEmpty() ? null : new Term(field, text);
+        }
+
+        private int wordEnd() {
+            int end = pos;
+            while (end < input.length() && !isBreak(input.charAt(end)) && input.charAt(end) != '|') {
+                end++;
+            }
+            return end;
+        }
+
+        private void skipWhitespace() {
+            while (pos < input.length() && isBreak(input.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private static boolean isBreak(char c) {
+            return Character.isWhitespace(c);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package archive.searchwarps.search;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces identical concurrent computations: while one caller computes the value for a key,
+ * every other caller with the same key shares that result instead of computing it again, either
+ * waiting for it ({@link #execute}) or getting it as a future ({@link #submit}).
+ *
+ * Nothing is kept once the computation finishes, so this is not a cache: a caller arriving
+ * after the first one returned computes afresh. Keys must therefore identify the input completely
+ * (e.g. include the data generation), and values must be safe to share between callers.
+ *
+ * @param <K> Key type (with value equality)
+ * @param <V> Result type
+ */
+public final class SingleFlight<K, V> {
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the value for a key, computing it on this thread unless another thread already is.
+     * Blocks while another caller computes; on a thread that must not wait, use {@link #submit}.
+     *
+     * @param key Identifies the computation
+     * @param compute Computes the value (runs at most once per burst of concurrent callers)
+     * @return The computed value, shared with concurrent callers
+     * @throws RuntimeException Whatever the computation threw, for every waiting caller
+     */
+    public V execute(K key, Supplier<V> compute) {
+        return execute(key, compute, null);
+    }
+
+    /**
+     * Like {@link #execute(Object, Supplier)}, calling {@code onShared} when the value came from
+     * another caller's computation (e.g. to count coalesced calls).
+     */
+    public V execute(K key, Supplier<V> compute, Runnable onShared) {
+        try {
+            return submit(key, compute, onShared).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /**
+     * Returns the value for a key as a future, without ever waiting. The first caller computes on
+     * its own thread and gets a completed future; callers arriving meanwhile get that caller's
+     * pending future, which completes (and runs their dependent actions) on the computing thread.
+     *
+     * @param key Identifies the computation
+     * @param compute Computes the value (runs at most once per burst of concurrent callers)
+     * @param onShared Called when the value comes from another caller's computation (may be null)
+     * @return The value, or the failure of the computation
+     */
+    public CompletableFuture<V> submit(K key, Supplier<V> compute, Runnable onShared) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> leader = inFlight.putIfAbsent(key, mine);
+        if (leader != null) {
+            if (onShared != null) {
+                onShared.run();
+            }
+            return leader;
+        }
+
+        try {
+            mine.complete(compute.get());
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+        } catch (Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+        return mine;
+    }
+
+    /**
+     * Returns the number of computations currently running.
+     */
+    public int inFlight() {
+        return inFlight.size();
+    }
+}
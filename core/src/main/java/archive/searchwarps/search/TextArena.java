@@ -0,0 +1,153 @@
+package archive.searchwarps.search;
+
+import archive.searchwarps.facet.Bitmaps;
+
+import java.util.Arrays;
+
+/**
+ * The normalized searchable text of all warps of a snapshot in one contiguous {@code char[]},
+ * in alphabetical order, each text followed by a '\n'.
+ *
+ * One array instead of one {@code String} per warp keeps brute-force scans sequential in memory,
+ * and lets a scan kernel search every warp in a single pass: a match position maps back to its
+ * warp through the offsets array. Query terms never contain '\n', so no match can span two fields
+ * or two warps.
+ */
+final class TextArena {
+    private final char[] chars;
+
+    // starts[rank] = first char of that warp's text; starts[size] = chars.length
+    private final int[] starts;
+
+    // Absolute positions of the '\n' after the display name and after the destination ID
+    private final int[] displayEnds;
+    private final int[] idEnds;
+
+    /**
+     * @param textsByRank Searchable texts ({@code name\ndisplay\nid\nlore...}) in alphabetical order
+     */
+    TextArena(String[] textsByRank) {
+        int total = 0;
+        for (String text : textsByRank) {
+            total += text.length() + 1;
+        }
+
+        chars = new char[total];
+        starts = new int[textsByRank.length + 1];
+        displayEnds = new int[textsByRank.length];
+        idEnds = new int[textsByRank.length];
+        int position = 0;
+        for (int rank = 0; rank < textsByRank.length; rank++) {
+            String text = textsByRank[rank];
+            text.getChars(0, text.length(), chars, position);
+            chars[position + text.length()] = '\n';
+            starts[rank] = position;
+            int displayEnd = text.indexOf('\n', text.indexOf('\n') + 1);
+            int idEnd = text.indexOf('\n', displayEnd + 1);
+            displayEnds[rank] = position + displayEnd;
+            idEnds[rank] = position + (idEnd < 0 ? text.length() : idEnd);
+            position += text.length() + 1;
+        }
+        starts[textsByRank.length] = position;
+    }
+
+    int size() {
+        return idEnds.length;
+    }
+
+    char[] chars() {
+        return chars;
+    }
+
+    int start(int rank) {
+        return starts[rank];
+    }
+
+    /**
+     * Returns the end of a warp's text (exclusive; the position of its trailing '\n').
+     */
+    int end(int rank) {
+        return starts[rank + 1] - 1;
+    }
+
+    String text(int rank) {
+        return new String(chars, start(rank), end(rank) - start(rank));
+    }
+
+    /**
+     * Checks whether a warp contains the needle within a field.
+     *
+     * @param field Any field except {@link SearchQuery.Field#PAGE} (pages are not in the text)
+     */
+    boolean contains(int rank, SearchQuery.Field field, char[] needle, ScanKernel kernel) {
+        return switch (field) {
+            case ANY -> kernel.indexOf(chars, start(rank), end(rank), needle) >= 0;
+            case NAME -> kernel.indexOf(chars, start(rank), displayEnds[rank], needle) >= 0;
+            case ID -> kernel.indexOf(chars, displayEnds[rank] + 1, idEnds[rank], needle) >= 0;
+            case LORE -> idEnds[rank] < end(rank) && kernel.indexOf(chars, idEnds[rank] + 1, end(rank), needle) >= 0;
+            case PAGE -> false;
+        };
+    }
+
+    /**
+     * Scans the whole arena once and returns the ranks of all warps containing the needle within a field.
+     *
+     * @param field Any field except {@link SearchQuery.Field#PAGE}
+     * @return Bitmap of matching alphabetical ranks
+     */
+    long[] find(SearchQuery.Field field, char[] needle, ScanKernel kernel) {
+        long[] found = Bitmaps.create(size());
+        int rank = 0;
+        int position = 0;
+        while ((position = kernel.indexOf(chars, position, chars.length, needle)) >= 0) {
+            // Matches come in increasing order, so the owning warp only ever moves forward
+            while (starts[rank + 1] <= position) {
+                rank++;
+            }
+            if (inField(rank, field, position)) {
+                Bitmaps.set(found, rank);
+                position = starts[rank + 1]; // One match per warp is enough
+            } else {
+                position++;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Like {@link #find}, but returns the matching ranks in ascending order instead of a bitmap,
+     * for a lone term whose matches are not combined with any other term.
+     */
+    int[] findRanks(SearchQuery.Field field, char[] needle, ScanKernel kernel) {
+        int[] found = new int[size()];
+        int count = 0;
+        int rank = 0;
+        int position = 0;
+        while ((position = kernel.indexOf(chars, position, chars.length, needle)) >= 0) {
+            while (starts[rank + 1] <= position) {
+                rank++;
+            }
+            if (inField(rank, field, position)) {
+                found[count++] = rank;
+                position = starts[rank + 1];
+            } else {
+                position++;
+            }
+        }
+        return count == found.length ? found : Arrays.copyOf(found, count);
+    }
+
+    /**
+     * Returns whether a match starting at {@code position} lies in the given field of a warp.
+     * The match can't cross a '\n', so its start decides.
+     */
+    private boolean inField(int rank, SearchQuery.Field field, int position) {
+        return switch (field) {
+            case ANY -> true;
+            case NAME -> position < displayEnds[rank];
+            case ID -> position > displayEnds[rank] && position < idEnds[rank];
+            case LORE -> position > idEnds[rank];
+            case PAGE -> false;
+        };
+    }
+}
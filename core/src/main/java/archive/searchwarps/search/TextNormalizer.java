@@ -0,0 +1,82 @@
+package archive.searchwarps.search;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+/**
+ * The text analysis applied to both sides of a search: to warp text once per load (when the
+ * {@link SearchIndex} is built) and to every query. Matching stays a plain substring check on the
+ * results, so "Caf&eacute;" is found by "cafe", full-width "SHOP" by "shop" and "Stra&szlig;e" by "strasse".
+ *
+ * <ol>
+ *   <li>NFKD: compatibility forms (full-width letters, ligatures, superscripts) become their plain
+ *       letters and accented letters split into base letter + combining mark</li>
+ *   <li>Diacritic stripping: combining marks from the Latin/Greek/Cyrillic mark blocks are dropped</li>
+ *   <li>NFC: everything else recombines, so Hangul syllables and Japanese voiced kana keep
+ *       their identity</li>
+ *   <li>Case folding with {@link Locale#ROOT} (a Turkish server locale must not turn "ID" into "&#x131;d"),
+ *       plus sharp s to "ss"</li>
+ * </ol>
+ *
+ * Newlines pass through unchanged, so multi-field text keeps its field boundaries.
+ */
+public final class TextNormalizer {
+    private TextNormalizer() {
+    }
+
+    /**
+     * Normalizes text for searching.
+     *
+     * @param text Warp text or a query
+     * @return The normalized text (may differ in length from the input)
+     */
+    public static String normalize(String text) {
+        // Almost all warp text is ASCII: nothing to decompose, and ASCII case folding is exact
+        if (isAscii(text)) {
+            return text.toLowerCase(Locale.ROOT);
+        }
+
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFKD);
+        StringBuilder stripped = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (!isDiacritic(c)) {
+                stripped.append(c);
+            }
+        }
+        String folded = Normalizer.normalize(stripped, Normalizer.Form.NFC).toLowerCase(Locale.ROOT);
+        return folded.indexOf('\u00DF') < 0 ? folded : folded.replace("\u00DF", "ss");
+    }
+
+    /**
+     * Returns true for CJK ideographs, kana and Hangul: scripts written without spaces,
+     * where most words are two characters long (see {@link SearchIndex} bigram postings).
+     */
+    public static boolean isCjk(char c) {
+        if (c < 0x1100) {
+            return false; // Fast path for Latin, Greek, Cyrillic, ...
+        }
+        Character.UnicodeScript script = Character.UnicodeScript.of(c);
+        return script == Character.UnicodeScript.HAN
+            || script == Character.UnicodeScript.HIRAGANA
+            || script == Character.UnicodeScript.KATAKANA
+            || script == Character.UnicodeScript.HANGUL;
+    }
+
+    private static boolean isAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDiacritic(char c) {
+        return (c >= 0x0300 && c <= 0x036F)  // Combining Diacritical Marks
+            || (c >= 0x1AB0 && c <= 0x1AFF)  // Combining Diacritical Marks Extended
+            || (c >= 0x1DC0 && c <= 0x1DFF)  // Combining Diacritical Marks Supplement
+            || (c >= 0x20D0 && c <= 0x20FF)  // Combining Diacritical Marks for Symbols
+            || (c >= 0xFE20 && c <= 0xFE2F); // Combining Half Marks
+    }
+}
@@ -0,0 +1,167 @@
+package archive.searchwarps.search;
+
+import archive.searchwarps.data.WarpAliases;
+import archive.searchwarps.data.WarpIcon;
+import archive.searchwarps.data.WarpSnapshot;
+import archive.searchwarps.facet.Bitmaps;
+import archive.searchwarps.sorting.SortMode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Free-text search across warp names, display names, lore, and destination IDs.
+ * Uses case- and accent-insensitive substring matching (see {@link TextNormalizer}) with multi-term AND logic.
+ * Query "Peter Mary" matches warps containing BOTH "peter" AND "mary".
+ * Also understands field filters, exclusions, phrases and OR; see {@link SearchQuery}.
+ */
+public class WarpSearchEngine {
+    // Index for the most recent snapshot; rebuilt once per data load
+    private volatile SearchIndex index;
+    private final Object indexLock = new Object();
+
+    // Index pairs of adjacent CJK characters (applies to indexes built from now on)
+    private volatile boolean cjkBigrams;
+
+    /**
+     * Searches for warps matching the given query.
+     * Multi-term queries (space-separated) use AND logic - all terms must match.
+     * Searches across warp names, display names, all lore lines (with color codes stripped), and destination IDs.
+     * This is a linear scan without any index or aliases; see {@link #search(List, String, WarpAliases)}.
+     *
+     * @param allIcons List of all warp icons to search
+     * @param query Search query (case-insensitive, space-separated for multiple terms)
+     * @return List of warps matching ALL search terms
+     */
+    public List<WarpIcon> search(List<WarpIcon> allIcons, String query) {
+        return search(allIcons, query, WarpAliases.EMPTY);
+    }
+
+    /**
+     * Linear scan with aliases and synonyms expanded into each warp's text the way the index
+     * expands them; kept as the reference for the indexed search of a snapshot with these aliases.
+     *
+     * @param allIcons List of all warp icons to search
+     * @param query Search query (case-insensitive, space-separated for multiple terms)
+     * @param aliases Aliases and synonyms to match as well
+     * @return List of warps matching ALL search terms
+     */
+    public List<WarpIcon> search(List<WarpIcon> allIcons, String query, WarpAliases aliases) {
+        SearchQuery parsed = SearchQuery.parse(query);
+
+        // If empty query, return all warps
+        if (parsed.isEmpty()) {
+            return new ArrayList<>(allIcons);
+        }
+
+        // Filter warps where all query clauses hold
+        AliasExpander expander = new AliasExpander(aliases);
+        return allIcons.stream()
+            .filter(icon -> {
+                String text = SearchIndex.searchableText(icon);
+                if (!expander.isEmpty()) {
+                    text = expander.expand(text, icon.name(), icon.destinationId());
+                }
+                return parsed.matches(text, icon.page());
+            })
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Searches a snapshot and returns the matches as an alphabetical {@link ResultView}.
+     * Uses the snapshot's {@link SearchIndex} (trigram candidates + substring verification),
+     * so the result needs no further sorting and is cheap enough to run per keystroke.
+     * The query is parsed once and run as a plan ordered by clause selectivity.
+     *
+     * @param snapshot The warp snapshot to search
+     * @param query Search query (case-insensitive, space-separated for multiple terms)
+     * @return View of warps matching ALL search terms, sorted alphabetically
+     */
+    public ResultView search(WarpSnapshot snapshot, String query) {
+        return search(snapshot, query, null);
+    }
+
+    /**
+     * Searches a snapshot within a facet filter (see {@link archive.searchwarps.facet.FacetIndex#mask}).
+     * With an empty query the matches are read straight from the mask, which is already in A-Z order.
+     *
+     * @param snapshot The warp snapshot to search
+     * @param query Search query (case-insensitive, space-separated for multiple terms)
+     * @param rankMask Bitmap of allowed alphabetical ranks, or null to allow all warps
+     * @return View of allowed warps matching ALL search terms, sorted alphabetically
+     */
+    public ResultView search(WarpSnapshot snapshot, String query, long[] rankMask) {
+        SearchQuery parsed = SearchQuery.parse(query);
+
+        // If empty query, return all (allowed) warps
+        if (parsed.isEmpty()) {
+            if (rankMask == null) {
+                return ResultView.all(snapshot);
+            }
+            int[] ordinals = Bitmaps.toArray(rankMask);
+            for (int i = 0; i < ordinals.length; i++) {
+                ordinals[i] = snapshot.ordinalAtRank(ordinals[i]);
+            }
+            return ResultView.of(snapshot, ordinals, SortMode.ALPHABETICAL);
+        }
+
+        int[] ordinals = indexFor(snapshot).search(parsed, rankMask);
+        return ResultView.of(snapshot, ordinals, SortMode.ALPHABETICAL);
+    }
+
+    /**
+     * Suggests query completions (warp names and name words), ranked by teleport count.
+     * Backed by the snapshot's prefix completer, so it is cheap enough for tab-completion.
+     *
+     * @param snapshot The warp snapshot to complete against
+     * @param typed The query text typed so far
+     * @param limit Maximum number of suggestions
+     * @return Suggested full query texts
+     */
+    public List<String> complete(WarpSnapshot snapshot, String typed, int limit) {
+        return indexFor(snapshot).complete(typed, limit);
+    }
+
+    /**
+     * Sets whether indexes get bigram postings for CJK text, so that two-character CJK
+     * queries are answered from the index instead of a full scan. Takes effect on the next data load.
+     *
+     * @param cjkBigrams Whether to index pairs of adjacent CJK characters
+     */
+    public void setCjkBigrams(boolean cjkBigrams) {
+        this.cjkBigrams = cjkBigrams;
+    }
+
+    /**
+     * Builds the search index for a freshly loaded snapshot ahead of the first query.
+     * Should be called asynchronously after every data load.
+     *
+     * @param snapshot The snapshot to index
+     */
+    public void prepare(WarpSnapshot snapshot) {
+        indexFor(snapshot);
+    }
+
+    /**
+     * Returns the index for a snapshot, building it if the cached one belongs to another generation.
+     */
+    private SearchIndex indexFor(WarpSnapshot snapshot) {
+        SearchIndex current = index;
+        if (current != null && current.snapshot() == snapshot) {
+            return current;
+        }
+
+        synchronized (indexLock) {
+            current = index;
+            if (current == null || current.snapshot() != snapshot) {
+                current = SearchIndex.build(snapshot, cjkBigrams);
+                // Never replace a newer index with one for an older snapshot
+                if (index == null || index.generation() <= current.generation()) {
+                    index = current;
+                }
+            }
+            return current;
+        }
+    }
+}
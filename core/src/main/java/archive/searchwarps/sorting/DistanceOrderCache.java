@@ -0,0 +1,240 @@
+package archive.searchwarps.sorting;
+
+import archive.searchwarps.data.WarpSnapshot;
+import archive.searchwarps.metrics.MetricsRegistry;
+import archive.searchwarps.search.ResultView;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Distance orderings shared by players standing close to each other.
+ *
+ * Players are grouped by (snapshot generation, world, X/Z cell of {@code cellSize} blocks). The
+ * first distance sort in a cell locates every warp once and sorts all of them by distance from the
+ * cell center; every later sort in that cell reuses that order. A player's own view is derived by
+ * filtering the shared order down to the view's warps, computing the exact distances from the
+ * player's position (plain arithmetic on the cached warp positions) and repairing the few places
+ * where the exact order differs from the cell center's with an insertion sort. The result is the
+ * same as {@link DistanceSorter#sortByDistance} without locating or fully sorting anything.
+ *
+ * Entries expire after a time to live (warps can move between loads) and the least recently used
+ * entry is evicted when the size bound is reached.
+ */
+public class DistanceOrderCache {
+    // Repair moves allowed per warp before the nearly-sorted order is just sorted outright
+    private static final int MAX_REPAIR_MOVES_PER_WARP = 16;
+
+    private final Map<CellKey, Entry> entries = new ConcurrentHashMap<>();
+    private final MetricsRegistry metrics;
+    private volatile boolean enabled;
+    private volatile int cellSize;
+    private volatile int maxEntries;
+    private volatile long ttlNanos;
+
+    /**
+     * @param enabled Whether to share orderings (false = every sort is computed from scratch)
+     * @param cellSize Cell edge length in blocks
+     * @param maxEntries Maximum number of cells kept at once
+     * @param ttlSeconds Age after which a cell's ordering is rebuilt
+     * @param metrics Receives hit and miss counts
+     */
+    public DistanceOrderCache(boolean enabled, int cellSize, int maxEntries, long ttlSeconds, MetricsRegistry metrics) {
+        this.metrics = metrics;
+        configure(enabled, cellSize, maxEntries, ttlSeconds);
+    }
+
+    /**
+     * Applies new settings. Safe to call on reload; a changed cell size drops every entry.
+     */
+    public void configure(boolean enabled, int cellSize, int maxEntries, long ttlSeconds) {
+        if (cellSize != this.cellSize || !enabled) {
+            entries.clear();
+        }
+        this.enabled = enabled;
+        this.cellSize = cellSize;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+    }
+
+    /**
+     * Sorts a view by distance from the player, reusing the ordering of the player's cell.
+     *
+     * @param view The view to sort (alphabetical; its order breaks distance ties)
+     * @param playerLocation The player's position (may be null)
+     * @param locator Resolves warp positions (null if unavailable)
+     * @return Distance-sorted view, identical to {@link DistanceSorter#sortByDistance}
+     */
+    public ResultView sortByDistance(ResultView view, WarpPosition playerLocation, WarpLocator locator) {
+        if (!enabled || playerLocation == null || locator == null) {
+            return DistanceSorter.sortByDistance(view, playerLocation, locator);
+        }
+
+        WarpSnapshot snapshot = view.snapshot();
+        int size = cellSize;
+        CellKey key = new CellKey(snapshot.generation(), playerLocation.world(),
+            Math.floorDiv((long) Math.floor(playerLocation.x()), size),
+            Math.floorDiv((long) Math.floor(playerLocation.z()), size));
+
+        long now = System.nanoTime();
+        Entry entry = entries.get(key);
+        if (entry != null && entry.snapshot == snapshot && now - entry.createdNanos < ttlNanos) {
+            metrics.increment(MetricsRegistry.DISTANCE_CACHE_HIT);
+        } else {
+            metrics.increment(MetricsRegistry.DISTANCE_CACHE_MISS);
+            if (entry == null && entries.size() >= maxEntries) {
+                makeRoom(now);
+            }
+            entry = new Entry(snapshot, locator, (key.cellX + 0.5) * size, (key.cellZ + 0.5) * size, now);
+            entries.put(key, entry);
+        }
+        entry.lastAccessNanos = now;
+        return entry.sort(view, playerLocation);
+    }
+
+    /**
+     * Forgets every shared ordering (e.g. after a data reload).
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Returns the number of cached cells.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Frees space for a new entry: drop expired ones first, then evict the least recently used.
+     */
+    private void makeRoom(long now) {
+        entries.values().removeIf(entry -> now - entry.createdNanos >= ttlNanos);
+        while (entries.size() >= maxEntries) {
+            Map.Entry<CellKey, Entry> oldest = null;
+            for (Map.Entry<CellKey, Entry> candidate : entries.entrySet()) {
+                if (oldest == null || candidate.getValue().lastAccessNanos - oldest.getValue().lastAccessNanos < 0) {
+                    oldest = candidate;
+                }
+            }
+            if (oldest == null || !entries.remove(oldest.getKey(), oldest.getValue())) {
+                return;
+            }
+        }
+    }
+
+    private record CellKey(long generation, String world, long cellX, long cellZ) {}
+
+    /**
+     * One cell's shared ordering: every warp of the snapshot, closest to the cell center first.
+     */
+    private static final class Entry {
+        private final WarpSnapshot snapshot;
+        private final long createdNanos;
+        private volatile long lastAccessNanos;
+
+        // Positions by ordinal (NaN = unknown)
+        private final double[] xs;
+        private final double[] zs;
+
+        // Ordinals: located warps by distance from the cell center, then unknown ones in A-Z order
+        private final int[] order;
+
+        Entry(WarpSnapshot snapshot, WarpLocator locator, double centerX, double centerZ, long now) {
+            this.snapshot = snapshot;
+            this.createdNanos = now;
+            int size = snapshot.size();
+            this.xs = new double[size];
+            this.zs = new double[size];
+
+            long[] keys = new long[size];
+            for (int ordinal = 0; ordinal < size; ordinal++) {
+                WarpPosition position = locator.locate(snapshot.destinationId(ordinal));
+                xs[ordinal] = position == null ? Double.NaN : position.x();
+                zs[ordinal] = position == null ? Double.NaN : position.z();
+                keys[ordinal] = key(distance(ordinal, centerX, centerZ), snapshot.alphabeticalRank(ordinal));
+            }
+            Arrays.sort(keys);
+
+            this.order = new int[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = snapshot.ordinalAtRank((int) keys[i]);
+            }
+        }
+
+        /**
+         * Derives one player's distance-sorted view from the shared order.
+         */
+        ResultView sort(ResultView view, WarpPosition player) {
+            int size = view.size();
+            boolean everyWarp = size == snapshot.size();
+            boolean[] inView = null;
+            if (!everyWarp) {
+                inView = new boolean[snapshot.size()];
+                for (int i = 0; i < size; i++) {
+                    inView[view.ordinalAt(i)] = true;
+                }
+            }
+
+            // Filter the shared order, keyed by the player's exact distance
+            long[] keys = new long[size];
+            int n = 0;
+            for (int ordinal : order) {
+                if (everyWarp || inView[ordinal]) {
+                    keys[n++] = key(distance(ordinal, player.x(), player.z()), snapshot.alphabeticalRank(ordinal));
+                }
+            }
+            repair(keys);
+
+            int[] ordinals = new int[size];
+            double[] distances = new double[size];
+            for (int i = 0; i < size; i++) {
+                ordinals[i] = snapshot.ordinalAtRank((int) keys[i]);
+                distances[i] = distance(ordinals[i], player.x(), player.z());
+            }
+            return ResultView.ofDistances(snapshot, ordinals, distances);
+        }
+
+        private double distance(int ordinal, double x, double z) {
+            if (Double.isNaN(xs[ordinal])) {
+                return Double.MAX_VALUE;
+            }
+            double dx = xs[ordinal] - x;
+            double dz = zs[ordinal] - z;
+            return Math.sqrt(dx * dx + dz * dz);
+        }
+
+        /**
+         * Packs (distance, alphabetical rank) like {@link DistanceSorter#sortByDistance}, so ties
+         * break alphabetically and the result matches an uncached sort exactly.
+         */
+        private static long key(double distance, int rank) {
+            return ((long) Float.floatToIntBits((float) distance) << 32) | rank;
+        }
+
+        /**
+         * Insertion sort: linear for the nearly-sorted keys a nearby cell center produces.
+         * Falls back to a full sort if the order turns out to be far off.
+         */
+        private static void repair(long[] keys) {
+            long budget = (long) keys.length * MAX_REPAIR_MOVES_PER_WARP;
+            for (int i = 1; i < keys.length; i++) {
+                long key = keys[i];
+                int j = i - 1;
+                while (j >= 0 && keys[j] > key) {
+                    keys[j + 1] = keys[j];
+                    j--;
+                    if (--budget < 0) {
+                        keys[j + 1] = key;
+                        Arrays.sort(keys);
+                        return;
+                    }
+                }
+                keys[j + 1] = key;
+            }
+        }
+    }
+}
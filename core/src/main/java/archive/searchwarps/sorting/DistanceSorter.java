@@ -1,8 +1,8 @@
 package archive.searchwarps.sorting;
 
 import archive.searchwarps.data.WarpIcon;
-import de.codingair.warpsystem.api.TeleportService;
-import org.bukkit.Location;
+import archive.searchwarps.data.WarpSnapshot;
+import archive.searchwarps.search.ResultView;
 
 import java.util.*;
 
@@ -27,9 +27,11 @@ public class DistanceSorter {
      *
      * @param warps the list of warps to sort
      * @param playerLocation the player's current location for distance calculations
+     * @param locator resolves a destination ID to its position (null result = unknown); null if unavailable
      * @return list of WarpWithDistance objects, sorted by distance
      */
-    public static List<WarpWithDistance> sortWithDistance(List<WarpIcon> warps, Location playerLocation) {
+    public static List<WarpWithDistance> sortWithDistance(List<WarpIcon> warps, WarpPosition playerLocation,
+                                                          WarpLocator locator) {
         if (playerLocation == null) {
             // Fallback: return with MAX_VALUE distance
             List<WarpWithDistance> result = new ArrayList<>();
@@ -40,8 +42,7 @@ public class DistanceSorter {
             return result;
         }
 
-        var teleportService = TeleportService.get();
-        if (teleportService == null) {
+        if (locator == null) {
             // Fallback: return with MAX_VALUE distance
             List<WarpWithDistance> result = new ArrayList<>();
             for (WarpIcon warp : warps) {
@@ -54,7 +55,7 @@ public class DistanceSorter {
         // Calculate distances for all warps
         List<WarpWithDistance> warpsWithDistance = new ArrayList<>();
         for (WarpIcon warp : warps) {
-            Location warpLocation = teleportService.simpleWarp(warp.destinationId());
+            WarpPosition warpLocation = locator.locate(warp.destinationId());
 
             double distance;
             if (warpLocation == null) {
@@ -72,6 +73,53 @@ public class DistanceSorter {
         return warpsWithDistance;
     }
 
+    /**
+     * Sorts a result view by distance from the player.
+     * Produces a new view that shares the snapshot and stores distances in a primitive array
+     * parallel to the ordinals. Warps with unknown locations keep their alphabetical order at the end.
+     *
+     * @param view the view to sort (expected to be alphabetical, which is used to break ties)
+     * @param playerLocation the player's current location for distance calculations
+     * @param locator resolves a destination ID to its position (null result = unknown); null if unavailable
+     * @return distance-sorted view
+     */
+    public static ResultView sortByDistance(ResultView view, WarpPosition playerLocation, WarpLocator locator) {
+        int size = view.size();
+        double[] distances = new double[size];
+
+        if (playerLocation == null || locator == null) {
+            // Fallback: alphabetical order with MAX_VALUE distance
+            ResultView alphabetical = view.sortedAlphabetically();
+            int[] ordinals = new int[size];
+            for (int i = 0; i < size; i++) {
+                ordinals[i] = alphabetical.ordinalAt(i);
+            }
+            Arrays.fill(distances, Double.MAX_VALUE);
+            return ResultView.ofDistances(view.snapshot(), ordinals, distances);
+        }
+
+        // Pack (distance, position) into longs so a primitive sort orders positions by distance.
+        // Non-negative floats compare correctly as raw int bits; the position breaks ties stably.
+        // Destination IDs are read by ordinal, so off-heap snapshots decode no other field
+        WarpSnapshot snapshot = view.snapshot();
+        long[] keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            WarpPosition warpLocation = locator.locate(snapshot.destinationId(view.ordinalAt(i)));
+            distances[i] = warpLocation == null ? Double.MAX_VALUE : calculateDistance(playerLocation, warpLocation);
+            keys[i] = ((long) Float.floatToIntBits((float) distances[i]) << 32) | i;
+        }
+        Arrays.sort(keys);
+
+        int[] sortedOrdinals = new int[size];
+        double[] sortedDistances = new double[size];
+        for (int i = 0; i < size; i++) {
+            int position = (int) keys[i];
+            sortedOrdinals[i] = view.ordinalAt(position);
+            sortedDistances[i] = distances[position];
+        }
+        return ResultView.ofDistances(view.snapshot(), sortedOrdinals, sortedDistances);
+    }
+
     /**
      * Formats a distance value with appropriate units (blocks, K, M)
      * - Under 1K: whole number (e.g., "456 blocks")
@@ -110,13 +158,13 @@ public class DistanceSorter {
      * This ignores Y-level (height) and only considers horizontal distance.
      * This is safe for cross-world distance calculation where coordinates are preserved.
      *
-     * @param from the starting location
-     * @param to the target location
+     * @param from the starting position
+     * @param to the target position
      * @return the horizontal distance in blocks
      */
-    private static double calculateDistance(Location from, Location to) {
-        double dx = to.getX() - from.getX();
-        double dz = to.getZ() - from.getZ();
+    private static double calculateDistance(WarpPosition from, WarpPosition to) {
+        double dx = to.x() - from.x();
+        double dz = to.z() - from.z();
         return Math.sqrt(dx * dx + dz * dz);
     }
 }
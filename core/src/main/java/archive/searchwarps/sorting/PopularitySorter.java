@@ -0,0 +1,52 @@
+package archive.searchwarps.sorting;
+
+import archive.searchwarps.data.WarpSnapshot;
+import archive.searchwarps.popularity.PopularityTracker;
+import archive.searchwarps.search.ResultView;
+
+import java.util.Arrays;
+
+/**
+ * Sorts warps by popularity: live, time-decayed teleport counts first, then the all-time
+ * {@code performed} count from ActionIcons.yml, then the view's existing order.
+ */
+public class PopularitySorter {
+
+    /**
+     * Sorts a result view by popularity, most popular first.
+     * Uses two primitive sorts of packed (key, position) longs, like DistanceSorter:
+     * the first orders by performed count, the second by live score, stable on the first.
+     *
+     * @param view the view to sort (its order breaks remaining ties)
+     * @param popularity live teleport counters
+     * @return popularity-sorted view
+     */
+    public static ResultView sortByPopularity(ResultView view, PopularityTracker popularity) {
+        int size = view.size();
+        WarpSnapshot snapshot = view.snapshot();
+
+        // Pass 1: performed count, descending; the position keeps the view's order for ties
+        long[] keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            int performed = Math.max(0, snapshot.performed(view.ordinalAt(i)));
+            keys[i] = ((long) (Integer.MAX_VALUE - performed) << 32) | i;
+        }
+        Arrays.sort(keys);
+
+        // Pass 2: live score, descending. Non-negative floats compare correctly as raw int bits.
+        long[] ranked = new long[size];
+        for (int i = 0; i < size; i++) {
+            int position = (int) keys[i];
+            float score = (float) popularity.rankingScore(snapshot, view.ordinalAt(position));
+            int bits = Float.floatToIntBits(Math.max(0f, Math.min(score, Float.MAX_VALUE)));
+            ranked[i] = ((long) (Integer.MAX_VALUE - bits) << 32) | i;
+        }
+        Arrays.sort(ranked);
+
+        int[] ordinals = new int[size];
+        for (int i = 0; i < size; i++) {
+            ordinals[i] = view.ordinalAt((int) keys[(int) ranked[i]]);
+        }
+        return ResultView.of(snapshot, ordinals, SortMode.POPULAR);
+    }
+}
@@ -0,0 +1,34 @@
+package archive.searchwarps.sorting;
+
+/**
+ * Represents the sorting mode for displaying warps in the browser GUI.
+ */
+public enum SortMode {
+    /**
+     * Sort warps alphabetically by name (A-Z, case-insensitive).
+     */
+    ALPHABETICAL,
+
+    /**
+     * Sort warps by Euclidean distance from the player's current location.
+     * Closer warps appear first.
+     */
+    DISTANCE,
+
+    /**
+     * Sort warps by recent teleports through the browser (time-decayed), then by all-time use.
+     * Most popular warps appear first.
+     */
+    POPULAR;
+
+    /**
+     * Returns the mode the sort toggle switches to next.
+     */
+    public SortMode next() {
+        return switch (this) {
+            case ALPHABETICAL -> DISTANCE;
+            case DISTANCE -> POPULAR;
+            case POPULAR -> ALPHABETICAL;
+        };
+    }
+}
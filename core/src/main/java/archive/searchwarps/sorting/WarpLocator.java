@@ -0,0 +1,16 @@
+package archive.searchwarps.sorting;
+
+/**
+ * Resolves warp destination IDs to positions.
+ * The plugin implements this with WarpSystem's TeleportService; benchmarks and simulations
+ * use in-memory stand-ins.
+ */
+@FunctionalInterface
+public interface WarpLocator {
+
+    /**
+     * @param destinationId The warp's destination ID
+     * @return The warp's position, or null if it cannot be resolved
+     */
+    WarpPosition locate(String destinationId);
+}
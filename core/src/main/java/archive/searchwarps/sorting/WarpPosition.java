@@ -0,0 +1,10 @@
+package archive.searchwarps.sorting;
+
+/**
+ * Server-independent position of a warp or player.
+ *
+ * @param world World name (may be null if unknown)
+ * @param x Block X coordinate
+ * @param z Block Z coordinate
+ */
+public record WarpPosition(String world, double x, double z) {}
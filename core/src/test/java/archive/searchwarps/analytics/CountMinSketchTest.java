@@ -0,0 +1,51 @@
+package archive.searchwarps.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CountMinSketchTest {
+    @Test
+    void equalStringHashCodesAreCountedApart() {
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        assertEquals("AaAa".hashCode(), "BBBB".hashCode());
+
+        CountMinSketch sketch = new CountMinSketch(2048, 4);
+        for (int i = 0; i < 100; i++) {
+            sketch.add("Aa");
+            sketch.add("AaAa");
+        }
+        assertEquals(100, sketch.estimate("Aa"));
+        assertEquals(0, sketch.estimate("BB"));
+        assertEquals(0, sketch.estimate("BBBB"));
+        assertEquals(0, sketch.estimate("AaBB"));
+    }
+
+    @Test
+    void estimatesStayWithinTheErrorBound() {
+        int width = 256;
+        CountMinSketch sketch = new CountMinSketch(width, 4);
+        int keys = 2000;
+        long total = 0;
+        for (int key = 0; key < keys; key++) {
+            for (int i = 0; i <= key % 5; i++) {
+                sketch.add("query " + key);
+                total++;
+            }
+        }
+
+        int overBound = 0;
+        for (int key = 0; key < keys; key++) {
+            long estimate = sketch.estimate("query " + key);
+            assertTrue(estimate >= key % 5 + 1, "undercount for key " + key);
+            if (estimate - (key % 5 + 1) > 2 * total / width) {
+                overBound++;
+            }
+        }
+        // Each key exceeds the bound with probability at most 2^-4
+        assertTrue(overBound <= keys / 16, overBound + " keys above the bound");
+        sketch.clear();
+        assertEquals(0, sketch.estimate("query 0"));
+    }
+}
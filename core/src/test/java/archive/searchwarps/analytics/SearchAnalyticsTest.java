@@ -0,0 +1,30 @@
+package archive.searchwarps.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SearchAnalyticsTest {
+    @Test
+    void queriesAreGroupedTheWayTheSearchMatchesThem() {
+        assertEquals("cafe", SearchAnalytics.normalize("Café"));
+        assertEquals("cafe", SearchAnalytics.normalize("ｃａｆｅ"));
+        assertEquals("strasse 5", SearchAnalytics.normalize("  Straße \t 5 "));
+        assertEquals("nether hub", SearchAnalytics.normalize("NETHER　hub"));
+        assertEquals("", SearchAnalytics.normalize(null));
+    }
+
+    @Test
+    void variantsCountAsOneQuery() {
+        SearchAnalytics analytics = new SearchAnalytics(10);
+        analytics.recordSearch("Café", 0);
+        analytics.recordSearch("cafe", 0);
+        analytics.recordSearch("ｃａｆｅ", 0);
+
+        List<QueryCount> top = analytics.topZeroResultQueries(5);
+        assertEquals(1, top.size());
+        assertEquals(new QueryCount("cafe", 3), top.get(0));
+    }
+}
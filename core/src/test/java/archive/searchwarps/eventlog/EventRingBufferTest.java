@@ -0,0 +1,104 @@
+package archive.searchwarps.eventlog;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventRingBufferTest {
+    @Test
+    void capacityIsRoundedUpToAPowerOfTwo() {
+        assertEquals(8, new EventRingBuffer<>(5).capacity());
+        assertEquals(8, new EventRingBuffer<>(8).capacity());
+        assertEquals(16, new EventRingBuffer<>(9).capacity());
+    }
+
+    @Test
+    void drainsInOfferOrder() {
+        EventRingBuffer<Integer> buffer = new EventRingBuffer<>(8);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(buffer.offer(i));
+        }
+
+        List<Integer> batch = new ArrayList<>();
+        assertEquals(3, buffer.drainTo(batch, 3));
+        assertEquals(List.of(0, 1, 2), batch);
+        assertEquals(2, buffer.drainTo(batch, 10));
+        assertEquals(List.of(0, 1, 2, 3, 4), batch);
+        assertEquals(0, buffer.drainTo(batch, 10));
+    }
+
+    @Test
+    void fullBufferRejectsUntilDrained() {
+        EventRingBuffer<Integer> buffer = new EventRingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+        assertFalse(buffer.offer(4));
+
+        List<Integer> batch = new ArrayList<>();
+        assertEquals(1, buffer.drainTo(batch, 1));
+        assertTrue(buffer.offer(4));
+        assertFalse(buffer.offer(5));
+
+        // Wrapping around keeps the order
+        batch.clear();
+        assertEquals(4, buffer.drainTo(batch, 10));
+        assertEquals(List.of(1, 2, 3, 4), batch);
+    }
+
+    @Test
+    void concurrentProducersLoseAndReorderNothing() throws Exception {
+        int producers = 4;
+        int perProducer = 50_000;
+        EventRingBuffer<long[]> buffer = new EventRingBuffer<>(1024);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    long[] event = {producer, i};
+                    while (!buffer.offer(event)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        // Single consumer: every producer's events must arrive complete and in order
+        AtomicReference<String> failure = new AtomicReference<>();
+        long[] next = new long[producers];
+        long received = 0;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        List<long[]> batch = new ArrayList<>();
+        while (received < (long) producers * perProducer && System.nanoTime() < deadline) {
+            batch.clear();
+            buffer.drainTo(batch, 256);
+            for (long[] event : batch) {
+                int producer = (int) event[0];
+                if (event[1] != next[producer] && failure.get() == null) {
+                    failure.set("producer " + producer + ": expected " + next[producer] + ", got " + event[1]);
+                }
+                next[producer] = event[1] + 1;
+                received++;
+            }
+        }
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+
+        assertNull(failure.get());
+        assertEquals((long) producers * perProducer, received);
+        assertEquals(0, buffer.drainTo(batch, 1));
+    }
+}
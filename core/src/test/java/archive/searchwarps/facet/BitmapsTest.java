@@ -0,0 +1,67 @@
+package archive.searchwarps.facet;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BitmapsTest {
+    @Test
+    void fullSetsExactlyTheSize() {
+        assertEquals(0, Bitmaps.cardinality(Bitmaps.full(0)));
+        assertEquals(64, Bitmaps.cardinality(Bitmaps.full(64)));
+        assertEquals(130, Bitmaps.cardinality(Bitmaps.full(130)));
+        int[] ranks = Bitmaps.toArray(Bitmaps.full(130));
+        assertEquals(130, ranks.length);
+        assertEquals(129, ranks[129]);
+    }
+
+    @Test
+    void setAndGet() {
+        long[] bitmap = Bitmaps.create(200);
+        Bitmaps.set(bitmap, 0);
+        Bitmaps.set(bitmap, 63);
+        Bitmaps.set(bitmap, 64);
+        Bitmaps.set(bitmap, 199);
+        assertTrue(Bitmaps.get(bitmap, 63));
+        assertTrue(Bitmaps.get(bitmap, 64));
+        assertFalse(Bitmaps.get(bitmap, 65));
+        assertEquals(4, Bitmaps.cardinality(bitmap));
+        assertArrayEquals(new int[] {0, 63, 64, 199}, Bitmaps.toArray(bitmap));
+        assertTrue(Bitmaps.isEmpty(Bitmaps.create(200)));
+        assertFalse(Bitmaps.isEmpty(bitmap));
+    }
+
+    @Test
+    void setOperations() {
+        long[] evens = Bitmaps.create(150);
+        long[] threes = Bitmaps.create(150);
+        for (int i = 0; i < 150; i++) {
+            if (i % 2 == 0) {
+                Bitmaps.set(evens, i);
+            }
+            if (i % 3 == 0) {
+                Bitmaps.set(threes, i);
+            }
+        }
+        assertEquals(25, Bitmaps.intersectionCardinality(evens, threes));
+
+        long[] and = evens.clone();
+        Bitmaps.and(and, threes);
+        assertEquals(25, Bitmaps.cardinality(and));
+        assertTrue(Bitmaps.get(and, 144));
+        assertFalse(Bitmaps.get(and, 142));
+
+        long[] or = evens.clone();
+        Bitmaps.or(or, threes);
+        assertEquals(100, Bitmaps.cardinality(or));
+
+        long[] andNot = evens.clone();
+        Bitmaps.andNot(andNot, threes);
+        assertEquals(50, Bitmaps.cardinality(andNot));
+        assertFalse(Bitmaps.get(andNot, 6));
+        assertTrue(Bitmaps.get(andNot, 4));
+    }
+}
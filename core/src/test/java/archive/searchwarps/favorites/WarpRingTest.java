@@ -0,0 +1,72 @@
+package archive.searchwarps.favorites;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WarpRingTest {
+    @Test
+    void mostRecentFirst() {
+        WarpRing ring = new WarpRing(4);
+        ring.push(1);
+        ring.push(2);
+        ring.push(3);
+        assertArrayEquals(new int[] {3, 2, 1}, ring.toArray());
+        assertEquals(3, ring.get(0));
+        assertEquals(3, ring.size());
+    }
+
+    @Test
+    void pushingAgainMovesToTheFront() {
+        WarpRing ring = new WarpRing(4);
+        ring.push(1);
+        ring.push(2);
+        ring.push(3);
+        ring.push(1);
+        assertArrayEquals(new int[] {1, 3, 2}, ring.toArray());
+    }
+
+    @Test
+    void fullRingDropsTheOldest() {
+        WarpRing ring = new WarpRing(3);
+        for (int ordinal = 1; ordinal <= 5; ordinal++) {
+            ring.push(ordinal);
+        }
+        assertArrayEquals(new int[] {5, 4, 3}, ring.toArray());
+        assertFalse(ring.contains(2));
+
+        // Refreshing an entry of a full ring drops nothing
+        ring.push(3);
+        assertArrayEquals(new int[] {3, 5, 4}, ring.toArray());
+    }
+
+    @Test
+    void removeKeepsTheOrder() {
+        WarpRing ring = new WarpRing(5);
+        for (int ordinal = 1; ordinal <= 7; ordinal++) {
+            ring.push(ordinal);
+        }
+        assertTrue(ring.remove(5));
+        assertFalse(ring.remove(5));
+        assertArrayEquals(new int[] {7, 6, 4, 3}, ring.toArray());
+
+        ring.push(8);
+        ring.push(9);
+        assertArrayEquals(new int[] {9, 8, 7, 6, 4}, ring.toArray());
+    }
+
+    @Test
+    void clearAndMinimumCapacity() {
+        WarpRing ring = new WarpRing(0);
+        assertEquals(1, ring.capacity());
+        ring.push(1);
+        ring.push(2);
+        assertArrayEquals(new int[] {2}, ring.toArray());
+        ring.clear();
+        assertEquals(0, ring.size());
+        assertArrayEquals(new int[0], ring.toArray());
+    }
+}
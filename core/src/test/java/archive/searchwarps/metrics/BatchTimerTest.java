@@ -0,0 +1,49 @@
+package archive.searchwarps.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BatchTimerTest {
+    @Test
+    void recordsOnceTheLastOperationCompletes() throws Exception {
+        MetricsRegistry metrics = new MetricsRegistry();
+        BatchTimer batch = new BatchTimer(metrics, "batch", "size");
+        CompletableFuture<String> done = CompletableFuture.completedFuture("done");
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        CompletableFuture<String> failed = CompletableFuture.failedFuture(new IllegalStateException("refused"));
+        batch.add(done);
+        batch.add(pending);
+        batch.add(failed);
+        batch.close();
+
+        // Closing does not record while an operation is still pending
+        assertEquals(0, metrics.histogram("batch").snapshot().count());
+        assertEquals(0, metrics.counter("size").sum());
+
+        long pendingNanos = TimeUnit.MILLISECONDS.toNanos(20);
+        long start = System.nanoTime();
+        while (System.nanoTime() - start < pendingNanos) {
+            Thread.sleep(5);
+        }
+        assertEquals(0, metrics.histogram("batch").snapshot().count());
+        pending.complete("late");
+
+        LatencyHistogram.Snapshot snapshot = metrics.histogram("batch").snapshot();
+        assertEquals(1, snapshot.count());
+        assertTrue(snapshot.maxNanos() >= pendingNanos, String.valueOf(snapshot.maxNanos()));
+        assertEquals(3, metrics.counter("size").sum());
+    }
+
+    @Test
+    void emptyBatchRecordsNothing() {
+        MetricsRegistry metrics = new MetricsRegistry();
+        new BatchTimer(metrics, "batch", "size").close();
+        assertEquals(0, metrics.histogram("batch").snapshot().count());
+        assertEquals(0, metrics.counter("size").sum());
+    }
+}
@@ -0,0 +1,95 @@
+package archive.searchwarps.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+    @Test
+    void emptySnapshot() {
+        LatencyHistogram.Snapshot snapshot = new LatencyHistogram().snapshot();
+        assertEquals(0, snapshot.count());
+        assertEquals(0, snapshot.maxNanos());
+        assertEquals(0, snapshot.percentileNanos(0.99));
+    }
+
+    @Test
+    void smallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int value = 1; value <= 10; value++) {
+            histogram.record(value);
+        }
+        histogram.record(-5);
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(11, snapshot.count());
+        assertEquals(10, snapshot.maxNanos());
+        assertEquals(5, snapshot.percentileNanos(0.5));
+        assertEquals(1, snapshot.percentileNanos(0.1));
+        assertEquals(10, snapshot.percentileNanos(1));
+    }
+
+    @Test
+    void bucketsCoverEveryValue() {
+        Random random = new Random(1);
+        for (int i = 0; i < 100_000; i++) {
+            long value = random.nextLong() >>> (1 + random.nextInt(63));
+            int bucket = LatencyHistogram.bucketIndex(value);
+            long upper = LatencyHistogram.bucketUpperBound(bucket);
+            assertTrue(upper >= value, value + " above its bucket bound " + upper);
+            assertEquals(bucket, LatencyHistogram.bucketIndex(upper));
+            // 32 sub-buckets per power of two: at most 1/32 above the value
+            assertTrue(upper - value <= value / 32, value + " -> " + upper);
+        }
+    }
+
+    @Test
+    void percentilesStayWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        List<Long> values = new ArrayList<>();
+        Random random = new Random(2);
+        for (int i = 0; i < 10_000; i++) {
+            long value = 1_000 + random.nextInt(50_000_000);
+            values.add(value);
+            histogram.record(value);
+        }
+        values.sort(null);
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        for (double quantile : new double[] {0.5, 0.9, 0.99, 0.999}) {
+            long exact = values.get((int) Math.ceil(quantile * values.size()) - 1);
+            long reported = snapshot.percentileNanos(quantile);
+            assertTrue(reported >= exact && reported - exact <= exact / 32, quantile + ": " + exact + " vs " + reported);
+        }
+        assertEquals(values.get(values.size() - 1), snapshot.maxNanos());
+        assertEquals(values.stream().mapToLong(Long::longValue).average().orElseThrow(), snapshot.meanNanos(), 1);
+    }
+
+    @Test
+    void concurrentRecordingIsCounted() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            long offset = t * 1_000L;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 50_000; i++) {
+                    histogram.record(offset + i);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(200_000, snapshot.count());
+        assertEquals(3_000 + 49_999, snapshot.maxNanos());
+    }
+}
@@ -0,0 +1,145 @@
+package archive.searchwarps.popularity;
+
+import archive.searchwarps.data.WarpIcon;
+import archive.searchwarps.data.WarpSnapshot;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PopularityTrackerTest {
+    private static final long HALF_LIFE = 1000;
+
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+    private final PopularityTracker tracker = new PopularityTracker(HALF_LIFE, clock::get);
+
+    @Test
+    void unknownWarpsAreNotCounted() {
+        assertFalse(tracker.recordTeleport("spawn"));
+        tracker.rebind(snapshot("spawn"));
+        assertTrue(tracker.recordTeleport("spawn"));
+        assertFalse(tracker.recordTeleport("nowhere"));
+        assertEquals(1, tracker.count("spawn"));
+    }
+
+    @Test
+    void scoresHalveEveryHalfLife() {
+        tracker.rebind(snapshot("spawn"));
+        tracker.recordTeleport("spawn");
+        tracker.recordTeleport("spawn");
+        assertEquals(2, tracker.score("spawn"), 1e-9);
+
+        clock.addAndGet(HALF_LIFE);
+        assertEquals(1, tracker.score("spawn"), 1e-9);
+        tracker.recordTeleport("spawn");
+        assertEquals(2, tracker.score("spawn"), 1e-9);
+
+        clock.addAndGet(2 * HALF_LIFE);
+        assertEquals(0.5, tracker.score("spawn"), 1e-9);
+        assertEquals(3, tracker.count("spawn"));
+    }
+
+    @Test
+    void rankingFollowsDecayedScores() {
+        WarpSnapshot snapshot = snapshot("old", "new");
+        tracker.rebind(snapshot);
+        for (int i = 0; i < 3; i++) {
+            tracker.recordTeleport("old");
+        }
+        clock.addAndGet(2 * HALF_LIFE);
+        tracker.recordTeleport("new");
+        // 3 teleports two half-lives ago weigh 0.75, one teleport now weighs 1
+        assertTrue(tracker.rankingScore(snapshot, snapshot.ordinalOf("new"))
+            > tracker.rankingScore(snapshot, snapshot.ordinalOf("old")));
+    }
+
+    @Test
+    void longRunsStayRankable() {
+        WarpSnapshot snapshot = snapshot("a", "b");
+        tracker.rebind(snapshot);
+        for (int step = 0; step < 400; step++) {
+            clock.addAndGet(HALF_LIFE);
+            tracker.recordTeleport("a");
+            tracker.recordTeleport("a");
+            tracker.recordTeleport("b");
+        }
+        float a = (float) tracker.rankingScore(snapshot, snapshot.ordinalOf("a"));
+        float b = (float) tracker.rankingScore(snapshot, snapshot.ordinalOf("b"));
+        assertTrue(Float.isFinite(a) && Float.isFinite(b), a + " / " + b);
+        assertTrue(a > b, a + " / " + b);
+        assertEquals(4, tracker.score("a"), 1e-6);
+    }
+
+    @Test
+    void countersFollowWarpsAcrossReloads() {
+        tracker.rebind(snapshot("spawn", "shop"));
+        tracker.recordTeleport("shop");
+        tracker.recordTeleport("shop");
+
+        WarpSnapshot reloaded = snapshot("arena", "shop");
+        tracker.rebind(reloaded);
+        assertEquals(2, tracker.count("shop"));
+        assertEquals(2, tracker.score("shop"), 1e-9);
+        assertTrue(tracker.rankingScore(reloaded, reloaded.ordinalOf("shop"))
+            > tracker.rankingScore(reloaded, reloaded.ordinalOf("arena")));
+
+        // A warp that disappears for a while keeps its counter
+        tracker.rebind(snapshot("arena"));
+        tracker.rebind(snapshot("arena", "shop"));
+        assertEquals(2, tracker.count("shop"));
+    }
+
+    @Test
+    void saveAndLoadDecayByTheTimeAway(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("popularity.tsv");
+        tracker.rebind(snapshot("spawn", "shop"));
+        tracker.recordTeleport("spawn");
+        tracker.recordTeleport("spawn");
+        tracker.recordTeleport("shop");
+        tracker.save(file);
+
+        clock.addAndGet(HALF_LIFE);
+        PopularityTracker restarted = new PopularityTracker(HALF_LIFE, clock::get);
+        restarted.rebind(snapshot("spawn", "shop"));
+        assertEquals(2, restarted.load(file));
+        assertEquals(2, restarted.count("spawn"));
+        assertEquals(1, restarted.score("spawn"), 1e-9);
+        assertEquals(0.5, restarted.score("shop"), 1e-9);
+    }
+
+    @Test
+    void loadingHandlesMissingAndMalformedFiles(@TempDir Path dir) throws IOException {
+        assertEquals(0, tracker.load(dir.resolve("missing.tsv")));
+
+        Path broken = dir.resolve("broken.tsv");
+        Files.writeString(broken, "# ArchiveSearchWarps popularity v1\nspawn\tmany\t1.0\n");
+        assertThrows(IOException.class, () -> tracker.load(broken));
+    }
+
+    @Test
+    void resetForgetsEverything() {
+        tracker.rebind(snapshot("spawn"));
+        tracker.recordTeleport("spawn");
+        tracker.reset();
+        assertEquals(0, tracker.count("spawn"));
+        assertEquals(0, tracker.score("spawn"));
+    }
+
+    private static WarpSnapshot snapshot(String... destinationIds) {
+        List<WarpIcon> icons = new ArrayList<>();
+        for (String id : destinationIds) {
+            icons.add(new WarpIcon(id, "STONE", id, List.of(), id, 0, null, null, null));
+        }
+        return new WarpSnapshot(icons, 1);
+    }
+}
@@ -0,0 +1,103 @@
+package archive.searchwarps.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QueryMatcherTest {
+    // name \n display name \n destination id \n lore...
+    private static final String TEXT = "ushers\nthe ushers\nhub_hers\nshe sells\nsea shells";
+
+    @Test
+    void singleTermNeedsNoAutomaton() {
+        assertNull(QueryMatcher.compile(SearchQuery.parse("shop").clauses()));
+        assertNull(QueryMatcher.compile(SearchQuery.parse("shop page:events").clauses()));
+        assertNotNull(QueryMatcher.compile(SearchQuery.parse("shop market").clauses()));
+    }
+
+    @Test
+    void overlappingTermsAreAllFound() {
+        // The classic Aho-Corasick case: "he", "she", "his" and "hers" overlap inside "ushers"
+        assertTrue(matches("he she hers", "ushers", null));
+        assertFalse(matches("he she his", "ushers", null));
+        assertTrue(matches("sh hers", "ushers", null));
+    }
+
+    @Test
+    void termsOnlyMatchInTheirField() {
+        assertTrue(matches("name:ushers lore:sells", TEXT, null));
+        assertFalse(matches("name:sells lore:sells", TEXT, null));
+        assertTrue(matches("id:hub id:hers", TEXT, null));
+        assertFalse(matches("id:sells name:ushers", TEXT, null));
+        assertFalse(matches("lore:hub lore:sea", TEXT, null));
+        // A term may not span a field boundary
+        assertFalse(matches("name:ushersthe name:the", TEXT, null));
+    }
+
+    @Test
+    void clausesCombine() {
+        assertTrue(matches("ushers -shop", TEXT, null));
+        assertFalse(matches("ushers -sells", TEXT, null));
+        assertTrue(matches("shop|sea ushers", TEXT, null));
+        assertTrue(matches("shop|page:eve ushers", TEXT, "events"));
+        assertFalse(matches("shop|page:eve ushers", TEXT, null));
+    }
+
+    @Test
+    void agreesWithPerClauseChecks() {
+        String[] words = {"ka", "ro", "kar", "ark", "oka", "rok", "a", "kk", "roka"};
+        String[] prefixes = {"", "", "name:", "lore:", "id:", "-"};
+        Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            String text = randomText(random, 4) + "\n" + randomText(random, 3) + "\n" + randomText(random, 2)
+                + "\n" + randomText(random, 6);
+            StringBuilder query = new StringBuilder();
+            int clauses = 2 + random.nextInt(3);
+            for (int c = 0; c < clauses; c++) {
+                query.append(prefixes[random.nextInt(prefixes.length)]).append(words[random.nextInt(words.length)]);
+                if (random.nextInt(4) == 0) {
+                    query.append('|').append(words[random.nextInt(words.length)]);
+                }
+                query.append(' ');
+            }
+            SearchQuery parsed = SearchQuery.parse(query.toString());
+            QueryMatcher matcher = QueryMatcher.compile(parsed.clauses());
+            if (matcher == null) {
+                continue;
+            }
+            assertEquals(expected(parsed, text), matcher.matches(text, null), query + " on " + text);
+        }
+    }
+
+    private static boolean matches(String query, String text, String page) {
+        QueryMatcher matcher = QueryMatcher.compile(SearchQuery.parse(query).clauses());
+        assertNotNull(matcher);
+        return matcher.matches(text, page);
+    }
+
+    private static boolean expected(SearchQuery query, String text) {
+        int displayEnd = text.indexOf('\n', text.indexOf('\n') + 1);
+        int idEnd = text.indexOf('\n', displayEnd + 1);
+        for (SearchQuery.Clause clause : query.clauses()) {
+            if (SearchQuery.matches(clause, text, displayEnd, idEnd, null) == clause.negated()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String randomText(Random random, int length) {
+        String alphabet = "karo ";
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return text.toString();
+    }
+}
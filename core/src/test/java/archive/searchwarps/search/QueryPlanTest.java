@@ -0,0 +1,99 @@
+package archive.searchwarps.search;
+
+import archive.searchwarps.bench.SyntheticWarps;
+import archive.searchwarps.data.WarpSnapshot;
+import archive.searchwarps.facet.Bitmaps;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QueryPlanTest {
+    private static WarpSnapshot snapshot;
+    private static SearchIndex index;
+    private static SyntheticWarps warps;
+
+    @BeforeAll
+    static void buildIndex() {
+        warps = new SyntheticWarps(3000, 1, 4, 0.1, 0.1, 7);
+        snapshot = new WarpSnapshot(warps.icons(), 1);
+        index = SearchIndex.build(snapshot);
+    }
+
+    @Test
+    void planAgreesWithLinearMatching() {
+        for (String query : queries()) {
+            SearchQuery parsed = SearchQuery.parse(query);
+            assertArrayEquals(linear(parsed, null), index.search(parsed, null), query);
+        }
+    }
+
+    @Test
+    void planAgreesWithLinearMatchingInsideAMask() {
+        long[] mask = Bitmaps.create(snapshot.size());
+        for (int rank = 0; rank < snapshot.size(); rank += 3) {
+            Bitmaps.set(mask, rank);
+        }
+        for (String query : queries()) {
+            SearchQuery parsed = SearchQuery.parse(query);
+            assertArrayEquals(linear(parsed, mask), index.search(parsed, mask.clone()), query);
+        }
+    }
+
+    @Test
+    void scanAgreesWithPlan() {
+        for (String query : queries()) {
+            SearchQuery parsed = SearchQuery.parse(query);
+            assertArrayEquals(index.search(parsed, null), index.scan(parsed, null, ScalarScanKernel.INSTANCE), query);
+        }
+    }
+
+    @Test
+    void requiredClausesRunRarestFirstAndExclusionsLast() {
+        String rare = warps.word(2000);
+        String common = warps.word(0);
+        String plan = QueryPlan.compile(index, SearchQuery.parse("-" + common + " " + common + " " + rare)).toString();
+        assertTrue(plan.startsWith("plan: [Term[field=ANY, text=" + rare + "]]"), plan);
+        assertTrue(plan.indexOf("-[") > plan.lastIndexOf(" [Term"), plan);
+    }
+
+    @Test
+    void missingRequiredTermIsImpossible() {
+        QueryPlan plan = QueryPlan.compile(index, SearchQuery.parse(warps.word(0) + " zzzzqqqq"));
+        assertTrue(plan.toString().startsWith("impossible:"), plan.toString());
+        assertEquals(0, plan.execute(null).length);
+    }
+
+    private static List<String> queries() {
+        List<String> queries = new ArrayList<>(List.of("a", "ka", "zzzz", "name:ro", "lore:mi -ka",
+            "\"" + warps.word(3) + " " + warps.word(5) + "\""));
+        for (int i = 0; i < 40; i += 4) {
+            String common = warps.word(i);
+            String rare = warps.word(500 + i * 20);
+            queries.add(common);
+            queries.add(common + " " + warps.word(i + 1));
+            queries.add(rare + "|" + common);
+            queries.add(common + " -" + warps.word(i + 2));
+            queries.add("name:" + common.substring(0, 3) + " lore:" + warps.word(i + 3));
+            queries.add("id:" + (i * 7) + " " + common.substring(1, 4));
+            queries.add("-" + common);
+        }
+        return queries;
+    }
+
+    private static int[] linear(SearchQuery query, long[] mask) {
+        List<Integer> matches = new ArrayList<>();
+        for (int rank = 0; rank < snapshot.size(); rank++) {
+            int ordinal = snapshot.ordinalAtRank(rank);
+            if ((mask == null || Bitmaps.get(mask, rank)) && query.matches(snapshot.icon(ordinal))) {
+                matches.add(ordinal);
+            }
+        }
+        return matches.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
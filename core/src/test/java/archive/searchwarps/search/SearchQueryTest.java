@@ -0,0 +1,139 @@
+package archive.searchwarps.search;
+
+import archive.searchwarps.data.WarpIcon;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchQueryTest {
+    private static final WarpIcon SHOP = new WarpIcon("Market Square", "CHEST", "&eMarket &fSquare",
+        List.of("&7Shops and a fountain", "&7Open at night"), "hub_market", 12, "Events", null, null);
+
+    @Test
+    void wordsAreRequiredClauses() {
+        assertEquals(List.of(clause(false, term(SearchQuery.Field.ANY, "peter")),
+                clause(false, term(SearchQuery.Field.ANY, "mary"))),
+            SearchQuery.parse("  Peter   MARY ").clauses());
+    }
+
+    @Test
+    void fieldPrefixes() {
+        assertEquals(List.of(clause(false, term(SearchQuery.Field.NAME, "spawn")),
+                clause(false, term(SearchQuery.Field.LORE, "shop")),
+                clause(false, term(SearchQuery.Field.ID, "hub")),
+                clause(false, term(SearchQuery.Field.PAGE, "events"))),
+            SearchQuery.parse("name:spawn lore:shop id:hub page:events").clauses());
+    }
+
+    @Test
+    void unknownPrefixIsSearchedLiterally() {
+        assertEquals(List.of(clause(false, term(SearchQuery.Field.ANY, "world:nether"))),
+            SearchQuery.parse("world:nether").clauses());
+    }
+
+    @Test
+    void negatedPhrase() {
+        assertEquals(List.of(clause(true, term(SearchQuery.Field.ANY, "a b"))),
+            SearchQuery.parse("-\"a b\"").clauses());
+    }
+
+    @Test
+    void dashBeforeWhitespaceIsLiteral() {
+        assertEquals(List.of(clause(false, term(SearchQuery.Field.ANY, "-")),
+                clause(false, term(SearchQuery.Field.ANY, "a"))),
+            SearchQuery.parse("- a").clauses());
+    }
+
+    @Test
+    void trailingDashContributesNothing() {
+        assertEquals(List.of(clause(false, term(SearchQuery.Field.ANY, "spawn"))),
+            SearchQuery.parse("spawn -").clauses());
+        assertEquals(List.of(clause(false, term(SearchQuery.Field.ANY, "spawn"))),
+            SearchQuery.parse("spawn - ").clauses());
+        assertTrue(SearchQuery.parse("-").isEmpty());
+        assertEquals(List.of(clause(false, term(SearchQuery.Field.ANY, "spawn")),
+                clause(true, term(SearchQuery.Field.ANY, "n"))),
+            SearchQuery.parse("spawn -n").clauses());
+    }
+
+    @Test
+    void alternatives() {
+        List<SearchQuery.Clause> expected = List.of(clause(false,
+            term(SearchQuery.Field.NAME, "shop"), term(SearchQuery.Field.LORE, "market")));
+        assertEquals(expected, SearchQuery.parse("name:shop|lore:market").clauses());
+        assertEquals(expected, SearchQuery.parse("name:shop | lore:market").clauses());
+    }
+
+    @Test
+    void trailingPipeEndsTheClause() {
+        assertEquals(List.of(clause(false, term(SearchQuery.Field.ANY, "a"))),
+            SearchQuery.parse("a|").clauses());
+        assertEquals(List.of(clause(false, term(SearchQuery.Field.ANY, "a"))),
+            SearchQuery.parse("a | ").clauses());
+    }
+
+    @Test
+    void emptyFieldContributesNothing() {
+        assertTrue(SearchQuery.parse("name:").isEmpty());
+        assertEquals(List.of(clause(false, term(SearchQuery.Field.ANY, "spawn"))),
+            SearchQuery.parse("name: spawn").clauses());
+    }
+
+    @Test
+    void unterminatedQuoteRunsToTheEnd() {
+        assertEquals(List.of(clause(false, term(SearchQuery.Field.ANY, "town hall"))),
+            SearchQuery.parse("\"town   hall").clauses());
+        assertTrue(SearchQuery.parse("\"").isEmpty());
+        assertTrue(SearchQuery.parse("-\"  ").isEmpty());
+    }
+
+    @Test
+    void queryIsNormalized() {
+        assertEquals(List.of(clause(false, term(SearchQuery.Field.ANY, "cafe"))),
+            SearchQuery.parse("CAF\u00C9").clauses());
+    }
+
+    @Test
+    void toStringParsesBack() {
+        SearchQuery query = SearchQuery.parse("name:shop|market -\"town hall\" page:events");
+        assertEquals("name:shop|market -\"town hall\" page:events", query.toString());
+        assertEquals(query.clauses(), SearchQuery.parse(query.toString()).clauses());
+    }
+
+    @Test
+    void matchesRespectFields() {
+        assertTrue(SearchQuery.parse("name:market").matches(SHOP));
+        assertFalse(SearchQuery.parse("name:fountain").matches(SHOP));
+        assertTrue(SearchQuery.parse("lore:fountain").matches(SHOP));
+        assertFalse(SearchQuery.parse("lore:market").matches(SHOP));
+        assertTrue(SearchQuery.parse("id:hub_").matches(SHOP));
+        assertFalse(SearchQuery.parse("id:square").matches(SHOP));
+        assertTrue(SearchQuery.parse("page:event").matches(SHOP));
+        assertFalse(SearchQuery.parse("page:market").matches(SHOP));
+    }
+
+    @Test
+    void matchesCombineClauses() {
+        // One text term is checked per clause, several go through the compiled matcher
+        assertTrue(SearchQuery.parse("square -closed").matches(SHOP));
+        assertFalse(SearchQuery.parse("-night").matches(SHOP));
+        assertTrue(SearchQuery.parse("closed|night fountain").matches(SHOP));
+        assertFalse(SearchQuery.parse("closed|day fountain").matches(SHOP));
+        assertTrue(SearchQuery.parse("\"open at night\" page:events").matches(SHOP));
+        assertFalse(SearchQuery.parse("\"open at  noon\"").matches(SHOP));
+        // Color codes are not part of the text
+        assertFalse(SearchQuery.parse("&e").matches(SHOP));
+    }
+
+    private static SearchQuery.Clause clause(boolean negated, SearchQuery.Term... alternatives) {
+        return new SearchQuery.Clause(negated, List.of(alternatives));
+    }
+
+    private static SearchQuery.Term term(SearchQuery.Field field, String text) {
+        return new SearchQuery.Term(field, text);
+    }
+}
@@ -0,0 +1,145 @@
+package archive.searchwarps.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+    private static final int CALLERS = 8;
+
+    @Test
+    void concurrentCallersShareOneComputation() throws Exception {
+        SingleFlight<String, Object> flight = new SingleFlight<>();
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch joined = new CountDownLatch(CALLERS - 1);
+        Object value = new Object();
+
+        ExecutorService pool = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<Future<Object>> results = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(pool.submit(() -> flight.execute("key", () -> {
+                    computations.incrementAndGet();
+                    // Hold the computation until every other caller has joined it
+                    await(joined);
+                    return value;
+                }, joined::countDown)));
+            }
+            for (Future<Object> result : results) {
+                assertSame(value, result.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(1, computations.get());
+        assertEquals(0, flight.inFlight());
+    }
+
+    @Test
+    void failureReachesEveryCaller() throws Exception {
+        SingleFlight<String, Object> flight = new SingleFlight<>();
+        CountDownLatch joined = new CountDownLatch(CALLERS - 1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<Future<Object>> results = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(pool.submit(() -> {
+                    try {
+                        return flight.execute("key", () -> {
+                            await(joined);
+                            throw new IllegalStateException("broken index");
+                        }, joined::countDown);
+                    } catch (IllegalStateException e) {
+                        return e;
+                    }
+                }));
+            }
+            for (Future<Object> result : results) {
+                Object outcome = result.get(10, TimeUnit.SECONDS);
+                assertTrue(outcome instanceof IllegalStateException, String.valueOf(outcome));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        // The failed computation is not remembered
+        assertEquals(0, flight.inFlight());
+        assertEquals("ok", flight.execute("key", () -> "ok"));
+    }
+
+    @Test
+    void submitHandsJoinersThePendingFuture() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+        CountDownLatch computing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger shared = new AtomicInteger();
+
+        Thread leader = new Thread(() -> flight.submit("key", () -> {
+            computing.countDown();
+            await(release);
+            return "value";
+        }, null));
+        leader.start();
+        await(computing);
+
+        // Returns at once, while the leader is still computing
+        CompletableFuture<String> joined = flight.submit("key", () -> "recomputed", shared::incrementAndGet);
+        assertFalse(joined.isDone());
+        assertEquals(1, shared.get());
+
+        release.countDown();
+        assertEquals("value", joined.get(10, TimeUnit.SECONDS));
+        leader.join();
+
+        // Failures complete the future instead of throwing
+        CompletableFuture<String> failed = flight.submit("key", () -> {
+            throw new IllegalStateException("broken index");
+        }, null);
+        assertTrue(failed.isCompletedExceptionally());
+        assertEquals(0, flight.inFlight());
+    }
+
+    @Test
+    void sequentialCallsComputeAfresh() {
+        SingleFlight<String, Integer> flight = new SingleFlight<>();
+        AtomicInteger computations = new AtomicInteger();
+        assertEquals(1, flight.execute("key", computations::incrementAndGet));
+        assertEquals(2, flight.execute("key", computations::incrementAndGet));
+        assertThrows(ArithmeticException.class, () -> flight.execute("key", () -> 1 / (computations.get() - 2)));
+        assertEquals(0, flight.inFlight());
+    }
+
+    @Test
+    void differentKeysDoNotWaitForEachOther() {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+        String outer = flight.execute("a", () -> "a" + flight.execute("b", () -> "b"));
+        assertEquals("ab", outer);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(10, TimeUnit.SECONDS)) {
+                throw new AssertionError("callers did not join");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AssertionError(e);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package archive.searchwarps.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TextNormalizerTest {
+    @Test
+    void asciiIsLowerCased() {
+        assertEquals("market square 12", TextNormalizer.normalize("Market SQUARE 12"));
+    }
+
+    @Test
+    void diacriticsAreStripped() {
+        assertEquals("cafe creme", TextNormalizer.normalize("Café CrÈme"));
+        assertEquals("zurich", TextNormalizer.normalize("Zürich"));
+    }
+
+    @Test
+    void compatibilityFormsBecomePlainLetters() {
+        // Full-width "SHOP" and the "fi" ligature
+        assertEquals("shop", TextNormalizer.normalize("ＳＨＯＰ"));
+        assertEquals("fish", TextNormalizer.normalize("ﬁsh"));
+    }
+
+    @Test
+    void sharpSFoldsToSs() {
+        assertEquals("strasse", TextNormalizer.normalize("Straße"));
+    }
+
+    @Test
+    void foldingIgnoresTheServerLocale() {
+        Locale previous = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+        try {
+            assertEquals("id", TextNormalizer.normalize("ID"));
+            assertEquals("id e", TextNormalizer.normalize("ID É"));
+        } finally {
+            Locale.setDefault(previous);
+        }
+    }
+
+    @Test
+    void otherScriptsKeepTheirIdentity() {
+        // A Hangul syllable and a voiced kana must not stay decomposed
+        assertEquals("한글", TextNormalizer.normalize("한글"));
+        assertEquals("ガ", TextNormalizer.normalize("ガ"));
+    }
+
+    @Test
+    void newlinesAreKept() {
+        assertEquals("cafe\nx", TextNormalizer.normalize("Café\nX"));
+    }
+
+    @Test
+    void cjkCharacters() {
+        assertTrue(TextNormalizer.isCjk('市'));
+        assertTrue(TextNormalizer.isCjk('カ'));
+        assertTrue(TextNormalizer.isCjk('한'));
+        assertFalse(TextNormalizer.isCjk('a'));
+        assertFalse(TextNormalizer.isCjk('é'));
+    }
+}
@@ -0,0 +1,53 @@
+package archive.searchwarps.search;
+
+import archive.searchwarps.bench.SyntheticWarps;
+import archive.searchwarps.data.WarpAliases;
+import archive.searchwarps.data.WarpIcon;
+import archive.searchwarps.data.WarpSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WarpSearchEngineTest {
+    @Test
+    void indexedSearchAgreesWithTheReferenceScan() {
+        SyntheticWarps warps = new SyntheticWarps(2000, 1, 3, 0.1, 0.1, 11);
+        List<WarpIcon> icons = warps.icons();
+        String first = icons.get(0).name();
+        WarpAliases aliases = new WarpAliases.Builder()
+            .alias(first, List.of("Nether Hub", "nhub"))
+            .alias(icons.get(1).destinationId(), List.of("nhub"))
+            .synonyms(List.of(warps.word(7), "mall", "shopping district"))
+            .build();
+        WarpSnapshot snapshot = new WarpSnapshot(icons, 1, aliases);
+        WarpSearchEngine engine = new WarpSearchEngine();
+
+        List<String> queries = List.of("nhub", "name:\"nether hub\"", "mall", "shopping -" + warps.word(7),
+            warps.word(7) + "|nhub", "lore:mall", warps.word(2) + " " + warps.word(9), "-nhub " + warps.word(1));
+        for (String query : queries) {
+            assertEquals(ids(engine.search(icons, query, aliases)), ids(engine.search(snapshot, query)), query);
+        }
+
+        // Without aliases the reference finds none of the alias terms
+        assertTrue(engine.search(icons, "nhub").isEmpty());
+        // Aliases keyed by name apply to every warp of that name
+        assertTrue(engine.search(icons, "nhub", aliases).size() >= 2);
+    }
+
+    private static List<String> ids(List<WarpIcon> icons) {
+        return icons.stream().map(WarpIcon::destinationId).sorted().toList();
+    }
+
+    private static List<String> ids(ResultView view) {
+        List<String> ids = new ArrayList<>(view.size());
+        for (int i = 0; i < view.size(); i++) {
+            ids.add(view.snapshot().destinationId(view.ordinalAt(i)));
+        }
+        ids.sort(null);
+        return ids;
+    }
+}
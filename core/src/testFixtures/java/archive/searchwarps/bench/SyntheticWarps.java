@@ -0,0 +1,190 @@
+package archive.searchwarps.bench;
+
+import archive.searchwarps.data.WarpIcon;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic generator of synthetic ActionIcons data for benchmarks.
+ * Produces either in-memory {@link WarpIcon}s or the equivalent ActionIcons.yml text.
+ *
+ * Warp names are 1-3 words and lore lines a few words drawn from a fixed pseudo-word
+ * vocabulary, so query shapes (common word, rare word, short prefix, miss) can be
+ * picked reproducibly with {@link #word(int)}.
+ */
+public final class SyntheticWarps {
+    private static final String[] SYLLABLES = {
+        "ka", "ro", "mi", "ne", "th", "ar", "sel", "vo", "qu", "lin", "dor", "eth",
+        "mal", "pi", "sha", "tor", "ul", "wen", "yx", "zan", "bri", "cle", "fa", "gu"
+    };
+    private static final String[] COLOR_CODES = {"&f", "&e", "&7", "&a", "&b", "&6", "&l", ""};
+    private static final String BANNER = "WHITE_BANNER";
+    private static final List<WarpIcon.BannerPatternData> BANNER_PATTERNS = List.of(
+        new WarpIcon.BannerPatternData("RED", "minecraft:stripe_bottom"),
+        new WarpIcon.BannerPatternData("BLUE", "minecraft:stripe_top")
+    );
+
+    private final int warpCount;
+    private final int minLoreLines;
+    private final int maxLoreLines;
+    private final double skullRatio;
+    private final double bannerRatio;
+    private final long seed;
+    private final String[] vocabulary;
+
+    /**
+     * @param warpCount Number of warps to generate
+     * @param minLoreLines Minimum lore lines per warp
+     * @param maxLoreLines Maximum lore lines per warp
+     * @param skullRatio Fraction of warps that are textured player heads
+     * @param bannerRatio Fraction of warps that are patterned banners
+     * @param seed Random seed (same seed = same data)
+     */
+    public SyntheticWarps(int warpCount, int minLoreLines, int maxLoreLines,
+                          double skullRatio, double bannerRatio, long seed) {
+        this.warpCount = warpCount;
+        this.minLoreLines = minLoreLines;
+        this.maxLoreLines = maxLoreLines;
+        this.skullRatio = skullRatio;
+        this.bannerRatio = bannerRatio;
+        this.seed = seed;
+
+        // Zipf-like usage comes from picking low vocabulary indexes more often (see randomWord)
+        Random random = new Random(seed);
+        this.vocabulary = new String[2048];
+        for (int i = 0; i < vocabulary.length; i++) {
+            int syllables = 2 + random.nextInt(2);
+            StringBuilder word = new StringBuilder();
+            for (int s = 0; s < syllables; s++) {
+                word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+            vocabulary[i] = word.append(i).toString();
+        }
+    }
+
+    /**
+     * Returns a vocabulary word; low indexes are common, high indexes are rare.
+     */
+    public String word(int index) {
+        return vocabulary[index];
+    }
+
+    /**
+     * Generates warps as in-memory icons.
+     * Banner warps get the same two pattern layers that {@link #actionIconsYaml()} writes.
+     */
+    public List<WarpIcon> icons() {
+        Random random = new Random(seed + 1);
+        List<WarpIcon> icons = new ArrayList<>(warpCount);
+        for (int i = 0; i < warpCount; i++) {
+            Entry entry = nextEntry(random, i);
+            icons.add(new WarpIcon(entry.name, entry.material, entry.displayName, entry.lore,
+                entry.destinationId, entry.performed, entry.page, entry.skullOwner,
+                entry.material.equals(BANNER) ? BANNER_PATTERNS : null));
+        }
+        return icons;
+    }
+
+    /**
+     * Generates the same warps as ActionIcons.yml text (the format WarpDataLoader parses).
+     */
+    public String actionIconsYaml() {
+        Random random = new Random(seed + 1);
+        StringBuilder yaml = new StringBuilder(warpCount * 256);
+        yaml.append("Icons:\n");
+        for (int i = 0; i < warpCount; i++) {
+            Entry entry = nextEntry(random, i);
+            yaml.append("- name: ").append(quote(entry.name)).append('\n');
+            yaml.append("  item:\n");
+            yaml.append("    Type: ").append(entry.material).append('\n');
+            yaml.append("    Name: ").append(quote(entry.displayName)).append('\n');
+            if (!entry.lore.isEmpty()) {
+                yaml.append("    Lore:\n");
+                for (String line : entry.lore) {
+                    yaml.append("    - ").append(quote(line)).append('\n');
+                }
+            }
+            if (entry.skullOwner != null) {
+                yaml.append("    SkullOwner: ").append(entry.skullOwner).append('\n');
+            }
+            if (entry.material.equals(BANNER)) {
+                yaml.append("    Banner:\n");
+                yaml.append("    - color: RED\n      pattern: bs\n");
+                yaml.append("    - color: BLUE\n      pattern: ts\n");
+            }
+            yaml.append("  actions:\n");
+            yaml.append("  - type: WARP\n    value:\n      destination:\n        id: ")
+                .append(quote(entry.destinationId)).append('\n');
+            yaml.append("  performed: ").append(entry.performed).append('\n');
+            yaml.append("  page: ").append(quote(entry.page)).append('\n');
+        }
+        return yaml.toString();
+    }
+
+    private Entry nextEntry(Random random, int index) {
+        int nameWords = 1 + random.nextInt(3);
+        StringBuilder name = new StringBuilder();
+        for (int w = 0; w < nameWords; w++) {
+            if (w > 0) {
+                name.append(' ');
+            }
+            name.append(capitalize(randomWord(random)));
+        }
+
+        int loreLines = minLoreLines + random.nextInt(Math.max(1, maxLoreLines - minLoreLines + 1));
+        List<String> lore = new ArrayList<>(loreLines);
+        for (int l = 0; l < loreLines; l++) {
+            StringBuilder line = new StringBuilder(COLOR_CODES[random.nextInt(COLOR_CODES.length)]);
+            int words = 3 + random.nextInt(6);
+            for (int w = 0; w < words; w++) {
+                if (w > 0) {
+                    line.append(' ');
+                }
+                line.append(randomWord(random));
+            }
+            lore.add(line.toString());
+        }
+
+        double kind = random.nextDouble();
+        String material;
+        String skullOwner = null;
+        if (kind < skullRatio) {
+            material = "PLAYER_HEAD";
+            skullOwner = Long.toHexString(random.nextLong()) + Long.toHexString(random.nextLong());
+        } else if (kind < skullRatio + bannerRatio) {
+            material = BANNER;
+        } else {
+            material = "ENDER_PEARL";
+        }
+
+        return new Entry(
+            name.toString(),
+            material,
+            COLOR_CODES[random.nextInt(COLOR_CODES.length)] + name,
+            lore,
+            "warp_" + index,
+            (int) Math.min(Integer.MAX_VALUE, (long) (1 / Math.max(1e-6, random.nextDouble()))),
+            "page_" + random.nextInt(20),
+            skullOwner
+        );
+    }
+
+    private String randomWord(Random random) {
+        // Square of a uniform value skews towards low (common) indexes
+        double u = random.nextDouble();
+        return vocabulary[(int) (u * u * vocabulary.length)];
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+
+    private static String quote(String value) {
+        return "'" + value.replace("'", "''") + "'";
+    }
+
+    private record Entry(String name, String material, String displayName, List<String> lore,
+                         String destinationId, int performed, String page, String skullOwner) {}
+}
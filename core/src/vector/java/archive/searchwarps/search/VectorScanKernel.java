@@ -0,0 +1,68 @@
+package archive.searchwarps.search;
+
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD {@link ScanKernel} on the incubating Vector API.
+ *
+ * For every block of positions it loads the haystack at the block and at block + needle length - 1,
+ * compares both against the needle's first and last character, and ANDs the two masks: one
+ * instruction pair tests a whole vector of candidate starts. Only the surviving lanes (usually none)
+ * are compared in full. Runs over the packed text arena, so one vector often spans several warps.
+ *
+ * Compiled in its own source set (with {@code --add-modules jdk.incubator.vector}) and only
+ * instantiated reflectively when the module is present at runtime.
+ */
+final class VectorScanKernel implements ScanKernel {
+    private static final VectorSpecies<Short> SPECIES = ShortVector.SPECIES_PREFERRED;
+
+    // One- and two-letter needles match every few characters, so the vector setup never pays off
+    private static final int MIN_VECTOR_NEEDLE = 3;
+
+    VectorScanKernel() {
+    }
+
+    @Override
+    public int indexOf(char[] haystack, int from, int to, char[] needle) {
+        int length = needle.length;
+        if (length < MIN_VECTOR_NEEDLE) {
+            return ScalarScanKernel.find(haystack, from, to, needle);
+        }
+        int lanes = SPECIES.length();
+        // Dense needles (single common letters) usually match within the first few positions;
+        // check one vector's worth of starts scalar before paying for the vector setup
+        int head = Math.min(to, from + lanes + length - 1);
+        int found = ScalarScanKernel.find(haystack, from, head, needle);
+        if (found >= 0) {
+            return found;
+        }
+
+        int i = Math.max(from, head - length + 1);
+        ShortVector first = ShortVector.broadcast(SPECIES, (short) needle[0]);
+        ShortVector last = ShortVector.broadcast(SPECIES, (short) needle[length - 1]);
+        // Both loads (at i and at i + length - 1) must stay within [from, to)
+        for (int bound = to - length - lanes + 1; i <= bound; i += lanes) {
+            VectorMask<Short> candidates = ShortVector.fromCharArray(SPECIES, haystack, i).eq(first)
+                .and(ShortVector.fromCharArray(SPECIES, haystack, i + length - 1).eq(last));
+            if (!candidates.anyTrue()) {
+                continue; // The common case; anyTrue() is a single test, unlike building the lane bits
+            }
+            long hits = candidates.toLong();
+            while (hits != 0) {
+                int start = i + Long.numberOfTrailingZeros(hits);
+                if (ScalarScanKernel.middleMatches(haystack, start, needle)) {
+                    return start;
+                }
+                hits &= hits - 1;
+            }
+        }
+        return ScalarScanKernel.find(haystack, i, to, needle);
+    }
+
+    @Override
+    public String name() {
+        return "vector " + SPECIES.vectorBitSize() + "-bit";
+    }
+}
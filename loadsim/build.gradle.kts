@@ -0,0 +1,42 @@
+plugins {
+    application
+}
+
+group = "archive.searchwarps"
+version = project.property("plugin_version")!!.toString()
+
+repositories {
+    mavenCentral()
+}
+
+dependencies {
+    implementation(project(":core"))
+    implementation(testFixtures(project(":core")))
+    // Only needed with --action-icons (parsing a real ActionIcons.yml)
+    runtimeOnly("org.yaml:snakeyaml:${property("snakeyaml_version")}")
+}
+
+application {
+    // ./gradlew :loadsim:run --args="--players 300 --duration 60"
+    mainClass = "archive.searchwarps.loadsim.LoadSimulator"
+    // Lets brute-force text scans use the vector kernel
+    applicationDefaultJvmArgs = listOf("--add-modules", "jdk.incubator.vector")
+}
+
+val targetJavaVersion = 21
+java {
+    val javaVersion = JavaVersion.toVersion(targetJavaVersion)
+    sourceCompatibility = javaVersion
+    targetCompatibility = javaVersion
+    if (JavaVersion.current() < javaVersion) {
+        toolchain.languageVersion = JavaLanguageVersion.of(targetJavaVersion)
+    }
+}
+
+tasks {
+    withType(JavaCompile::class).configureEach {
+        options.encoding = "UTF-8"
+        options.release.set(targetJavaVersion)
+        options.compilerArgs.add("-Xlint:deprecation")
+    }
+}
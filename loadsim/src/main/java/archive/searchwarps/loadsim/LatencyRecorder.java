@@ -0,0 +1,126 @@
+package archive.searchwarps.loadsim;
+
+import java.util.Arrays;
+
+/**
+ * Records latencies and allocations per operation for one region thread.
+ * Not thread-safe: each region owns its own recorder, results are merged after the run.
+ */
+public class LatencyRecorder {
+    private final long[][] latencies = new long[Operation.values().length][];
+    private final int[] counts = new int[Operation.values().length];
+    private final long[] serviceNanos = new long[Operation.values().length];
+    private final long[] allocatedBytes = new long[Operation.values().length];
+    private long[] queueDelays = new long[1024];
+    private int queueDelayCount;
+
+    public LatencyRecorder() {
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = new long[1024];
+        }
+    }
+
+    /**
+     * Records one finished operation.
+     *
+     * @param operation The operation
+     * @param latencyNanos Time from the intended start (including queueing) to completion
+     * @param serviceNanos Time spent executing on the region thread
+     * @param queueDelayNanos Time the task waited past its intended start
+     * @param allocated Bytes allocated by the region thread while executing, or -1 if unsupported
+     */
+    public void record(Operation operation, long latencyNanos, long serviceNanos, long queueDelayNanos, long allocated) {
+        int index = operation.ordinal();
+        if (counts[index] == latencies[index].length) {
+            latencies[index] = Arrays.copyOf(latencies[index], counts[index] * 2);
+        }
+        latencies[index][counts[index]++] = latencyNanos;
+        this.serviceNanos[index] += serviceNanos;
+        if (allocated >= 0) {
+            allocatedBytes[index] += allocated;
+        }
+
+        if (queueDelayCount == queueDelays.length) {
+            queueDelays = Arrays.copyOf(queueDelays, queueDelayCount * 2);
+        }
+        queueDelays[queueDelayCount++] = queueDelayNanos;
+    }
+
+    /**
+     * Merges the recorders of all regions into per-operation summaries.
+     *
+     * @param recorders One recorder per region
+     * @param measuredNanos Length of the measurement window (for throughput)
+     * @return Summary rows in {@link Operation} order, followed by the queue delay row
+     */
+    public static Summary[] summarize(LatencyRecorder[] recorders, long measuredNanos) {
+        Operation[] operations = Operation.values();
+        Summary[] summaries = new Summary[operations.length + 1];
+        for (Operation operation : operations) {
+            int index = operation.ordinal();
+            long[] merged = new long[0];
+            long service = 0;
+            long allocated = 0;
+            for (LatencyRecorder recorder : recorders) {
+                merged = concat(merged, recorder.latencies[index], recorder.counts[index]);
+                service += recorder.serviceNanos[index];
+                allocated += recorder.allocatedBytes[index];
+            }
+            summaries[index] = Summary.of(operation.name(), merged, service, allocated, measuredNanos);
+        }
+
+        long[] delays = new long[0];
+        for (LatencyRecorder recorder : recorders) {
+            delays = concat(delays, recorder.queueDelays, recorder.queueDelayCount);
+        }
+        summaries[operations.length] = Summary.of("(queue delay)", delays, -1, -1, measuredNanos);
+        return summaries;
+    }
+
+    private static long[] concat(long[] into, long[] values, int count) {
+        long[] result = Arrays.copyOf(into, into.length + count);
+        System.arraycopy(values, 0, result, into.length, count);
+        return result;
+    }
+
+    /**
+     * Latency distribution of one operation.
+     *
+     * @param name Operation name
+     * @param count Number of operations
+     * @param throughput Operations per second over the measurement window
+     * @param p50Nanos Median latency
+     * @param p99Nanos 99th percentile latency
+     * @param p999Nanos 99.9th percentile latency
+     * @param maxNanos Worst latency
+     * @param meanServiceNanos Mean execution time on the region thread, or -1 if not applicable
+     * @param bytesPerOp Mean bytes allocated per operation, or -1 if not applicable
+     */
+    public record Summary(String name, int count, double throughput, long p50Nanos, long p99Nanos,
+                          long p999Nanos, long maxNanos, long meanServiceNanos, long bytesPerOp) {
+
+        static Summary of(String name, long[] values, long serviceNanos, long allocated, long measuredNanos) {
+            Arrays.sort(values);
+            int count = values.length;
+            return new Summary(
+                name,
+                count,
+                count / (measuredNanos / 1e9),
+                percentile(values, 0.50),
+                percentile(values, 0.99),
+                percentile(values, 0.999),
+                count == 0 ? 0 : values[count - 1],
+                serviceNanos < 0 || count == 0 ? -1 : serviceNanos / count,
+                allocated < 0 || count == 0 ? -1 : allocated / count
+            );
+        }
+
+        private static long percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+        }
+    }
+}
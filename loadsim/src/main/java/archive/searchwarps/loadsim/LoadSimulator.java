@@ -0,0 +1,227 @@
+package archive.searchwarps.loadsim;
+
+import archive.searchwarps.bench.SyntheticWarps;
+import archive.searchwarps.browse.BrowseService;
+import archive.searchwarps.data.IconTypeRegistry;
+import archive.searchwarps.data.SnakeYamlSource;
+import archive.searchwarps.data.WarpDataLoader;
+import archive.searchwarps.data.WarpIcon;
+import archive.searchwarps.data.WarpSnapshot;
+import archive.searchwarps.facet.Facets;
+import archive.searchwarps.metrics.MetricsRegistry;
+import archive.searchwarps.popularity.PopularityTracker;
+import archive.searchwarps.search.WarpSearchEngine;
+import archive.searchwarps.sorting.DistanceOrderCache;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Headless load simulator: many players searching, paging and toggling sort concurrently
+ * against the core browse service, scheduled on a mocked region scheduler with a
+ * HashMap stand-in for TeleportService.
+ *
+ * Reports p50/p99/p999 latency, throughput and allocation per operation. Latency is measured
+ * from the moment an action was due, so time spent queued behind other players on the same
+ * region counts.
+ *
+ * Usage: {@code ./gradlew :loadsim:run --args="--players 300 --duration 60 --regions 4"}
+ */
+public final class LoadSimulator {
+    private static final Map<String, String> DEFAULTS = Map.ofEntries(
+        Map.entry("players", "300"),
+        Map.entry("regions", "1"),
+        Map.entry("duration", "30"),
+        Map.entry("warmup", "10"),
+        Map.entry("think-ms", "250"),
+        Map.entry("warps", "10000"),
+        Map.entry("mix", "search=40,page=40,sort=10,browse=10"),
+        Map.entry("distance-cell", "0"),
+        Map.entry("seed", "42")
+    );
+    private static final String USAGE = """
+        Options (all optional):
+          --players <n>         simulated players (default 300)
+          --regions <n>         region threads; 1 = single main thread (default 1)
+          --duration <s>        measured seconds (default 30)
+          --warmup <s>          unmeasured warmup seconds (default 10)
+          --think-ms <ms>       mean pause between a player's actions (default 250)
+          --warps <n>           synthetic warp count (default 10000)
+          --action-icons <file> load a real ActionIcons.yml instead of synthetic warps
+          --replay <file>       replay queries from a log (plain queries or "searched for" log lines)
+          --mix <weights>       operation weights (default search=40,page=40,sort=10,browse=10)
+          --distance-cell <n>   share distance orderings per cell of n blocks; 0 = off (default 0)
+          --seed <n>            random seed (default 42)""";
+
+    private LoadSimulator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options;
+        try {
+            options = parseOptions(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+
+        int players = Integer.parseInt(options.get("players"));
+        int regions = Integer.parseInt(options.get("regions"));
+        long durationNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(options.get("duration")));
+        long warmupNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(options.get("warmup")));
+        long thinkNanos = TimeUnit.MILLISECONDS.toNanos(Long.parseLong(options.get("think-ms")));
+        long seed = Long.parseLong(options.get("seed"));
+        int distanceCell = Integer.parseInt(options.get("distance-cell"));
+
+        // Warp data: real ActionIcons.yml or synthetic
+        SyntheticWarps synthetic = new SyntheticWarps(Integer.parseInt(options.get("warps")), 0, 3, 0.3, 0.1, seed);
+        List<WarpIcon> icons;
+        if (options.containsKey("action-icons")) {
+            File file = new File(options.get("action-icons")).getAbsoluteFile();
+            WarpDataLoader loader = new WarpDataLoader(Logger.getLogger("loadsim"), new SnakeYamlSource(),
+                IconTypeRegistry.PERMISSIVE, file.getParent(), file.getName());
+            loader.load();
+            icons = loader.getWarpIcons();
+        } else {
+            icons = synthetic.icons();
+        }
+        WarpSnapshot snapshot = new WarpSnapshot(icons, 1);
+        WarpSearchEngine searchEngine = new WarpSearchEngine();
+        searchEngine.prepare(snapshot);
+
+        // Seed live popularity with a skewed teleport history so the popular sort has real scores to order
+        PopularityTracker popularity = new PopularityTracker(TimeUnit.DAYS.toMillis(7));
+        popularity.rebind(snapshot);
+        Random seeder = new Random(seed);
+        for (int i = 0; i < icons.size(); i++) {
+            popularity.recordTeleport(icons.get(seeder.nextInt(1 + seeder.nextInt(icons.size()))).destinationId());
+        }
+
+        QuerySource queries = options.containsKey("replay")
+            ? QuerySource.replay(Path.of(options.get("replay")))
+            : QuerySource.synthetic(synthetic);
+
+        RegionScheduler scheduler = new RegionScheduler(regions);
+        LatencyRecorder[] recorders = new LatencyRecorder[regions];
+        for (int i = 0; i < regions; i++) {
+            recorders[i] = new LatencyRecorder();
+        }
+
+        MetricsRegistry metrics = new MetricsRegistry();
+        MapWarpLocator locator = new MapWarpLocator(icons, 20_000, 0.05, seed);
+        long start = System.nanoTime();
+        long measureFrom = start + warmupNanos;
+        long stopAt = measureFrom + durationNanos;
+        SimulatedPlayer.Simulation simulation = new SimulatedPlayer.Simulation(
+            scheduler,
+            new BrowseService(() -> snapshot, searchEngine, metrics, popularity, new Facets(() -> locator),
+                new DistanceOrderCache(distanceCell > 0, Math.max(1, distanceCell), 1024, 60, metrics)),
+            locator,
+            queries,
+            recorders,
+            parseMix(options.get("mix")),
+            thinkNanos,
+            measureFrom,
+            stopAt
+        );
+
+        System.out.printf("Simulating %d players on %d region thread(s) over %d warps: %ds warmup, %ds measured%n",
+            players, regions, icons.size(), TimeUnit.NANOSECONDS.toSeconds(warmupNanos),
+            TimeUnit.NANOSECONDS.toSeconds(durationNanos));
+
+        for (int i = 0; i < players; i++) {
+            new SimulatedPlayer(i % regions, simulation, seed + i).start();
+        }
+
+        // Let the last scheduled actions finish before collecting results
+        TimeUnit.NANOSECONDS.sleep(stopAt - System.nanoTime());
+        scheduler.shutdown();
+
+        printReport(LatencyRecorder.summarize(recorders, durationNanos));
+
+        // Service-side view of the same run (includes warmup), as /searchwarps stats would show it
+        System.out.println();
+        System.out.println("Core metrics:");
+        metrics.report().forEach(line -> System.out.println("  " + line));
+    }
+
+    private static void printReport(LatencyRecorder.Summary[] summaries) {
+        System.out.printf("%n%-14s %9s %10s %9s %9s %9s %9s %11s %10s%n",
+            "operation", "count", "ops/s", "p50 ms", "p99 ms", "p999 ms", "max ms", "service ms", "alloc/op");
+        for (LatencyRecorder.Summary summary : summaries) {
+            System.out.printf("%-14s %9d %10.1f %9.3f %9.3f %9.3f %9.3f %11s %10s%n",
+                summary.name(),
+                summary.count(),
+                summary.throughput(),
+                summary.p50Nanos() / 1e6,
+                summary.p99Nanos() / 1e6,
+                summary.p999Nanos() / 1e6,
+                summary.maxNanos() / 1e6,
+                summary.meanServiceNanos() < 0 ? "-" : String.format("%.3f", summary.meanServiceNanos() / 1e6),
+                summary.bytesPerOp() < 0 ? "-" : formatBytes(summary.bytesPerOp())
+            );
+        }
+    }
+
+    private static String formatBytes(long bytes) {
+        if (bytes < 10_000) {
+            return bytes + " B";
+        } else if (bytes < 10_000_000) {
+            return (bytes / 1024) + " KiB";
+        }
+        return (bytes / (1024 * 1024)) + " MiB";
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>(DEFAULTS);
+        for (int i = 0; i < args.length; i += 2) {
+            String key = args[i];
+            if (!key.startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Expected --option value pairs, got: " + key);
+            }
+            key = key.substring(2);
+            if (!DEFAULTS.containsKey(key) && !key.equals("action-icons") && !key.equals("replay")) {
+                throw new IllegalArgumentException("Unknown option: --" + key);
+            }
+            options.put(key, args[i + 1]);
+        }
+        return options;
+    }
+
+    /**
+     * Parses "search=40,page=40,..." into cumulative probabilities in {@link Operation} order.
+     */
+    private static double[] parseMix(String mix) {
+        double[] weights = new double[Operation.values().length];
+        for (String part : mix.split(",")) {
+            String[] pair = part.split("=", 2);
+            Operation operation = switch (pair[0].trim()) {
+                case "search" -> Operation.SEARCH;
+                case "page" -> Operation.PAGE;
+                case "sort" -> Operation.TOGGLE_SORT;
+                case "browse" -> Operation.BROWSE;
+                default -> throw new IllegalArgumentException("Unknown operation in --mix: " + pair[0]);
+            };
+            weights[operation.ordinal()] = Double.parseDouble(pair[1].trim());
+        }
+
+        double total = 0;
+        for (double weight : weights) {
+            total += weight;
+        }
+        double cumulative = 0;
+        for (int i = 0; i < weights.length; i++) {
+            cumulative += weights[i] / total;
+            weights[i] = cumulative;
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,39 @@
+package archive.searchwarps.loadsim;
+
+import archive.searchwarps.data.WarpIcon;
+import archive.searchwarps.sorting.WarpLocator;
+import archive.searchwarps.sorting.WarpPosition;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Stand-in for WarpSystem's TeleportService: random warp positions held in a HashMap.
+ * A fraction of warps has no position, like destinations in unloaded or deleted worlds.
+ */
+public class MapWarpLocator implements WarpLocator {
+    private final Map<String, WarpPosition> positions = new HashMap<>();
+
+    /**
+     * @param icons The warps to place
+     * @param spread Standard deviation of the X/Z coordinates in blocks
+     * @param missingRatio Fraction of warps without a position
+     * @param seed Random seed
+     */
+    public MapWarpLocator(List<WarpIcon> icons, double spread, double missingRatio, long seed) {
+        Random random = new Random(seed);
+        for (WarpIcon icon : icons) {
+            if (random.nextDouble() >= missingRatio) {
+                positions.put(icon.destinationId(),
+                    new WarpPosition("world", random.nextGaussian() * spread, random.nextGaussian() * spread));
+            }
+        }
+    }
+
+    @Override
+    public WarpPosition locate(String destinationId) {
+        return positions.get(destinationId);
+    }
+}
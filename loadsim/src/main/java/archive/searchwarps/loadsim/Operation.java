@@ -0,0 +1,15 @@
+package archive.searchwarps.loadsim;
+
+/**
+ * Player actions the simulator issues, mirroring the GuiManager entry points.
+ */
+public enum Operation {
+    /** {@code /sw <query>} or the search anvil: search, then build page 0 */
+    SEARCH,
+    /** Next/previous page click: build another page of the same view */
+    PAGE,
+    /** Sort toggle click: re-sort the view, then build page 0 */
+    TOGGLE_SORT,
+    /** Plain {@code /sw}: view over all warps, then build page 0 */
+    BROWSE
+}
@@ -0,0 +1,114 @@
+package archive.searchwarps.loadsim;
+
+import archive.searchwarps.bench.SyntheticWarps;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Supplies the queries simulated players search for.
+ */
+public interface QuerySource {
+
+    /**
+     * Returns the next query.
+     *
+     * @param random The calling player's random generator
+     */
+    String next(Random random);
+
+    /**
+     * Synthetic queries over the generator's vocabulary: mostly common words, some rare words,
+     * short prefixes, two-word queries and misses.
+     *
+     * @param warps The generator that produced the warp data
+     */
+    static QuerySource synthetic(SyntheticWarps warps) {
+        return random -> {
+            double kind = random.nextDouble();
+            if (kind < 0.4) {
+                return warps.word(random.nextInt(32));
+            } else if (kind < 0.6) {
+                return warps.word(512 + random.nextInt(1536));
+            } else if (kind < 0.8) {
+                return warps.word(random.nextInt(256)).substring(0, 3);
+            } else if (kind < 0.95) {
+                return warps.word(random.nextInt(64)) + " " + warps.word(random.nextInt(256));
+            }
+            return "zzq" + random.nextInt(1000);
+        };
+    }
+
+    /**
+     * Replays recorded queries in file order, wrapping around at the end.
+     * Each line is a search event from the plugin's action log ({@code logs/actions.log}),
+     * a legacy log line of the form {@code <player> searched for: "<query>" (found N results)},
+     * or a plain query. Other action log events and blank lines are skipped.
+     *
+     * @param file The query log
+     * @return A source cycling through the recorded queries
+     * @throws IOException If the file cannot be read or contains no queries
+     */
+    static QuerySource replay(Path file) throws IOException {
+        Pattern logLine = Pattern.compile("searched for: \"(.*)\" \\(found \\d+ results\\)");
+        Pattern eventLine = Pattern.compile("\"subject\":\"((?:[^\"\\\\]|\\\\.)*)\"");
+        List<String> queries = new ArrayList<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            String query;
+            if (line.startsWith("{")) {
+                Matcher matcher = eventLine.matcher(line);
+                if (!line.contains("\"type\":\"search\"") || !matcher.find()) {
+                    continue;
+                }
+                query = unescapeJson(matcher.group(1));
+            } else {
+                Matcher matcher = logLine.matcher(line);
+                query = matcher.find() ? matcher.group(1) : line.strip();
+            }
+            if (!query.isEmpty()) {
+                queries.add(query);
+            }
+        }
+        if (queries.isEmpty()) {
+            throw new IOException("No queries found in " + file);
+        }
+
+        String[] recorded = queries.toArray(String[]::new);
+        AtomicInteger cursor = new AtomicInteger();
+        return random -> recorded[Math.floorMod(cursor.getAndIncrement(), recorded.length)];
+    }
+
+    /**
+     * Reverses the string escaping of the action log's JSON lines.
+     */
+    private static String unescapeJson(String value) {
+        StringBuilder result = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c != '\\' || i + 1 >= value.length()) {
+                result.append(c);
+                continue;
+            }
+            char escaped = value.charAt(++i);
+            switch (escaped) {
+                case 'n' -> result.append('\n');
+                case 'r' -> result.append('\r');
+                case 't' -> result.append('\t');
+                case 'u' -> {
+                    result.append((char) Integer.parseInt(value.substring(i + 1, i + 5), 16));
+                    i += 4;
+                }
+                default -> result.append(escaped);
+            }
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,63 @@
+package archive.searchwarps.loadsim;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stand-in for the server's entity scheduler on a region-threaded (Folia) server.
+ * Every player is owned by one region; each region runs its tasks on a single thread,
+ * so one player's actions never run concurrently while different regions run in parallel.
+ * With one region this behaves like a classic single main thread.
+ */
+public class RegionScheduler {
+    private final List<ScheduledExecutorService> regions;
+
+    /**
+     * @param regionCount Number of region threads
+     */
+    public RegionScheduler(int regionCount) {
+        AtomicInteger threadId = new AtomicInteger();
+        this.regions = new ArrayList<>(regionCount);
+        for (int i = 0; i < regionCount; i++) {
+            regions.add(Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "Region Scheduler Thread #" + threadId.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            }));
+        }
+    }
+
+    /**
+     * Returns the number of region threads.
+     */
+    public int regionCount() {
+        return regions.size();
+    }
+
+    /**
+     * Runs a task on a region thread after a delay.
+     *
+     * @param region The region owning the player
+     * @param task The task to run
+     * @param delayNanos Delay before running
+     */
+    public void runDelayed(int region, Runnable task, long delayNanos) {
+        regions.get(region).schedule(task, delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Stops all region threads and waits for running tasks to finish.
+     */
+    public void shutdown() throws InterruptedException {
+        for (ScheduledExecutorService region : regions) {
+            region.shutdownNow();
+        }
+        for (ScheduledExecutorService region : regions) {
+            region.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package archive.searchwarps.loadsim;
+
+import archive.searchwarps.browse.BrowsePage;
+import archive.searchwarps.browse.BrowseService;
+import archive.searchwarps.data.WarpIcon;
+import archive.searchwarps.search.ResultView;
+import archive.searchwarps.sorting.DistanceSorter;
+import archive.searchwarps.sorting.SortMode;
+import archive.searchwarps.sorting.WarpLocator;
+import archive.searchwarps.sorting.WarpPosition;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+/**
+ * One simulated player: repeatedly thinks, then searches, pages, toggles sort or opens the
+ * browser, always on the region thread that owns it (like GuiManager's runForPlayer).
+ * Each action does what the corresponding GuiManager method does minus the inventory:
+ * compute the view, then read every warp on the page the way WarpBrowserGUI renders it.
+ */
+public class SimulatedPlayer {
+    private static final com.sun.management.ThreadMXBean THREADS =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    // Keeps page reads from being optimized away
+    static volatile long sink;
+
+    private final int region;
+    private final Simulation simulation;
+    private final Random random;
+
+    private ResultView view;
+    private int page;
+    private WarpPosition position;
+
+    /**
+     * Shared simulation state handed to every player.
+     *
+     * @param scheduler The mocked region scheduler
+     * @param browseService The service under test
+     * @param locator Stand-in for TeleportService
+     * @param queries Query source
+     * @param recorders One recorder per region
+     * @param mix Cumulative operation weights, in {@link Operation} order
+     * @param meanThinkNanos Mean pause between a player's actions
+     * @param measureFromNanos Operations finishing before this time are not recorded (warmup)
+     * @param stopAtNanos Players stop issuing actions after this time
+     */
+    public record Simulation(RegionScheduler scheduler, BrowseService browseService, WarpLocator locator,
+                             QuerySource queries, LatencyRecorder[] recorders, double[] mix,
+                             long meanThinkNanos, long measureFromNanos, long stopAtNanos) {}
+
+    public SimulatedPlayer(int region, Simulation simulation, long seed) {
+        this.region = region;
+        this.simulation = simulation;
+        this.random = new Random(seed);
+        this.position = new WarpPosition("world", random.nextGaussian() * 10_000, random.nextGaussian() * 10_000);
+    }
+
+    /**
+     * Schedules the player's first action after a random initial think time.
+     */
+    public void start() {
+        scheduleNext(System.nanoTime());
+    }
+
+    private void scheduleNext(long now) {
+        // Exponential think time: players act independently (Poisson arrivals)
+        long think = (long) (-Math.log(1 - random.nextDouble()) * simulation.meanThinkNanos());
+        long intendedStart = now + think;
+        if (intendedStart >= simulation.stopAtNanos()) {
+            return;
+        }
+        simulation.scheduler().runDelayed(region, () -> act(intendedStart), think);
+    }
+
+    private void act(long intendedStart) {
+        Operation operation = pickOperation();
+
+        long allocatedBefore = THREADS.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        perform(operation);
+        long end = System.nanoTime();
+        long allocated = allocatedBefore < 0 ? -1 : THREADS.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+        if (end >= simulation.measureFromNanos()) {
+            simulation.recorders()[region].record(operation, end - intendedStart, end - start,
+                Math.max(0, start - intendedStart), allocated);
+        }
+        scheduleNext(end);
+    }
+
+    private Operation pickOperation() {
+        double roll = random.nextDouble();
+        double[] mix = simulation.mix();
+        for (int i = 0; i < mix.length; i++) {
+            if (roll < mix[i]) {
+                return Operation.values()[i];
+            }
+        }
+        return Operation.BROWSE;
+    }
+
+    private void perform(Operation operation) {
+        BrowseService service = simulation.browseService();
+        switch (operation) {
+            case SEARCH -> {
+                view = service.search(simulation.queries().next(random));
+                page = 0;
+            }
+            case PAGE -> {
+                if (view == null) {
+                    view = service.browseAll();
+                }
+                BrowsePage current = service.page(view, page);
+                page = current.hasNext() && (!current.hasPrev() || random.nextInt(4) != 0) ? page + 1
+                    : current.hasPrev() ? page - 1 : 0;
+            }
+            case TOGGLE_SORT -> {
+                if (view == null) {
+                    view = service.browseAll();
+                }
+                // Players wander between sort toggles, so distance sorts are not repeatable
+                position = new WarpPosition(position.world(),
+                    position.x() + random.nextGaussian() * 200, position.z() + random.nextGaussian() * 200);
+                view = service.toggleSort(view, position, simulation.locator());
+                page = 0;
+            }
+            case BROWSE -> {
+                view = service.browseAll();
+                page = 0;
+            }
+        }
+        readPage(service.page(view, page));
+    }
+
+    /**
+     * Reads each warp on the page like WarpBrowserGUI.createWarpItem does (names, lore, distance label).
+     */
+    private static void readPage(BrowsePage page) {
+        ResultView results = page.results();
+        boolean distances = results.sortMode() == SortMode.DISTANCE && results.hasDistances();
+        long checksum = 0;
+        for (int position = page.start(); position < page.end(); position++) {
+            WarpIcon warp = results.get(position);
+            checksum += warp.displayName().length();
+            for (String line : warp.lore()) {
+                checksum += line.length();
+            }
+            if (distances) {
+                checksum += DistanceSorter.formatDistance(results.distanceAt(position)).length();
+            }
+        }
+        sink += checksum;
+    }
+}
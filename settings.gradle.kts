@@ -1 +1,7 @@
 rootProject.name = "ArchiveSearchWarps"
+
+// Server-independent search, sorting and data loading (no Bukkit/Paper dependency)
+include("core")
+
+// Headless load simulator driving the core module with simulated players
+include("loadsim")
@@ -0,0 +1,77 @@
+package archive.searchwarps.gui;
+
+import archive.searchwarps.data.WarpIcon;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the server-independent part of building one browser page (45 items):
+ * display name and lore parsing, distance labels and skull texture encoding, i.e. the work
+ * {@code WarpBrowserGUI.createWarpItem} does besides creating the ItemStack and its meta,
+ * which need a running server.
+ * The page is generated inline; the shared synthetic data generator lives in the core module.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PageAssemblyBenchmark {
+    private static final int WARPS_PER_PAGE = 45;
+
+    @Param({"6"})
+    public int maxLoreLines;
+
+    @Param({"0.3"})
+    public double skullRatio;
+
+    @Param({"false", "true"})
+    public boolean distanceSorted;
+
+    private List<WarpIcon> page;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(11);
+        page = new ArrayList<>(WARPS_PER_PAGE);
+        for (int i = 0; i < WARPS_PER_PAGE; i++) {
+            List<String> lore = new ArrayList<>();
+            int loreLines = random.nextInt(maxLoreLines + 1);
+            for (int l = 0; l < loreLines; l++) {
+                lore.add("&7Lore line " + l + " of &ewarp " + i + " &fwith &lsome &bformatting");
+            }
+            boolean skull = random.nextDouble() < skullRatio;
+            String skullOwner = skull ? Long.toHexString(random.nextLong()) + Long.toHexString(random.nextLong()) : null;
+            page.add(new WarpIcon("Warp " + i, skull ? "PLAYER_HEAD" : "ENDER_PEARL", "&6Warp &f" + i, lore,
+                "warp_" + i, random.nextInt(1000), "page_" + (i % 5), skullOwner, null));
+        }
+    }
+
+    @Benchmark
+    public void assemblePage(Blackhole blackhole) {
+        for (int i = 0; i < page.size(); i++) {
+            WarpIcon warp = page.get(i);
+            blackhole.consume(WarpBrowserGUI.parseColorCodes(warp.displayName()));
+            blackhole.consume(WarpBrowserGUI.buildLore(warp, distanceSorted ? 150.0 * i : Double.NaN));
+            if (warp.skullOwner() != null) {
+                blackhole.consume(WarpBrowserGUI.encodeSkullTexture(warp.skullOwner()));
+            }
+        }
+    }
+}
@@ -1,44 +1,145 @@
 package archive.searchwarps;
 
+import archive.searchwarps.adapter.BukkitIconTypes;
+import archive.searchwarps.adapter.BukkitYamlSource;
+import archive.searchwarps.adapter.WarpSystemLocator;
+import archive.searchwarps.analytics.QueryCount;
+import archive.searchwarps.analytics.SearchAnalytics;
+import archive.searchwarps.api.DefaultWarpSearchService;
+import archive.searchwarps.api.WarpSearchService;
+import archive.searchwarps.browse.BrowseService;
 import archive.searchwarps.data.WarpDataLoader;
+import archive.searchwarps.eventlog.EventLog;
+import archive.searchwarps.eventlog.EventSink;
+import archive.searchwarps.eventlog.EventType;
+import archive.searchwarps.eventlog.LoggerSink;
+import archive.searchwarps.eventlog.RollingFileSink;
+import archive.searchwarps.facet.Facets;
+import archive.searchwarps.favorites.PlayerWarpStore;
 import archive.searchwarps.gui.GuiManager;
+import archive.searchwarps.gui.SearchPreview;
+import archive.searchwarps.gui.SkullTextureCache;
 import archive.searchwarps.listeners.InventoryClickListener;
+import archive.searchwarps.listeners.PlayerWarpsListener;
 import archive.searchwarps.listeners.PrepareAnvilListener;
+import archive.searchwarps.metrics.MetricsRegistry;
+import archive.searchwarps.popularity.PopularityTracker;
 import archive.searchwarps.search.WarpSearchEngine;
+import archive.searchwarps.session.SessionStore;
+import archive.searchwarps.sorting.DistanceOrderCache;
+import archive.searchwarps.teleport.ChunkPrewarmer;
+import archive.searchwarps.teleport.TeleportDispatcher;
 import com.mojang.brigadier.Command;
 import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.suggestion.Suggestions;
+import com.mojang.brigadier.suggestion.SuggestionsBuilder;
 import de.codingair.warpsystem.api.TeleportService;
 import io.papermc.paper.command.brigadier.Commands;
 import io.papermc.paper.plugin.lifecycle.event.LifecycleEventManager;
 import io.papermc.paper.plugin.lifecycle.event.types.LifecycleEvents;
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
 import net.kyori.adventure.key.Key;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
 import net.kyori.adventure.translation.GlobalTranslator;
 import net.kyori.adventure.translation.TranslationStore;
 import net.kyori.adventure.util.UTF8ResourceBundleControl;
+import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.ServicePriority;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Main plugin class for ArchiveSearchWarps.
  * Provides GUI-based warp search and browsing using WarpSystem-API.
  */
 public final class ArchiveSearchWarps extends JavaPlugin {
+    private static final int MAX_SUGGESTIONS = 10;
+    private static final int ANALYTICS_SHOWN = 10;
 
     // Core components
     private WarpDataLoader dataLoader;
     private WarpSearchEngine searchEngine;
+    private Facets facets;
     private GuiManager guiManager;
+    private SearchPreview searchPreview;
+    private SessionStore sessionStore;
+    private SkullTextureCache skullTextures;
+    private DistanceOrderCache distanceOrders;
+    private ChunkPrewarmer prewarmer;
+    private TeleportDispatcher teleportDispatcher;
+    private final MetricsRegistry metrics = new MetricsRegistry();
+    private ScheduledTask metricsDumpTask;
+    private EventLog eventLog;
+    private ScheduledTask eventLogWriterTask;
+    private SearchAnalytics analytics;
+    private ScheduledTask analyticsFlushTask;
+    private PopularityTracker popularity;
+    private ScheduledTask popularitySaveTask;
+    private PlayerWarpStore playerWarps;
+    private ScheduledTask playerWarpsFlushTask;
 
     // Configuration
     private String warpsystemDataFolder;
     private String actionIconsFile;
+    private boolean livePreviewEnabled;
+    private long livePreviewDebounceMs;
+    private int livePreviewMaxResults;
+    private long livePreviewLatencyBudgetMs;
+    private int maxSessions;
+    private long sessionTtlMinutes;
+    private long metricsDumpIntervalMinutes;
+    private String metricsDumpFile;
+    private boolean eventLogEnabled;
+    private boolean eventLogConsole;
+    private String eventLogFile;
+    private long eventLogMaxFileSizeMb;
+    private int eventLogMaxFiles;
+    private int eventLogBufferSize;
+    private long eventLogFlushIntervalMs;
+    private final Map<EventType, Double> eventLogSampleRates = new EnumMap<>(EventType.class);
+    private boolean analyticsEnabled;
+    private int analyticsTopK;
+    private long analyticsFlushIntervalMinutes;
+    private String analyticsFile;
+    private double popularityHalfLifeHours;
+    private long popularitySaveIntervalMinutes;
+    private String popularityFile;
+    private int recentWarpsSize;
+    private int favoriteWarpsSize;
+    private long playerWarpsFlushIntervalSeconds;
+    private String playerWarpsFolder;
+    private boolean storageOffHeap;
+    private boolean searchCjkBigrams;
+    private String searchAliasesFile;
+    private boolean distanceCacheEnabled;
+    private int distanceCacheCellSize;
+    private int distanceCacheMaxEntries;
+    private long distanceCacheTtlSeconds;
+    private boolean prewarmEnabled;
+    private int prewarmRadius;
+    private long prewarmTtlSeconds;
+    private long prewarmWaitMs;
+    private boolean teleportQueueEnabled;
+    private int teleportQueuePerTick;
 
     @Override
     public void onEnable() {
@@ -50,28 +151,78 @@ public final class ArchiveSearchWarps extends JavaPlugin {
         loadConfig();
 
         // Initialize core components
-        dataLoader = new WarpDataLoader(this, warpsystemDataFolder, actionIconsFile);
+        dataLoader = new WarpDataLoader(getLogger(), new BukkitYamlSource(), new BukkitIconTypes(),
+            warpsystemDataFolder, actionIconsFile);
+        dataLoader.setOffHeap(storageOffHeap);
+        applyAliasesConfig();
         searchEngine = new WarpSearchEngine();
-        guiManager = new GuiManager(this, dataLoader, searchEngine);
+        searchEngine.setCjkBigrams(searchCjkBigrams);
+        facets = new Facets(WarpSystemLocator::current);
+        sessionStore = new SessionStore(maxSessions, sessionTtlMinutes);
+        skullTextures = new SkullTextureCache(metrics);
+        distanceOrders = new DistanceOrderCache(distanceCacheEnabled, distanceCacheCellSize, distanceCacheMaxEntries,
+            distanceCacheTtlSeconds, metrics);
+        prewarmer = new ChunkPrewarmer(this, metrics);
+        prewarmer.configure(prewarmEnabled, prewarmRadius, prewarmTtlSeconds, prewarmWaitMs);
+        teleportDispatcher = new TeleportDispatcher(this, metrics);
+        teleportDispatcher.configure(teleportQueueEnabled, teleportQueuePerTick);
+        eventLog = new EventLog(eventLogBufferSize, metrics, getLogger());
+        applyEventLogConfig();
+        analytics = new SearchAnalytics(analyticsTopK);
+        applyAnalyticsConfig();
+        popularity = new PopularityTracker(popularityHalfLifeMillis());
+        playerWarps = new PlayerWarpStore(getDataFolder().toPath().resolve(playerWarpsFolder),
+            recentWarpsSize, favoriteWarpsSize, getLogger(), asyncExecutor());
+        BrowseService browseService = new BrowseService(dataLoader::getSnapshot, searchEngine, metrics, popularity,
+            facets, distanceOrders);
+        guiManager = new GuiManager(this, browseService,
+            sessionStore, skullTextures, metrics, eventLog, analytics, playerWarps);
+        searchPreview = new SearchPreview(this, dataLoader, searchEngine, metrics);
+        applyLivePreviewConfig();
 
         // Register event listeners
-        PrepareAnvilListener prepareAnvilListener = new PrepareAnvilListener(this);
-        getServer().getPluginManager().registerEvents(prepareAnvilListener, this);
+        getServer().getPluginManager().registerEvents(
+            new PrepareAnvilListener(this, searchPreview, sessionStore),
+            this
+        );
 
         getServer().getPluginManager().registerEvents(
-            new InventoryClickListener(this, guiManager, prepareAnvilListener),
+            new InventoryClickListener(this, guiManager, sessionStore, metrics, eventLog, analytics, popularity, playerWarps, prewarmer,
+                teleportDispatcher),
             this
         );
 
+        getServer().getPluginManager().registerEvents(new PlayerWarpsListener(this, playerWarps), this);
+
+        // Expire idle sessions (players who stopped browsing without quitting)
+        getServer().getAsyncScheduler().runAtFixedRate(this, task -> sessionStore.expire(), 1, 1, TimeUnit.MINUTES);
+        scheduleMetricsDump();
+        schedulePopularitySave();
+        schedulePlayerWarpsFlush();
+        teleportDispatcher.start();
+
+        // Warp lookup for other plugins; calls complete on the async scheduler's worker threads
+        getServer().getServicesManager().register(WarpSearchService.class,
+            new DefaultWarpSearchService(browseService, WarpSystemLocator::current, asyncExecutor()),
+            this, ServicePriority.Normal);
+
+        // Players already online (plugin enabled while the server runs) do not fire join events
+        for (Player online : getServer().getOnlinePlayers()) {
+            playerWarps.load(online.getUniqueId());
+        }
+
         // Load warp data asynchronously
         getLogger().info("Loading warp data from ActionIcons.yml...");
         getServer().getAsyncScheduler().runNow(this, task -> {
+            loadPopularity();
+            long loadStart = System.nanoTime();
             dataLoader.load();
+            metrics.recordSince(MetricsRegistry.DATA_LOAD, loadStart);
+            prepareSearchIndex();
+            popularity.rebind(dataLoader.getSnapshot());
 
-            // Log completion on main thread for visibility
-            getServer().getGlobalRegionScheduler().run(this, schedTask -> {
-                getLogger().info("Loaded " + dataLoader.getWarpCount() + " warps from ActionIcons.yml");
-            });
+            // The logger is thread-safe, so there is no need to hop to a region thread
+            getLogger().info("Loaded " + dataLoader.getWarpCount() + " warps from ActionIcons.yml");
         });
 
         // Register /searchwarps command using Brigadier
@@ -108,9 +259,6 @@ public final class ArchiveSearchWarps extends JavaPlugin {
                             return Command.SINGLE_SUCCESS;
                         }
 
-                        // Log command usage
-                        getLogger().info(player.getName() + " opened warp browser");
-
                         // Open main browser (sorted alphabetically)
                         guiManager.openMainBrowser(player);
 
@@ -118,6 +266,7 @@ public final class ArchiveSearchWarps extends JavaPlugin {
                     })
                     .then(
                         Commands.argument("query", StringArgumentType.greedyString())
+                            .suggests((ctx, builder) -> suggestQuery(builder))
                             .executes(ctx -> {
                                 // Only players can use this command
                                 if (!(ctx.getSource().getExecutor() instanceof Player player)) {
@@ -169,25 +318,104 @@ public final class ArchiveSearchWarps extends JavaPlugin {
                                 // Reload config
                                 reloadConfig();
                                 loadConfig();
+                                applyLivePreviewConfig();
+                                sessionStore.configure(maxSessions, sessionTtlMinutes);
+                                distanceOrders.configure(distanceCacheEnabled, distanceCacheCellSize,
+                                    distanceCacheMaxEntries, distanceCacheTtlSeconds);
+                                prewarmer.configure(prewarmEnabled, prewarmRadius, prewarmTtlSeconds, prewarmWaitMs);
+                                teleportDispatcher.configure(teleportQueueEnabled, teleportQueuePerTick);
+                                scheduleMetricsDump();
+                                applyEventLogConfig();
+                                applyAnalyticsConfig();
+                                popularity.setHalfLife(popularityHalfLifeMillis());
+                                schedulePopularitySave();
+                                playerWarps.configure(recentWarpsSize, favoriteWarpsSize);
+                                schedulePlayerWarpsFlush();
+                                dataLoader.setOffHeap(storageOffHeap);
+                                applyAliasesConfig();
+                                searchEngine.setCjkBigrams(searchCjkBigrams);
 
                                 // Reload warp data asynchronously
                                 getServer().getAsyncScheduler().runNow(this, task -> {
+                                    long reloadStart = System.nanoTime();
                                     dataLoader.reload();
-
-                                    // Send completion message on main thread
-                                    getServer().getGlobalRegionScheduler().run(this, schedTask -> {
+                                    metrics.recordSince(MetricsRegistry.DATA_RELOAD, reloadStart);
+                                    prepareSearchIndex();
+                                    popularity.rebind(dataLoader.getSnapshot());
+                                    skullTextures.clear();
+                                    distanceOrders.clear();
+
+                                    // Send completion message on the sender's own thread
+                                    runForSender(sender, () -> {
                                         sender.sendMessage(
                                             Component.translatable("archive.searchwarps.reload_complete",
                                                 Component.text(dataLoader.getWarpCount())
                                             ).color(NamedTextColor.GREEN)
                                         );
-                                        getLogger().info(sender.getName() + " reloaded warp data (" + dataLoader.getWarpCount() + " warps)");
                                     });
+                                    getLogger().info(sender.getName() + " reloaded warp data (" + dataLoader.getWarpCount() + " warps)");
                                 });
 
                                 return Command.SINGLE_SUCCESS;
                             })
                     )
+                    .then(
+                        Commands.literal("stats")
+                            .requires(ctx -> ctx.getSender().hasPermission("warpsystem.admin"))
+                            .executes(ctx -> {
+                                var sender = ctx.getSource().getSender();
+                                sender.sendMessage(
+                                    Component.translatable("archive.searchwarps.stats_header",
+                                        Component.text(dataLoader.getWarpCount()),
+                                        Component.text(sessionStore.size())
+                                    ).color(NamedTextColor.GOLD)
+                                );
+
+                                List<String> lines = metrics.report();
+                                if (lines.isEmpty()) {
+                                    sender.sendMessage(
+                                        Component.translatable("archive.searchwarps.stats_empty")
+                                            .color(NamedTextColor.GRAY)
+                                    );
+                                }
+                                for (String line : lines) {
+                                    sender.sendMessage(Component.text(line).color(NamedTextColor.GRAY));
+                                }
+                                return Command.SINGLE_SUCCESS;
+                            })
+                            .then(
+                                Commands.literal("reset")
+                                    .executes(ctx -> {
+                                        metrics.reset();
+                                        ctx.getSource().getSender().sendMessage(
+                                            Component.translatable("archive.searchwarps.stats_reset")
+                                                .color(NamedTextColor.GREEN)
+                                        );
+                                        getLogger().info(ctx.getSource().getSender().getName() + " reset metrics");
+                                        return Command.SINGLE_SUCCESS;
+                                    })
+                            )
+                    )
+                    .then(
+                        Commands.literal("analytics")
+                            .requires(ctx -> ctx.getSender().hasPermission("warpsystem.admin"))
+                            .executes(ctx -> {
+                                sendAnalytics(ctx.getSource().getSender());
+                                return Command.SINGLE_SUCCESS;
+                            })
+                            .then(
+                                Commands.literal("reset")
+                                    .executes(ctx -> {
+                                        analytics.reset();
+                                        ctx.getSource().getSender().sendMessage(
+                                            Component.translatable("archive.searchwarps.analytics_reset")
+                                                .color(NamedTextColor.GREEN)
+                                        );
+                                        getLogger().info(ctx.getSource().getSender().getName() + " reset search analytics");
+                                        return Command.SINGLE_SUCCESS;
+                                    })
+                            )
+                    )
                     .build(),
                 "Open the warp browser GUI",
                 List.of("sw")
@@ -197,6 +425,234 @@ public final class ArchiveSearchWarps extends JavaPlugin {
         getLogger().info("ArchiveSearchWarps enabled successfully");
     }
 
+    /**
+     * Computes tab-completions for the search query argument on the async scheduler.
+     * Suggestions come from the per-load prefix completer, ranked by teleport count.
+     *
+     * @param builder The Brigadier suggestions builder for the query argument
+     * @return Future completed with the suggestions
+     */
+    private CompletableFuture<Suggestions> suggestQuery(SuggestionsBuilder builder) {
+        String typed = builder.getRemaining();
+        return CompletableFuture.supplyAsync(() -> {
+            for (String suggestion : searchEngine.complete(dataLoader.getSnapshot(), typed, MAX_SUGGESTIONS)) {
+                builder.suggest(suggestion);
+            }
+            return builder.build();
+        }, task -> getServer().getAsyncScheduler().runNow(this, schedTask -> task.run()));
+    }
+
+    /**
+     * Pushes the event log settings into the EventLog and (re)starts its background writer.
+     * The sinks are swapped on the writer's side of the log, so buffered events go to the old file first.
+     */
+    private void applyEventLogConfig() {
+        eventLog.configure(eventLogEnabled, eventLogSampleRates);
+
+        List<EventSink> sinks = new ArrayList<>();
+        if (eventLogEnabled) {
+            sinks.add(new RollingFileSink(getDataFolder().toPath().resolve(eventLogFile),
+                eventLogMaxFileSizeMb * 1024 * 1024, eventLogMaxFiles));
+            if (eventLogConsole) {
+                sinks.add(new LoggerSink(getLogger()));
+            }
+        }
+
+        if (eventLogWriterTask != null) {
+            eventLogWriterTask.cancel();
+        }
+        getServer().getAsyncScheduler().runNow(this, task -> eventLog.setSinks(sinks));
+        eventLogWriterTask = getServer().getAsyncScheduler().runAtFixedRate(this, task -> eventLog.drain(),
+            eventLogFlushIntervalMs, eventLogFlushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Pushes the analytics settings into SearchAnalytics and (re)schedules the periodic flush.
+     */
+    private void applyAnalyticsConfig() {
+        analytics.setEnabled(analyticsEnabled);
+
+        if (analyticsFlushTask != null) {
+            analyticsFlushTask.cancel();
+            analyticsFlushTask = null;
+        }
+        if (analyticsEnabled && analyticsFlushIntervalMinutes > 0) {
+            analyticsFlushTask = getServer().getAsyncScheduler().runAtFixedRate(this, task -> flushAnalytics(),
+                analyticsFlushIntervalMinutes, analyticsFlushIntervalMinutes, TimeUnit.MINUTES);
+        }
+    }
+
+    /**
+     * Writes the search analytics to their file in the plugin's data folder.
+     */
+    private void flushAnalytics() {
+        Path target = getDataFolder().toPath().resolve(analyticsFile);
+        try {
+            analytics.writeTo(target, analyticsTopK);
+        } catch (IOException e) {
+            getLogger().warning("Failed to write search analytics to " + target + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Sends the analytics summary: totals, click ranks, top queries and top zero-result queries.
+     *
+     * @param sender The command sender to report to
+     */
+    private void sendAnalytics(CommandSender sender) {
+        SearchAnalytics.Summary summary = analytics.summary();
+        sender.sendMessage(
+            Component.translatable("archive.searchwarps.analytics_header").color(NamedTextColor.GOLD)
+        );
+        if (summary.searches() == 0) {
+            sender.sendMessage(
+                Component.translatable("archive.searchwarps.analytics_empty").color(NamedTextColor.GRAY)
+            );
+            return;
+        }
+        for (String line : summary.format()) {
+            sender.sendMessage(Component.text(line).color(NamedTextColor.GRAY));
+        }
+
+        sender.sendMessage(
+            Component.translatable("archive.searchwarps.analytics_top_queries").color(NamedTextColor.YELLOW)
+        );
+        for (QueryCount entry : analytics.topQueries(ANALYTICS_SHOWN)) {
+            sender.sendMessage(Component.text(entry.count() + "  " + entry.query()).color(NamedTextColor.GRAY));
+        }
+
+        List<QueryCount> zeroResults = analytics.topZeroResultQueries(ANALYTICS_SHOWN);
+        if (!zeroResults.isEmpty()) {
+            sender.sendMessage(
+                Component.translatable("archive.searchwarps.analytics_zero_results").color(NamedTextColor.YELLOW)
+            );
+            for (QueryCount entry : zeroResults) {
+                sender.sendMessage(Component.text(entry.count() + "  " + entry.query()).color(NamedTextColor.GRAY));
+            }
+        }
+    }
+
+    /**
+     * (Re)schedules the periodic save of the popularity counters according to the current config.
+     */
+    private void schedulePopularitySave() {
+        if (popularitySaveTask != null) {
+            popularitySaveTask.cancel();
+        }
+        popularitySaveTask = getServer().getAsyncScheduler().runAtFixedRate(this, task -> savePopularity(),
+            popularitySaveIntervalMinutes, popularitySaveIntervalMinutes, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Returns an executor that runs tasks on the async scheduler's worker threads.
+     */
+    private Executor asyncExecutor() {
+        return task -> getServer().getAsyncScheduler().runNow(this, scheduled -> task.run());
+    }
+
+    /**
+     * (Re)schedules the periodic save of players' recent and favorite warps.
+     */
+    private void schedulePlayerWarpsFlush() {
+        if (playerWarpsFlushTask != null) {
+            playerWarpsFlushTask.cancel();
+        }
+        playerWarpsFlushTask = getServer().getAsyncScheduler().runAtFixedRate(this, task -> playerWarps.flush(),
+            playerWarpsFlushIntervalSeconds, playerWarpsFlushIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Loads the saved popularity counters from the plugin's data folder.
+     */
+    private void loadPopularity() {
+        Path source = getDataFolder().toPath().resolve(popularityFile);
+        try {
+            int loaded = popularity.load(source);
+            if (loaded > 0) {
+                getLogger().info("Loaded popularity counters for " + loaded + " warps");
+            }
+        } catch (IOException e) {
+            getLogger().warning("Failed to load popularity counters from " + source + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the popularity counters to their file in the plugin's data folder.
+     */
+    private void savePopularity() {
+        Path target = getDataFolder().toPath().resolve(popularityFile);
+        try {
+            popularity.save(target);
+        } catch (IOException e) {
+            getLogger().warning("Failed to save popularity counters to " + target + ": " + e.getMessage());
+        }
+    }
+
+    private long popularityHalfLifeMillis() {
+        return (long) (popularityHalfLifeHours * TimeUnit.HOURS.toMillis(1));
+    }
+
+    /**
+     * Builds the search index and facet bitmaps for the current snapshot and records how long it took.
+     */
+    private void prepareSearchIndex() {
+        long start = System.nanoTime();
+        searchEngine.prepare(dataLoader.getSnapshot());
+        facets.prepare(dataLoader.getSnapshot());
+        metrics.recordSince(MetricsRegistry.INDEX_BUILD, start);
+    }
+
+    /**
+     * (Re)schedules the periodic metrics dump according to the current config.
+     * Cancels the previous schedule, so it is safe to call on reload.
+     */
+    private void scheduleMetricsDump() {
+        if (metricsDumpTask != null) {
+            metricsDumpTask.cancel();
+            metricsDumpTask = null;
+        }
+        if (metricsDumpIntervalMinutes > 0) {
+            metricsDumpTask = getServer().getAsyncScheduler().runAtFixedRate(this, task -> dumpMetrics(),
+                metricsDumpIntervalMinutes, metricsDumpIntervalMinutes, TimeUnit.MINUTES);
+        }
+    }
+
+    /**
+     * Writes the current metrics report to the dump file in the plugin's data folder.
+     * Writes to a temporary file first, so readers never see a half-written report.
+     */
+    private void dumpMetrics() {
+        Path target = getDataFolder().toPath().resolve(metricsDumpFile);
+        List<String> lines = new ArrayList<>();
+        lines.add("# ArchiveSearchWarps metrics at " + Instant.now());
+        lines.addAll(metrics.report());
+
+        try {
+            Files.createDirectories(target.getParent());
+            Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+            Files.write(temp, lines, StandardCharsets.UTF_8);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            getLogger().warning("Failed to write metrics to " + target + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Runs a task on the thread that owns the given command sender.
+     * Players are served by their entity scheduler so per-player work stays on the
+     * player's region thread; the console and other senders use the global region.
+     *
+     * @param sender The sender the task interacts with
+     * @param task The task to run
+     */
+    private void runForSender(CommandSender sender, Runnable task) {
+        if (sender instanceof Player player) {
+            player.getScheduler().run(this, schedTask -> task.run(), null);
+        } else {
+            getServer().getGlobalRegionScheduler().run(this, schedTask -> task.run());
+        }
+    }
+
     /**
      * Registers translation bundles for internationalization.
      */
@@ -229,12 +685,268 @@ public final class ArchiveSearchWarps extends JavaPlugin {
             actionIconsFile = "ActionIcons.yml";
         }
 
+        livePreviewEnabled = getConfig().getBoolean("live_preview.enabled", true);
+        livePreviewDebounceMs = getConfig().getLong("live_preview.debounce_ms", 150);
+        livePreviewMaxResults = getConfig().getInt("live_preview.max_results", 5);
+        livePreviewLatencyBudgetMs = getConfig().getLong("live_preview.latency_budget_ms", 10);
+
+        if (livePreviewDebounceMs < 0) {
+            getLogger().warning("live_preview.debounce_ms is negative. Using default: 150");
+            livePreviewDebounceMs = 150;
+        }
+
+        if (livePreviewMaxResults < 0) {
+            getLogger().warning("live_preview.max_results is negative. Using default: 5");
+            livePreviewMaxResults = 5;
+        }
+
+        if (livePreviewLatencyBudgetMs <= 0) {
+            getLogger().warning("live_preview.latency_budget_ms must be positive. Using default: 10");
+            livePreviewLatencyBudgetMs = 10;
+        }
+
+        maxSessions = getConfig().getInt("sessions.max_sessions", 1000);
+        sessionTtlMinutes = getConfig().getLong("sessions.ttl_minutes", 30);
+
+        if (maxSessions <= 0) {
+            getLogger().warning("sessions.max_sessions must be positive. Using default: 1000");
+            maxSessions = 1000;
+        }
+
+        if (sessionTtlMinutes <= 0) {
+            getLogger().warning("sessions.ttl_minutes must be positive. Using default: 30");
+            sessionTtlMinutes = 30;
+        }
+
+        metricsDumpIntervalMinutes = getConfig().getLong("metrics.dump_interval_minutes", 0);
+        metricsDumpFile = getConfig().getString("metrics.dump_file", "metrics.txt");
+
+        if (metricsDumpIntervalMinutes < 0) {
+            getLogger().warning("metrics.dump_interval_minutes is negative. Using default: 0 (disabled)");
+            metricsDumpIntervalMinutes = 0;
+        }
+
+        if (metricsDumpFile == null || metricsDumpFile.isEmpty()) {
+            getLogger().warning("metrics.dump_file is empty. Using default: metrics.txt");
+            metricsDumpFile = "metrics.txt";
+        }
+
+        eventLogEnabled = getConfig().getBoolean("event_log.enabled", true);
+        eventLogConsole = getConfig().getBoolean("event_log.console", false);
+        eventLogFile = getConfig().getString("event_log.file", "logs/actions.log");
+        eventLogMaxFileSizeMb = getConfig().getLong("event_log.max_file_size_mb", 10);
+        eventLogMaxFiles = getConfig().getInt("event_log.max_files", 5);
+        eventLogBufferSize = getConfig().getInt("event_log.buffer_size", 8192);
+        eventLogFlushIntervalMs = getConfig().getLong("event_log.flush_interval_ms", 500);
+
+        if (eventLogFile == null || eventLogFile.isEmpty()) {
+            getLogger().warning("event_log.file is empty. Using default: logs/actions.log");
+            eventLogFile = "logs/actions.log";
+        }
+
+        if (eventLogMaxFileSizeMb <= 0) {
+            getLogger().warning("event_log.max_file_size_mb must be positive. Using default: 10");
+            eventLogMaxFileSizeMb = 10;
+        }
+
+        if (eventLogMaxFiles <= 0) {
+            getLogger().warning("event_log.max_files must be positive. Using default: 5");
+            eventLogMaxFiles = 5;
+        }
+
+        if (eventLogBufferSize <= 0) {
+            getLogger().warning("event_log.buffer_size must be positive. Using default: 8192");
+            eventLogBufferSize = 8192;
+        }
+
+        if (eventLogFlushIntervalMs <= 0) {
+            getLogger().warning("event_log.flush_interval_ms must be positive. Using default: 500");
+            eventLogFlushIntervalMs = 500;
+        }
+
+        eventLogSampleRates.clear();
+        for (EventType type : EventType.values()) {
+            double rate = getConfig().getDouble("event_log.sample_rate." + type.key(), 1.0);
+            if (rate < 0 || rate > 1) {
+                getLogger().warning("event_log.sample_rate." + type.key() + " must be between 0 and 1. Using default: 1.0");
+                rate = 1.0;
+            }
+            eventLogSampleRates.put(type, rate);
+        }
+
+        analyticsEnabled = getConfig().getBoolean("analytics.enabled", true);
+        analyticsTopK = getConfig().getInt("analytics.top_k", 100);
+        analyticsFlushIntervalMinutes = getConfig().getLong("analytics.flush_interval_minutes", 10);
+        analyticsFile = getConfig().getString("analytics.file", "analytics.txt");
+
+        if (analyticsTopK <= 0) {
+            getLogger().warning("analytics.top_k must be positive. Using default: 100");
+            analyticsTopK = 100;
+        }
+
+        if (analyticsFlushIntervalMinutes < 0) {
+            getLogger().warning("analytics.flush_interval_minutes is negative. Using default: 10");
+            analyticsFlushIntervalMinutes = 10;
+        }
+
+        if (analyticsFile == null || analyticsFile.isEmpty()) {
+            getLogger().warning("analytics.file is empty. Using default: analytics.txt");
+            analyticsFile = "analytics.txt";
+        }
+
+        popularityHalfLifeHours = getConfig().getDouble("popularity.half_life_hours", 168);
+        popularitySaveIntervalMinutes = getConfig().getLong("popularity.save_interval_minutes", 5);
+        popularityFile = getConfig().getString("popularity.file", "popularity.tsv");
+
+        if (popularityHalfLifeHours <= 0) {
+            getLogger().warning("popularity.half_life_hours must be positive. Using default: 168");
+            popularityHalfLifeHours = 168;
+        }
+
+        if (popularitySaveIntervalMinutes <= 0) {
+            getLogger().warning("popularity.save_interval_minutes must be positive. Using default: 5");
+            popularitySaveIntervalMinutes = 5;
+        }
+
+        if (popularityFile == null || popularityFile.isEmpty()) {
+            getLogger().warning("popularity.file is empty. Using default: popularity.tsv");
+            popularityFile = "popularity.tsv";
+        }
+
+        recentWarpsSize = getConfig().getInt("player_warps.recent_size", 9);
+        favoriteWarpsSize = getConfig().getInt("player_warps.favorites_size", 18);
+        playerWarpsFlushIntervalSeconds = getConfig().getLong("player_warps.flush_interval_seconds", 30);
+        playerWarpsFolder = getConfig().getString("player_warps.folder", "playerdata");
+
+        if (recentWarpsSize <= 0 || recentWarpsSize > 18) {
+            getLogger().warning("player_warps.recent_size must be between 1 and 18. Using default: 9");
+            recentWarpsSize = 9;
+        }
+
+        if (favoriteWarpsSize <= 0 || favoriteWarpsSize > 18) {
+            getLogger().warning("player_warps.favorites_size must be between 1 and 18. Using default: 18");
+            favoriteWarpsSize = 18;
+        }
+
+        if (playerWarpsFlushIntervalSeconds <= 0) {
+            getLogger().warning("player_warps.flush_interval_seconds must be positive. Using default: 30");
+            playerWarpsFlushIntervalSeconds = 30;
+        }
+
+        if (playerWarpsFolder == null || playerWarpsFolder.isEmpty()) {
+            getLogger().warning("player_warps.folder is empty. Using default: playerdata");
+            playerWarpsFolder = "playerdata";
+        }
+
+        distanceCacheEnabled = getConfig().getBoolean("distance_cache.enabled", true);
+        distanceCacheCellSize = getConfig().getInt("distance_cache.cell_size", 16);
+        distanceCacheMaxEntries = getConfig().getInt("distance_cache.max_entries", 256);
+        distanceCacheTtlSeconds = getConfig().getLong("distance_cache.ttl_seconds", 60);
+
+        if (distanceCacheCellSize <= 0) {
+            getLogger().warning("distance_cache.cell_size must be positive. Using default: 16");
+            distanceCacheCellSize = 16;
+        }
+
+        if (distanceCacheMaxEntries <= 0) {
+            getLogger().warning("distance_cache.max_entries must be positive. Using default: 256");
+            distanceCacheMaxEntries = 256;
+        }
+
+        if (distanceCacheTtlSeconds <= 0) {
+            getLogger().warning("distance_cache.ttl_seconds must be positive. Using default: 60");
+            distanceCacheTtlSeconds = 60;
+        }
+
+        prewarmEnabled = getConfig().getBoolean("prewarm.enabled", false);
+        prewarmRadius = getConfig().getInt("prewarm.radius", 1);
+        prewarmTtlSeconds = getConfig().getLong("prewarm.ttl_seconds", 10);
+        prewarmWaitMs = getConfig().getLong("prewarm.wait_ms", 0);
+
+        if (prewarmRadius < 0 || prewarmRadius > 4) {
+            getLogger().warning("prewarm.radius must be between 0 and 4. Using default: 1");
+            prewarmRadius = 1;
+        }
+
+        if (prewarmTtlSeconds <= 0) {
+            getLogger().warning("prewarm.ttl_seconds must be positive. Using default: 10");
+            prewarmTtlSeconds = 10;
+        }
+
+        if (prewarmWaitMs < 0) {
+            getLogger().warning("prewarm.wait_ms is negative. Using default: 0");
+            prewarmWaitMs = 0;
+        }
+
+        teleportQueueEnabled = getConfig().getBoolean("teleport_queue.enabled", false);
+        teleportQueuePerTick = getConfig().getInt("teleport_queue.per_tick", 5);
+
+        if (teleportQueuePerTick <= 0) {
+            getLogger().warning("teleport_queue.per_tick must be positive. Using default: 5");
+            teleportQueuePerTick = 5;
+        }
+
+        storageOffHeap = getConfig().getBoolean("storage.off_heap", false);
+        searchCjkBigrams = getConfig().getBoolean("search.cjk_bigrams", false);
+        searchAliasesFile = getConfig().getString("search.aliases_file", "aliases.yml");
+
+        if (searchAliasesFile == null || searchAliasesFile.isEmpty()) {
+            getLogger().warning("search.aliases_file is empty. Using default: aliases.yml");
+            searchAliasesFile = "aliases.yml";
+        }
+
         getLogger().info("Loaded config: warpsystem_data_folder=" + warpsystemDataFolder +
-                        ", actionicons_file=" + actionIconsFile);
+                        ", actionicons_file=" + actionIconsFile +
+                        ", live_preview=" + livePreviewEnabled);
+    }
+
+    /**
+     * Points the data loader at the aliases file, creating the commented example on first use.
+     * The file itself is re-read on every data load.
+     */
+    private void applyAliasesConfig() {
+        File aliases = new File(getDataFolder(), searchAliasesFile);
+        if (!aliases.exists() && searchAliasesFile.equals("aliases.yml")) {
+            saveResource("aliases.yml", false);
+        }
+        dataLoader.setAliasesFile(aliases);
+    }
+
+    /**
+     * Pushes the live preview settings into the SearchPreview component.
+     */
+    private void applyLivePreviewConfig() {
+        searchPreview.configure(livePreviewEnabled, livePreviewDebounceMs, livePreviewMaxResults, livePreviewLatencyBudgetMs);
     }
 
     @Override
     public void onDisable() {
+        getServer().getServicesManager().unregisterAll(this);
+
+        // Write out buffered action events
+        if (eventLog != null) {
+            eventLog.close();
+        }
+
+        // Keep recent and favorite warps changed since the last flush
+        if (playerWarps != null) {
+            playerWarps.close();
+        }
+
+        // Keep the teleports counted since the last save
+        if (popularity != null) {
+            savePopularity();
+        }
+
+        // Keep the search analytics collected since the last flush
+        if (analytics != null && analyticsEnabled && analyticsFlushIntervalMinutes > 0) {
+            flushAnalytics();
+        }
+
+        // Keep the final numbers if dumping is enabled
+        if (metricsDumpIntervalMinutes > 0) {
+            dumpMetrics();
+        }
         getLogger().info("ArchiveSearchWarps disabled successfully");
     }
 
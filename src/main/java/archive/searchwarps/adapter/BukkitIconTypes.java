@@ -0,0 +1,71 @@
+package archive.searchwarps.adapter;
+
+import archive.searchwarps.data.IconTypeRegistry;
+import io.papermc.paper.registry.RegistryAccess;
+import io.papermc.paper.registry.RegistryKey;
+import org.bukkit.DyeColor;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.block.banner.PatternType;
+
+import java.util.Locale;
+
+/**
+ * Validates ActionIcons item types against the server's material, dye color and banner pattern
+ * registries, and turns the validated keys stored in WarpIcon back into server objects when rendering.
+ */
+public class BukkitIconTypes implements IconTypeRegistry {
+
+    @Override
+    public String resolveMaterial(String type) {
+        Material material = Material.matchMaterial(type);
+        return material != null ? material.name() : null;
+    }
+
+    @Override
+    public String resolveDyeColor(String color) {
+        try {
+            return DyeColor.valueOf(color.toUpperCase(Locale.ROOT)).name();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public String resolveBannerPattern(String key) {
+        String namespaced = NamespacedKey.minecraft(key).asString();
+        return patternType(namespaced) != null ? namespaced : null;
+    }
+
+    /**
+     * Returns the material for a key produced by {@link #resolveMaterial}, or ENDER_PEARL if unknown.
+     */
+    public static Material material(String name) {
+        Material material = Material.getMaterial(name);
+        return material != null ? material : Material.ENDER_PEARL;
+    }
+
+    /**
+     * Returns the dye color for a name produced by {@link #resolveDyeColor}, or null if unknown.
+     */
+    public static DyeColor dyeColor(String name) {
+        try {
+            return DyeColor.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Looks up a banner pattern by namespaced key, or null if unknown.
+     */
+    public static PatternType patternType(String key) {
+        NamespacedKey namespacedKey = NamespacedKey.fromString(key);
+        if (namespacedKey == null) {
+            return null;
+        }
+        return RegistryAccess.registryAccess()
+            .getRegistry(RegistryKey.BANNER_PATTERN)
+            .get(namespacedKey);
+    }
+}
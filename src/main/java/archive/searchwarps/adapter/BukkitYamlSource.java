@@ -0,0 +1,58 @@
+package archive.searchwarps.adapter;
+
+import archive.searchwarps.data.YamlSource;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link YamlSource} backed by Bukkit's YamlConfiguration (and the server's bundled SnakeYAML).
+ * Configuration sections are converted back into plain maps for the core loader.
+ */
+public class BukkitYamlSource implements YamlSource {
+
+    @Override
+    public Object read(File file, String key) throws IOException {
+        YamlConfiguration yaml = new YamlConfiguration();
+        try {
+            yaml.load(file);
+        } catch (org.bukkit.configuration.InvalidConfigurationException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+        return toPlain(yaml.get(key));
+    }
+
+    /**
+     * Recursively converts configuration sections (including those nested in lists) to maps.
+     */
+    private static Object toPlain(Object value) {
+        if (value instanceof ConfigurationSection section) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            for (String key : section.getKeys(false)) {
+                map.put(key, toPlain(section.get(key)));
+            }
+            return map;
+        }
+        if (value instanceof List<?> list) {
+            List<Object> converted = new ArrayList<>(list.size());
+            for (Object element : list) {
+                converted.add(toPlain(element));
+            }
+            return converted;
+        }
+        if (value instanceof Map<?, ?> map) {
+            Map<String, Object> converted = new LinkedHashMap<>();
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                converted.put(String.valueOf(entry.getKey()), toPlain(entry.getValue()));
+            }
+            return converted;
+        }
+        return value;
+    }
+}
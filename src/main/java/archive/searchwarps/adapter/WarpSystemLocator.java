@@ -0,0 +1,45 @@
+package archive.searchwarps.adapter;
+
+import archive.searchwarps.sorting.WarpLocator;
+import archive.searchwarps.sorting.WarpPosition;
+import de.codingair.warpsystem.api.TeleportService;
+import org.bukkit.Location;
+
+/**
+ * Bridges WarpSystem's TeleportService and Bukkit locations to the core sorting types.
+ */
+public final class WarpSystemLocator {
+
+    private WarpSystemLocator() {
+    }
+
+    /**
+     * Returns a locator backed by WarpSystem's TeleportService.
+     *
+     * @return The locator, or null if WarpSystem is not available
+     */
+    public static WarpLocator current() {
+        var teleportService = TeleportService.get();
+        if (teleportService == null) {
+            return null;
+        }
+        return destinationId -> toPosition(teleportService.simpleWarp(destinationId));
+    }
+
+    /**
+     * Converts a Bukkit location to a core position.
+     *
+     * @param location The location (may be null)
+     * @return The position, or null if the location is null
+     */
+    public static WarpPosition toPosition(Location location) {
+        if (location == null) {
+            return null;
+        }
+        return new WarpPosition(
+            location.getWorld() != null ? location.getWorld().getName() : null,
+            location.getX(),
+            location.getZ()
+        );
+    }
+}
@@ -0,0 +1,218 @@
+package archive.searchwarps.gui;
+
+import archive.searchwarps.adapter.BukkitIconTypes;
+import archive.searchwarps.facet.Bitmaps;
+import archive.searchwarps.facet.FacetFilter;
+import archive.searchwarps.facet.FacetIndex;
+import archive.searchwarps.facet.FacetType;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.translation.GlobalTranslator;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Facet filter GUI: pick pages (categories), materials and worlds to narrow the warp browser.
+ * Layout: facet tabs in the top row, 36 values of the selected facet with drill-down counts,
+ * and a bottom row with value paging, "clear" and "show results".
+ * Counts are popcounts over the snapshot's facet bitmaps, so the page is cheap to rebuild per click.
+ */
+public class FacetGUI implements InventoryHolder {
+    private static final int INVENTORY_SIZE = 54;
+    private static final int VALUES_START = 9;
+    public static final int VALUES_PER_PAGE = 36;
+
+    // GUI slot constants (public for use in listeners)
+    public static final int SLOT_PREV_VALUES = 45;
+    public static final int SLOT_CLEAR = 48;
+    public static final int SLOT_APPLY = 49;
+    public static final int SLOT_NEXT_VALUES = 53;
+
+    private final Inventory inventory;
+    private final FacetIndex index;
+    private final FacetFilter filter;
+    private final FacetType tab;
+    private final int valuePage;
+    private final List<FacetIndex.FacetValue> values;
+    private final Location playerLocation;
+
+    /**
+     * Creates the filter GUI.
+     *
+     * @param index Facet index of the current snapshot
+     * @param filter The player's current selection
+     * @param tab The facet whose values are listed
+     * @param valuePage Page of the value list (0-based)
+     * @param playerLocation The player's location, passed on when showing results
+     */
+    public FacetGUI(FacetIndex index, FacetFilter filter, FacetType tab, int valuePage, Location playerLocation) {
+        this.index = index;
+        this.filter = filter;
+        this.tab = tab;
+        this.values = index.values(tab);
+        this.valuePage = Math.max(0, Math.min(valuePage, (values.size() - 1) / VALUES_PER_PAGE));
+        this.playerLocation = playerLocation;
+
+        this.inventory = Bukkit.createInventory(
+            this,
+            INVENTORY_SIZE,
+            Component.translatable("archive.searchwarps.facet_title")
+        );
+
+        addTabs();
+        addValues();
+        addButtons();
+    }
+
+    /**
+     * Adds one tab per facet type (slot = ordinal); facets without values are left out.
+     */
+    private void addTabs() {
+        for (FacetType type : FacetType.values()) {
+            if (!index.hasValues(type)) {
+                continue;
+            }
+            ItemStack tabItem = ItemStack.of(tabMaterial(type));
+            int selected = filter.selected(type).size();
+            tabItem.editMeta(meta -> {
+                meta.displayName(render(Component.translatable("archive.searchwarps.facet_" + type.key()))
+                    .color(type == tab ? NamedTextColor.GREEN : NamedTextColor.YELLOW));
+                if (selected > 0) {
+                    meta.lore(List.of(render(Component.translatable("archive.searchwarps.facet_selected",
+                        Component.text(selected))).color(NamedTextColor.GRAY)));
+                }
+                meta.setEnchantmentGlintOverride(type == tab);
+            });
+            inventory.setItem(type.ordinal(), tabItem);
+        }
+    }
+
+    /**
+     * Lists one page of values of the selected facet, with how many warps each would show
+     * given the selections in the other facets.
+     */
+    private void addValues() {
+        long[] others = index.maskExcept(filter, tab);
+        int first = valuePage * VALUES_PER_PAGE;
+        for (int i = first; i < Math.min(values.size(), first + VALUES_PER_PAGE); i++) {
+            FacetIndex.FacetValue value = values.get(i);
+            boolean selected = filter.isSelected(tab, value.value());
+            int count = index.count(tab, value.value(), others);
+
+            ItemStack item = ItemStack.of(valueMaterial(value.value()));
+            item.editMeta(meta -> {
+                meta.displayName(Component.text(value.value())
+                    .color(selected ? NamedTextColor.GREEN : count == 0 ? NamedTextColor.DARK_GRAY : NamedTextColor.WHITE));
+                meta.lore(List.of(render(Component.translatable("archive.searchwarps.facet_count",
+                    Component.text(count))).color(NamedTextColor.GRAY)));
+                meta.setEnchantmentGlintOverride(selected);
+            });
+            inventory.setItem(VALUES_START + i - first, item);
+        }
+    }
+
+    private void addButtons() {
+        ItemStack filler = ItemStack.of(Material.GRAY_STAINED_GLASS_PANE);
+        filler.editMeta(meta -> meta.displayName(Component.text(" ")));
+        for (int slot = 45; slot < INVENTORY_SIZE; slot++) {
+            inventory.setItem(slot, filler);
+        }
+
+        if (valuePage > 0) {
+            inventory.setItem(SLOT_PREV_VALUES, button(Material.ARROW, "archive.searchwarps.previous_page", NamedTextColor.YELLOW));
+        }
+        if ((valuePage + 1) * VALUES_PER_PAGE < values.size()) {
+            inventory.setItem(SLOT_NEXT_VALUES, button(Material.ARROW, "archive.searchwarps.next_page", NamedTextColor.YELLOW));
+        }
+        if (!filter.isEmpty()) {
+            inventory.setItem(SLOT_CLEAR, button(Material.BARRIER, "archive.searchwarps.facet_clear", NamedTextColor.RED));
+        }
+
+        long[] mask = index.mask(filter);
+        int matches = mask == null ? index.snapshot().size() : Bitmaps.cardinality(mask);
+        ItemStack apply = ItemStack.of(Material.SPYGLASS);
+        apply.editMeta(meta -> meta.displayName(render(Component.translatable("archive.searchwarps.facet_apply",
+            Component.text(matches))).color(NamedTextColor.AQUA)));
+        inventory.setItem(SLOT_APPLY, apply);
+    }
+
+    private static ItemStack button(Material material, String key, NamedTextColor color) {
+        ItemStack item = ItemStack.of(material);
+        item.editMeta(meta -> meta.displayName(render(Component.translatable(key)).color(color)));
+        return item;
+    }
+
+    private static Material tabMaterial(FacetType type) {
+        return switch (type) {
+            case PAGE -> Material.BOOK;
+            case MATERIAL -> Material.NAME_TAG;
+            case WORLD -> Material.COMPASS;
+        };
+    }
+
+    /**
+     * Material facet values show their own item; pages and worlds use a fixed icon.
+     */
+    private Material valueMaterial(String value) {
+        return switch (tab) {
+            case PAGE -> Material.PAPER;
+            case MATERIAL -> BukkitIconTypes.material(value);
+            case WORLD -> Material.OAK_SIGN;
+        };
+    }
+
+    private static Component render(Component component) {
+        return GlobalTranslator.render(component, Locale.US);
+    }
+
+    /**
+     * Returns the facet shown in a tab slot, or null if the slot is not a tab.
+     */
+    public FacetType getTabAt(int slot) {
+        if (slot < 0 || slot >= FacetType.values().length || !index.hasValues(FacetType.values()[slot])) {
+            return null;
+        }
+        return FacetType.values()[slot];
+    }
+
+    /**
+     * Returns the facet value in a value slot, or null if the slot is empty or not a value slot.
+     */
+    public String getValueAt(int slot) {
+        int position = valuePage * VALUES_PER_PAGE + slot - VALUES_START;
+        if (slot < VALUES_START || slot >= VALUES_START + VALUES_PER_PAGE || position >= values.size()) {
+            return null;
+        }
+        return values.get(position).value();
+    }
+
+    public FacetFilter getFilter() {
+        return filter;
+    }
+
+    public FacetType getTab() {
+        return tab;
+    }
+
+    public int getValuePage() {
+        return valuePage;
+    }
+
+    public Location getPlayerLocation() {
+        return playerLocation;
+    }
+
+    @Override
+    @NotNull
+    public Inventory getInventory() {
+        return inventory;
+    }
+}
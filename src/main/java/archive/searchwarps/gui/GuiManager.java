@@ -1,17 +1,27 @@
 package archive.searchwarps.gui;
 
-import archive.searchwarps.data.WarpDataLoader;
-import archive.searchwarps.data.WarpIcon;
-import archive.searchwarps.search.WarpSearchEngine;
-import archive.searchwarps.sorting.DistanceSorter;
-import archive.searchwarps.sorting.SortMode;
+import archive.searchwarps.adapter.WarpSystemLocator;
+import archive.searchwarps.analytics.SearchAnalytics;
+import archive.searchwarps.browse.BrowseService;
+import archive.searchwarps.data.WarpSnapshot;
+import archive.searchwarps.eventlog.EventLog;
+import archive.searchwarps.eventlog.EventType;
+import archive.searchwarps.facet.FacetFilter;
+import archive.searchwarps.facet.FacetIndex;
+import archive.searchwarps.facet.FacetType;
+import archive.searchwarps.favorites.PlayerWarpStore;
+import archive.searchwarps.favorites.PlayerWarps;
+import archive.searchwarps.metrics.MetricsRegistry;
+import archive.searchwarps.search.ResultView;
+import archive.searchwarps.session.PlayerSession;
+import archive.searchwarps.session.SessionStore;
+import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
 
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 /**
  * Centralized GUI creation and management.
@@ -19,125 +29,290 @@ import java.util.List;
  */
 public class GuiManager {
     private final Plugin plugin;
-    private final WarpDataLoader dataLoader;
-    private final WarpSearchEngine searchEngine;
+    private final BrowseService browseService;
+    private final SessionStore sessionStore;
+    private final SkullTextureCache skullTextures;
+    private final MetricsRegistry metrics;
+    private final EventLog eventLog;
+    private final SearchAnalytics analytics;
+    private final PlayerWarpStore playerWarps;
 
-    public GuiManager(Plugin plugin, WarpDataLoader dataLoader, WarpSearchEngine searchEngine) {
+    public GuiManager(Plugin plugin, BrowseService browseService, SessionStore sessionStore,
+                      SkullTextureCache skullTextures, MetricsRegistry metrics, EventLog eventLog,
+                      SearchAnalytics analytics, PlayerWarpStore playerWarps) {
         this.plugin = plugin;
-        this.dataLoader = dataLoader;
-        this.searchEngine = searchEngine;
+        this.browseService = browseService;
+        this.sessionStore = sessionStore;
+        this.skullTextures = skullTextures;
+        this.metrics = metrics;
+        this.eventLog = eventLog;
+        this.analytics = analytics;
+        this.playerWarps = playerWarps;
     }
 
     /**
      * Opens the main warp browser for a player.
-     * Shows all warps sorted alphabetically by default.
+     * Players with favorite or recently used warps get the quick access page first;
+     * everyone else sees all warps sorted alphabetically. Starts without facet filters.
      *
      * @param player The player to show the browser to
      */
     public void openMainBrowser(Player player) {
+        runForPlayer(player, () -> {
+            if (!showQuickAccess(player)) {
+                showAllWarps(player);
+            }
+        });
+    }
+
+    /**
+     * Opens the full list of warps, sorted alphabetically (skipping the quick access page).
+     *
+     * @param player The player to show the browser to
+     */
+    public void openAllWarps(Player player) {
+        runForPlayer(player, () -> showAllWarps(player));
+    }
+
+    /**
+     * Shows the favorite and recently used warps, if the player has any (and they are loaded).
+     *
+     * @return Whether the page was shown
+     */
+    private boolean showQuickAccess(Player player) {
+        long start = System.nanoTime();
+        PlayerWarps warps = playerWarps.get(player.getUniqueId());
+        WarpSnapshot snapshot = browseService.snapshot();
+        if (warps == null || warps.isEmpty(snapshot)) {
+            return false;
+        }
+
+        int[] favorites = warps.favorites(snapshot);
+        int[] recent = warps.recent(snapshot);
+        QuickAccessGUI gui = new QuickAccessGUI(snapshot, favorites, recent, player.getLocation(), skullTextures);
+        metrics.recordSince(MetricsRegistry.PAGE_BUILD, start);
+        player.openInventory(gui.getInventory());
+        sessionStore.session(player.getUniqueId()).setSearchQuery(null);
+
+        eventLog.log(EventType.BROWSE, player.getUniqueId(), player.getName(), null, "quick",
+            favorites.length + recent.length, System.nanoTime() - start);
+        return true;
+    }
+
+    /**
+     * Shows all warps, sorted alphabetically.
+     */
+    private void showAllWarps(Player player) {
+        long start = System.nanoTime();
+        sessionStore.session(player.getUniqueId()).setFacetFilter(FacetFilter.NONE);
+
         // Capture player location for distance calculations
         Location playerLocation = player.getLocation();
 
-        // Get all warps
-        List<WarpIcon> warps = new ArrayList<>(dataLoader.getWarpIcons());
-
-        // Sort alphabetically (default mode)
-        warps.sort(Comparator.comparing(WarpIcon::name, String.CASE_INSENSITIVE_ORDER));
+        // View over all warps, backed by the snapshot's precomputed alphabetical order (no copy, no sort)
+        ResultView results = browseService.browseAll();
 
         // Create and open GUI with default alphabetical sort
-        WarpBrowserGUI gui = new WarpBrowserGUI(player, warps, 0, SortMode.ALPHABETICAL, playerLocation);
-        player.openInventory(gui.getInventory());
+        WarpBrowserGUI gui = createGui(player, results, 0, playerLocation);
+        show(player, gui);
+        sessionStore.session(player.getUniqueId()).setSearchQuery(null);
+
+        eventLog.log(EventType.BROWSE, player.getUniqueId(), player.getName(), null, null,
+            results.size(), System.nanoTime() - start);
     }
 
     /**
      * Opens search results for a query.
-     * Searches all warps and displays matching results.
+     * Searches all warps and displays matching results. If the same search is already running for
+     * another player, the results open once it finishes instead of blocking this region thread.
      *
      * @param player The player to show results to
      * @param query The search query
      */
     public void openSearchResults(Player player, String query) {
-        // Capture player location for distance calculations
-        Location playerLocation = player.getLocation();
+        runForPlayer(player, () -> {
+            long start = System.nanoTime();
 
-        // Search
-        List<WarpIcon> results = searchEngine.search(
-            dataLoader.getWarpIcons(),
-            query
-        );
+            // Search within the player's facet filter (results come back alphabetically sorted)
+            FacetFilter filter = sessionStore.session(player.getUniqueId()).getFacetFilter();
+            whenSearched(player, browseService.searchAsync(query, filter), results -> {
+                // Capture player location for distance calculations
+                Location playerLocation = player.getLocation();
 
-        // Sort alphabetically (default mode for search)
-        results.sort(Comparator.comparing(WarpIcon::name, String.CASE_INSENSITIVE_ORDER));
+                // Create and open GUI with alphabetical sort
+                WarpBrowserGUI gui = createGui(player, results, 0, playerLocation);
+                show(player, gui);
+                sessionStore.session(player.getUniqueId()).setSearchQuery(query);
 
-        // Create and open GUI with alphabetical sort
-        WarpBrowserGUI gui = new WarpBrowserGUI(player, results, 0, SortMode.ALPHABETICAL, playerLocation);
-        player.openInventory(gui.getInventory());
+                // Log search (buffered, written off-thread) and count it for the query analytics
+                eventLog.log(EventType.SEARCH, player.getUniqueId(), player.getName(), query, null,
+                    results.size(), System.nanoTime() - start);
+                analytics.recordSearch(query, results.size());
+            });
+        });
+    }
 
-        // Log search
-        plugin.getLogger().info(
-            player.getName() + " searched for: \"" + query + "\" " +
-            "(found " + results.size() + " results)"
-        );
+    /**
+     * Opens the facet filter GUI with the player's current selection.
+     *
+     * @param player The player to show the filter to
+     * @param tab The facet to list values of, or null for the first facet that has values
+     * @param valuePage Page of the value list (0-based)
+     * @param playerLocation The player's location, kept for the results
+     */
+    public void openFacets(Player player, FacetType tab, int valuePage, Location playerLocation) {
+        runForPlayer(player, () -> {
+            FacetIndex index = browseService.facets();
+            FacetType shown = tab;
+            if (shown == null) {
+                shown = FacetType.PAGE;
+                for (FacetType type : FacetType.values()) {
+                    if (index.hasValues(type)) {
+                        shown = type;
+                        break;
+                    }
+                }
+            }
+
+            FacetFilter filter = sessionStore.session(player.getUniqueId()).getFacetFilter();
+            player.openInventory(new FacetGUI(index, filter, shown, valuePage, playerLocation).getInventory());
+        });
+    }
+
+    /**
+     * Selects or deselects a facet value and refreshes the filter GUI.
+     *
+     * @param player The player editing the filter
+     * @param gui The filter GUI the value was clicked in
+     * @param value The clicked value
+     */
+    public void toggleFacet(Player player, FacetGUI gui, String value) {
+        sessionStore.session(player.getUniqueId()).setFacetFilter(gui.getFilter().toggle(gui.getTab(), value));
+        openFacets(player, gui.getTab(), gui.getValuePage(), gui.getPlayerLocation());
+    }
+
+    /**
+     * Clears the player's facet selection and refreshes the filter GUI.
+     */
+    public void clearFacets(Player player, FacetGUI gui) {
+        sessionStore.session(player.getUniqueId()).setFacetFilter(FacetFilter.NONE);
+        openFacets(player, gui.getTab(), 0, gui.getPlayerLocation());
+    }
+
+    /**
+     * Shows the warps matching the player's facet selection, combined with their last search query.
+     *
+     * @param player The player to show results to
+     * @param playerLocation The player's location for distance calculations
+     */
+    public void applyFacets(Player player, Location playerLocation) {
+        runForPlayer(player, () -> {
+            long start = System.nanoTime();
+            PlayerSession session = sessionStore.session(player.getUniqueId());
+            String query = session.getSearchQuery();
+
+            // Bitmap intersection over the facet index, then the text query within it
+            FacetFilter filter = session.getFacetFilter();
+            whenSearched(player, browseService.searchAsync(query == null ? "" : query, filter), results -> {
+                WarpBrowserGUI gui = createGui(player, results, 0, playerLocation);
+                show(player, gui);
+
+                eventLog.log(query == null ? EventType.BROWSE : EventType.SEARCH, player.getUniqueId(),
+                    player.getName(), query, "filter " + filter, results.size(), System.nanoTime() - start);
+            });
+        });
     }
 
     /**
      * Opens a specific page of warps.
-     * Used for pagination navigation.
+     * Used for pagination navigation. The result view is shared with the previous page.
      *
      * @param player The player to show the page to
-     * @param warps The list of warps to display
+     * @param results The result view to display (carries sort mode and distances)
      * @param page The page number (0-based)
-     * @param sortMode The current sort mode to maintain
      * @param playerLocation The player's location for distance calculations
-     * @param distanceMap Map of warp destination IDs to distances (for distance sort mode)
      */
-    public void openPage(Player player, List<WarpIcon> warps, int page, SortMode sortMode, Location playerLocation, java.util.Map<String, Double> distanceMap) {
-        WarpBrowserGUI gui = new WarpBrowserGUI(player, warps, page, sortMode, playerLocation, distanceMap);
-        player.openInventory(gui.getInventory());
+    public void openPage(Player player, ResultView results, int page, Location playerLocation) {
+        runForPlayer(player, () -> {
+            WarpBrowserGUI gui = createGui(player, results, page, playerLocation);
+            show(player, gui);
+        });
     }
 
     /**
-     * Toggles the sort mode for the current warp list and reopens the GUI.
+     * Toggles the sort mode for the current result view and reopens the GUI.
      * Switches between alphabetical and distance sorting.
      *
      * @param player The player viewing the GUI
-     * @param currentWarps The current list of displayed warps
-     * @param currentMode The current sort mode
+     * @param currentResults The result view currently displayed
      * @param playerLocation The player's location for distance calculations
      */
-    public void toggleSortMode(Player player, List<WarpIcon> currentWarps, SortMode currentMode, Location playerLocation) {
-        // Determine new sort mode
-        SortMode newMode = (currentMode == SortMode.ALPHABETICAL) ? SortMode.DISTANCE : SortMode.ALPHABETICAL;
-
-        // Create a copy of the warp list to sort
-        List<WarpIcon> warps = new ArrayList<>(currentWarps);
-
-        // Sort based on new mode
-        WarpBrowserGUI gui;
-        if (newMode == SortMode.ALPHABETICAL) {
-            warps.sort(Comparator.comparing(WarpIcon::name, String.CASE_INSENSITIVE_ORDER));
-            gui = new WarpBrowserGUI(player, warps, 0, newMode, playerLocation);
-        } else {
-            // Sort with distance information
-            var warpsWithDistance = DistanceSorter.sortWithDistance(warps, playerLocation);
-
-            // Extract sorted warps and create distance map
-            List<WarpIcon> sortedWarps = new ArrayList<>();
-            java.util.Map<String, Double> distanceMap = new java.util.HashMap<>();
-            for (var wwd : warpsWithDistance) {
-                sortedWarps.add(wwd.warp());
-                distanceMap.put(wwd.warp().destinationId(), wwd.distance());
-            }
+    public void toggleSortMode(Player player, ResultView currentResults, Location playerLocation) {
+        runForPlayer(player, () -> {
+            long start = System.nanoTime();
 
-            gui = new WarpBrowserGUI(player, sortedWarps, 0, newMode, playerLocation, distanceMap);
-        }
+            // Sort into a new view; the current one stays untouched for anyone else sharing it
+            ResultView sorted = browseService.toggleSort(currentResults,
+                WarpSystemLocator.toPosition(playerLocation), WarpSystemLocator.current());
 
-        // Reopen GUI with new sort order
+            // Reopen GUI with new sort order
+            WarpBrowserGUI gui = createGui(player, sorted, 0, playerLocation);
+            show(player, gui);
+
+            // Log sort mode change (buffered, written off-thread)
+            eventLog.log(EventType.SORT, player.getUniqueId(), player.getName(), null, sorted.sortMode().name(),
+                sorted.size(), System.nanoTime() - start);
+        });
+    }
+
+    /**
+     * Builds one browser page and records how long populating its items took.
+     */
+    private WarpBrowserGUI createGui(Player player, ResultView results, int page, Location playerLocation) {
+        long start = System.nanoTime();
+        FacetFilter filter = sessionStore.session(player.getUniqueId()).getFacetFilter();
+        WarpBrowserGUI gui = new WarpBrowserGUI(player, results, page, playerLocation, skullTextures, filter);
+        metrics.recordSince(MetricsRegistry.PAGE_BUILD, start);
+        return gui;
+    }
+
+    /**
+     * Opens a browser GUI and keeps the player's session (query and facet selection) from expiring.
+     */
+    private void show(Player player, WarpBrowserGUI gui) {
         player.openInventory(gui.getInventory());
+        sessionStore.session(player.getUniqueId()).touch();
+    }
+
+    /**
+     * Shows search results on the player's thread once they are ready. A search shared with
+     * another player completes on that player's thread, so the results hop to this player's region.
+     */
+    private void whenSearched(Player player, CompletableFuture<ResultView> search, Consumer<ResultView> show) {
+        search.whenComplete((results, ex) -> {
+            if (ex != null) {
+                plugin.getLogger().warning("Search failed for " + player.getName() + ": " + ex.getMessage());
+            } else {
+                runForPlayer(player, () -> show.accept(results));
+            }
+        });
+    }
 
-        // Log sort mode change
-        plugin.getLogger().info(
-            player.getName() + " changed sort mode to: " + newMode.name()
-        );
+    /**
+     * Runs a task on the thread that owns the player.
+     * On region-threaded servers (Folia) each player is ticked by the region that owns it,
+     * so reading the player's location or opening an inventory must happen there.
+     * Runs inline when the caller is already on that thread, otherwise defers to the
+     * player's entity scheduler.
+     *
+     * @param player The player the task interacts with
+     * @param task The task to run
+     */
+    private void runForPlayer(Player player, Runnable task) {
+        if (Bukkit.isOwnedByCurrentRegion(player)) {
+            task.run();
+        } else {
+            player.getScheduler().run(plugin, scheduledTask -> task.run(), null);
+        }
     }
 }
@@ -0,0 +1,152 @@
+package archive.searchwarps.gui;
+
+import archive.searchwarps.data.WarpIcon;
+import archive.searchwarps.data.WarpSnapshot;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.translation.GlobalTranslator;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * First page of the warp browser for players with history: their favorite and recently used warps.
+ * Built from two short ordinal lists, so opening it needs no search and no sort of all warps.
+ * Layout: favorites in slots 0-17, a divider row, recent warps in slots 27-44, buttons below.
+ */
+public class QuickAccessGUI implements InventoryHolder {
+    private static final int INVENTORY_SIZE = 54;
+    private static final int FAVORITES_START = 0;
+    private static final int RECENT_START = 27;
+    private static final int SECTION_SIZE = 18;
+    private static final int DIVIDER_START = 18;
+
+    // GUI slot constants (public for use in listeners)
+    public static final int SLOT_SEARCH = WarpBrowserGUI.SLOT_SEARCH;
+    public static final int SLOT_ALL_WARPS = WarpBrowserGUI.SLOT_NEXT_PAGE;
+
+    private final Inventory inventory;
+    private final WarpSnapshot snapshot;
+    private final int[] slotOrdinals = new int[INVENTORY_SIZE];
+    private final Location playerLocation;
+
+    /**
+     * Creates the quick access page.
+     *
+     * @param snapshot The snapshot the ordinals refer to
+     * @param favorites Favorite warp ordinals, most recently added first
+     * @param recent Recently used warp ordinals, most recent first
+     * @param playerLocation The player's location, passed on when opening the full browser
+     * @param skullTextures Shared cache of textured head profiles
+     */
+    public QuickAccessGUI(WarpSnapshot snapshot, int[] favorites, int[] recent, Location playerLocation,
+                          SkullTextureCache skullTextures) {
+        this.snapshot = snapshot;
+        this.playerLocation = playerLocation;
+        Arrays.fill(slotOrdinals, -1);
+
+        this.inventory = Bukkit.createInventory(
+            this,
+            INVENTORY_SIZE,
+            Component.translatable("archive.searchwarps.quick_title")
+        );
+
+        placeWarps(favorites, FAVORITES_START, skullTextures);
+        placeWarps(recent, RECENT_START, skullTextures);
+        addDividerAndButtons(favorites.length == 0);
+    }
+
+    private void placeWarps(int[] ordinals, int firstSlot, SkullTextureCache skullTextures) {
+        for (int i = 0; i < Math.min(ordinals.length, SECTION_SIZE); i++) {
+            int slot = firstSlot + i;
+            slotOrdinals[slot] = ordinals[i];
+            inventory.setItem(slot, WarpBrowserGUI.createWarpItem(snapshot.icon(ordinals[i]), Double.NaN, skullTextures));
+        }
+    }
+
+    /**
+     * Adds the "recent" divider row and the bottom row (search, all warps).
+     *
+     * @param noFavorites Whether to show the hint on how to add favorites in the empty section
+     */
+    private void addDividerAndButtons(boolean noFavorites) {
+        ItemStack divider = ItemStack.of(Material.LIGHT_BLUE_STAINED_GLASS_PANE);
+        divider.editMeta(meta -> meta.displayName(
+            render("archive.searchwarps.quick_recent").color(NamedTextColor.AQUA)));
+        for (int slot = DIVIDER_START; slot < DIVIDER_START + 9; slot++) {
+            inventory.setItem(slot, divider);
+        }
+
+        if (noFavorites) {
+            ItemStack hint = ItemStack.of(Material.NETHER_STAR);
+            hint.editMeta(meta -> meta.displayName(
+                render("archive.searchwarps.quick_favorites_hint").color(NamedTextColor.GRAY)));
+            inventory.setItem(FAVORITES_START, hint);
+        }
+
+        ItemStack filler = ItemStack.of(Material.GRAY_STAINED_GLASS_PANE);
+        filler.editMeta(meta -> meta.displayName(Component.text(" ")));
+        for (int slot = 45; slot < INVENTORY_SIZE; slot++) {
+            inventory.setItem(slot, filler);
+        }
+
+        ItemStack searchButton = ItemStack.of(Material.COMPASS);
+        searchButton.editMeta(meta -> meta.displayName(
+            render("archive.searchwarps.search_button").color(NamedTextColor.AQUA)));
+        inventory.setItem(SLOT_SEARCH, searchButton);
+
+        ItemStack allButton = ItemStack.of(Material.ARROW);
+        allButton.editMeta(meta -> meta.displayName(
+            render("archive.searchwarps.quick_all_warps").color(NamedTextColor.YELLOW)));
+        inventory.setItem(SLOT_ALL_WARPS, allButton);
+    }
+
+    private static Component render(String key) {
+        return GlobalTranslator.render(Component.translatable(key), Locale.US);
+    }
+
+    /**
+     * Gets the ordinal of the warp at the specified inventory slot.
+     *
+     * @param slot The inventory slot (0-53)
+     * @return The warp ordinal, or -1 if it's a UI element or empty
+     */
+    public int getOrdinalAt(int slot) {
+        return slot >= 0 && slot < INVENTORY_SIZE ? slotOrdinals[slot] : -1;
+    }
+
+    /**
+     * Gets the warp at the specified inventory slot.
+     *
+     * @return The warp icon, or null if it's a UI element or empty
+     */
+    public WarpIcon getWarpAt(int slot) {
+        int ordinal = getOrdinalAt(slot);
+        return ordinal < 0 ? null : snapshot.icon(ordinal);
+    }
+
+    /**
+     * Returns the snapshot the displayed ordinals refer to.
+     */
+    public WarpSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public Location getPlayerLocation() {
+        return playerLocation;
+    }
+
+    @Override
+    @NotNull
+    public Inventory getInventory() {
+        return inventory;
+    }
+}
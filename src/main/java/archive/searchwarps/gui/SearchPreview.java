@@ -0,0 +1,304 @@
+package archive.searchwarps.gui;
+
+import archive.searchwarps.data.WarpDataLoader;
+import archive.searchwarps.data.WarpIcon;
+import archive.searchwarps.data.WarpSnapshot;
+import archive.searchwarps.metrics.MetricsRegistry;
+import archive.searchwarps.search.ResultView;
+import archive.searchwarps.search.WarpSearchEngine;
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+import net.kyori.adventure.translation.GlobalTranslator;
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryView;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.MenuType;
+import org.bukkit.plugin.Plugin;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live-as-you-type search preview for the anvil SearchGUI.
+ * Every keystroke schedules a debounced search on the async scheduler; newer keystrokes
+ * supersede (cancel) older ones. The finished preview - match count plus the most
+ * performed matches - is written into the anvil result item's lore on the player's
+ * entity scheduler. Preview searches are timed into the {@link MetricsRegistry#PREVIEW_SEARCH}
+ * histogram and checked against a configurable latency budget.
+ */
+public class SearchPreview {
+    private static final int ANVIL_RESULT_SLOT = 2;
+    private static final long OVERRUN_WARNING_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final Plugin plugin;
+    private final WarpDataLoader dataLoader;
+    private final WarpSearchEngine searchEngine;
+    private final MetricsRegistry metrics;
+    private final Map<UUID, PreviewState> states = new ConcurrentHashMap<>();
+
+    // Configuration (replaced on reload)
+    private volatile boolean enabled = true;
+    private volatile long debounceMillis = 150;
+    private volatile int maxResultsShown = 5;
+    private volatile long latencyBudgetNanos = TimeUnit.MILLISECONDS.toNanos(10);
+
+    // Rate limit for budget overrun warnings
+    private final AtomicLong lastOverrunWarning = new AtomicLong(System.nanoTime() - OVERRUN_WARNING_INTERVAL_NANOS);
+
+    public SearchPreview(Plugin plugin, WarpDataLoader dataLoader, WarpSearchEngine searchEngine,
+                         MetricsRegistry metrics) {
+        this.plugin = plugin;
+        this.dataLoader = dataLoader;
+        this.searchEngine = searchEngine;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Applies configuration values. Safe to call on reload.
+     *
+     * @param enabled Whether previews are computed at all
+     * @param debounceMillis Delay after the last keystroke before searching
+     * @param maxResultsShown Number of top matches listed in the lore
+     * @param latencyBudgetMillis Search time above which an overrun is recorded and logged
+     */
+    public void configure(boolean enabled, long debounceMillis, int maxResultsShown, long latencyBudgetMillis) {
+        this.enabled = enabled;
+        this.debounceMillis = debounceMillis;
+        this.maxResultsShown = maxResultsShown;
+        this.latencyBudgetNanos = TimeUnit.MILLISECONDS.toNanos(latencyBudgetMillis);
+        if (!enabled) {
+            states.keySet().forEach(this::cancel);
+        }
+    }
+
+    /**
+     * Schedules a debounced preview for the player's current anvil text.
+     * Supersedes any preview still pending for that player.
+     *
+     * @param player The player typing in the search anvil
+     * @param text The current rename text
+     */
+    public void request(Player player, String text) {
+        if (!enabled) {
+            return;
+        }
+
+        PreviewState state = states.computeIfAbsent(player.getUniqueId(), id -> new PreviewState());
+        long sequence = state.sequence.incrementAndGet();
+
+        // Cancel the superseded query if it has not started yet
+        ScheduledTask previous = state.pending;
+        if (previous != null) {
+            previous.cancel();
+        }
+
+        state.pending = plugin.getServer().getAsyncScheduler().runDelayed(
+            plugin,
+            task -> evaluate(player, state, sequence, text),
+            Math.max(1, debounceMillis),
+            TimeUnit.MILLISECONDS
+        );
+    }
+
+    /**
+     * Returns the last finished preview item for exactly this text, if it is still current.
+     * Lets the PrepareAnvilEvent handler show the preview immediately instead of flickering
+     * back to a plain result item while the next debounced search runs.
+     *
+     * @param playerId The player's UUID
+     * @param text The current rename text
+     * @return A copy of the cached preview item, or null if none matches
+     */
+    public ItemStack cachedPreview(UUID playerId, String text) {
+        PreviewState state = states.get(playerId);
+        if (state == null || !enabled) {
+            return null;
+        }
+
+        Preview preview = state.last;
+        if (preview == null || !preview.text().equals(text)
+            || preview.generation() != dataLoader.getSnapshot().generation()) {
+            return null;
+        }
+        return preview.item().clone();
+    }
+
+    /**
+     * Cancels any pending preview and forgets the player's preview state.
+     *
+     * @param playerId The player's UUID
+     */
+    public void cancel(UUID playerId) {
+        PreviewState state = states.remove(playerId);
+        if (state != null) {
+            state.sequence.incrementAndGet();
+            ScheduledTask pending = state.pending;
+            if (pending != null) {
+                pending.cancel();
+            }
+        }
+    }
+
+    /**
+     * Runs the preview search off the main thread and hands the result to the player's thread.
+     */
+    private void evaluate(Player player, PreviewState state, long sequence, String text) {
+        if (state.sequence.get() != sequence) {
+            return; // Superseded by a newer keystroke
+        }
+
+        WarpSnapshot snapshot = dataLoader.getSnapshot();
+        long start = System.nanoTime();
+        ResultView results = searchEngine.search(snapshot, text);
+        List<WarpIcon> top = topByPerformed(results, maxResultsShown);
+        recordLatency(System.nanoTime() - start, text);
+
+        if (state.sequence.get() != sequence) {
+            return; // Superseded while searching
+        }
+
+        int matchCount = results.size();
+        player.getScheduler().run(plugin, task -> apply(player, state, sequence, text, matchCount, top, snapshot.generation()), null);
+    }
+
+    /**
+     * Writes a finished preview into the open anvil, if it is still the player's latest query.
+     */
+    private void apply(Player player, PreviewState state, long sequence, String text,
+                       int matchCount, List<WarpIcon> top, long generation) {
+        if (state.sequence.get() != sequence) {
+            return;
+        }
+
+        // The player may have closed the search anvil in the meantime
+        InventoryView view = player.getOpenInventory();
+        if (view.getMenuType() != MenuType.ANVIL) {
+            return;
+        }
+        Inventory inventory = view.getTopInventory();
+        ItemStack marker = inventory.getItem(0);
+        if (marker == null || marker.getType() != Material.PAPER) {
+            return;
+        }
+
+        ItemStack item = createPreviewItem(text, matchCount, top);
+        state.last = new Preview(text, generation, item);
+        inventory.setItem(ANVIL_RESULT_SLOT, item.clone());
+    }
+
+    /**
+     * Builds the anvil result item: the query as name, match count and top matches as lore.
+     */
+    private ItemStack createPreviewItem(String text, int matchCount, List<WarpIcon> top) {
+        ItemStack item = ItemStack.of(Material.PAPER);
+        item.editMeta(meta -> {
+            meta.displayName(Component.text(text));
+
+            List<Component> lore = new ArrayList<>();
+            if (matchCount == 0) {
+                lore.add(render(Component.translatable("archive.searchwarps.preview_none")).color(NamedTextColor.RED));
+            } else {
+                lore.add(render(Component.translatable("archive.searchwarps.preview_count",
+                    Component.text(matchCount))).color(NamedTextColor.GRAY));
+                for (WarpIcon warp : top) {
+                    lore.add(Component.text("- ").color(NamedTextColor.DARK_GRAY)
+                        .append(LegacyComponentSerializer.legacyAmpersand().deserialize(warp.displayName())));
+                }
+                if (matchCount > top.size()) {
+                    lore.add(render(Component.translatable("archive.searchwarps.preview_more",
+                        Component.text(matchCount - top.size()))).color(NamedTextColor.DARK_GRAY));
+                }
+            }
+            meta.lore(lore);
+        });
+        return item;
+    }
+
+    private Component render(Component component) {
+        return GlobalTranslator.render(component, Locale.US);
+    }
+
+    /**
+     * Selects the most performed matches (ties keep alphabetical order) without sorting the whole view.
+     * Reads teleport counts by ordinal and builds icons only for the selected warps.
+     */
+    private static List<WarpIcon> topByPerformed(ResultView results, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+
+        WarpSnapshot snapshot = results.snapshot();
+        int[] ordinals = new int[limit];
+        int[] performed = new int[limit];
+        int count = 0;
+        for (int i = 0; i < results.size(); i++) {
+            int ordinal = results.ordinalAt(i);
+            int warpPerformed = snapshot.performed(ordinal);
+            if (count == limit && warpPerformed <= performed[limit - 1]) {
+                continue;
+            }
+            int position = Math.min(count, limit - 1);
+            while (position > 0 && performed[position - 1] < warpPerformed) {
+                ordinals[position] = ordinals[position - 1];
+                performed[position] = performed[position - 1];
+                position--;
+            }
+            ordinals[position] = ordinal;
+            performed[position] = warpPerformed;
+            count = Math.min(count + 1, limit);
+        }
+
+        List<WarpIcon> top = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            top.add(snapshot.icon(ordinals[i]));
+        }
+        return top;
+    }
+
+    /**
+     * Records the latency of one preview search and warns (rate-limited) on budget overruns.
+     */
+    private void recordLatency(long elapsedNanos, String text) {
+        metrics.histogram(MetricsRegistry.PREVIEW_SEARCH).record(elapsedNanos);
+
+        if (elapsedNanos <= latencyBudgetNanos) {
+            return;
+        }
+        metrics.increment(MetricsRegistry.PREVIEW_OVER_BUDGET);
+
+        long now = System.nanoTime();
+        long last = lastOverrunWarning.get();
+        if (now - last >= OVERRUN_WARNING_INTERVAL_NANOS && lastOverrunWarning.compareAndSet(last, now)) {
+            plugin.getLogger().warning(String.format(
+                "Live search preview took %.2fms (budget %dms) for a %d character query; %d of %d previews over budget so far",
+                elapsedNanos / 1_000_000.0, TimeUnit.NANOSECONDS.toMillis(latencyBudgetNanos), text.length(),
+                metrics.counter(MetricsRegistry.PREVIEW_OVER_BUDGET).sum(),
+                metrics.histogram(MetricsRegistry.PREVIEW_SEARCH).snapshot().count()
+            ));
+        }
+    }
+
+    /**
+     * A finished preview, cached so repeated PrepareAnvilEvents for the same text reuse it.
+     */
+    private record Preview(String text, long generation, ItemStack item) {}
+
+    /**
+     * Per-player preview bookkeeping. The sequence number identifies the latest keystroke.
+     */
+    private static final class PreviewState {
+        final AtomicLong sequence = new AtomicLong();
+        volatile ScheduledTask pending;
+        volatile Preview last;
+    }
+}
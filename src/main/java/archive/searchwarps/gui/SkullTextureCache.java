@@ -0,0 +1,61 @@
+package archive.searchwarps.gui;
+
+import archive.searchwarps.metrics.MetricsRegistry;
+import com.destroystokyo.paper.profile.PlayerProfile;
+import com.destroystokyo.paper.profile.ProfileProperty;
+import org.bukkit.Bukkit;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches textured player profiles by skull texture hash.
+ * Building a profile means formatting the texture JSON, Base64-encoding it and creating
+ * a profile; with a cache every page after the first only does a map lookup per head.
+ * Applying a profile to SkullMeta copies it, so cached profiles are never modified.
+ * Cleared on reload, which bounds the cache to the textures of the current warp data.
+ */
+public class SkullTextureCache {
+    private final Map<String, PlayerProfile> profiles = new ConcurrentHashMap<>();
+    private final MetricsRegistry metrics;
+
+    public SkullTextureCache(MetricsRegistry metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Returns the textured profile for a skull texture hash, creating it on first use.
+     *
+     * @param textureHash The texture hash from SkullOwner field (raw hash, not base64)
+     * @return The shared profile (must not be modified)
+     */
+    public PlayerProfile profile(String textureHash) {
+        PlayerProfile profile = profiles.get(textureHash);
+        if (profile != null) {
+            metrics.increment(MetricsRegistry.SKULL_CACHE_HIT);
+            return profile;
+        }
+
+        metrics.increment(MetricsRegistry.SKULL_CACHE_MISS);
+        return profiles.computeIfAbsent(textureHash, SkullTextureCache::createProfile);
+    }
+
+    /**
+     * Forgets all cached profiles.
+     */
+    public void clear() {
+        profiles.clear();
+    }
+
+    private static PlayerProfile createProfile(String textureHash) {
+        // Create profile with Paper API (no deprecation warnings)
+        UUID uuid = UUID.nameUUIDFromBytes(textureHash.getBytes(StandardCharsets.UTF_8));
+        PlayerProfile profile = Bukkit.createProfile(uuid, "CustomHead");
+
+        // Set the properly encoded texture property
+        profile.setProperty(new ProfileProperty("textures", WarpBrowserGUI.encodeSkullTexture(textureHash)));
+        return profile;
+    }
+}
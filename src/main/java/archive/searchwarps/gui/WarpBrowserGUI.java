@@ -1,6 +1,10 @@
 package archive.searchwarps.gui;
 
+import archive.searchwarps.adapter.BukkitIconTypes;
+import archive.searchwarps.browse.BrowsePage;
 import archive.searchwarps.data.WarpIcon;
+import archive.searchwarps.facet.FacetFilter;
+import archive.searchwarps.search.ResultView;
 import archive.searchwarps.sorting.DistanceSorter;
 import archive.searchwarps.sorting.SortMode;
 import net.kyori.adventure.text.Component;
@@ -18,10 +22,8 @@ import org.bukkit.inventory.meta.ItemMeta;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
-import java.util.Map;
 
 /**
  * Main warp browser GUI using the InventoryHolder pattern.
@@ -29,13 +31,13 @@ import java.util.Map;
  * Layout: 45 warp items + 9 UI buttons
  */
 public class WarpBrowserGUI implements InventoryHolder {
-    private static final int WARPS_PER_PAGE = 45;
+    private static final int WARPS_PER_PAGE = BrowsePage.PAGE_SIZE;
     private static final int INVENTORY_SIZE = 54;
 
     // GUI slot constants (public for use in listeners)
     public static final int SLOT_PREV_PAGE = 45;
     public static final int SLOT_FILLER_1 = 46;
-    public static final int SLOT_FILLER_2 = 47;
+    public static final int SLOT_FILTER = 47;
     public static final int SLOT_FILLER_3 = 48;
     public static final int SLOT_SEARCH = 49;
     public static final int SLOT_FILLER_4 = 50;
@@ -45,42 +47,33 @@ public class WarpBrowserGUI implements InventoryHolder {
 
     private final Inventory inventory;
     private final Player viewer;
-    private final List<WarpIcon> displayedWarps;
+    private final ResultView results;
+    private final BrowsePage page;
     private final int currentPage;
-    private final SortMode sortMode;
     private final Location playerLocation;
-    private final Map<String, Double> distanceMap;
+    private final SkullTextureCache skullTextures;
+    private final FacetFilter filter;
 
     /**
-     * Creates a new warp browser GUI.
+     * Creates a new warp browser GUI showing one page of a result view.
+     * The view is shared, not copied - only the warps on this page are read.
      *
      * @param viewer The player viewing the GUI
-     * @param warps The list of warps to display (already filtered and sorted)
+     * @param results The result view to display (already filtered and sorted)
      * @param page The current page number (0-based)
-     * @param sortMode The current sort mode
      * @param playerLocation The player's location (for distance calculations)
+     * @param skullTextures Shared cache of textured head profiles
+     * @param filter The facet selection the results were filtered by (shown on the filter button)
      */
-    public WarpBrowserGUI(Player viewer, List<WarpIcon> warps, int page, SortMode sortMode, Location playerLocation) {
-        this(viewer, warps, page, sortMode, playerLocation, new HashMap<>());
-    }
-
-    /**
-     * Creates a new warp browser GUI with distance information.
-     *
-     * @param viewer The player viewing the GUI
-     * @param warps The list of warps to display (already filtered and sorted)
-     * @param page The current page number (0-based)
-     * @param sortMode The current sort mode
-     * @param playerLocation The player's location (for distance calculations)
-     * @param distanceMap Map of warp destination IDs to distances (for distance sort mode)
-     */
-    public WarpBrowserGUI(Player viewer, List<WarpIcon> warps, int page, SortMode sortMode, Location playerLocation, Map<String, Double> distanceMap) {
+    public WarpBrowserGUI(Player viewer, ResultView results, int page, Location playerLocation,
+                          SkullTextureCache skullTextures, FacetFilter filter) {
         this.viewer = viewer;
-        this.displayedWarps = new ArrayList<>(warps);
+        this.results = results;
+        this.page = new BrowsePage(results, page);
         this.currentPage = page;
-        this.sortMode = sortMode;
         this.playerLocation = playerLocation;
-        this.distanceMap = distanceMap;
+        this.skullTextures = skullTextures;
+        this.filter = filter;
 
         // Create inventory
         this.inventory = Bukkit.createInventory(
@@ -101,16 +94,19 @@ public class WarpBrowserGUI implements InventoryHolder {
         inventory.clear();
 
         // Calculate page range
-        int startIndex = currentPage * WARPS_PER_PAGE;
-        int endIndex = Math.min(startIndex + WARPS_PER_PAGE, displayedWarps.size());
+        int startIndex = page.start();
+        int endIndex = page.end();
 
         // Add warp items (slots 0-44)
         for (int i = startIndex; i < endIndex; i++) {
             int slot = i - startIndex;
             if (slot >= WARPS_PER_PAGE) break;
 
-            WarpIcon warp = displayedWarps.get(i);
-            ItemStack warpItem = createWarpItem(warp);
+            // Distance information is only shown in distance sort mode
+            double distance = (results.sortMode() == SortMode.DISTANCE && results.hasDistances())
+                ? results.distanceAt(i)
+                : Double.NaN;
+            ItemStack warpItem = createWarpItem(results.get(i), distance, skullTextures);
             inventory.setItem(slot, warpItem);
         }
 
@@ -135,17 +131,34 @@ public class WarpBrowserGUI implements InventoryHolder {
             inventory.setItem(SLOT_PREV_PAGE, prevButton);
         }
 
-        // Slots 46-48, 50, 52: Filler (gray glass pane)
+        // Slots 46, 48, 50, 52: Filler (gray glass pane)
         ItemStack filler = ItemStack.of(Material.GRAY_STAINED_GLASS_PANE);
         filler.editMeta(meta -> {
             meta.displayName(Component.text(" ")); // Empty name to hide default
         });
         inventory.setItem(SLOT_FILLER_1, filler);
-        inventory.setItem(SLOT_FILLER_2, filler);
         inventory.setItem(SLOT_FILLER_3, filler);
         inventory.setItem(SLOT_FILLER_4, filler);
         inventory.setItem(SLOT_FILLER_5, filler);
 
+        // Slot 47: Facet filter button (shows how many values are selected)
+        ItemStack filterButton = ItemStack.of(Material.SPYGLASS);
+        filterButton.editMeta(meta -> {
+            Component filterText = GlobalTranslator.render(
+                Component.translatable("archive.searchwarps.filter_button"),
+                Locale.US
+            );
+            meta.displayName(filterText.color(NamedTextColor.AQUA));
+            if (!filter.isEmpty()) {
+                meta.lore(List.of(GlobalTranslator.render(
+                    Component.translatable("archive.searchwarps.facet_selected", Component.text(filter.size())),
+                    Locale.US
+                ).color(NamedTextColor.GRAY)));
+                meta.setEnchantmentGlintOverride(true);
+            }
+        });
+        inventory.setItem(SLOT_FILTER, filterButton);
+
         // Slot 49: Search button
         ItemStack searchButton = ItemStack.of(Material.COMPASS);
         searchButton.editMeta(meta -> {
@@ -160,18 +173,12 @@ public class WarpBrowserGUI implements InventoryHolder {
         // Slot 51: Sort toggle button
         ItemStack sortButton = ItemStack.of(Material.HOPPER);
         sortButton.editMeta(meta -> {
-            Component sortText;
-            if (sortMode == SortMode.ALPHABETICAL) {
-                sortText = GlobalTranslator.render(
-                    Component.translatable("archive.searchwarps.sort_alphabetical"),
-                    Locale.US
-                );
-            } else {
-                sortText = GlobalTranslator.render(
-                    Component.translatable("archive.searchwarps.sort_distance"),
-                    Locale.US
-                );
-            }
+            String sortKey = switch (results.sortMode()) {
+                case ALPHABETICAL -> "archive.searchwarps.sort_alphabetical";
+                case DISTANCE -> "archive.searchwarps.sort_distance";
+                case POPULAR -> "archive.searchwarps.sort_popular";
+            };
+            Component sortText = GlobalTranslator.render(Component.translatable(sortKey), Locale.US);
             meta.displayName(sortText.color(NamedTextColor.GREEN));
         });
         inventory.setItem(SLOT_SORT_TOGGLE, sortButton);
@@ -192,51 +199,28 @@ public class WarpBrowserGUI implements InventoryHolder {
 
     /**
      * Creates an ItemStack for a warp icon.
+     * Shared with QuickAccessGUI, so warps look the same on every page.
      *
      * @param warp The warp icon data
+     * @param distance Distance to show, or NaN to omit the distance line
+     * @param skullTextures Shared cache of textured head profiles
      * @return ItemStack ready to display in GUI
      */
-    private ItemStack createWarpItem(WarpIcon warp) {
-        ItemStack item = ItemStack.of(warp.itemType());
+    static ItemStack createWarpItem(WarpIcon warp, double distance, SkullTextureCache skullTextures) {
+        ItemStack item = ItemStack.of(BukkitIconTypes.material(warp.itemType()));
 
         item.editMeta(meta -> {
             // Set display name with color parsing
             Component displayName = parseColorCodes(warp.displayName());
             meta.displayName(displayName);
 
-            // Set lore with color parsing
-            List<Component> parsedLore = new ArrayList<>();
-            for (String loreLine : warp.lore()) {
-                Component parsedLine = parseColorCodes(loreLine);
-                parsedLore.add(parsedLine);
-            }
-
-            // Add distance information if in distance sort mode
-            if (sortMode == SortMode.DISTANCE && distanceMap.containsKey(warp.destinationId())) {
-                double distance = distanceMap.get(warp.destinationId());
-                String formattedDistance = DistanceSorter.formatDistance(distance);
-
-                // Add empty line before distance if lore exists
-                if (!parsedLore.isEmpty()) {
-                    parsedLore.add(Component.empty());
-                }
-
-                // Add distance line in gray color (render translation for item lore)
-                Component distanceLabel = GlobalTranslator.render(
-                    Component.translatable("archive.searchwarps.distance_label",
-                        Component.text(formattedDistance)
-                    ),
-                    Locale.US
-                );
-                parsedLore.add(distanceLabel.color(NamedTextColor.GRAY));
-            }
-
-            meta.lore(parsedLore);
+            // Set lore with color parsing (plus distance line if sorted by distance)
+            meta.lore(buildLore(warp, distance));
 
             // Apply skull texture if this is a player head with custom texture
             if (meta instanceof org.bukkit.inventory.meta.SkullMeta skullMeta) {
                 if (warp.skullOwner() != null) {
-                    applySkullTexture(skullMeta, warp.skullOwner());
+                    applySkullTexture(skullMeta, warp.skullOwner(), skullTextures);
                 }
             }
 
@@ -251,6 +235,43 @@ public class WarpBrowserGUI implements InventoryHolder {
         return item;
     }
 
+    /**
+     * Builds the lore lines for a warp item.
+     * Server-independent (Adventure only), so it can be benchmarked headlessly.
+     *
+     * @param warp The warp icon data
+     * @param distance Distance to show, or NaN to omit the distance line
+     * @return Parsed lore components
+     */
+    static List<Component> buildLore(WarpIcon warp, double distance) {
+        List<Component> parsedLore = new ArrayList<>();
+        for (String loreLine : warp.lore()) {
+            Component parsedLine = parseColorCodes(loreLine);
+            parsedLore.add(parsedLine);
+        }
+
+        // Add distance information if requested
+        if (!Double.isNaN(distance)) {
+            String formattedDistance = DistanceSorter.formatDistance(distance);
+
+            // Add empty line before distance if lore exists
+            if (!parsedLore.isEmpty()) {
+                parsedLore.add(Component.empty());
+            }
+
+            // Add distance line in gray color (render translation for item lore)
+            Component distanceLabel = GlobalTranslator.render(
+                Component.translatable("archive.searchwarps.distance_label",
+                    Component.text(formattedDistance)
+                ),
+                Locale.US
+            );
+            parsedLore.add(distanceLabel.color(NamedTextColor.GRAY));
+        }
+
+        return parsedLore;
+    }
+
     /**
      * Parses Minecraft legacy color codes to Adventure Components.
      * Converts &f, &e, etc. to proper color formatting.
@@ -258,63 +279,65 @@ public class WarpBrowserGUI implements InventoryHolder {
      * @param text Text with legacy color codes
      * @return Parsed Adventure Component
      */
-    private Component parseColorCodes(String text) {
+    static Component parseColorCodes(String text) {
         return LegacyComponentSerializer.legacyAmpersand().deserialize(text);
     }
 
     /**
      * Applies custom skull texture to a SkullMeta.
-     * Uses Paper's PlayerProfile API with properly encoded texture data.
+     * Uses Paper's PlayerProfile API; profiles are shared through the skull texture cache.
      *
      * @param skullMeta The skull meta to modify
      * @param textureHash The texture hash from SkullOwner field (raw hash, not base64)
+     * @param skullTextures Shared cache of textured head profiles
      */
-    private void applySkullTexture(org.bukkit.inventory.meta.SkullMeta skullMeta, String textureHash) {
+    private static void applySkullTexture(org.bukkit.inventory.meta.SkullMeta skullMeta, String textureHash,
+                                          SkullTextureCache skullTextures) {
         try {
-            // Build the texture JSON structure that Minecraft expects
-            String textureJson = String.format(
-                "{\"textures\":{\"SKIN\":{\"url\":\"http://textures.minecraft.net/texture/%s\"}}}",
-                textureHash
-            );
-
-            // Base64 encode the JSON - this is what ProfileProperty expects
-            String encodedTexture = java.util.Base64.getEncoder().encodeToString(
-                textureJson.getBytes(java.nio.charset.StandardCharsets.UTF_8)
-            );
-
-            // Create profile with Paper API (no deprecation warnings)
-            java.util.UUID uuid = java.util.UUID.nameUUIDFromBytes(textureHash.getBytes());
-            com.destroystokyo.paper.profile.PlayerProfile profile =
-                org.bukkit.Bukkit.createProfile(uuid, "CustomHead");
-
-            // Set the properly encoded texture property
-            com.destroystokyo.paper.profile.ProfileProperty property =
-                new com.destroystokyo.paper.profile.ProfileProperty("textures", encodedTexture);
-            profile.setProperty(property);
-
-            // Apply to skull meta
-            skullMeta.setPlayerProfile(profile);
+            skullMeta.setPlayerProfile(skullTextures.profile(textureHash));
         } catch (Exception e) {
             // Silently fail - skull will use default texture
         }
     }
 
+    /**
+     * Encodes a raw texture hash into the base64 "textures" property value Minecraft expects.
+     *
+     * @param textureHash The texture hash from SkullOwner field (raw hash, not base64)
+     * @return Base64-encoded texture JSON
+     */
+    static String encodeSkullTexture(String textureHash) {
+        // Build the texture JSON structure that Minecraft expects
+        String textureJson = String.format(
+            "{\"textures\":{\"SKIN\":{\"url\":\"http://textures.minecraft.net/texture/%s\"}}}",
+            textureHash
+        );
+
+        // Base64 encode the JSON - this is what ProfileProperty expects
+        return java.util.Base64.getEncoder().encodeToString(
+            textureJson.getBytes(java.nio.charset.StandardCharsets.UTF_8)
+        );
+    }
+
     /**
      * Applies banner patterns to a BannerMeta.
      *
      * @param bannerMeta The banner meta to modify
      * @param patterns The list of banner patterns to apply
      */
-    private void applyBannerPatterns(org.bukkit.inventory.meta.BannerMeta bannerMeta,
-                                     List<WarpIcon.BannerPatternData> patterns) {
+    private static void applyBannerPatterns(org.bukkit.inventory.meta.BannerMeta bannerMeta,
+                                            List<WarpIcon.BannerPatternData> patterns) {
         if (patterns == null || patterns.isEmpty()) {
             return;
         }
 
         for (WarpIcon.BannerPatternData patternData : patterns) {
-            org.bukkit.block.banner.Pattern pattern =
-                new org.bukkit.block.banner.Pattern(patternData.color(), patternData.pattern());
-            bannerMeta.addPattern(pattern);
+            // Keys were validated at load time; skip anything the registry no longer knows
+            org.bukkit.DyeColor color = BukkitIconTypes.dyeColor(patternData.color());
+            org.bukkit.block.banner.PatternType type = BukkitIconTypes.patternType(patternData.pattern());
+            if (color != null && type != null) {
+                bannerMeta.addPattern(new org.bukkit.block.banner.Pattern(color, type));
+            }
         }
     }
 
@@ -326,39 +349,38 @@ public class WarpBrowserGUI implements InventoryHolder {
      */
     public WarpIcon getWarpAt(int slot) {
         // Only slots 0-44 contain warps
-        if (slot < 0 || slot >= WARPS_PER_PAGE) {
-            return null;
-        }
-
-        // Calculate index in displayedWarps list
-        int index = (currentPage * WARPS_PER_PAGE) + slot;
-
-        if (index >= displayedWarps.size()) {
-            return null;
-        }
+        return page.warpAt(slot);
+    }
 
-        return displayedWarps.get(index);
+    /**
+     * Gets the ordinal of the warp at the specified inventory slot.
+     *
+     * @param slot The inventory slot (0-53)
+     * @return The warp ordinal in the view's snapshot, or -1 if it's a UI button or empty
+     */
+    public int getOrdinalAt(int slot) {
+        return page.ordinalAt(slot);
     }
 
     /**
      * Calculates the total number of pages.
      */
     public int getTotalPages() {
-        return (int) Math.ceil(displayedWarps.size() / (double) WARPS_PER_PAGE);
+        return page.totalPages();
     }
 
     /**
      * Checks if there's a next page available.
      */
     public boolean hasNextPage() {
-        return currentPage < getTotalPages() - 1;
+        return page.hasNext();
     }
 
     /**
      * Checks if there's a previous page available.
      */
     public boolean hasPrevPage() {
-        return currentPage > 0;
+        return page.hasPrev();
     }
 
     // Getters
@@ -367,8 +389,11 @@ public class WarpBrowserGUI implements InventoryHolder {
         return viewer;
     }
 
-    public List<WarpIcon> getDisplayedWarps() {
-        return new ArrayList<>(displayedWarps);
+    /**
+     * Returns the shared result view backing this GUI (immutable, safe to pass on without copying).
+     */
+    public ResultView getResults() {
+        return results;
     }
 
     public int getCurrentPage() {
@@ -376,17 +401,13 @@ public class WarpBrowserGUI implements InventoryHolder {
     }
 
     public SortMode getSortMode() {
-        return sortMode;
+        return results.sortMode();
     }
 
     public Location getPlayerLocation() {
         return playerLocation;
     }
 
-    public Map<String, Double> getDistanceMap() {
-        return new HashMap<>(distanceMap);
-    }
-
     @Override
     @NotNull
     public Inventory getInventory() {
@@ -1,9 +1,27 @@
 package archive.searchwarps.listeners;
 
+import archive.searchwarps.analytics.SearchAnalytics;
+import archive.searchwarps.browse.BrowsePage;
 import archive.searchwarps.data.WarpIcon;
+import archive.searchwarps.data.WarpSnapshot;
+import archive.searchwarps.eventlog.EventLog;
+import archive.searchwarps.eventlog.EventType;
+import archive.searchwarps.favorites.PlayerWarpStore;
+import archive.searchwarps.favorites.PlayerWarps;
+import archive.searchwarps.facet.FacetType;
+import archive.searchwarps.gui.FacetGUI;
 import archive.searchwarps.gui.GuiManager;
+import archive.searchwarps.gui.QuickAccessGUI;
 import archive.searchwarps.gui.SearchGUI;
 import archive.searchwarps.gui.WarpBrowserGUI;
+import archive.searchwarps.metrics.MetricsRegistry;
+import archive.searchwarps.popularity.PopularityTracker;
+import archive.searchwarps.search.ResultView;
+import archive.searchwarps.session.PlayerSession;
+import archive.searchwarps.session.SessionStore;
+import archive.searchwarps.sorting.SortMode;
+import archive.searchwarps.teleport.ChunkPrewarmer;
+import archive.searchwarps.teleport.TeleportDispatcher;
 import de.codingair.warpsystem.api.ITeleportManager;
 import de.codingair.warpsystem.api.Options;
 import de.codingair.warpsystem.api.TeleportService;
@@ -11,6 +29,7 @@ import de.codingair.warpsystem.api.destinations.utils.IDestination;
 import de.codingair.warpsystem.api.destinations.utils.Result;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
+import org.bukkit.Location;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
@@ -18,7 +37,9 @@ import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.plugin.Plugin;
 
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Handles clicks in WarpBrowserGUI and SearchGUI.
@@ -27,12 +48,29 @@ import java.util.concurrent.CompletableFuture;
 public class InventoryClickListener implements Listener {
     private final Plugin plugin;
     private final GuiManager guiManager;
-    private final PrepareAnvilListener prepareAnvilListener;
-
-    public InventoryClickListener(Plugin plugin, GuiManager guiManager, PrepareAnvilListener prepareAnvilListener) {
+    private final SessionStore sessionStore;
+    private final MetricsRegistry metrics;
+    private final EventLog eventLog;
+    private final SearchAnalytics analytics;
+    private final PopularityTracker popularity;
+    private final PlayerWarpStore playerWarps;
+    private final ChunkPrewarmer prewarmer;
+    private final TeleportDispatcher dispatcher;
+
+    public InventoryClickListener(Plugin plugin, GuiManager guiManager, SessionStore sessionStore,
+                                  MetricsRegistry metrics, EventLog eventLog, SearchAnalytics analytics,
+                                  PopularityTracker popularity, PlayerWarpStore playerWarps,
+                                  ChunkPrewarmer prewarmer, TeleportDispatcher dispatcher) {
         this.plugin = plugin;
         this.guiManager = guiManager;
-        this.prepareAnvilListener = prepareAnvilListener;
+        this.sessionStore = sessionStore;
+        this.metrics = metrics;
+        this.eventLog = eventLog;
+        this.analytics = analytics;
+        this.popularity = popularity;
+        this.playerWarps = playerWarps;
+        this.prewarmer = prewarmer;
+        this.dispatcher = dispatcher;
     }
 
     @EventHandler
@@ -43,6 +81,24 @@ public class InventoryClickListener implements Listener {
             return;
         }
 
+        // Quick access page (favorites and recent warps)
+        if (event.getInventory().getHolder(false) instanceof QuickAccessGUI quickGui) {
+            event.setCancelled(true);
+            if (event.getWhoClicked() instanceof Player player) {
+                handleQuickAccessClick(player, quickGui, event.getSlot(), event.isShiftClick());
+            }
+            return;
+        }
+
+        // Facet filter
+        if (event.getInventory().getHolder(false) instanceof FacetGUI facetGui) {
+            event.setCancelled(true);
+            if (event.getWhoClicked() instanceof Player player) {
+                handleFacetClick(player, facetGui, event.getSlot());
+            }
+            return;
+        }
+
         // Check if it's our WarpBrowserGUI
         if (!(event.getInventory().getHolder(false) instanceof WarpBrowserGUI gui)) {
             return;
@@ -60,11 +116,18 @@ public class InventoryClickListener implements Listener {
 
         // Handle different slot types
         if (slot >= 0 && slot < 45) {
-            // Slots 0-44: Warp items
-            handleWarpClick(player, gui, slot);
+            // Slots 0-44: Warp items (shift-click toggles a favorite)
+            if (event.isShiftClick()) {
+                handleFavoriteToggle(player, gui.getResults().snapshot(), gui.getOrdinalAt(slot));
+            } else {
+                handleWarpClick(player, gui, slot);
+            }
         } else if (slot == WarpBrowserGUI.SLOT_PREV_PAGE) {
             // Slot 45: Previous page button
             handlePreviousPage(player, gui);
+        } else if (slot == WarpBrowserGUI.SLOT_FILTER) {
+            // Slot 47: Facet filter button
+            guiManager.openFacets(player, null, 0, gui.getPlayerLocation());
         } else if (slot == WarpBrowserGUI.SLOT_SEARCH) {
             // Slot 49: Search button
             handleSearchButton(player);
@@ -75,7 +138,86 @@ public class InventoryClickListener implements Listener {
             // Slot 53: Next page button
             handleNextPage(player, gui);
         }
-        // Slots 46-48, 50, 52 are filler glass panes - do nothing
+        // Slots 46, 48, 50, 52 are filler glass panes - do nothing
+    }
+
+    /**
+     * Handles clicks on the quick access page.
+     * Warps teleport (shift-click toggles the favorite and refreshes the page);
+     * the buttons open the search or the full list.
+     */
+    private void handleQuickAccessClick(Player player, QuickAccessGUI gui, int slot, boolean shiftClick) {
+        if (slot == QuickAccessGUI.SLOT_SEARCH) {
+            handleSearchButton(player);
+            return;
+        }
+        if (slot == QuickAccessGUI.SLOT_ALL_WARPS) {
+            guiManager.openAllWarps(player);
+            return;
+        }
+
+        int ordinal = gui.getOrdinalAt(slot);
+        if (ordinal < 0) {
+            return;
+        }
+        if (shiftClick) {
+            handleFavoriteToggle(player, gui.getSnapshot(), ordinal);
+            guiManager.openMainBrowser(player);
+            return;
+        }
+
+        recordVisit(player, gui.getSnapshot(), ordinal);
+        player.closeInventory();
+        teleportToWarp(player, gui.getWarpAt(slot));
+    }
+
+    /**
+     * Handles clicks in the facet filter GUI: tabs, values (toggle), value paging, clear and show results.
+     */
+    private void handleFacetClick(Player player, FacetGUI gui, int slot) {
+        FacetType tab = gui.getTabAt(slot);
+        String value = gui.getValueAt(slot);
+        if (tab != null) {
+            guiManager.openFacets(player, tab, 0, gui.getPlayerLocation());
+        } else if (value != null) {
+            guiManager.toggleFacet(player, gui, value);
+        } else if (slot == FacetGUI.SLOT_PREV_VALUES && gui.getValuePage() > 0) {
+            guiManager.openFacets(player, gui.getTab(), gui.getValuePage() - 1, gui.getPlayerLocation());
+        } else if (slot == FacetGUI.SLOT_NEXT_VALUES) {
+            guiManager.openFacets(player, gui.getTab(), gui.getValuePage() + 1, gui.getPlayerLocation());
+        } else if (slot == FacetGUI.SLOT_CLEAR && !gui.getFilter().isEmpty()) {
+            guiManager.clearFacets(player, gui);
+        } else if (slot == FacetGUI.SLOT_APPLY) {
+            guiManager.applyFacets(player, gui.getPlayerLocation());
+        }
+    }
+
+    /**
+     * Adds a warp to the player's favorites or removes it, and tells the player which.
+     */
+    private void handleFavoriteToggle(Player player, WarpSnapshot snapshot, int ordinal) {
+        PlayerWarps warps = playerWarps.get(player.getUniqueId());
+        if (ordinal < 0 || warps == null) {
+            // Empty slot, or the player's lists are still loading
+            return;
+        }
+
+        boolean favorite = warps.toggleFavorite(snapshot, ordinal);
+        player.sendMessage(
+            Component.translatable(favorite ? "archive.searchwarps.favorite_added" : "archive.searchwarps.favorite_removed",
+                Component.text(snapshot.name(ordinal))
+            ).color(favorite ? NamedTextColor.GREEN : NamedTextColor.YELLOW)
+        );
+    }
+
+    /**
+     * Adds a warp to the player's recently used warps (if their lists are loaded).
+     */
+    private void recordVisit(Player player, WarpSnapshot snapshot, int ordinal) {
+        PlayerWarps warps = playerWarps.get(player.getUniqueId());
+        if (warps != null) {
+            warps.recordVisit(snapshot, ordinal);
+        }
     }
 
     /**
@@ -88,6 +230,13 @@ public class InventoryClickListener implements Listener {
             // Empty slot or invalid
             return;
         }
+        recordVisit(player, gui.getResults().snapshot(), gui.getOrdinalAt(slot));
+
+        // Record the click-through rank when browsing search results (not the plain warp list)
+        PlayerSession session = sessionStore.peek(player.getUniqueId());
+        if (session != null && session.getSearchQuery() != null) {
+            analytics.recordClick(searchRank(gui, slot));
+        }
 
         // Close inventory
         player.closeInventory();
@@ -96,8 +245,31 @@ public class InventoryClickListener implements Listener {
         teleportToWarp(player, warp);
     }
 
+    /**
+     * Returns the clicked warp's rank in the search results as they were returned (A-Z), even if
+     * the player has since switched to the distance or popular sort.
+     */
+    private static int searchRank(WarpBrowserGUI gui, int slot) {
+        ResultView results = gui.getResults();
+        if (results.sortMode() == SortMode.ALPHABETICAL) {
+            return gui.getCurrentPage() * BrowsePage.PAGE_SIZE + slot;
+        }
+        WarpSnapshot snapshot = results.snapshot();
+        int clickedRank = snapshot.alphabeticalRank(gui.getOrdinalAt(slot));
+        int before = 0;
+        for (int i = 0; i < results.size(); i++) {
+            if (snapshot.alphabeticalRank(results.ordinalAt(i)) < clickedRank) {
+                before++;
+            }
+        }
+        return before;
+    }
+
     /**
      * Teleports a player to a warp using WarpSystem-API.
+     * With prewarming enabled the destination chunks are requested first; the teleport either
+     * waits for them (up to the configured time, then goes ahead anyway) or runs in parallel.
+     * The teleport itself starts when the dispatcher admits it (right away unless there is a queue).
      */
     private void teleportToWarp(Player player, WarpIcon warp) {
         ITeleportManager manager = TeleportService.get();
@@ -113,6 +285,30 @@ public class InventoryClickListener implements Listener {
             return;
         }
 
+        if (prewarmer.isEnabled()) {
+            Location target = manager.simpleWarp(warp.destinationId());
+            if (target != null) {
+                CompletableFuture<Void> ready = prewarmer.prewarm(target);
+                long waitMillis = prewarmer.waitMillis();
+                if (waitMillis > 0 && !ready.isDone()) {
+                    // Back on the player's thread once the chunks are in (or the wait is over); skipped if they left
+                    ready.completeOnTimeout(null, waitMillis, TimeUnit.MILLISECONDS).whenComplete((ignored, ex) ->
+                        player.getScheduler().run(plugin, task -> dispatch(player, manager, warp), null));
+                    return;
+                }
+            }
+        }
+        dispatch(player, manager, warp);
+    }
+
+    private void dispatch(Player player, ITeleportManager manager, WarpIcon warp) {
+        dispatcher.submit(player, warp.destinationId(), warp.name(), () -> startTeleport(player, manager, warp));
+    }
+
+    /**
+     * Hands the teleport to WarpSystem and records its outcome.
+     */
+    private CompletableFuture<Result> startTeleport(Player player, ITeleportManager manager, WarpIcon warp) {
         // Build destination using SimpleWarp ID
         IDestination destination = manager.destinationBuilder()
             .simpleWarpDestination(warp.destinationId());
@@ -123,33 +319,31 @@ public class InventoryClickListener implements Listener {
             .setDisplayName(warp.name());
 
         // Execute teleport (async, returns CompletableFuture)
+        long start = System.nanoTime();
         CompletableFuture<Result> future = manager.teleport(player, options);
 
-        // Log teleportation attempt
-        plugin.getLogger().info(
-            player.getName() + " teleporting to warp '" + warp.name() +
-            "' (destination: " + warp.destinationId() + ")"
-        );
-
-        // Handle result for additional logging and error handling
-        future.thenAccept(result -> {
+        // Record the outcome. Metrics, the event log and the popularity counters are thread-safe, so this
+        // runs on whichever thread WarpSystem completes the future on - no hop back to the player is needed.
+        UUID playerId = player.getUniqueId();
+        String playerName = player.getName();
+        future.whenComplete((result, ex) -> {
+            long latency = System.nanoTime() - start;
+            String outcome = ex != null ? "EXCEPTION" : String.valueOf(result);
+            metrics.histogram(MetricsRegistry.TELEPORT).record(latency);
+            metrics.increment(MetricsRegistry.TELEPORT_RESULT_PREFIX + outcome);
+            eventLog.log(EventType.TELEPORT, playerId, playerName, warp.name(), outcome, -1, latency);
             if (result == Result.SUCCESS) {
-                plugin.getLogger().info(
-                    player.getName() + " successfully teleported to " + warp.name()
-                );
-            } else {
-                plugin.getLogger().info(
-                    player.getName() + " teleport to " + warp.name() +
-                    " failed with result: " + result
+                popularity.recordTeleport(warp.destinationId());
+            }
+
+            if (ex != null) {
+                plugin.getLogger().warning(
+                    "Teleport exception for " + playerName + " to " + warp.name() +
+                    ": " + ex.getMessage()
                 );
             }
-        }).exceptionally(ex -> {
-            plugin.getLogger().warning(
-                "Teleport exception for " + player.getName() + " to " + warp.name() +
-                ": " + ex.getMessage()
-            );
-            return null;
         });
+        return future;
     }
 
     /**
@@ -161,7 +355,7 @@ public class InventoryClickListener implements Listener {
         }
 
         int newPage = gui.getCurrentPage() - 1;
-        guiManager.openPage(player, gui.getDisplayedWarps(), newPage, gui.getSortMode(), gui.getPlayerLocation(), gui.getDistanceMap());
+        guiManager.openPage(player, gui.getResults(), newPage, gui.getPlayerLocation());
     }
 
     /**
@@ -183,8 +377,7 @@ public class InventoryClickListener implements Listener {
     private void handleSortButton(Player player, WarpBrowserGUI gui) {
         guiManager.toggleSortMode(
             player,
-            gui.getDisplayedWarps(),
-            gui.getSortMode(),
+            gui.getResults(),
             gui.getPlayerLocation()
         );
     }
@@ -198,7 +391,7 @@ public class InventoryClickListener implements Listener {
         }
 
         int newPage = gui.getCurrentPage() + 1;
-        guiManager.openPage(player, gui.getDisplayedWarps(), newPage, gui.getSortMode(), gui.getPlayerLocation(), gui.getDistanceMap());
+        guiManager.openPage(player, gui.getResults(), newPage, gui.getPlayerLocation());
     }
 
     /**
@@ -233,8 +426,8 @@ public class InventoryClickListener implements Listener {
             return;
         }
 
-        // Get the pending search query from PrepareAnvilListener
-        String query = prepareAnvilListener.consumePendingSearch(player.getUniqueId());
+        // Get the pending search query stored by PrepareAnvilListener (single lookup + atomic swap)
+        String query = sessionStore.consumePendingQuery(player.getUniqueId());
 
         // Ignore null or empty queries
         if (query == null || query.isEmpty()) {
@@ -251,9 +444,9 @@ public class InventoryClickListener implements Listener {
 
         final String finalQuery = query;
 
-        // Open search results on next tick
-        plugin.getServer().getGlobalRegionScheduler().run(plugin, task -> {
+        // Open search results on the player's next tick (entity scheduler keeps this on the player's region)
+        player.getScheduler().run(plugin, task -> {
             guiManager.openSearchResults(player, finalQuery);
-        });
+        }, null);
     }
 }
@@ -0,0 +1,33 @@
+package archive.searchwarps.listeners;
+
+import archive.searchwarps.favorites.PlayerWarpStore;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Loads a player's favorite and recent warps when they join and saves them when they leave.
+ * The store runs both on the async scheduler, one after the other per player, so joining never
+ * waits for the disk and a quick relog loads only after the previous session was saved.
+ */
+public class PlayerWarpsListener implements Listener {
+    private final Plugin plugin;
+    private final PlayerWarpStore playerWarps;
+
+    public PlayerWarpsListener(Plugin plugin, PlayerWarpStore playerWarps) {
+        this.plugin = plugin;
+        this.playerWarps = playerWarps;
+    }
+
+    @EventHandler
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        playerWarps.load(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        playerWarps.unload(event.getPlayer().getUniqueId());
+    }
+}
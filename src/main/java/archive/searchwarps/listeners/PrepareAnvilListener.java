@@ -1,5 +1,7 @@
 package archive.searchwarps.listeners;
 
+import archive.searchwarps.gui.SearchPreview;
+import archive.searchwarps.session.SessionStore;
 import net.kyori.adventure.text.Component;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
@@ -11,21 +13,21 @@ import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.plugin.Plugin;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.UUID;
-
 /**
  * Listens for PrepareAnvilEvent to capture the renamed text from SearchGUI.
- * Stores the text in a map for later retrieval when player clicks the result.
+ * Stores the text in the player's session for later retrieval when player clicks the result,
+ * and requests a live search preview for every keystroke.
  * Cleans up via InventoryCloseListener and PlayerQuitEvent to prevent memory leaks.
  */
 public class PrepareAnvilListener implements Listener {
     private final Plugin plugin;
-    private final Map<UUID, String> pendingSearches = new HashMap<>();
+    private final SearchPreview searchPreview;
+    private final SessionStore sessionStore;
 
-    public PrepareAnvilListener(Plugin plugin) {
+    public PrepareAnvilListener(Plugin plugin, SearchPreview searchPreview, SessionStore sessionStore) {
         this.plugin = plugin;
+        this.searchPreview = searchPreview;
+        this.sessionStore = sessionStore;
     }
 
     @EventHandler
@@ -49,51 +51,41 @@ public class PrepareAnvilListener implements Listener {
 
             // Store the text for this player
             if (renameText != null && !renameText.isEmpty()) {
-                pendingSearches.put(player.getUniqueId(), renameText);
+                sessionStore.setPendingQuery(player.getUniqueId(), renameText);
 
                 // CRITICAL: Set a result item so the anvil allows clicking
                 // Without this, clicking the result slot does NOTHING (as shown in logs)
-                ItemStack resultItem = ItemStack.of(Material.PAPER);
-                resultItem.editMeta(meta -> {
-                    meta.displayName(Component.text(renameText));
-                });
+                // Reuse the finished live preview for this exact text, if there is one
+                ItemStack resultItem = searchPreview.cachedPreview(player.getUniqueId(), renameText);
+                if (resultItem == null) {
+                    resultItem = ItemStack.of(Material.PAPER);
+                    resultItem.editMeta(meta -> {
+                        meta.displayName(Component.text(renameText));
+                    });
+                }
                 event.setResult(resultItem);
 
+                // Debounced, asynchronous preview of the match count and top results
+                searchPreview.request(player, renameText);
+
                 // Note: setRepairCost is deprecated in modern Paper
                 // The anvil should work without XP cost when using MenuType API
             } else {
                 // No valid search text - don't set a result
                 event.setResult(null);
+                searchPreview.cancel(player.getUniqueId());
             }
         }
     }
 
     /**
-     * Gets the pending search query for a player and removes it from the map.
-     *
-     * @param playerId The player's UUID
-     * @return The pending search query, or null if none exists
-     */
-    public String consumePendingSearch(UUID playerId) {
-        return pendingSearches.remove(playerId);
-    }
-
-    /**
-     * Clears a pending search without consuming it.
-     *
-     * @param playerId The player's UUID
-     */
-    public void clearPendingSearch(UUID playerId) {
-        pendingSearches.remove(playerId);
-    }
-
-    /**
-     * Cleans up pending searches when a player disconnects.
+     * Removes the player's session when they disconnect.
      * Prevents memory leaks from abandoned search sessions.
      */
     @EventHandler
     public void onPlayerQuit(PlayerQuitEvent event) {
-        pendingSearches.remove(event.getPlayer().getUniqueId());
+        sessionStore.remove(event.getPlayer().getUniqueId());
+        searchPreview.cancel(event.getPlayer().getUniqueId());
     }
 
     /**
@@ -115,7 +107,8 @@ public class PrepareAnvilListener implements Listener {
 
         // Clean up any pending search for this player
         if (event.getPlayer() instanceof Player player) {
-            clearPendingSearch(player.getUniqueId());
+            sessionStore.clearPendingQuery(player.getUniqueId());
+            searchPreview.cancel(player.getUniqueId());
         }
     }
 }
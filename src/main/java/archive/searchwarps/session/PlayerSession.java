@@ -0,0 +1,87 @@
+package archive.searchwarps.session;
+
+import archive.searchwarps.facet.FacetFilter;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Per-player browsing state shared between event handlers, region threads and async tasks.
+ * Every field is individually thread-safe (atomic or volatile); no operation needs a lock.
+ */
+public final class PlayerSession {
+    private final UUID playerId;
+    private final AtomicReference<String> pendingQuery = new AtomicReference<>();
+    private volatile String searchQuery;
+    private volatile FacetFilter facetFilter = FacetFilter.NONE;
+    private volatile long lastAccessNanos;
+
+    PlayerSession(UUID playerId) {
+        this.playerId = playerId;
+        touch();
+    }
+
+    public UUID getPlayerId() {
+        return playerId;
+    }
+
+    /**
+     * Stores the query typed into the search anvil, replacing any earlier one.
+     */
+    public void setPendingQuery(String query) {
+        pendingQuery.set(query);
+        touch();
+    }
+
+    /**
+     * Atomically takes the pending query, so a double click can never run the search twice.
+     *
+     * @return The pending query, or null if none exists
+     */
+    public String consumePendingQuery() {
+        touch();
+        return pendingQuery.getAndSet(null);
+    }
+
+    /**
+     * Clears the pending query without consuming it.
+     */
+    public void clearPendingQuery() {
+        pendingQuery.set(null);
+    }
+
+    /**
+     * Records the query behind the results being browsed; null while browsing all warps.
+     * Kept across paging and re-sorting, so result clicks can be attributed to the search.
+     */
+    public void setSearchQuery(String query) {
+        this.searchQuery = query;
+    }
+
+    public String getSearchQuery() {
+        return searchQuery;
+    }
+
+    /**
+     * Records the facet selection applied to browsing and searching.
+     */
+    public void setFacetFilter(FacetFilter filter) {
+        this.facetFilter = filter;
+    }
+
+    public FacetFilter getFacetFilter() {
+        return facetFilter;
+    }
+
+    long getLastAccessNanos() {
+        return lastAccessNanos;
+    }
+
+    /**
+     * Marks the session as in use (e.g. a browser page was opened), so it is not evicted as idle.
+     * The page's results and location live on the open WarpBrowserGUI, not here.
+     */
+    public void touch() {
+        lastAccessNanos = System.nanoTime();
+    }
+}
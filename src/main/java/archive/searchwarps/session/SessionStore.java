@@ -0,0 +1,137 @@
+package archive.searchwarps.session;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Concurrent store of per-player sessions with a size bound and idle expiry.
+ * Safe to use from event handlers on any region thread and from async tasks.
+ *
+ * The common single-click path (store query, then consume it) is one map lookup plus one
+ * atomic swap. Sessions are removed on quit, and idle sessions are expired by {@link #expire()},
+ * which the plugin runs periodically; when the size bound is reached the least recently used
+ * session is evicted.
+ */
+public class SessionStore {
+    private final Map<UUID, PlayerSession> sessions = new ConcurrentHashMap<>();
+    private volatile int maxSessions;
+    private volatile long ttlNanos;
+
+    /**
+     * @param maxSessions Maximum number of sessions kept at once
+     * @param ttlMinutes Idle time after which a session expires
+     */
+    public SessionStore(int maxSessions, long ttlMinutes) {
+        configure(maxSessions, ttlMinutes);
+    }
+
+    /**
+     * Applies new limits. Safe to call on reload.
+     */
+    public void configure(int maxSessions, long ttlMinutes) {
+        this.maxSessions = maxSessions;
+        this.ttlNanos = TimeUnit.MINUTES.toNanos(ttlMinutes);
+    }
+
+    /**
+     * Returns the player's session, creating it if needed.
+     *
+     * @param playerId The player's UUID
+     * @return The player's session
+     */
+    public PlayerSession session(UUID playerId) {
+        PlayerSession session = sessions.get(playerId);
+        if (session != null) {
+            return session;
+        }
+
+        if (sessions.size() >= maxSessions) {
+            makeRoom();
+        }
+        return sessions.computeIfAbsent(playerId, PlayerSession::new);
+    }
+
+    /**
+     * Returns the player's session without creating one.
+     *
+     * @param playerId The player's UUID
+     * @return The session, or null if the player has none
+     */
+    public PlayerSession peek(UUID playerId) {
+        return sessions.get(playerId);
+    }
+
+    /**
+     * Stores the pending search query for a player.
+     */
+    public void setPendingQuery(UUID playerId, String query) {
+        session(playerId).setPendingQuery(query);
+    }
+
+    /**
+     * Takes the pending search query for a player (O(1): one lookup, one atomic swap).
+     *
+     * @param playerId The player's UUID
+     * @return The pending query, or null if none exists
+     */
+    public String consumePendingQuery(UUID playerId) {
+        PlayerSession session = sessions.get(playerId);
+        return session == null ? null : session.consumePendingQuery();
+    }
+
+    /**
+     * Clears a pending query without consuming it (search anvil closed).
+     */
+    public void clearPendingQuery(UUID playerId) {
+        PlayerSession session = sessions.get(playerId);
+        if (session != null) {
+            session.clearPendingQuery();
+        }
+    }
+
+    /**
+     * Removes a player's session entirely (player quit).
+     */
+    public void remove(UUID playerId) {
+        sessions.remove(playerId);
+    }
+
+    /**
+     * Removes sessions that have been idle longer than the TTL.
+     *
+     * @return Number of expired sessions
+     */
+    public int expire() {
+        long cutoff = System.nanoTime() - ttlNanos;
+        int before = sessions.size();
+        sessions.values().removeIf(session -> session.getLastAccessNanos() - cutoff < 0);
+        return before - sessions.size();
+    }
+
+    /**
+     * Returns the number of live sessions.
+     */
+    public int size() {
+        return sessions.size();
+    }
+
+    /**
+     * Frees space for a new session: expire idle ones first, then evict the least recently used.
+     */
+    private void makeRoom() {
+        expire();
+        while (sessions.size() >= maxSessions) {
+            PlayerSession oldest = null;
+            for (PlayerSession session : sessions.values()) {
+                if (oldest == null || session.getLastAccessNanos() - oldest.getLastAccessNanos() < 0) {
+                    oldest = session;
+                }
+            }
+            if (oldest == null || !sessions.remove(oldest.getPlayerId(), oldest)) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package archive.searchwarps.teleport;
+
+import archive.searchwarps.metrics.MetricsRegistry;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.plugin.Plugin;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Loads the chunks around a teleport destination asynchronously before the player arrives.
+ *
+ * Each chunk is requested with Paper's async chunk API and, once loaded, held by a plugin chunk
+ * ticket. Prewarms are reference-counted per chunk: every teleport to a chunk that is already
+ * loading or held joins the existing request instead of starting a new one, and releases its
+ * reference after a short time to live. The ticket is dropped when the last reference goes, so a
+ * crowd teleporting to one event warp loads its chunks once and keeps them only while it arrives.
+ *
+ * Tickets are added when the load completes and removed by a region task for that chunk,
+ * so both happen on the thread that owns the chunk (the main thread on Paper).
+ */
+public class ChunkPrewarmer {
+    private final Plugin plugin;
+    private final MetricsRegistry metrics;
+    private final Map<ChunkKey, Prewarm> prewarms = new ConcurrentHashMap<>();
+    private volatile boolean enabled;
+    private volatile int radius;
+    private volatile long ttlTicks;
+    private volatile long waitMillis;
+
+    public ChunkPrewarmer(Plugin plugin, MetricsRegistry metrics) {
+        this.plugin = plugin;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Applies new settings. Safe to call on reload; prewarms in flight keep their old time to live.
+     *
+     * @param enabled Whether teleports prewarm their destination
+     * @param radius Chunks around the destination chunk to load (0 = only the destination chunk)
+     * @param ttlSeconds How long each teleport keeps the chunks held
+     * @param waitMillis How long a teleport waits for its chunks (0 = teleport in parallel)
+     */
+    public void configure(boolean enabled, int radius, long ttlSeconds, long waitMillis) {
+        this.enabled = enabled;
+        this.radius = radius;
+        this.ttlTicks = ttlSeconds * 20;
+        this.waitMillis = waitMillis;
+    }
+
+    /**
+     * Returns whether teleports should prewarm their destination.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns how long a teleport should wait for its chunks before going ahead (0 = not at all).
+     */
+    public long waitMillis() {
+        return waitMillis;
+    }
+
+    /**
+     * Requests the chunks around a destination and holds them for the time to live.
+     * Never blocks; safe to call from any thread.
+     *
+     * @param destination The teleport target
+     * @return Completes when every chunk has loaded (or failed to)
+     */
+    public CompletableFuture<Void> prewarm(Location destination) {
+        World world = destination.getWorld();
+        if (world == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        int centerX = destination.getBlockX() >> 4;
+        int centerZ = destination.getBlockZ() >> 4;
+        int r = radius;
+        CompletableFuture<?>[] loads = new CompletableFuture<?>[(2 * r + 1) * (2 * r + 1)];
+        int i = 0;
+        for (int dx = -r; dx <= r; dx++) {
+            for (int dz = -r; dz <= r; dz++) {
+                loads[i++] = acquire(world, centerX + dx, centerZ + dz);
+            }
+        }
+        return CompletableFuture.allOf(loads);
+    }
+
+    /**
+     * Returns the number of chunks currently loading or held.
+     */
+    public int size() {
+        return prewarms.size();
+    }
+
+    /**
+     * Joins (or starts) the prewarm of one chunk and schedules the matching release.
+     */
+    private CompletableFuture<?> acquire(World world, int chunkX, int chunkZ) {
+        ChunkKey key = new ChunkKey(world.getUID(), chunkX, chunkZ);
+        Prewarm prewarm = prewarms.compute(key, (k, existing) -> {
+            if (existing == null) {
+                return new Prewarm();
+            }
+            existing.references++;
+            return existing;
+        });
+
+        boolean started;
+        synchronized (prewarm) {
+            started = prewarm.load == null;
+            if (started) {
+                prewarm.load = world.getChunkAtAsync(chunkX, chunkZ).thenAccept(chunk -> hold(prewarm, world, chunk));
+            }
+        }
+        metrics.increment(started ? MetricsRegistry.PREWARM_MISS : MetricsRegistry.PREWARM_HIT);
+
+        plugin.getServer().getRegionScheduler().runDelayed(plugin, world, chunkX, chunkZ,
+            task -> release(key, world), Math.max(1, ttlTicks));
+        return prewarm.load;
+    }
+
+    private void hold(Prewarm prewarm, World world, Chunk chunk) {
+        synchronized (prewarm) {
+            // The last reference may already be gone if loading outlasted the time to live
+            if (!prewarm.released) {
+                prewarm.ticketed = world.addPluginChunkTicket(chunk.getX(), chunk.getZ(), plugin);
+            }
+        }
+    }
+
+    /**
+     * Drops one reference; the last one removes the ticket (inside the map update, so a new
+     * prewarm of the same chunk can only add its ticket after this one is gone).
+     */
+    private void release(ChunkKey key, World world) {
+        prewarms.computeIfPresent(key, (k, prewarm) -> {
+            if (--prewarm.references > 0) {
+                return prewarm;
+            }
+            synchronized (prewarm) {
+                prewarm.released = true;
+                if (prewarm.ticketed) {
+                    world.removePluginChunkTicket(k.x(), k.z(), plugin);
+                }
+            }
+            return null;
+        });
+    }
+
+    private record ChunkKey(UUID world, int x, int z) {}
+
+    /**
+     * One chunk's shared prewarm. Guarded by the map for {@code references}, by itself for the rest.
+     */
+    private static final class Prewarm {
+        int references = 1;
+        CompletableFuture<Void> load;
+        boolean ticketed;
+        boolean released;
+    }
+}
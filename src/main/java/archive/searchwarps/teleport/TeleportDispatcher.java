@@ -0,0 +1,277 @@
+package archive.searchwarps.teleport;
+
+import archive.searchwarps.metrics.BatchTimer;
+import archive.searchwarps.metrics.MetricsRegistry;
+import de.codingair.warpsystem.api.destinations.utils.Result;
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Admission control for teleports: at most a configured number of teleports start per tick.
+ *
+ * When an event is announced, hundreds of players pick the same warp within seconds. Instead of all
+ * of them calling WarpSystem at once, teleports beyond the per-tick budget wait in a FIFO queue per
+ * destination. Each tick admits up to the budget, taking one teleport from each waiting destination
+ * in turn, so a stampede to one warp cannot hold back players going elsewhere. Waiting players see
+ * their position in line in the action bar; picking another warp replaces their place.
+ *
+ * Teleports admitted in the same tick form a batch. Once WarpSystem has reported the result of every
+ * teleport of a batch, its duration and size are recorded once instead of per teleport.
+ *
+ * Queues are guarded by this object's lock; admitted teleports start on the player's own scheduler.
+ */
+public class TeleportDispatcher {
+    // Action bar position updates, in ticks
+    private static final int POSITION_UPDATE_TICKS = 20;
+
+    private final Plugin plugin;
+    private final MetricsRegistry metrics;
+
+    // Destination ID -> waiting teleports, and the destinations with waiting teleports in admission order
+    private final Map<String, ArrayDeque<Ticket>> queues = new HashMap<>();
+    private final ArrayDeque<String> turns = new ArrayDeque<>();
+    private final Map<UUID, Ticket> byPlayer = new HashMap<>();
+
+    private BatchTimer batch;
+    private int admittedThisTick;
+    private long ticks;
+
+    private volatile boolean enabled;
+    private volatile int perTick;
+
+    public TeleportDispatcher(Plugin plugin, MetricsRegistry metrics) {
+        this.plugin = plugin;
+        this.metrics = metrics;
+        this.batch = newBatch();
+    }
+
+    /**
+     * Applies new settings. Safe to call on reload; teleports already waiting are still admitted.
+     *
+     * @param enabled Whether teleports are rate limited (false = every teleport starts immediately)
+     * @param perTick Teleports admitted per server tick
+     */
+    public void configure(boolean enabled, int perTick) {
+        this.enabled = enabled;
+        this.perTick = perTick;
+    }
+
+    /**
+     * Starts the admission tick. Call once on enable; the task ends with the plugin.
+     */
+    public void start() {
+        plugin.getServer().getGlobalRegionScheduler().runAtFixedRate(plugin, task -> tick(), 1, 1);
+    }
+
+    /**
+     * Starts a teleport now if this tick's budget allows and nobody is waiting, otherwise queues it.
+     * Must be called on the player's thread.
+     *
+     * @param player The teleporting player
+     * @param destinationId The warp's destination ID (the queue it waits in)
+     * @param warpName The warp name shown in the action bar
+     * @param teleport Starts the teleport on the player's thread and returns WarpSystem's result
+     */
+    public void submit(Player player, String destinationId, String warpName, Supplier<CompletableFuture<Result>> teleport) {
+        if (!enabled) {
+            teleport.get();
+            return;
+        }
+
+        Ticket ticket = new Ticket(player, warpName, teleport);
+        BatchTimer admittedTo;
+        int position;
+        synchronized (this) {
+            Ticket previous = byPlayer.remove(player.getUniqueId());
+            if (previous != null) {
+                previous.cancelled = true;
+            }
+
+            if (turns.isEmpty() && admittedThisTick < perTick) {
+                admittedThisTick++;
+                admittedTo = batch;
+                admittedTo.add(ticket.done);
+                position = 0;
+            } else {
+                ArrayDeque<Ticket> queue = queues.computeIfAbsent(destinationId, k -> new ArrayDeque<>());
+                if (queue.isEmpty()) {
+                    turns.addLast(destinationId);
+                }
+                queue.addLast(ticket);
+                byPlayer.put(player.getUniqueId(), ticket);
+                admittedTo = null;
+                position = livePosition(queue, ticket);
+            }
+        }
+
+        if (admittedTo != null) {
+            run(ticket);
+        } else {
+            metrics.increment(MetricsRegistry.TELEPORT_QUEUED);
+            showPosition(ticket, position);
+        }
+    }
+
+    /**
+     * Returns the number of teleports waiting (including places already given up).
+     */
+    public synchronized int queued() {
+        int queued = 0;
+        for (ArrayDeque<Ticket> queue : queues.values()) {
+            queued += queue.size();
+        }
+        return queued;
+    }
+
+    /**
+     * Closes the current batch, admits waiting teleports round-robin across destinations and
+     * refreshes the positions shown to those still waiting.
+     */
+    private void tick() {
+        List<Ticket> admitted = new ArrayList<>();
+        Map<Ticket, Integer> positions = null;
+        BatchTimer closed;
+        synchronized (this) {
+            closed = batch;
+            batch = newBatch();
+            admittedThisTick = 0;
+
+            while (admittedThisTick < perTick && !turns.isEmpty()) {
+                String destinationId = turns.pollFirst();
+                ArrayDeque<Ticket> queue = queues.get(destinationId);
+                Ticket ticket = pollLive(queue);
+                if (!queue.isEmpty()) {
+                    turns.addLast(destinationId);
+                } else {
+                    queues.remove(destinationId);
+                }
+                if (ticket != null) {
+                    byPlayer.remove(ticket.player.getUniqueId(), ticket);
+                    batch.add(ticket.done);
+                    admitted.add(ticket);
+                    admittedThisTick++;
+                }
+            }
+
+            if (++ticks % POSITION_UPDATE_TICKS == 0 && !byPlayer.isEmpty()) {
+                positions = new HashMap<>();
+                for (ArrayDeque<Ticket> queue : queues.values()) {
+                    int position = 0;
+                    for (Ticket ticket : queue) {
+                        if (!ticket.cancelled) {
+                            positions.put(ticket, ++position);
+                        }
+                    }
+                }
+            }
+        }
+
+        closed.close();
+        long now = System.nanoTime();
+        for (Ticket ticket : admitted) {
+            metrics.histogram(MetricsRegistry.TELEPORT_QUEUE_WAIT).record(now - ticket.queuedNanos);
+            run(ticket);
+        }
+        if (positions != null) {
+            positions.forEach(this::showPosition);
+        }
+    }
+
+    /**
+     * Removes and returns the first teleport whose player is still waiting for it (null if none).
+     */
+    private static Ticket pollLive(ArrayDeque<Ticket> queue) {
+        Ticket ticket;
+        while ((ticket = queue.pollFirst()) != null) {
+            if (!ticket.cancelled) {
+                return ticket;
+            }
+        }
+        return null;
+    }
+
+    private static int livePosition(ArrayDeque<Ticket> queue, Ticket target) {
+        int position = 0;
+        for (Ticket ticket : queue) {
+            if (!ticket.cancelled) {
+                position++;
+            }
+            if (ticket == target) {
+                break;
+            }
+        }
+        return position;
+    }
+
+    private BatchTimer newBatch() {
+        return new BatchTimer(metrics, MetricsRegistry.TELEPORT_BATCH, MetricsRegistry.TELEPORT_ADMITTED);
+    }
+
+    /**
+     * Starts an admitted teleport on the player's thread. The ticket completes with WarpSystem's
+     * result; a player who left in the meantime, or a teleport that failed to start, completes it
+     * without a result.
+     */
+    private void run(Ticket ticket) {
+        Runnable abandoned = () -> {
+            metrics.increment(MetricsRegistry.TELEPORT_ABANDONED);
+            ticket.done.complete(null);
+        };
+        ScheduledTask scheduled = ticket.player.getScheduler().run(plugin, task -> {
+            CompletableFuture<Result> started;
+            try {
+                started = ticket.teleport.get();
+            } catch (RuntimeException e) {
+                ticket.done.complete(null);
+                throw e;
+            }
+            if (started == null) {
+                ticket.done.complete(null);
+                return;
+            }
+            started.whenComplete((result, ex) -> ticket.done.complete(ex != null ? null : result));
+        }, abandoned);
+        if (scheduled == null) {
+            abandoned.run();
+        }
+    }
+
+    private void showPosition(Ticket ticket, int position) {
+        ticket.player.getScheduler().run(plugin, task -> {
+            if (!ticket.cancelled && !ticket.done.isDone()) {
+                ticket.player.sendActionBar(Component.translatable("archive.searchwarps.teleport_queued",
+                    Component.text(ticket.warpName), Component.text(position)).color(NamedTextColor.YELLOW));
+            }
+        }, null);
+    }
+
+    /**
+     * One player's pending teleport.
+     */
+    private static final class Ticket {
+        final Player player;
+        final String warpName;
+        final Supplier<CompletableFuture<Result>> teleport;
+        final long queuedNanos = System.nanoTime();
+        final CompletableFuture<Result> done = new CompletableFuture<>();
+        volatile boolean cancelled; // Replaced by a newer teleport of the same player
+
+        Ticket(Player player, String warpName, Supplier<CompletableFuture<Result>> teleport) {
+            this.player = player;
+            this.warpName = warpName;
+            this.teleport = teleport;
+        }
+    }
+}